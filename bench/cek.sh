@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+#
+# CEK machine benchmark: runs every tests/*.in once with the direct-style
+# evaluator and once with --cek, and reports the total wall-clock time of
+# each mode along with the number of tests whose output differs from the
+# expected .out file. Both totals include JVM start-up for every test.
+#
+#   mvn compile
+#   bench/cek.sh
+#
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+LIBS="$(ls ~/.m2/repository/org/antlr/antlr4-runtime/4.9.3/antlr4-runtime-4.9.3.jar):$(ls ~/.m2/repository/ch/obermuhlner/big-math/2.3.0/big-math-2.3.0.jar)"
+
+# Runs each test with the given options, then prints the milliseconds taken and mismatches.
+run_tests() {
+    local total=0 mismatches=0 start end actual
+    for input in tests/test*.in; do
+        start=$(date +%s%N)
+        actual=$(java -Xss16m -cp "target/classes:$LIBS" com.joshuacrotts.microscheme.main.MicroSchemeRunner "$@" "$input" < /dev/null 2>&1 || true)
+        end=$(date +%s%N)
+        # Like InterpreterTester, whitespace is not compared.
+        if [[ "${actual//[[:space:]]/}" != "$(tr -d '[:space:]' < "${input%.in}.out")" ]]; then
+            mismatches=$((mismatches + 1))
+        fi
+        total=$((total + (end - start) / 1000000))
+    done
+    echo "$total ms, $mismatches mismatched"
+}
+
+printf "%-8s %s\n" "direct" "$(run_tests)"
+printf "%-8s %s\n" "cek" "$(run_tests --cek)"
@@ -0,0 +1,38 @@
+#!/usr/bin/env bash
+#
+# Channel benchmark: passes 10^5 integers through a three-stage pipeline
+# (bench/channel/pipeline.scm) with channels of several capacities, and
+# prints the mean time and the number of values that reach the last stage
+# per second. Small capacities make the stages hand off to each other more
+# often.
+#
+#   mvn compile
+#   bench/channel.sh [runs]
+#
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-3}
+COUNT=100000
+LIBS="$(ls ~/.m2/repository/org/antlr/antlr4-runtime/4.9.3/antlr4-runtime-4.9.3.jar):$(ls ~/.m2/repository/ch/obermuhlner/big-math/2.3.0/big-math-2.3.0.jar)"
+
+# Prints the mean wall-clock milliseconds of running the pipeline with the given channel capacity.
+mean_ms() {
+    local capacity=$1 total=0 start end
+    { echo "(define capacity $capacity)"; cat bench/channel/pipeline.scm; } > "$TMP"
+    for ((i = 0; i < RUNS; i++)); do
+        start=$(date +%s%N)
+        java -Xss16m -cp "target/classes:$LIBS" com.joshuacrotts.microscheme.main.MicroSchemeRunner "$TMP" > /dev/null
+        end=$(date +%s%N)
+        total=$((total + (end - start) / 1000000))
+    done
+    echo $((total / RUNS))
+}
+
+TMP=$(mktemp --suffix=.scm)
+trap 'rm -f "$TMP"' EXIT
+
+for capacity in 1 16 256 4096; do
+    ms=$(mean_ms "$capacity")
+    printf "%-16s %6s ms %9s values/s\n" "capacity $capacity" "$ms" "$((COUNT * 1000 / ms))"
+done
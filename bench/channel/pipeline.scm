@@ -0,0 +1,24 @@
+;
+; Three-stage pipeline: a producer puts the integers below count on a channel, a
+; transformer squares them onto a second channel, and the main thread sums them.
+; The capacity of both channels is defined before this file is run.
+;
+(define count 100000)
+(define (produce out)
+  (let loop ((i 0))
+    (if (< i count)
+        (begin (channel-put! out i) (loop (+ i 1)))
+        (channel-close! out))))
+(define (transform in out)
+  (let loop ((x (channel-get in 'done)))
+    (if (eq? x 'done)
+        (channel-close! out)
+        (begin (channel-put! out (* x x)) (loop (channel-get in 'done))))))
+(define (sink in)
+  (let loop ((x (channel-get in 'done)) (sum 0))
+    (if (eq? x 'done) sum (loop (channel-get in 'done) (+ sum x)))))
+(define numbers (make-channel capacity))
+(define squares (make-channel capacity))
+(spawn (lambda () (produce numbers)))
+(spawn (lambda () (transform numbers squares)))
+(sink squares)
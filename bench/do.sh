@@ -0,0 +1,28 @@
+#!/usr/bin/env bash
+#
+# do loop benchmark: sums the integers below 10^7 with a do loop whose two
+# variables are both stepped on every iteration, so that it measures the
+# cost of the test, the steps, and updating the loop variables.
+#
+#   mvn compile
+#   bench/do.sh [runs]
+#
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+LIBS="$(ls ~/.m2/repository/org/antlr/antlr4-runtime/4.9.3/antlr4-runtime-4.9.3.jar):$(ls ~/.m2/repository/ch/obermuhlner/big-math/2.3.0/big-math-2.3.0.jar)"
+
+# Prints the mean wall-clock milliseconds of running the given script.
+mean_ms() {
+    local script=$1 total=0 start end
+    for ((i = 0; i < RUNS; i++)); do
+        start=$(date +%s%N)
+        java -Xss16m -cp "target/classes:$LIBS" com.joshuacrotts.microscheme.main.MicroSchemeRunner "$script" > /dev/null
+        end=$(date +%s%N)
+        total=$((total + (end - start) / 1000000))
+    done
+    echo $((total / RUNS))
+}
+
+printf "%-12s %6s ms\n" "do" "$(mean_ms bench/do/sum.scm)"
@@ -0,0 +1,6 @@
+;
+; Sums the integers below 10^7 with a do loop that has two stepped variables.
+;
+(do ((i 0 (+ i 1))
+     (sum 0 (+ sum i)))
+    ((= i 10000000) sum))
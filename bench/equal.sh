@@ -0,0 +1,39 @@
+#!/usr/bin/env bash
+#
+# equal? benchmark: runs a member/assoc-style workload that compares small
+# structured keys with equal?. If a git revision is given, it is built in a
+# temporary worktree and timed as well, e.g. to compare against the revision
+# before a change:
+#
+#   mvn compile
+#   bench/equal.sh [revision] [runs]
+#
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+REVISION=${1:-}
+RUNS=${2:-5}
+SCRIPT=bench/equal/member-assoc.scm
+LIBS="$(ls ~/.m2/repository/org/antlr/antlr4-runtime/4.9.3/antlr4-runtime-4.9.3.jar):$(ls ~/.m2/repository/ch/obermuhlner/big-math/2.3.0/big-math-2.3.0.jar)"
+
+# Prints the mean wall-clock milliseconds of running the script with the given classes.
+mean_ms() {
+    local classes=$1 total=0 start end
+    for ((i = 0; i < RUNS; i++)); do
+        start=$(date +%s%N)
+        java -Xss16m -cp "$classes:$LIBS" com.joshuacrotts.microscheme.main.MicroSchemeRunner "$SCRIPT" > /dev/null
+        end=$(date +%s%N)
+        total=$((total + (end - start) / 1000000))
+    done
+    echo $((total / RUNS))
+}
+
+printf "%-12s %6s ms\n" "current" "$(mean_ms target/classes)"
+if [[ -n $REVISION ]]; then
+    WORKTREE=target/bench/equal-$REVISION
+    if [[ ! -d $WORKTREE ]]; then
+        git worktree add --detach "$WORKTREE" "$REVISION" > /dev/null 2>&1
+        (cd "$WORKTREE" && mvn -B -q compile)
+    fi
+    printf "%-12s %6s ms\n" "$REVISION" "$(mean_ms "$WORKTREE/target/classes")"
+fi
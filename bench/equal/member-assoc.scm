@@ -0,0 +1,37 @@
+; member/assoc-style workload: every lookup compares the key with equal?
+; against each earlier element of a list of small structured keys.
+
+(define (make-key i) (list i "key" (list (* i 2) #\k) 'tag))
+
+(define (build i n)
+  (if (= i n)
+      '()
+      (cons (make-key i) (build (+ i 1) n))))
+
+(define (build-alist keys)
+  (if (null? keys)
+      '()
+      (cons (cons (car keys) (car (car keys))) (build-alist (cdr keys)))))
+
+(define (my-member x lst)
+  (cond ((null? lst) #f)
+        ((equal? x (car lst)) lst)
+        (else (my-member x (cdr lst)))))
+
+(define (my-assoc x alist)
+  (cond ((null? alist) #f)
+        ((equal? x (car (car alist))) (car alist))
+        (else (my-assoc x (cdr alist)))))
+
+(define keys (build 0 300))
+(define alist (build-alist keys))
+
+(define (lookup-all i n total)
+  (if (= i n)
+      total
+      (let ((key (make-key i)))
+        (if (my-member key keys)
+            (lookup-all (+ i 1) n (+ total (cdr (my-assoc key alist))))
+            (lookup-all (+ i 1) n total)))))
+
+(lookup-all 0 300 0)
@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+#
+# Escape continuation benchmark: searches a 131072-element list for targets
+# near its front, once with a flag that makes the rest of a for-each a no-op
+# and once with let/ec, which stops the for-each at the first match. Both
+# scripts build the same list first, so the difference between them is the
+# cost of the traversal that the escape skips.
+#
+#   mvn compile
+#   bench/escape.sh [runs]
+#
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+LIBS="$(ls ~/.m2/repository/org/antlr/antlr4-runtime/4.9.3/antlr4-runtime-4.9.3.jar):$(ls ~/.m2/repository/ch/obermuhlner/big-math/2.3.0/big-math-2.3.0.jar)"
+
+# Prints the mean wall-clock milliseconds of running the given script.
+mean_ms() {
+    local script=$1 total=0 start end
+    for ((i = 0; i < RUNS; i++)); do
+        start=$(date +%s%N)
+        java -Xss16m -cp "target/classes:$LIBS" com.joshuacrotts.microscheme.main.MicroSchemeRunner "$script" > /dev/null
+        end=$(date +%s%N)
+        total=$((total + (end - start) / 1000000))
+    done
+    echo $((total / RUNS))
+}
+
+printf "%-12s %6s ms\n" "flag" "$(mean_ms bench/escape/flag-search.scm)"
+printf "%-12s %6s ms\n" "let/ec" "$(mean_ms bench/escape/ec-search.scm)"
@@ -0,0 +1,16 @@
+; Early-exit search with an escape continuation: the traversal stops at the
+; first match.
+
+(define (double lst n) (if (= n 0) lst (double (append lst lst) (- n 1))))
+; big is (131072 131071 ... 1 0).
+(define big (fold-left (lambda (acc x) (cons (+ (car acc) 1) acc)) '(0) (double '(0) 17)))
+
+(define (search target lst)
+  (let/ec return
+    (for-each (lambda (x) (if (= x target) (return x) #f)) lst)
+    #f))
+
+; Every target is in the first quarter of the list.
+(define (search-all i total)
+  (if (= i 10) total (search-all (+ i 1) (+ total (search (- 131071 (* i 1000)) big)))))
+(search-all 0 0)
@@ -0,0 +1,16 @@
+; Early-exit search without escape continuations: for-each cannot stop, so
+; once the target is found, a flag makes the rest of the traversal a no-op.
+
+(define (double lst n) (if (= n 0) lst (double (append lst lst) (- n 1))))
+; big is (131072 131071 ... 1 0).
+(define big (fold-left (lambda (acc x) (cons (+ (car acc) 1) acc)) '(0) (double '(0) 17)))
+
+(define (search target lst)
+  (define found #f)
+  (for-each (lambda (x) (if (and (eq? found #f) (= x target)) (set! found x) #f)) lst)
+  found)
+
+; Every target is in the first quarter of the list.
+(define (search-all i total)
+  (if (= i 10) total (search-all (+ i 1) (+ total (search (- 131071 (* i 1000)) big)))))
+(search-all 0 0)
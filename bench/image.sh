@@ -0,0 +1,40 @@
+#!/usr/bin/env bash
+#
+# Image benchmark: compares evaluating a prelude that defines procedures and
+# builds a few large tables against loading an image saved after evaluating
+# it. Both then run the same short script on top of the prelude, and loading
+# the image should be the faster of the two:
+#
+#   mvn compile
+#   bench/image.sh [runs]
+#
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+OUT=target/bench/image
+LIBS="$(ls ~/.m2/repository/org/antlr/antlr4-runtime/4.9.3/antlr4-runtime-4.9.3.jar):$(ls ~/.m2/repository/ch/obermuhlner/big-math/2.3.0/big-math-2.3.0.jar)"
+
+run() {
+    java -Xss16m -cp "target/classes:$LIBS" com.joshuacrotts.microscheme.main.MicroSchemeRunner "$@"
+}
+
+# Prints the mean wall-clock milliseconds of running the interpreter with the given arguments.
+mean_ms() {
+    local total=0 start end
+    for ((i = 0; i < RUNS; i++)); do
+        start=$(date +%s%N)
+        run "$@" > /dev/null
+        end=$(date +%s%N)
+        total=$((total + (end - start) / 1000000))
+    done
+    echo $((total / RUNS))
+}
+
+mkdir -p "$OUT"
+cat bench/image/prelude.scm bench/image/main.scm > "$OUT/eval.scm"
+run --save-image="$OUT/prelude.img" bench/image/prelude.scm > /dev/null
+
+printf "%-17s %6s ms\n" "evaluate prelude" "$(mean_ms "$OUT/eval.scm")"
+printf "%-17s %6s ms\n" "load image" "$(mean_ms --load-image="$OUT/prelude.img" bench/image/main.scm)"
+printf "%-17s %6s KB\n" "image size" "$(( $(wc -c < "$OUT/prelude.img") / 1024 ))"
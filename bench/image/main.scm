@@ -0,0 +1,5 @@
+; Uses the definitions of prelude.scm, either evaluated just before or loaded
+; from an image.
+
+(display (list (length numbers) (length primes) (entry-score (lookup "entry-12345")) (reduce + 0 (map entry-score entries))))
+(newline)
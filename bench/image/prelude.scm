@@ -0,0 +1,38 @@
+; Prelude for the image benchmark: a few library procedures and the tables
+; that they work on. Building the tables is what takes the time when the
+; prelude is evaluated, and what loading an image of it skips.
+
+(define (square x) (* x x))
+
+(define (range i n)
+  (let loop ((k (- n 1)) (acc '()))
+    (if (< k i) acc (loop (- k 1) (cons k acc)))))
+
+(define (sieve n)
+  (let ((marks (make-vector (+ n 1) #t)))
+    (do ((i 2 (+ i 1))) ((> (* i i) n))
+      (if (vector-ref marks i)
+          (do ((j (* i i) (+ j i))) ((> j n))
+            (vector-set! marks j #f))))
+    (let loop ((i n) (acc '()))
+      (cond ((< i 2) acc)
+            ((vector-ref marks i) (loop (- i 1) (cons i acc)))
+            (else (loop (- i 1) acc))))))
+
+(define-record-type entry
+  (make-entry id name score)
+  entry?
+  (id entry-id)
+  (name entry-name)
+  (score entry-score))
+
+(define numbers (range 0 50000))
+(define primes (sieve 100000))
+(define entries
+  (map (lambda (i) (make-entry i (string-append "entry-" (number->string i)) (square (modulo i 97))))
+       (range 0 20000)))
+
+(define by-name (make-equal-hash-table))
+(for-each (lambda (e) (hash-set! by-name (entry-name e) e)) entries)
+
+(define (lookup name) (hash-ref by-name name))
@@ -0,0 +1,41 @@
+#!/usr/bin/env bash
+#
+# Parallel parsing benchmark: generates a file of independent top-level
+# definitions and reports the parse time (no evaluation) with 1, 2, 4, ...
+# parser threads up to the number of cores.
+#
+#   mvn compile
+#   bench/parallel-parse.sh [megabytes] [jvm options...]
+#
+# The default 100 MB input produces several million syntax trees, so give the
+# JVM enough heap, e.g. bench/parallel-parse.sh 100 -Xmx8g.
+#
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+MEGABYTES=${1:-100}
+shift || true
+JVM_OPTS=("$@")
+INPUT=target/bench/parse-${MEGABYTES}mb.scm
+CLASSPATH="target/classes:$(ls ~/.m2/repository/org/antlr/antlr4-runtime/4.9.3/antlr4-runtime-4.9.3.jar):$(ls ~/.m2/repository/ch/obermuhlner/big-math/2.3.0/big-math-2.3.0.jar)"
+
+if [[ ! -f $INPUT ]]; then
+    mkdir -p "$(dirname "$INPUT")"
+    awk -v bytes=$((MEGABYTES * 1024 * 1024)) 'BEGIN {
+        for (i = 0; written < bytes; i++) {
+            line = sprintf("(define (gen-%d x y) (if (< x y) (* x %d) (list x y \"s%d\" #\\( (quote (a . b))))) ; form %d\n", i, i, i, i)
+            printf "%s", line
+            written += length(line)
+        }
+    }' > "$INPUT"
+fi
+
+run() {
+    java "${JVM_OPTS[@]}" -cp "$CLASSPATH" com.joshuacrotts.microscheme.main.MicroSchemeRunner --parse-only "$@" "$INPUT"
+}
+
+printf "%-12s " "sequential"; run 2>&1
+CORES=$(nproc)
+for ((threads = 1; threads <= CORES; threads *= 2)); do
+    printf "%-12s " "$threads thread(s)"; run --parallel-parse=$threads 2>&1
+done
@@ -0,0 +1,36 @@
+#!/usr/bin/env bash
+#
+# Parallel map benchmark: scores 10^5 items (bench/parallel/score.scm) with
+# map and then with par-map at 1, 2, 4 and one thread per processor. The
+# times include building the list, which is always done on one thread.
+#
+#   mvn compile
+#   bench/parallel.sh [runs]
+#
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-3}
+LIBS="$(ls ~/.m2/repository/org/antlr/antlr4-runtime/4.9.3/antlr4-runtime-4.9.3.jar):$(ls ~/.m2/repository/ch/obermuhlner/big-math/2.3.0/big-math-2.3.0.jar)"
+
+# Prints the mean wall-clock milliseconds of running score.scm then the given script with the given options.
+mean_ms() {
+    local script=$1 total=0 start end
+    shift
+    cat bench/parallel/score.scm "$script" > "$TMP"
+    for ((i = 0; i < RUNS; i++)); do
+        start=$(date +%s%N)
+        java -Xss16m -cp "target/classes:$LIBS" com.joshuacrotts.microscheme.main.MicroSchemeRunner "$@" "$TMP" > /dev/null
+        end=$(date +%s%N)
+        total=$((total + (end - start) / 1000000))
+    done
+    echo $((total / RUNS))
+}
+
+TMP=$(mktemp --suffix=.scm)
+trap 'rm -f "$TMP"' EXIT
+
+printf "%-16s %6s ms\n" "map" "$(mean_ms bench/parallel/map.scm)"
+for threads in 1 2 4 "$(nproc)"; do
+    printf "%-16s %6s ms\n" "par-map x$threads" "$(mean_ms bench/parallel/par-map.scm --parallelism="$threads")"
+done
@@ -0,0 +1 @@
+(reduce + 0 (map score items))
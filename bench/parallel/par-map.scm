@@ -0,0 +1 @@
+(par-reduce + 0 (par-map score items))
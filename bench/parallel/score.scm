@@ -0,0 +1,13 @@
+;
+; Scores 10^5 items with a pure function, then sums the scores. The first
+; argument of the runner's script decides whether map or par-map is used.
+;
+(define (range n)
+  (let loop ((i (- n 1)) (acc '()))
+    (if (< i 0) acc (loop (- i 1) (cons i acc)))))
+
+(define (score x)
+  (let loop ((i 0) (h x))
+    (if (= i 20) h (loop (+ i 1) (modulo (+ (* h 31) i) 1000003)))))
+
+(define items (range 100000))
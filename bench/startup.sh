@@ -0,0 +1,57 @@
+#!/usr/bin/env bash
+#
+# Start-up benchmark: time from launching the interpreter until the first line
+# of output for a trivial script, under each packaging mode.
+#
+#   mvn -P fast-start package           # target/microscheme.jar + target/microscheme.jsa
+#   mvn -P fast-start,native package    # optional, target/microscheme (GraalVM)
+#   bench/startup.sh [runs]
+#
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-10}
+SCRIPT=bench/startup/hello.scm
+JAR=target/microscheme.jar
+JSA=target/microscheme.jsa
+NATIVE=target/microscheme
+CLASSPATH="target/classes:$(ls ~/.m2/repository/org/antlr/antlr4-runtime/4.9.3/antlr4-runtime-4.9.3.jar):$(ls ~/.m2/repository/ch/obermuhlner/big-math/2.3.0/big-math-2.3.0.jar)"
+
+# Prints the milliseconds until the command writes its first line of output. The
+# time is taken as soon as that line is read, then the command is killed, so the
+# time it takes to finish and exit is not counted.
+first_output_ms() {
+    local start end pid
+    start=$(date +%s%N)
+    exec 3< <(exec "$@" 2> /dev/null)
+    pid=$!
+    read -r _ <&3 || true
+    end=$(date +%s%N)
+    kill "$pid" 2> /dev/null || true
+    exec 3<&-
+    echo $(( (end - start) / 1000000 ))
+}
+
+run_mode() {
+    local name=$1; shift
+    local total=0 best=999999 ms
+    "$@" > /dev/null # Warm the file system cache.
+    for ((i = 0; i < RUNS; i++)); do
+        ms=$(first_output_ms "$@")
+        total=$((total + ms))
+        ((ms < best)) && best=$ms
+    done
+    printf "%-22s avg %5d ms   best %5d ms\n" "$name" $((total / RUNS)) "$best"
+}
+
+run_mode "classes" java -cp "$CLASSPATH" com.joshuacrotts.microscheme.main.MicroSchemeRunner "$SCRIPT"
+if [[ -f $JAR ]]; then
+    run_mode "shaded jar" java -jar "$JAR" "$SCRIPT"
+    run_mode "shaded jar, C1 only" java -XX:TieredStopAtLevel=1 -jar "$JAR" "$SCRIPT"
+fi
+if [[ -f $JSA ]]; then
+    run_mode "shaded jar + AppCDS" java -XX:SharedArchiveFile="$JSA" -XX:TieredStopAtLevel=1 -jar "$JAR" "$SCRIPT"
+fi
+if [[ -x $NATIVE ]]; then
+    run_mode "native image" "$NATIVE" "$SCRIPT"
+fi
@@ -0,0 +1 @@
+(displayln "hello")
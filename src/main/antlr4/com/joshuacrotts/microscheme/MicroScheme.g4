@@ -40,6 +40,7 @@ BOOLLIT: HASH ([tf] | ([Tt]'rue') | ([Ff]'alse'));
 
 // Special keywords.
 DEFINE: 'define' | 'DEFINE';
+DEFINERECORDTYPE: 'define-record-type' | 'DEFINE-RECORD-TYPE';
 IF:  'if' | 'IF';
 COND: 'cond' | 'COND';
 OR: 'or' | 'OR';
@@ -55,9 +56,13 @@ UNLESS: 'unless' | 'UNLESS';
 APPLY: 'apply' | 'APPLY';
 EVAL: 'eval' | 'EVAL';
 DO: 'do' | 'DO';
+DELAY: 'delay' | 'DELAY';
+DELAYFORCE: 'delay-force' | 'DELAY-FORCE';
+STREAMCONS: 'stream-cons' | 'STREAM-CONS';
 LET: 'let' | 'LET';
 LETSTAR: 'let*' | 'LET*';
 LETREC: 'letrec' | 'LETREC';
+LETEC: 'let/ec' | 'LET/EC';
 SET: 'set!' | 'SET!';
 SETCAR: 'set-car!' | 'SET-CAR!';
 SETCDR: 'set-cdr!' | 'SET-CDR!';
@@ -80,9 +85,15 @@ procedureDeclaration: ('(' DEFINE '(' variable procedureParameters ')' procedure
 procedureParameters: expr*;
 procedureBody: expr+;
 
-// Declarations are definitions - either variables or procedures.
+// Record type declarations take the form
+// (define-record-type <type> (<constructor> <field>*) <predicate> (<field> <accessor> [<modifier>])*)
+recordTypeDeclaration: '(' DEFINERECORDTYPE variable '(' variable variable* ')' variable recordField* ')';
+recordField: '(' variable variable variable? ')';
+
+// Declarations are definitions - either variables, procedures or record types.
 declExpr: variableDeclaration
-        | procedureDeclaration;
+        | procedureDeclaration
+        | recordTypeDeclaration;
 
 // There are several different types of declarations.
 expr: declExpr
@@ -96,11 +107,14 @@ expr: declExpr
     | letExpr
     | letStarExpr
     | letRecExpr
+    | letEcExpr
     | lambdaExpr
     | booleanExpr
     | condExpr
     | ifExpr
     | doExpr
+    | delayExpr
+    | streamConsExpr
     | symbolExpr
     | quasiSymbolExpr
     | applicationExpr
@@ -133,10 +147,12 @@ setExpr: '(' SET variable expr ')';
 // Set-list expressions are either set-car, set-cdr, or vector-set.
 setListExpr: '(' (SETCAR | SETCDR | SETVECTOR) expr+')';
 
-// Let expression takes the form (let ((<var> <expr>)*) (<expr>))
-letExpr: '(' LET '(' letParameters* ')' letBody ')';
+// Let expression takes the form (let ((<var> <expr>)*) (<expr>)), or (let <name> ((<var> <expr>)*) (<expr>)) for a named let.
+letExpr: '(' LET variable? '(' letParameters* ')' letBody ')';
 letStarExpr: '(' LETSTAR '(' letParameters* ')' letBody ')';
 letRecExpr: '(' LETREC '(' letParameters* ')' letBody ')';
+// Let/ec expressions take the form (let/ec <var> <expr>+), and bind <var> to an escape continuation.
+letEcExpr: '(' LETEC variable letBody ')';
 letParameters: ('(' expr expr ')')
              | ('[' expr expr ']');
 letBody: expr+;
@@ -153,7 +169,13 @@ doDecl: '(' variable expr ')'
       | '(' variable expr expr ')';
 doTest: expr;
 doTrueExpr: expr;
-doBody: expr+;
+doBody: expr*;
+
+// Delay expressions take the form (delay <expr>) or (delay-force <expr>).
+delayExpr: '(' (DELAY | DELAYFORCE) expr ')';
+
+// Stream-cons expressions take the form (stream-cons <expr> <expr>), where the second <expr> is delayed.
+streamConsExpr: '(' STREAMCONS expr expr ')';
 
 // Cond expressions take the form (cond (<condForm>))
 condExpr: '(' COND ('(' condForm ')')+ ')'
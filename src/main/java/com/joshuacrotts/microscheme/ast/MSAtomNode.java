@@ -0,0 +1,54 @@
+/******************************************************************************
+ *  File: MSAtomNode.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  An atom, created by (make-atom value): a box holding one value that several
+ *  tasks can read and update safely. Updates are made with compare-and-set on
+ *  an AtomicReference, so readers never wait.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+import com.joshuacrotts.microscheme.main.LValue;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class MSAtomNode extends MSSyntaxTree {
+
+    /**
+     * Value in the atom. Values are compared by reference, so compare-and-set only
+     * succeeds if no other task has stored a value in between.
+     */
+    private final AtomicReference<LValue> VALUE;
+
+    public MSAtomNode(final LValue value) {
+        super(MSNodeType.ATOM);
+        this.VALUE = new AtomicReference<>(value);
+    }
+
+    @Override
+    public String getStringRep() {
+        return "#<atom>";
+    }
+
+    @Override
+    public String toString() {
+        return this.getNodeType().toString();
+    }
+
+    public LValue get() {
+        return this.VALUE.get();
+    }
+
+    public void set(final LValue value) {
+        this.VALUE.set(value);
+    }
+
+    public boolean compareAndSet(final LValue expected, final LValue value) {
+        return this.VALUE.compareAndSet(expected, value);
+    }
+}
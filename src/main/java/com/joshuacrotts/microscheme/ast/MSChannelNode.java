@@ -0,0 +1,194 @@
+/******************************************************************************
+ *  File: MSChannelNode.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  A bounded first-in first-out channel for passing values between tasks,
+ *  created by (make-channel capacity). Like an ArrayBlockingQueue, it keeps
+ *  its values in a circular array guarded by a lock, with one condition for
+ *  waiting until it is not full and one for waiting until it is not empty.
+ *  Every wait has a time limit, so that callers can check for a timeout in
+ *  between. Once a channel is closed, nothing more can be put on it, but the
+ *  values that are already on it can still be taken.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+import com.joshuacrotts.microscheme.main.LValue;
+import com.joshuacrotts.microscheme.parser.MSArgumentMismatchException;
+
+import java.util.ArrayList;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public final class MSChannelNode extends MSSyntaxTree {
+
+    /**
+     * Values on the channel, in a circular array that starts at head. Values are kept as
+     * LValues so that a procedure sent to another task keeps its environment.
+     */
+    private final LValue[] ITEMS;
+
+    /**
+     * Guards every field below. A lock, rather than a monitor, is used so that a virtual
+     * thread that waits on the channel gives up its carrier thread.
+     */
+    private final ReentrantLock LOCK = new ReentrantLock();
+
+    private final Condition NOT_EMPTY = this.LOCK.newCondition();
+
+    private final Condition NOT_FULL = this.LOCK.newCondition();
+
+    /**
+     * Semaphores of the channel-selects that are waiting on this channel. Each one is
+     * released when a value is put on the channel or when it is closed.
+     */
+    private final CopyOnWriteArrayList<Semaphore> SELECTORS = new CopyOnWriteArrayList<>();
+
+    private int head;
+
+    private int count;
+
+    private boolean isClosed;
+
+    public MSChannelNode(final int capacity) {
+        super(MSNodeType.CHANNEL);
+        this.ITEMS = new LValue[capacity];
+    }
+
+    @Override
+    public String getStringRep() {
+        return "#<channel>";
+    }
+
+    @Override
+    public String toString() {
+        return this.getNodeType().toString();
+    }
+
+    /**
+     * Puts a value on the end of the channel, waiting for room if it is full.
+     *
+     * @param timeoutNanos longest time to wait for room, in nanoseconds.
+     * @return true if the value was put on the channel, false if it is still full.
+     *
+     * @throws MSArgumentMismatchException if the channel is closed.
+     */
+    public boolean put(final LValue value, final long timeoutNanos) throws InterruptedException {
+        this.LOCK.lockInterruptibly();
+        try {
+            long nanos = timeoutNanos;
+            while (!this.isClosed && this.count == this.ITEMS.length) {
+                if (nanos <= 0) { return false; }
+                nanos = this.NOT_FULL.awaitNanos(nanos);
+            }
+            if (this.isClosed) { throw new MSArgumentMismatchException("channel-put! cannot put a value on a closed channel"); }
+            this.ITEMS[(this.head + this.count) % this.ITEMS.length] = value;
+            this.count++;
+            this.NOT_EMPTY.signal();
+        } finally {
+            this.LOCK.unlock();
+        }
+        this.signalSelectors();
+        return true;
+    }
+
+    /**
+     * Takes the value at the front of the channel, waiting for one if it is empty.
+     *
+     * @param timeoutNanos longest time to wait for a value, in nanoseconds.
+     * @return the value, or null if the channel is still empty or is drained.
+     */
+    public LValue take(final long timeoutNanos) throws InterruptedException {
+        this.LOCK.lockInterruptibly();
+        try {
+            long nanos = timeoutNanos;
+            while (!this.isClosed && this.count == 0) {
+                if (nanos <= 0) { return null; }
+                nanos = this.NOT_EMPTY.awaitNanos(nanos);
+            }
+            if (this.count == 0) { return null; }
+            LValue value = this.ITEMS[this.head];
+            this.ITEMS[this.head] = null;
+            this.head = (this.head + 1) % this.ITEMS.length;
+            this.count--;
+            this.NOT_FULL.signal();
+            return value;
+        } finally {
+            this.LOCK.unlock();
+        }
+    }
+
+    /**
+     * Closes the channel, waking up everything that is waiting on it. Closing a channel
+     * that is already closed does nothing.
+     */
+    public void close() {
+        this.LOCK.lock();
+        try {
+            this.isClosed = true;
+            this.NOT_EMPTY.signalAll();
+            this.NOT_FULL.signalAll();
+        } finally {
+            this.LOCK.unlock();
+        }
+        this.signalSelectors();
+    }
+
+    /**
+     * @return true if the channel is closed and has no values left. Once this is true, it
+     * stays true.
+     */
+    public boolean isDrained() {
+        this.LOCK.lock();
+        try {
+            return this.isClosed && this.count == 0;
+        } finally {
+            this.LOCK.unlock();
+        }
+    }
+
+    public int getCapacity() {
+        return this.ITEMS.length;
+    }
+
+    public boolean isClosed() {
+        this.LOCK.lock();
+        try {
+            return this.isClosed;
+        } finally {
+            this.LOCK.unlock();
+        }
+    }
+
+    /**
+     * @return the values waiting on the channel, oldest first. The channel is not changed.
+     */
+    public ArrayList<LValue> getItems() {
+        this.LOCK.lock();
+        try {
+            ArrayList<LValue> items = new ArrayList<>(this.count);
+            for (int i = 0; i < this.count; i++) { items.add(this.ITEMS[(this.head + i) % this.ITEMS.length]); }
+            return items;
+        } finally {
+            this.LOCK.unlock();
+        }
+    }
+
+    public void addSelector(final Semaphore selector) {
+        this.SELECTORS.add(selector);
+    }
+
+    public void removeSelector(final Semaphore selector) {
+        this.SELECTORS.remove(selector);
+    }
+
+    private void signalSelectors() {
+        for (Semaphore selector : this.SELECTORS) { selector.release(); }
+    }
+}
@@ -0,0 +1,71 @@
+/******************************************************************************
+ *  File: MSContinuationNode.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  A first-class continuation, created by call/cc when the interpreter runs
+ *  with --cek. It holds the top frame of the continuation that the call/cc
+ *  would have returned to. Frames are never changed, so the continuation can
+ *  be called any number of times, including after call/cc has returned.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+import com.joshuacrotts.microscheme.main.LValue;
+import com.joshuacrotts.microscheme.main.MSCekMachine;
+import com.joshuacrotts.microscheme.parser.MSEscapeException;
+
+public final class MSContinuationNode extends MSSyntaxTree {
+
+    /**
+     * Top frame of the continuation, or null if it is the end of a top-level expression.
+     */
+    private final MSCekMachine.Frame FRAME;
+
+    /**
+     * Exception thrown when this continuation is called from inside a builtin procedure,
+     * which unwinds back to the machine.
+     */
+    private final MSEscapeException ESCAPE;
+
+    /**
+     * Value passed to this continuation when it was last called from a builtin procedure.
+     */
+    private LValue value;
+
+    public MSContinuationNode(final MSCekMachine.Frame frame) {
+        super(MSNodeType.CONTINUATION);
+        this.FRAME = frame;
+        this.ESCAPE = new MSEscapeException(this);
+    }
+
+    @Override
+    public String getStringRep() {
+        return "#<continuation>";
+    }
+
+    @Override
+    public String toString() {
+        return this.getNodeType().toString();
+    }
+
+    /**
+     * @param value value to pass to the continuation, or null for none.
+     * @return exception to throw to unwind to the machine.
+     */
+    public MSEscapeException escape(final LValue value) {
+        this.value = value;
+        return this.ESCAPE;
+    }
+
+    public MSCekMachine.Frame getFrame() {
+        return this.FRAME;
+    }
+
+    public LValue getValue() {
+        return this.value;
+    }
+}
@@ -0,0 +1,52 @@
+/******************************************************************************
+ *  File: MSCounterNode.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  A counter, created by (make-counter), that many tasks can add to at once,
+ *  e.g., to collect statistics. It is backed by a LongAdder, which spreads
+ *  contended additions over several cells, so adding rarely waits on other
+ *  tasks, and reading sums the cells.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class MSCounterNode extends MSSyntaxTree {
+
+    private final LongAdder COUNT = new LongAdder();
+
+    public MSCounterNode() {
+        super(MSNodeType.COUNTER);
+    }
+
+    @Override
+    public String getStringRep() {
+        return "#<counter>";
+    }
+
+    @Override
+    public String toString() {
+        return this.getNodeType().toString();
+    }
+
+    public void add(final long amount) {
+        this.COUNT.add(amount);
+    }
+
+    /**
+     * @return sum of everything added so far. Additions made while this is called may or
+     * may not be included.
+     */
+    public long sum() {
+        return this.COUNT.sum();
+    }
+
+    public void reset() {
+        this.COUNT.reset();
+    }
+}
@@ -0,0 +1,46 @@
+/******************************************************************************
+ *  File: MSDelayNode.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  A delay or delay-force expression. Evaluating it does not evaluate its
+ *  expression; it returns a promise that does so when it is forced. The
+ *  expression of a delay-force must evaluate to another promise, which the
+ *  first promise then takes the place of (see MSPromiseNode).
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+public final class MSDelayNode extends MSSyntaxTree {
+
+    /**
+     * Keeps track of whether this is a delay-force rather than a delay.
+     */
+    private final boolean IS_DELAY_FORCE;
+
+    public MSDelayNode(final MSSyntaxTree expression, final boolean isDelayForce) {
+        super(MSNodeType.DELAY, expression);
+        this.IS_DELAY_FORCE = isDelayForce;
+    }
+
+    @Override
+    public String getStringRep() {
+        return this.toString();
+    }
+
+    @Override
+    public String toString() {
+        return this.IS_DELAY_FORCE ? "delay-force" : this.getNodeType().toString();
+    }
+
+    public MSSyntaxTree getExpression() {
+        return this.getChild(0);
+    }
+
+    public boolean isDelayForce() {
+        return this.IS_DELAY_FORCE;
+    }
+}
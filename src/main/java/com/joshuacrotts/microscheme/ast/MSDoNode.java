@@ -3,12 +3,16 @@
  *
  *  Author: Joshua Crotts
  *
- *  Last Updated: 05/22/2022
+ *  Last Updated: 10/19/2026
  *
  *  MSDoNodes are iterative statements in MicroScheme. They take the form
  *
  *  (do ((<var> <expr> <step-expr>)*) (<test> <when-true-expr>) <seq>)
  *
+ *  The steps are kept as declarations of <var> to <step-expr>. Their variables
+ *  and expressions are also kept in arrays, since they are needed on every
+ *  iteration of the loop.
+ *
  ******************************************************************************/
 
 package com.joshuacrotts.microscheme.ast;
@@ -23,24 +27,40 @@ public final class MSDoNode extends MSSyntaxTree {
     private final int NUM_DECLARATIONS;
 
     /**
-     * Number of set expressions. A set expression is a "next" step.
+     * Number of steps, i.e., declarations with a step expression.
+     */
+    private final int NUM_STEPS;
+
+    /**
+     * Identifiers of the variables that have a step expression.
      */
-    private final int NUM_SET_EXPRESSIONS;
+    private final String[] STEP_VARIABLES;
+
+    /**
+     * Step expressions, in the same order as STEP_VARIABLES.
+     */
+    private final MSSyntaxTree[] STEP_EXPRESSIONS;
 
     /**
      * Number of "true" expressions to evaluate once the loop terminates.
      */
     private final int NUM_TRUE_EXPRESSIONS;
 
-    public MSDoNode(final ArrayList<MSSyntaxTree> doDeclarations, final ArrayList<MSSyntaxTree> doSetExpressions,
+    public MSDoNode(final ArrayList<MSSyntaxTree> doDeclarations, final ArrayList<MSDeclarationNode> doSteps,
                     final MSSyntaxTree doTest, final ArrayList<MSSyntaxTree> doTrueExpressions, final MSSyntaxTree doBody) {
         super(MSNodeType.DO);
         this.NUM_DECLARATIONS = doDeclarations.size();
-        this.NUM_SET_EXPRESSIONS = doSetExpressions.size();
+        this.NUM_STEPS = doSteps.size();
         this.NUM_TRUE_EXPRESSIONS = doTrueExpressions.size();
+        this.STEP_VARIABLES = new String[this.NUM_STEPS];
+        this.STEP_EXPRESSIONS = new MSSyntaxTree[this.NUM_STEPS];
+        for (int i = 0; i < this.NUM_STEPS; i++) {
+            this.STEP_VARIABLES[i] = doSteps.get(i).getVariable().getStringRep();
+            this.STEP_EXPRESSIONS[i] = doSteps.get(i).getExpression();
+        }
 
         doDeclarations.forEach(this::addChild);
-        doSetExpressions.forEach(this::addChild);
+        doSteps.forEach(this::addChild);
         this.addChild(doTest);
         doTrueExpressions.forEach(this::addChild);
         this.addChild(doBody);
@@ -64,22 +84,22 @@ public final class MSDoNode extends MSSyntaxTree {
         return doDeclarations;
     }
 
-    public ArrayList<MSSyntaxTree> getDoSetExpressions() {
-        ArrayList<MSSyntaxTree> doSetExpressions = new ArrayList<>();
-        for (int i = 0; i < this.NUM_SET_EXPRESSIONS; i++) {
-            doSetExpressions.add(this.getChild(i + this.NUM_DECLARATIONS));
-        }
-        return doSetExpressions;
+    public String[] getDoStepVariables() {
+        return this.STEP_VARIABLES;
+    }
+
+    public MSSyntaxTree[] getDoStepExpressions() {
+        return this.STEP_EXPRESSIONS;
     }
 
     public MSSyntaxTree getDoTest() {
-        return this.getChild(this.NUM_DECLARATIONS + this.NUM_SET_EXPRESSIONS);
+        return this.getChild(this.NUM_DECLARATIONS + this.NUM_STEPS);
     }
 
     public ArrayList<MSSyntaxTree> getDoTrueExpressions() {
         ArrayList<MSSyntaxTree> doTrueExpressions = new ArrayList<>();
         for (int i = 0; i < this.NUM_TRUE_EXPRESSIONS; i++) {
-            doTrueExpressions.add(this.getChild(i + this.NUM_DECLARATIONS + this.NUM_SET_EXPRESSIONS + 1));
+            doTrueExpressions.add(this.getChild(i + this.NUM_DECLARATIONS + this.NUM_STEPS + 1));
         }
         return doTrueExpressions;
     }
@@ -0,0 +1,217 @@
+/******************************************************************************
+ *  File: MSEquivalence.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  The equivalence predicates eq?, eqv? and equal?, together with hash
+ *  functions that agree with them (i.e., equivalent values always hash to the
+ *  same code). Hash tables use these to compare and bucket their keys.
+ *
+ *  Numbers, strings, characters and booleans are compared by value under every
+ *  predicate, and symbols, which are interned, by reference. Other values
+ *  (pairs, vectors, procedures, ...) are compared by identity under eq? and
+ *  eqv?, and structurally under equal?.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+import ch.obermuhlner.math.big.BigComplex;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+public enum MSEquivalence {
+
+    EQ("eq?"),
+    EQV("eqv?"),
+    EQUAL("equal?");
+
+    /**
+     * Maximum number of nodes that the equal? hash looks at. Hashing only a prefix of a
+     * large structure keeps hashing cheap, and is still consistent with equal?.
+     */
+    private static final int MAX_HASHED_NODES = 64;
+
+    private final String NAME;
+
+    MSEquivalence(final String name) {
+        this.NAME = name;
+    }
+
+    /**
+     * Finds the equivalence with the given predicate name.
+     *
+     * @param name eq?, eqv? or equal?.
+     * @return equivalence, or null if there is none with that name.
+     */
+    public static MSEquivalence fromName(final String name) {
+        for (MSEquivalence equivalence : MSEquivalence.values()) {
+            if (equivalence.NAME.equals(name)) { return equivalence; }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return this.NAME;
+    }
+
+    /**
+     * Determines whether two values are equivalent under this predicate. For equal?, the
+     * structures are walked with an explicit stack rather than recursion, and the walk
+     * stops at the first mismatch.
+     *
+     * @param lhs first value.
+     * @param rhs second value.
+     * @return true if the values are equivalent, false otherwise.
+     */
+    public boolean isEquivalent(final MSSyntaxTree lhs, final MSSyntaxTree rhs) {
+        if (this != MSEquivalence.EQUAL) { return MSEquivalence.isAtomEquivalent(MSEquivalence.unwrap(lhs), MSEquivalence.unwrap(rhs)); }
+
+        ArrayDeque<MSSyntaxTree> pending = new ArrayDeque<>();
+        pending.push(rhs);
+        pending.push(lhs);
+        while (!pending.isEmpty()) {
+            MSSyntaxTree lhsNode = MSEquivalence.unwrap(pending.pop());
+            MSSyntaxTree rhsNode = MSEquivalence.unwrap(pending.pop());
+            if (lhsNode == rhsNode) { continue; }
+            if (lhsNode.getNodeType() != rhsNode.getNodeType()) { return false; }
+            switch (lhsNode.getNodeType()) {
+                case LIST: {
+                    MSListNode lhsList = (MSListNode) lhsNode;
+                    MSListNode rhsList = (MSListNode) rhsNode;
+                    if (lhsList.isEmptyList() || rhsList.isEmptyList()) {
+                        if (lhsList.isEmptyList() != rhsList.isEmptyList()) { return false; }
+                        break;
+                    }
+                    // The cars are compared before the cdrs.
+                    pending.push(rhsList.getCdr());
+                    pending.push(lhsList.getCdr());
+                    pending.push(rhsList.getCar());
+                    pending.push(lhsList.getCar());
+                    break;
+                }
+                case VECTOR: {
+                    MSVectorNode lhsVector = (MSVectorNode) lhsNode;
+                    MSVectorNode rhsVector = (MSVectorNode) rhsNode;
+                    if (lhsVector.size() != rhsVector.size()) { return false; }
+                    for (int i = lhsVector.size() - 1; i >= 0; i--) {
+                        pending.push(rhsVector.get(i));
+                        pending.push(lhsVector.get(i));
+                    }
+                    break;
+                }
+                case F64VECTOR:
+                    if (!Arrays.equals(((MSF64VectorNode) lhsNode).getElements(), ((MSF64VectorNode) rhsNode).getElements())) { return false; }
+                    break;
+                case S64VECTOR:
+                    if (!Arrays.equals(((MSS64VectorNode) lhsNode).getElements(), ((MSS64VectorNode) rhsNode).getElements())) { return false; }
+                    break;
+                case U8VECTOR:
+                    if (!Arrays.equals(((MSU8VectorNode) lhsNode).getElements(), ((MSU8VectorNode) rhsNode).getElements())) { return false; }
+                    break;
+                default:
+                    if (!MSEquivalence.isAtomEquivalent(lhsNode, rhsNode)) { return false; }
+                    break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes a hash code that agrees with this predicate: if isEquivalent(a, b), then
+     * hash(a) == hash(b).
+     *
+     * @param tree value to hash.
+     * @return hash code.
+     */
+    public int hash(final MSSyntaxTree tree) {
+        if (this != MSEquivalence.EQUAL) { return MSEquivalence.atomHash(MSEquivalence.unwrap(tree)); }
+
+        int hash = 1;
+        int hashedNodes = 0;
+        ArrayDeque<MSSyntaxTree> pending = new ArrayDeque<>();
+        pending.push(tree);
+        while (!pending.isEmpty() && hashedNodes++ < MSEquivalence.MAX_HASHED_NODES) {
+            MSSyntaxTree node = MSEquivalence.unwrap(pending.pop());
+            hash = 31 * hash + node.getNodeType().ordinal();
+            switch (node.getNodeType()) {
+                case LIST:
+                    if (!((MSListNode) node).isEmptyList()) {
+                        pending.push(((MSListNode) node).getCdr());
+                        pending.push(((MSListNode) node).getCar());
+                    }
+                    break;
+                case VECTOR:
+                    MSVectorNode vector = (MSVectorNode) node;
+                    hash = 31 * hash + vector.size();
+                    for (int i = Math.min(vector.size(), MSEquivalence.MAX_HASHED_NODES) - 1; i >= 0; i--) { pending.push(vector.get(i)); }
+                    break;
+                case F64VECTOR:
+                    hash = 31 * hash + Arrays.hashCode(((MSF64VectorNode) node).getElements());
+                    break;
+                case S64VECTOR:
+                    hash = 31 * hash + Arrays.hashCode(((MSS64VectorNode) node).getElements());
+                    break;
+                case U8VECTOR:
+                    hash = 31 * hash + Arrays.hashCode(((MSU8VectorNode) node).getElements());
+                    break;
+                default:
+                    hash = 31 * hash + MSEquivalence.atomHash(node);
+                    break;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Compares two values the way eq? does: numbers, strings, characters and booleans by
+     * value, and everything else, including interned symbols, by identity.
+     */
+    private static boolean isAtomEquivalent(final MSSyntaxTree lhs, final MSSyntaxTree rhs) {
+        if (lhs == rhs) { return true; }
+        if (lhs.getNodeType() != rhs.getNodeType()) { return false; }
+        switch (lhs.getNodeType()) {
+            case NUMBER: return ((MSNumberNode) lhs).getValue().equals(((MSNumberNode) rhs).getValue());
+            case STRING: return ((MSStringNode) lhs).length() == ((MSStringNode) rhs).length() && ((MSStringNode) lhs).getValue().equals(((MSStringNode) rhs).getValue());
+            case CHARACTER: return ((MSCharacterNode) lhs).getValue() == ((MSCharacterNode) rhs).getValue();
+            case BOOLEAN: return ((MSBooleanNode) lhs).getValue() == ((MSBooleanNode) rhs).getValue();
+            default: return false;
+        }
+    }
+
+    private static int atomHash(final MSSyntaxTree tree) {
+        switch (tree.getNodeType()) {
+            case NUMBER:
+                BigComplex value = ((MSNumberNode) tree).getValue();
+                return 31 * MSEquivalence.numberHash(value.re) + MSEquivalence.numberHash(value.im);
+            case STRING: return ((MSStringNode) tree).getValue().hashCode();
+            case CHARACTER: return Character.hashCode(((MSCharacterNode) tree).getValue());
+            case BOOLEAN: return Boolean.hashCode(((MSBooleanNode) tree).getValue());
+            case VARIABLE: return ((MSVariableNode) tree).getIdentifier().hashCode();
+            default: return System.identityHashCode(tree);
+        }
+    }
+
+    /**
+     * Hashes a number so that numbers which differ only in scale, e.g., 2 and 2.0, hash to
+     * the same code, since they are equivalent. BigDecimal.hashCode includes the scale.
+     */
+    private static int numberHash(final BigDecimal number) {
+        return number.signum() == 0 ? 0 : number.stripTrailingZeros().hashCode();
+    }
+
+    /**
+     * Quoted data inside of lists can still be wrapped in symbol nodes, e.g., the 'b in
+     * '(a 'b); these compare as the datum that they wrap.
+     */
+    private static MSSyntaxTree unwrap(final MSSyntaxTree tree) {
+        MSSyntaxTree curr = tree;
+        while (curr.isSymbol()) { curr = ((MSSymbolNode) curr).getValue(); }
+        return curr;
+    }
+}
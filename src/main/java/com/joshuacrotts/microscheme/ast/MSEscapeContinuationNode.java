@@ -0,0 +1,74 @@
+/******************************************************************************
+ *  File: MSEscapeContinuationNode.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  An escape-only continuation, created by call-with-escape-continuation (or
+ *  let/ec). Calling it returns its argument from the call/ec that created it,
+ *  skipping whatever was left of the computation in between. It can only be
+ *  called while that call/ec has not yet returned.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+import com.joshuacrotts.microscheme.main.LValue;
+import com.joshuacrotts.microscheme.parser.MSEscapeException;
+
+public final class MSEscapeContinuationNode extends MSSyntaxTree {
+
+    /**
+     * Exception thrown to unwind to the call/ec that created this continuation.
+     */
+    private final MSEscapeException ESCAPE;
+
+    /**
+     * Value passed to this continuation when it was called.
+     */
+    private LValue value;
+
+    /**
+     * Keeps track of whether the call/ec that created this continuation is still running.
+     */
+    private boolean isActive;
+
+    public MSEscapeContinuationNode() {
+        super(MSNodeType.ESCAPECONTINUATION);
+        this.ESCAPE = new MSEscapeException(this);
+        this.isActive = true;
+    }
+
+    @Override
+    public String getStringRep() {
+        return "#<escape-continuation>";
+    }
+
+    @Override
+    public String toString() {
+        return this.getNodeType().toString();
+    }
+
+    /**
+     * @param value value to return from the call/ec, or null for none.
+     * @return exception to throw to unwind to the call/ec.
+     */
+    public MSEscapeException escape(final LValue value) {
+        this.value = value;
+        return this.ESCAPE;
+    }
+
+    public LValue getValue() {
+        return this.value;
+    }
+
+    public boolean isActive() {
+        return this.isActive;
+    }
+
+    public void deactivate() {
+        this.isActive = false;
+        this.value = null;
+    }
+}
@@ -0,0 +1,91 @@
+/******************************************************************************
+ *  File: MSF64VectorNode.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  An f64vector stores double-precision reals in a double[].
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+import ch.obermuhlner.math.big.BigComplex;
+import com.joshuacrotts.microscheme.parser.MSArgumentMismatchException;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+public final class MSF64VectorNode extends MSHomogeneousVectorNode {
+
+    private final double[] ELEMENTS;
+
+    public MSF64VectorNode(final double[] elements) {
+        super(MSNodeType.F64VECTOR);
+        this.ELEMENTS = elements;
+    }
+
+    /**
+     * Converts a double to a number node. Numbers are exact decimals, so infinities
+     * and NaN (e.g., from an overflowing sum) cannot be converted.
+     *
+     * @param value double to convert.
+     * @return number node with the same value.
+     *
+     * @throws MSArgumentMismatchException if value is not finite.
+     */
+    public static MSNumberNode toNumber(final double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new MSArgumentMismatchException(String.format("f64vector value %s is not a finite number", value));
+        }
+        return new MSNumberNode(BigDecimal.valueOf(value));
+    }
+
+    /**
+     * Gives direct access to the elements so that bulk operations can run tight loops.
+     *
+     * @return array of elements (not a copy).
+     */
+    public double[] getElements() {
+        return this.ELEMENTS;
+    }
+
+    @Override
+    public int size() {
+        return this.ELEMENTS.length;
+    }
+
+    @Override
+    public boolean canHold(final BigComplex number) {
+        return number.isReal();
+    }
+
+    @Override
+    public String getElementDescription() {
+        return "real";
+    }
+
+    @Override
+    public MSNumberNode getNumber(final int idx) {
+        return MSF64VectorNode.toNumber(this.ELEMENTS[idx]);
+    }
+
+    @Override
+    public void setNumber(final int idx, final BigComplex number) {
+        this.ELEMENTS[idx] = number.re.doubleValue();
+    }
+
+    @Override
+    public void fillNumber(final BigComplex number, final int startIdx, final int endIdx) {
+        Arrays.fill(this.ELEMENTS, startIdx, endIdx, number.re.doubleValue());
+    }
+
+    @Override
+    protected void appendElement(final int idx, final StringBuilder sb) {
+        double value = this.ELEMENTS[idx];
+        if (Double.isNaN(value)) { sb.append("+nan.0"); }
+        else if (Double.isInfinite(value)) { sb.append(value > 0 ? "+inf.0" : "-inf.0"); }
+        else { sb.append(MSF64VectorNode.toNumber(value).getStringRep()); }
+    }
+}
@@ -0,0 +1,123 @@
+/******************************************************************************
+ *  File: MSFutureNode.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  A future, created by (future thunk) or (spawn thunk). The thunk runs on
+ *  another thread, and the future holds its value, or the exception that it
+ *  threw, once it is done. Touching the future waits until then; after that,
+ *  it returns the cached value right away.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+import com.joshuacrotts.microscheme.main.LValue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public final class MSFutureNode extends MSSyntaxTree {
+
+    /**
+     * Guards every field below. A lock, rather than a monitor, is used so that a virtual
+     * thread that waits on the future gives up its carrier thread.
+     */
+    private final ReentrantLock LOCK = new ReentrantLock();
+
+    private final Condition DONE = this.LOCK.newCondition();
+
+    /**
+     * Keeps track of whether the thunk has finished, either normally or with an exception.
+     */
+    private boolean isDone;
+
+    /**
+     * Value returned by the thunk, or null if it returned none.
+     */
+    private LValue value;
+
+    /**
+     * Exception thrown by the thunk, or null if it did not throw one.
+     */
+    private Throwable failure;
+
+    public MSFutureNode() {
+        super(MSNodeType.FUTURE);
+    }
+
+    @Override
+    public String getStringRep() {
+        return "#<future>";
+    }
+
+    @Override
+    public String toString() {
+        return this.getNodeType().toString();
+    }
+
+    public void complete(final LValue value) {
+        this.finish(value, null);
+    }
+
+    public void fail(final Throwable failure) {
+        this.finish(null, failure);
+    }
+
+    public boolean isDone() {
+        this.LOCK.lock();
+        try {
+            return this.isDone;
+        } finally {
+            this.LOCK.unlock();
+        }
+    }
+
+    /**
+     * Waits for the thunk to finish, for at most the given time.
+     *
+     * @param timeoutMillis longest time to wait, in milliseconds.
+     * @return true if the thunk has finished, false otherwise.
+     */
+    public boolean await(final long timeoutMillis) throws InterruptedException {
+        this.LOCK.lockInterruptibly();
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (!this.isDone && nanos > 0) { nanos = this.DONE.awaitNanos(nanos); }
+            return this.isDone;
+        } finally {
+            this.LOCK.unlock();
+        }
+    }
+
+    /**
+     * @return value of the thunk, which must have finished.
+     *
+     * @throws RuntimeException if the thunk threw one, which is rethrown here.
+     */
+    public LValue getValue() {
+        this.LOCK.lock();
+        try {
+            if (this.failure instanceof RuntimeException) { throw (RuntimeException) this.failure; }
+            if (this.failure instanceof Error) { throw (Error) this.failure; }
+            return this.value;
+        } finally {
+            this.LOCK.unlock();
+        }
+    }
+
+    private void finish(final LValue value, final Throwable failure) {
+        this.LOCK.lock();
+        try {
+            this.value = value;
+            this.failure = failure;
+            this.isDone = true;
+            this.DONE.signalAll();
+        } finally {
+            this.LOCK.unlock();
+        }
+    }
+}
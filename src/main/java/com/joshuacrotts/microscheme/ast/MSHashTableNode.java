@@ -0,0 +1,143 @@
+/******************************************************************************
+ *  File: MSHashTableNode.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  A mutable hash table. Keys are compared with eq?, eqv? or equal? (see
+ *  MSEquivalence), and entries are kept in insertion order so that iterating
+ *  over a table is deterministic.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+import com.joshuacrotts.microscheme.main.LValue;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class MSHashTableNode extends MSSyntaxTree {
+
+    /**
+     * Predicate used to compare keys.
+     */
+    private final MSEquivalence EQUIVALENCE;
+
+    /**
+     * Entries of the table. Identity hash codes change when a table is loaded from an
+     * image, so the image saves the entries and puts them back one at a time.
+     */
+    private final LinkedHashMap<Key, LValue> TABLE;
+
+    public MSHashTableNode(final MSEquivalence equivalence) {
+        super(MSNodeType.HASHTABLE);
+        this.EQUIVALENCE = equivalence;
+        this.TABLE = new LinkedHashMap<>();
+    }
+
+    @Override
+    public String getStringRep() {
+        StringBuilder sb = new StringBuilder(this.EQUIVALENCE == MSEquivalence.EQUAL ? "#hash("
+                : this.EQUIVALENCE == MSEquivalence.EQV ? "#hasheqv(" : "#hasheq(");
+        boolean isFirst = true;
+        for (Map.Entry<Key, LValue> entry : this.TABLE.entrySet()) {
+            if (!isFirst) { sb.append(" "); }
+            isFirst = false;
+            sb.append("(");
+            MSListNode.appendDatum(LValue.getAst(entry.getKey().KEY), sb);
+            sb.append(" . ");
+            MSListNode.appendDatum(LValue.getAst(entry.getValue()), sb);
+            sb.append(")");
+        }
+        return sb.append(")").toString();
+    }
+
+    @Override
+    public String toString() {
+        return this.getNodeType().toString();
+    }
+
+    public MSEquivalence getEquivalence() {
+        return this.EQUIVALENCE;
+    }
+
+    /**
+     * @return the value bound to key, or null if there is none.
+     */
+    public LValue get(final LValue key) {
+        return this.TABLE.get(new Key(key, this.EQUIVALENCE));
+    }
+
+    public void put(final LValue key, final LValue value) {
+        this.TABLE.put(new Key(key, this.EQUIVALENCE), value);
+    }
+
+    /**
+     * @return the value that was bound to key, or null if there was none.
+     */
+    public LValue remove(final LValue key) {
+        return this.TABLE.remove(new Key(key, this.EQUIVALENCE));
+    }
+
+    public boolean containsKey(final LValue key) {
+        return this.TABLE.containsKey(new Key(key, this.EQUIVALENCE));
+    }
+
+    public int size() {
+        return this.TABLE.size();
+    }
+
+    public void clear() {
+        this.TABLE.clear();
+    }
+
+    /**
+     * Returns a copy of the entries, so that callers can modify the table while
+     * iterating over them.
+     *
+     * @return key-value entries in insertion order.
+     */
+    public ArrayList<Map.Entry<LValue, LValue>> getEntries() {
+        ArrayList<Map.Entry<LValue, LValue>> entries = new ArrayList<>(this.TABLE.size());
+        for (Map.Entry<Key, LValue> entry : this.TABLE.entrySet()) {
+            entries.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey().KEY, entry.getValue()));
+        }
+        return entries;
+    }
+
+    /**
+     * Wraps a key so that the map compares and hashes it with the table's equivalence.
+     * The hash is computed once, when the key is wrapped.
+     */
+    private static final class Key {
+
+        private final LValue KEY;
+
+        private final MSEquivalence EQUIVALENCE;
+
+        private final int HASH;
+
+        private Key(final LValue key, final MSEquivalence equivalence) {
+            this.KEY = key;
+            this.EQUIVALENCE = equivalence;
+            this.HASH = equivalence.hash(LValue.getAst(key));
+        }
+
+        @Override
+        public int hashCode() {
+            return this.HASH;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) { return true; }
+            if (!(obj instanceof Key)) { return false; }
+            Key other = (Key) obj;
+            return this.HASH == other.HASH && this.EQUIVALENCE.isEquivalent(LValue.getAst(this.KEY), LValue.getAst(other.KEY));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/******************************************************************************
+ *  File: MSHomogeneousVectorNode.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Homogeneous (SRFI-4) vectors hold numbers of a single machine type in a
+ *  primitive array, e.g., an f64vector stores doubles. Elements are only
+ *  boxed into MSNumberNodes when they are read.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+import ch.obermuhlner.math.big.BigComplex;
+
+import java.math.BigDecimal;
+
+public abstract class MSHomogeneousVectorNode extends MSSyntaxTree {
+
+    protected MSHomogeneousVectorNode(final MSNodeType nodeType) {
+        super(nodeType);
+    }
+
+    /**
+     * Constructs a homogeneous vector of the given type with every element set to zero.
+     *
+     * @param nodeType F64VECTOR, S64VECTOR or U8VECTOR.
+     * @param size number of elements.
+     * @return new vector.
+     */
+    public static MSHomogeneousVectorNode create(final MSNodeType nodeType, final int size) {
+        switch (nodeType) {
+            case F64VECTOR: return new MSF64VectorNode(new double[size]);
+            case S64VECTOR: return new MSS64VectorNode(new long[size]);
+            case U8VECTOR: return new MSU8VectorNode(new byte[size]);
+            default: throw new IllegalArgumentException("Not a homogeneous vector type: " + nodeType);
+        }
+    }
+
+    @Override
+    public String getStringRep() {
+        // The node type is, e.g., f64vector, so this prints #f64(...).
+        String typeName = this.getNodeType().toString();
+        StringBuilder sb = new StringBuilder("#").append(typeName, 0, typeName.length() - "vector".length()).append("(");
+        for (int i = 0; i < this.size(); i++) {
+            if (i > 0) { sb.append(" "); }
+            this.appendElement(i, sb);
+        }
+        return sb.append(")").toString();
+    }
+
+    @Override
+    public String toString() {
+        return this.getNodeType().toString();
+    }
+
+    public abstract int size();
+
+    /**
+     * Determines whether a number can be stored in this vector without losing information.
+     *
+     * @param number number to check.
+     * @return true if number is in this vector's range, false otherwise.
+     */
+    public abstract boolean canHold(final BigComplex number);
+
+    /**
+     * @return description of the numbers this vector can hold, for error messages.
+     */
+    public abstract String getElementDescription();
+
+    public abstract MSNumberNode getNumber(final int idx);
+
+    /**
+     * Stores a number that canHold has accepted.
+     */
+    public abstract void setNumber(final int idx, final BigComplex number);
+
+    /**
+     * Sets the elements from startIdx (inclusive) to endIdx (exclusive) to a number that
+     * canHold has accepted.
+     */
+    public abstract void fillNumber(final BigComplex number, final int startIdx, final int endIdx);
+
+    /**
+     * Determines whether a number is an integer between min and max, inclusive.
+     */
+    protected static boolean isIntegerInRange(final BigComplex number, final BigDecimal min, final BigDecimal max) {
+        if (!number.isReal()) { return false; }
+        BigDecimal value = number.re;
+        return (value.signum() == 0 || value.stripTrailingZeros().scale() <= 0)
+                && value.compareTo(min) >= 0 && value.compareTo(max) <= 0;
+    }
+
+    protected abstract void appendElement(final int idx, final StringBuilder sb);
+}
@@ -0,0 +1,62 @@
+/******************************************************************************
+ *  File: MSLetNode.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Let nodes bind the values of their declarations in a new environment, then
+ *  evaluate the body in it. Unlike a lambda application, no closure is made.
+ *
+ *  A named let whose name is only called in tail position of its body is a
+ *  loop. Those calls are MSRecurNodes, which rebind the variables in place,
+ *  and the body is then evaluated again in the same environment.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+import java.util.ArrayList;
+
+public class MSLetNode extends MSSyntaxTree {
+
+    /**
+     * Number of declarations bound in this Let node.
+     */
+    private final int NUM_DECLARATIONS;
+
+    /**
+     * Keeps track of whether this is a named let that loops.
+     */
+    private final boolean IS_LOOP;
+
+    public MSLetNode(final ArrayList<MSSyntaxTree> declarationList, final MSSyntaxTree body, final boolean isLoop) {
+        super(MSNodeType.LET);
+        this.NUM_DECLARATIONS = declarationList.size();
+        this.IS_LOOP = isLoop;
+        declarationList.forEach(this::addChild);
+        this.addChild(body);
+    }
+
+    @Override
+    public String getStringRep() {
+        return this.getNodeType().toString();
+    }
+
+    @Override
+    public String toString() {
+        return this.getNodeType().toString();
+    }
+
+    public ArrayList<MSSyntaxTree> getDeclarationList() {
+        return new ArrayList<>(this.getChildren().subList(0, this.NUM_DECLARATIONS));
+    }
+
+    public MSSyntaxTree getBody() {
+        return this.getChild(this.NUM_DECLARATIONS);
+    }
+
+    public boolean isLoop() {
+        return this.IS_LOOP;
+    }
+}
@@ -3,7 +3,7 @@
  *
  *  Author: Joshua Crotts
  *
- *  Last Updated: 05/22/2022
+ *  Last Updated: 10/19/2026
  *
  *  A list is either a cons pair or quoted parentheses, e.g., (cons 1 2) = (1 . 2)
  *  e.g., '(1 2 3) = (1 2 3) = (1 . (2 . (3 . ()))). A list that does not end with
@@ -15,6 +15,7 @@ package com.joshuacrotts.microscheme.ast;
 
 import com.joshuacrotts.microscheme.main.LValue;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 
 public final class MSListNode extends MSSyntaxTree {
@@ -25,12 +26,33 @@ public final class MSListNode extends MSSyntaxTree {
      */
     public static final MSListNode EMPTY_LIST = new MSListNode();
 
+    /**
+     * Values that the car and cdr were made from, when they carry more than their AST,
+     * e.g., the environment of a closure. They are only used while the car or cdr is
+     * still the same AST, so set-car! and set-cdr! do not have to clear them.
+     */
+    private LValue carValue;
+    private LValue cdrValue;
+
     public MSListNode(final MSSyntaxTree car, final MSSyntaxTree cdr) {
         super(MSNodeType.LIST);
         if (car != null) { this.addChild(car); }
         if (cdr != null) { this.addChild(cdr); }
     }
 
+    /**
+     * Constructs a pair that keeps the LValues of its car and cdr, so that car and cdr
+     * return a closure together with its environment.
+     *
+     * @param car value of the car.
+     * @param cdr value of the cdr.
+     */
+    public MSListNode(final LValue car, final LValue cdr) {
+        this(LValue.getAst(car), LValue.getAst(cdr));
+        this.carValue = car;
+        this.cdrValue = cdr;
+    }
+
     /**
      * Constructs a MSListNode with a list of nodes. Each element is the cdr of
      * the preceding element.
@@ -51,7 +73,7 @@ public final class MSListNode extends MSSyntaxTree {
     }
 
     private MSListNode() {
-        this(null, null);
+        this((MSSyntaxTree) null, null);
     }
 
     @Override
@@ -68,25 +90,76 @@ public final class MSListNode extends MSSyntaxTree {
         return this.getChildrenSize() >= 1 ? this.getChild(0) : MSListNode.EMPTY_LIST;
     }
 
+    /**
+     * @return value of the car, including its environment if this pair was made from one.
+     */
+    public LValue getCarValue() {
+        MSSyntaxTree car = this.getCar();
+        return this.carValue != null && LValue.getAst(this.carValue) == car ? this.carValue : new LValue(car);
+    }
+
     public void setCar(final MSSyntaxTree newCar) {
-        if (this.getCar() != null) { this.setChild(0, newCar); }
-        else { this.addChild(newCar); };
+        if (this.getChildrenSize() >= 1) { this.setChild(0, newCar); }
+        else { this.addChild(newCar); }
+    }
+
+    /**
+     * Replaces the car, keeping its value as the LValue constructor does.
+     *
+     * @param newCar value of the new car.
+     */
+    public void setCar(final LValue newCar) {
+        this.setCar(LValue.getAst(newCar));
+        this.carValue = newCar;
     }
 
     public MSSyntaxTree getCdr() {
         return this.getChildrenSize() >= 2 ? this.getChild(1) : MSListNode.EMPTY_LIST;
     }
 
+    /**
+     * @return value of the cdr, including its environment if this pair was made from one.
+     */
+    public LValue getCdrValue() {
+        MSSyntaxTree cdr = this.getCdr();
+        return this.cdrValue != null && LValue.getAst(this.cdrValue) == cdr ? this.cdrValue : new LValue(cdr);
+    }
+
+    /**
+     * Replaces the cdr. A pair made with only a car, e.g., the last pair of a list built
+     * from an ArrayList, has its cdr added instead.
+     *
+     * @param newCdr new cdr.
+     */
     public void setCdr(final MSSyntaxTree newCdr) {
-        if (this.getCdr() != null) { this.setChild(1, newCdr); }
-        else { this.addChild(newCdr); }
+        if (this.getChildrenSize() >= 2) { this.setChild(1, newCdr); return; }
+        if (this.getChildrenSize() == 0) { this.addChild(MSListNode.EMPTY_LIST); }
+        this.addChild(newCdr);
+    }
+
+    /**
+     * Replaces the cdr, keeping its value as the LValue constructor does.
+     *
+     * @param newCdr value of the new cdr.
+     */
+    public void setCdr(final LValue newCdr) {
+        this.setCdr(LValue.getAst(newCdr));
+        this.cdrValue = newCdr;
     }
 
+    /**
+     * Walks the cdr chain rather than recursing on it, so very long lists do not
+     * overflow the stack.
+     *
+     * @return true if the chain of cdrs ends in the empty list, false otherwise.
+     */
     public boolean isProper() {
-        if (this.isEmptyList()) { return true; }
-        else if (this.getCar() != null && this.getChildrenSize() == 1) { return true; }
-        else if (this.getChildrenSize() == 2 && this.getCdr().isList()) { return ((MSListNode) this.getCdr()).isProper(); }
-        return false;
+        MSListNode curr = this;
+        while (!curr.isEmptyList() && curr.getChildrenSize() != 1) {
+            if (!curr.getCdr().isList()) { return false; }
+            curr = (MSListNode) curr.getCdr();
+        }
+        return true;
     }
 
     public boolean isEmptyList() {
@@ -104,45 +177,140 @@ public final class MSListNode extends MSSyntaxTree {
     }
 
     /**
+     * Prints this list. Nested lists and vectors are printed with an explicit stack of
+     * cursors instead of recursion, so neither long nor deeply nested lists overflow
+     * the stack.
      *
-     * @return
+     * @return string representation of this list.
      */
     private String getListStringRep() {
-        if (this.getChildrenSize() == 0) { return "()"; }
-        // If the list is proper, then we don't print dot notation.
-        if (this.isProper()) {
-            StringBuilder sb = new StringBuilder("(");
-            this.getProperStringRep(this, sb);
-            sb.append(")");
-            return sb.toString();
-        } else {
-            // If the tail is null then we print the head with parentheses surrounding.
-            if (this.getCdr() == null) { return "(" + this.getCar().getStringRep() + ")"; }
-            else {
-                return "(" + this.getCar().getStringRep()
-                        + (this.isProper() ? " " : " . ")
-                        + this.getCdr().getStringRep()
-                        + ")";
+        StringBuilder sb = new StringBuilder();
+        MSListNode.appendDatum(this, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Appends the printed form of a datum to a StringBuilder. Lists and vectors push a
+     * cursor onto a stack; every other node is printed with its own getStringRep.
+     *
+     * @param datum datum to print.
+     * @param sb StringBuilder to append to.
+     */
+    static void appendDatum(final MSSyntaxTree datum, final StringBuilder sb) {
+        ArrayDeque<DatumCursor> cursors = new ArrayDeque<>();
+        MSSyntaxTree next = datum;
+        while (true) {
+            while (next.isSymbol()) { next = ((MSSymbolNode) next).getValue(); }
+            if (next.isList() && ((MSListNode) next).getChildrenSize() != 0) {
+                cursors.push(new ListCursor((MSListNode) next, sb));
+            } else if (next.isVector()) {
+                cursors.push(new VectorCursor((MSVectorNode) next, sb));
+            } else if (next.isList()) {
+                sb.append("()");
+            } else {
+                sb.append(next.getStringRep());
             }
+
+            // Close every cursor that has run out of elements, then continue with the next element.
+            next = null;
+            while (next == null && !cursors.isEmpty()) {
+                next = cursors.peek().next(sb);
+                if (next == null) { cursors.pop().close(sb); }
+            }
+            if (next == null) { return; }
         }
     }
 
     /**
-     * @param curr
-     * @param sb
+     * Position inside a list or vector that is partway through being printed.
+     */
+    private interface DatumCursor {
+
+        /**
+         * Appends the separator that precedes the next element, if there is one.
+         *
+         * @param sb StringBuilder to append to.
+         * @return the next element to print, or null if there are none left.
+         */
+        MSSyntaxTree next(final StringBuilder sb);
+
+        void close(final StringBuilder sb);
+    }
+
+    /**
+     * Proper lists print as (a b c). Improper lists print each pair in dot notation,
+     * e.g., (1 . (2 . 3)), so the cursor counts how many parentheses it must close.
      */
-    private void getProperStringRep(final MSSyntaxTree curr, final StringBuilder sb) {
-        MSListNode currList = (MSListNode) curr;
-        if (currList.getChildrenSize() == 0) {
-            // Trim the last space.
-            sb.setLength(sb.length() - 1);
-        } else {
-            // Append the head then check the cdr.
-            sb.append(currList.getCar().getStringRep());
-            if (currList.getCdr() != null) {
-                sb.append(" ");
-                this.getProperStringRep(currList.getCdr(), sb);
+    private static final class ListCursor implements DatumCursor {
+
+        private final boolean IS_PROPER;
+
+        private MSSyntaxTree curr;
+
+        private boolean isFirst = true;
+
+        private int openPairs = 0;
+
+        private ListCursor(final MSListNode list, final StringBuilder sb) {
+            this.IS_PROPER = list.isProper();
+            this.curr = list;
+            if (this.IS_PROPER) { sb.append("("); }
+        }
+
+        @Override
+        public MSSyntaxTree next(final StringBuilder sb) {
+            if (this.curr == null) { return null; }
+            if (this.IS_PROPER) {
+                MSListNode list = (MSListNode) this.curr;
+                if (list.isEmptyList()) { return null; }
+                if (!this.isFirst) { sb.append(" "); }
+                this.isFirst = false;
+                this.curr = list.getCdr();
+                return list.getCar();
             }
+
+            if (!this.isFirst) { sb.append(" . "); }
+            this.isFirst = false;
+            MSSyntaxTree element = this.curr;
+            if (element.isList()) {
+                sb.append("(");
+                this.openPairs++;
+                this.curr = ((MSListNode) element).getCdr();
+                return ((MSListNode) element).getCar();
+            }
+            // The tail of an improper list is the last thing printed.
+            this.curr = null;
+            return element;
+        }
+
+        @Override
+        public void close(final StringBuilder sb) {
+            if (this.IS_PROPER) { sb.append(")"); }
+            for (int i = 0; i < this.openPairs; i++) { sb.append(")"); }
+        }
+    }
+
+    private static final class VectorCursor implements DatumCursor {
+
+        private final MSVectorNode VECTOR;
+
+        private int index = 0;
+
+        private VectorCursor(final MSVectorNode vector, final StringBuilder sb) {
+            this.VECTOR = vector;
+            sb.append("#(");
+        }
+
+        @Override
+        public MSSyntaxTree next(final StringBuilder sb) {
+            if (this.index >= this.VECTOR.size()) { return null; }
+            if (this.index > 0) { sb.append(" "); }
+            return this.VECTOR.get(this.index++);
+        }
+
+        @Override
+        public void close(final StringBuilder sb) {
+            sb.append(")");
         }
     }
 }
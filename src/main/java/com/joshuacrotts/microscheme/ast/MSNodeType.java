@@ -3,7 +3,7 @@
  *
  *  Author: Joshua Crotts
  *
- *  Last Updated: 05/22/2022
+ *  Last Updated: 10/19/2026
  *
  *  Each MSSyntaxTree has a node type and this file defines each.
  *
@@ -25,16 +25,34 @@ public enum MSNodeType {
     OR("or"),
     LIST("list"),
     VECTOR("vector"),
+    F64VECTOR("f64vector"),
+    S64VECTOR("s64vector"),
+    U8VECTOR("u8vector"),
+    HASHTABLE("hash-table"),
+    STRINGBUILDER("string-builder"),
+    RECORD("record"),
+    RECORDPROCEDURE("record-procedure"),
+    PROMISE("promise"),
+    ESCAPECONTINUATION("escape-continuation"),
+    CONTINUATION("continuation"),
+    FUTURE("future"),
+    CHANNEL("channel"),
+    ATOM("atom"),
+    COUNTER("counter"),
     VARIABLE("variable"),
     COND("cond"),
     LAMBDA("lambda"),
+    LET("let"),
     LETREC("letrec"),
+    RECUR("recur"),
     SET("set!"),
     SETCAR("set-car!"),
     SETCDR("set-cdr!"),
     SETVECTOR("vector-set!"),
     DO("do"),
+    DELAY("delay"),
     DECLARATION("declaration"),
+    RECORDTYPE("define-record-type"),
     APPLICATION("application"),
     APPLY("apply"),
     EVAL("eval");
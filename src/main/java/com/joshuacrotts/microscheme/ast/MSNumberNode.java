@@ -15,7 +15,6 @@ package com.joshuacrotts.microscheme.ast;
 import ch.obermuhlner.math.big.BigComplex;
 
 import java.math.BigDecimal;
-import java.math.MathContext;
 
 public final class MSNumberNode extends MSSyntaxTree {
 
@@ -0,0 +1,174 @@
+/******************************************************************************
+ *  File: MSPromiseNode.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  A promise to compute a value at most once. Promises follow SRFI 45: the
+ *  state of a promise lives in a separate Content object, and when a
+ *  delay-force promise is forced, it takes over the content of the promise
+ *  that its expression returns and the two then share it. This way, forcing
+ *  a long chain of delay-force promises runs in a loop (see
+ *  MicroSchemeInterpreter.force) instead of one nested call per promise, and
+ *  forcing any promise in the chain memoizes the value for all of them.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+import com.joshuacrotts.microscheme.main.Environment;
+import com.joshuacrotts.microscheme.main.LValue;
+
+import java.util.ArrayList;
+
+public final class MSPromiseNode extends MSSyntaxTree {
+
+    /**
+     * State of this promise. Replaced when a delay-force promise shares the content of
+     * the promise that it forced.
+     */
+    private Content content;
+
+    /**
+     * Constructs a promise that has already been forced, e.g., by make-promise.
+     *
+     * @param value value of the promise.
+     */
+    public MSPromiseNode(final LValue value) {
+        this(new Content(false));
+        this.content.resolve(value);
+    }
+
+    /**
+     * Constructs a promise that evaluates an expression when it is forced.
+     *
+     * @param expression expression to evaluate.
+     * @param env environment to evaluate expression in.
+     * @param isDelayForce true if expression evaluates to a promise to force in turn.
+     */
+    public MSPromiseNode(final MSSyntaxTree expression, final Environment env, final boolean isDelayForce) {
+        this(new Content(isDelayForce));
+        this.content.expression = expression;
+        this.content.environment = env;
+    }
+
+    /**
+     * Constructs a promise that applies a procedure when it is forced. Builtin procedures
+     * use this to return lazy results.
+     *
+     * @param procedure procedure to apply.
+     * @param arguments arguments to pass to procedure.
+     */
+    public MSPromiseNode(final LValue procedure, final ArrayList<LValue> arguments) {
+        this(new Content(false));
+        this.content.procedure = procedure;
+        this.content.arguments = arguments;
+    }
+
+    private MSPromiseNode(final Content content) {
+        super(MSNodeType.PROMISE);
+        this.content = content;
+    }
+
+    @Override
+    public String getStringRep() {
+        return "#<promise>";
+    }
+
+    @Override
+    public String toString() {
+        return this.getNodeType().toString();
+    }
+
+    public Content getContent() {
+        return this.content;
+    }
+
+    /**
+     * Makes this promise share the content of another. Afterwards, forcing either promise
+     * forces both.
+     *
+     * @param other promise to share content with.
+     */
+    public void shareContent(final MSPromiseNode other) {
+        this.content.become(other.content);
+        other.content = this.content;
+    }
+
+    /**
+     * State of a promise. Until the promise is forced, this holds either an expression and
+     * the environment to evaluate it in, or a procedure and the arguments to apply it to.
+     */
+    public static final class Content {
+
+        private boolean isDone;
+
+        private boolean isDelayForce;
+
+        private LValue value;
+
+        private MSSyntaxTree expression;
+
+        private Environment environment;
+
+        private LValue procedure;
+
+        private ArrayList<LValue> arguments;
+
+        private Content(final boolean isDelayForce) {
+            this.isDelayForce = isDelayForce;
+        }
+
+        public boolean isDone() {
+            return this.isDone;
+        }
+
+        public boolean isDelayForce() {
+            return this.isDelayForce;
+        }
+
+        public LValue getValue() {
+            return this.value;
+        }
+
+        public MSSyntaxTree getExpression() {
+            return this.expression;
+        }
+
+        public Environment getEnvironment() {
+            return this.environment;
+        }
+
+        public LValue getProcedure() {
+            return this.procedure;
+        }
+
+        public ArrayList<LValue> getArguments() {
+            return this.arguments;
+        }
+
+        /**
+         * Stores the value of the promise. The expression or procedure is dropped so that
+         * whatever it refers to can be garbage collected.
+         */
+        public void resolve(final LValue value) {
+            this.isDone = true;
+            this.value = value;
+            this.expression = null;
+            this.environment = null;
+            this.procedure = null;
+            this.arguments = null;
+        }
+
+        private void become(final Content other) {
+            this.isDone = other.isDone;
+            this.isDelayForce = other.isDelayForce;
+            this.value = other.value;
+            this.expression = other.expression;
+            this.environment = other.environment;
+            this.procedure = other.procedure;
+            this.arguments = other.arguments;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/******************************************************************************
+ *  File: MSRecordNode.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  An instance of a record type. The fields are kept in a fixed-size array of
+ *  slots, so accessors and modifiers read and write a slot by its index.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+import com.joshuacrotts.microscheme.main.LValue;
+
+public final class MSRecordNode extends MSSyntaxTree {
+
+    /**
+     * Type that this record is an instance of.
+     */
+    private final MSRecordType TYPE;
+
+    /**
+     * Value of each field, indexed by slot. Values are kept as LValues so that a
+     * procedure stored in a field keeps the environment it closes over.
+     */
+    private final LValue[] SLOTS;
+
+    /**
+     * Constructs a record with its fields set to the given values. The array is
+     * used as-is rather than copied.
+     *
+     * @param type record type.
+     * @param slots value of each field.
+     */
+    public MSRecordNode(final MSRecordType type, final LValue[] slots) {
+        super(MSNodeType.RECORD);
+        this.TYPE = type;
+        this.SLOTS = slots;
+    }
+
+    @Override
+    public String getStringRep() {
+        StringBuilder sb = new StringBuilder("#<").append(this.TYPE.getDisplayName());
+        for (int i = 0; i < this.SLOTS.length; i++) {
+            sb.append(' ').append(this.TYPE.getFieldName(i)).append(": ");
+            MSListNode.appendDatum(LValue.getAst(this.SLOTS[i]), sb);
+        }
+        return sb.append('>').toString();
+    }
+
+    @Override
+    public String toString() {
+        return this.getNodeType().toString();
+    }
+
+    public MSRecordType getType() {
+        return this.TYPE;
+    }
+
+    public LValue get(final int slotIdx) {
+        return this.SLOTS[slotIdx];
+    }
+
+    public void set(final int slotIdx, final LValue value) {
+        this.SLOTS[slotIdx] = value;
+    }
+}
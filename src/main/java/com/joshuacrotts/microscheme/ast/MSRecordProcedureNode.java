@@ -0,0 +1,79 @@
+/******************************************************************************
+ *  File: MSRecordProcedureNode.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  A constructor, predicate, accessor or modifier created by define-record-type.
+ *  These are procedures like any other, but the slots that they read and write
+ *  are resolved when the record type is defined, so calling one never has to
+ *  look up a field by name.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+public final class MSRecordProcedureNode extends MSSyntaxTree {
+
+    public enum Kind { CONSTRUCTOR, PREDICATE, ACCESSOR, MODIFIER }
+
+    /**
+     * Name that the procedure was defined with, used in error messages.
+     */
+    private final String NAME;
+
+    private final Kind KIND;
+
+    private final MSRecordType TYPE;
+
+    /**
+     * For a constructor, the slot that each argument is stored in. For an accessor or
+     * modifier, a single element with the slot that it reads or writes. Unused otherwise.
+     */
+    private final int[] SLOTS;
+
+    public MSRecordProcedureNode(final String name, final Kind kind, final MSRecordType type, final int... slots) {
+        super(MSNodeType.RECORDPROCEDURE);
+        this.NAME = name;
+        this.KIND = kind;
+        this.TYPE = type;
+        this.SLOTS = slots;
+    }
+
+    @Override
+    public String getStringRep() {
+        return "#<procedure " + this.NAME + ">";
+    }
+
+    @Override
+    public String toString() {
+        return this.getNodeType().toString();
+    }
+
+    public String getName() {
+        return this.NAME;
+    }
+
+    public Kind getKind() {
+        return this.KIND;
+    }
+
+    public MSRecordType getType() {
+        return this.TYPE;
+    }
+
+    /**
+     * @return slot that an accessor or modifier reads or writes.
+     */
+    public int getSlot() {
+        return this.SLOTS[0];
+    }
+
+    /**
+     * @return slot that each constructor argument is stored in.
+     */
+    public int[] getConstructorSlots() {
+        return this.SLOTS;
+    }
+}
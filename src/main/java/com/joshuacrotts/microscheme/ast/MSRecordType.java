@@ -0,0 +1,57 @@
+/******************************************************************************
+ *  File: MSRecordType.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  A record type created by define-record-type. Each evaluation of a
+ *  define-record-type creates a new, distinct type, so records are compared
+ *  against their type by reference. A field is identified by its index into
+ *  the slots of a record; names are only kept for printing.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+import java.util.ArrayList;
+
+public final class MSRecordType {
+
+    /**
+     * Name of the type as it was written, e.g., <point>.
+     */
+    private final String NAME;
+
+    /**
+     * Name of each field, in slot order.
+     */
+    private final String[] FIELD_NAMES;
+
+    public MSRecordType(final String name, final ArrayList<String> fieldNames) {
+        this.NAME = name;
+        this.FIELD_NAMES = fieldNames.toArray(new String[0]);
+    }
+
+    public String getName() {
+        return this.NAME;
+    }
+
+    /**
+     * @return name of the type without the angle brackets that conventionally surround it.
+     */
+    public String getDisplayName() {
+        if (this.NAME.length() > 2 && this.NAME.startsWith("<") && this.NAME.endsWith(">")) {
+            return this.NAME.substring(1, this.NAME.length() - 1);
+        }
+        return this.NAME;
+    }
+
+    public int getFieldCount() {
+        return this.FIELD_NAMES.length;
+    }
+
+    public String getFieldName(final int slotIdx) {
+        return this.FIELD_NAMES[slotIdx];
+    }
+}
@@ -0,0 +1,80 @@
+/******************************************************************************
+ *  File: MSRecordTypeNode.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  A define-record-type declaration (SRFI 9), i.e.,
+ *
+ *    (define-record-type <type> (<constructor> <field>*) <predicate>
+ *      (<field> <accessor> [<modifier>])*)
+ *
+ *  Evaluating it creates a new record type and binds the constructor,
+ *  predicate, accessors and modifiers in the current environment.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+import java.util.ArrayList;
+
+public final class MSRecordTypeNode extends MSSyntaxTree {
+
+    private final String TYPE_NAME;
+
+    private final String CONSTRUCTOR_NAME;
+
+    /**
+     * Fields initialized by the constructor, in argument order.
+     */
+    private final ArrayList<String> CONSTRUCTOR_FIELDS;
+
+    private final String PREDICATE_NAME;
+
+    /**
+     * Each field in declaration order, along with its accessor and its modifier
+     * (null if the field has none).
+     */
+    private final ArrayList<String[]> FIELDS;
+
+    public MSRecordTypeNode(final String typeName, final String constructorName, final ArrayList<String> constructorFields,
+                            final String predicateName, final ArrayList<String[]> fields) {
+        super(MSNodeType.RECORDTYPE);
+        this.TYPE_NAME = typeName;
+        this.CONSTRUCTOR_NAME = constructorName;
+        this.CONSTRUCTOR_FIELDS = constructorFields;
+        this.PREDICATE_NAME = predicateName;
+        this.FIELDS = fields;
+    }
+
+    @Override
+    public String getStringRep() {
+        return this.getNodeType().toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(%s %s)", this.getNodeType(), this.TYPE_NAME);
+    }
+
+    public String getTypeName() {
+        return this.TYPE_NAME;
+    }
+
+    public String getConstructorName() {
+        return this.CONSTRUCTOR_NAME;
+    }
+
+    public ArrayList<String> getConstructorFields() {
+        return this.CONSTRUCTOR_FIELDS;
+    }
+
+    public String getPredicateName() {
+        return this.PREDICATE_NAME;
+    }
+
+    public ArrayList<String[]> getFields() {
+        return this.FIELDS;
+    }
+}
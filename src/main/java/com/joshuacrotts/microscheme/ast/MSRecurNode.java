@@ -0,0 +1,55 @@
+/******************************************************************************
+ *  File: MSRecurNode.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  A call to the name of a looping named let, in tail position of its body
+ *  (see MSLetNode). Its children are the arguments of the call. Evaluating it
+ *  rebinds the let's variables to their values and starts the next iteration.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+import java.util.ArrayList;
+
+public final class MSRecurNode extends MSSyntaxTree {
+
+    /**
+     * Identifiers of the let's variables, in the same order as the arguments.
+     */
+    private final String[] VARIABLES;
+
+    /**
+     * Number of environments between the one this node is evaluated in and the let's,
+     * e.g., 1 if it is inside the body of a let inside the loop.
+     */
+    private final int DEPTH;
+
+    public MSRecurNode(final ArrayList<MSSyntaxTree> arguments, final String[] variables, final int depth) {
+        super(MSNodeType.RECUR);
+        this.VARIABLES = variables;
+        this.DEPTH = depth;
+        arguments.forEach(this::addChild);
+    }
+
+    @Override
+    public String getStringRep() {
+        return this.getNodeType().toString();
+    }
+
+    @Override
+    public String toString() {
+        return this.getNodeType().toString();
+    }
+
+    public String[] getVariables() {
+        return this.VARIABLES;
+    }
+
+    public int getDepth() {
+        return this.DEPTH;
+    }
+}
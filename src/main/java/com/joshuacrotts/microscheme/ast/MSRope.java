@@ -0,0 +1,223 @@
+/******************************************************************************
+ *  File: MSRope.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  An immutable rope, i.e., a string represented as a binary tree whose leaves
+ *  are pieces of text. The tree is kept height-balanced (as in an AVL tree), so
+ *  concatenation and substring take O(log n) time and share the pieces of the
+ *  ropes they are made from instead of copying them. Large strings use ropes
+ *  (see MSStringNode) and are only flattened into one contiguous string when
+ *  something needs all of their characters.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+public abstract class MSRope {
+
+    /**
+     * Strings shorter than this are not worth representing as ropes.
+     */
+    public static final int MIN_ROPE_LENGTH = 1024;
+
+    /**
+     * Adjacent pieces that together are at most this long are copied into a single
+     * leaf, so that appending many small strings does not create many tiny leaves.
+     */
+    private static final int MAX_MERGED_LEAF_LENGTH = 512;
+
+    private MSRope() {}
+
+    /**
+     * @param text contents of the rope.
+     * @return rope made of a single leaf.
+     */
+    public static MSRope of(final String text) {
+        return new Leaf(text, 0, text.length());
+    }
+
+    /**
+     * @return number of characters in this rope.
+     */
+    public abstract int length();
+
+    /**
+     * @return height of this rope, where a leaf has height 0.
+     */
+    abstract int depth();
+
+    /**
+     * Appends the characters from startIdx (inclusive) to endIdx (exclusive) to a
+     * string builder.
+     */
+    abstract void appendTo(final StringBuilder sb, final int startIdx, final int endIdx);
+
+    /**
+     * Concatenates two ropes in O(log n) time. Neither rope is modified.
+     *
+     * @param lhs left rope.
+     * @param rhs right rope.
+     * @return balanced rope with the characters of lhs followed by those of rhs.
+     */
+    public static MSRope concat(final MSRope lhs, final MSRope rhs) {
+        if (lhs.length() == 0) { return rhs; }
+        if (rhs.length() == 0) { return lhs; }
+        if (lhs.length() + rhs.length() <= MSRope.MAX_MERGED_LEAF_LENGTH) { return MSRope.of(lhs.flatten() + rhs.flatten()); }
+
+        // The taller rope is descended along its inner edge until it is about as tall as
+        // the other, and the path back up is rebalanced.
+        if (lhs.depth() > rhs.depth() + 1) {
+            Concat left = (Concat) lhs;
+            return MSRope.balance(left.LEFT, MSRope.concat(left.RIGHT, rhs));
+        } else if (rhs.depth() > lhs.depth() + 1) {
+            Concat right = (Concat) rhs;
+            return MSRope.balance(MSRope.concat(lhs, right.LEFT), right.RIGHT);
+        }
+        return new Concat(lhs, rhs);
+    }
+
+    /**
+     * Returns the characters from startIdx (inclusive) to endIdx (exclusive) in
+     * O(log n) time. The result shares the leaves of this rope.
+     */
+    public MSRope substring(final int startIdx, final int endIdx) {
+        if (startIdx < 0 || endIdx > this.length() || startIdx > endIdx) {
+            throw new IndexOutOfBoundsException(String.format("substring [%d, %d) of rope of length %d", startIdx, endIdx, this.length()));
+        }
+        if (startIdx == 0 && endIdx == this.length()) { return this; }
+        return this.subrope(startIdx, endIdx);
+    }
+
+    abstract MSRope subrope(final int startIdx, final int endIdx);
+
+    /**
+     * @return contents of this rope as one string.
+     */
+    public String flatten() {
+        StringBuilder sb = new StringBuilder(this.length());
+        this.appendTo(sb, 0, this.length());
+        return sb.toString();
+    }
+
+    /**
+     * Joins two ropes whose heights usually differ by at most two, with at most two
+     * rotations. Merging small leaves can make the difference larger, in which case
+     * the ropes are concatenated again from the top.
+     */
+    private static MSRope balance(final MSRope lhs, final MSRope rhs) {
+        if (Math.abs(lhs.depth() - rhs.depth()) > 2) { return MSRope.concat(lhs, rhs); }
+        if (rhs.depth() > lhs.depth() + 1) {
+            Concat right = (Concat) rhs;
+            if (right.LEFT.depth() > right.RIGHT.depth()) {
+                Concat rightLeft = (Concat) right.LEFT;
+                return new Concat(new Concat(lhs, rightLeft.LEFT), new Concat(rightLeft.RIGHT, right.RIGHT));
+            }
+            return new Concat(new Concat(lhs, right.LEFT), right.RIGHT);
+        } else if (lhs.depth() > rhs.depth() + 1) {
+            Concat left = (Concat) lhs;
+            if (left.RIGHT.depth() > left.LEFT.depth()) {
+                Concat leftRight = (Concat) left.RIGHT;
+                return new Concat(new Concat(left.LEFT, leftRight.LEFT), new Concat(leftRight.RIGHT, rhs));
+            }
+            return new Concat(left.LEFT, new Concat(left.RIGHT, rhs));
+        }
+        return new Concat(lhs, rhs);
+    }
+
+    /**
+     * A piece of a string. Substrings of a leaf refer to the same string with a
+     * different offset and length, rather than copying it.
+     */
+    private static final class Leaf extends MSRope {
+
+        private final String TEXT;
+
+        private final int OFFSET;
+
+        private final int LENGTH;
+
+        private Leaf(final String text, final int offset, final int length) {
+            this.TEXT = text;
+            this.OFFSET = offset;
+            this.LENGTH = length;
+        }
+
+        @Override
+        public int length() {
+            return this.LENGTH;
+        }
+
+        @Override
+        int depth() {
+            return 0;
+        }
+
+        @Override
+        void appendTo(final StringBuilder sb, final int startIdx, final int endIdx) {
+            sb.append(this.TEXT, this.OFFSET + startIdx, this.OFFSET + endIdx);
+        }
+
+        @Override
+        MSRope subrope(final int startIdx, final int endIdx) {
+            // Small pieces are copied so that they do not keep a large string alive.
+            if (endIdx - startIdx <= MSRope.MAX_MERGED_LEAF_LENGTH) {
+                return MSRope.of(this.TEXT.substring(this.OFFSET + startIdx, this.OFFSET + endIdx));
+            }
+            return new Leaf(this.TEXT, this.OFFSET + startIdx, endIdx - startIdx);
+        }
+
+        @Override
+        public String flatten() {
+            return this.OFFSET == 0 && this.LENGTH == this.TEXT.length() ? this.TEXT : this.TEXT.substring(this.OFFSET, this.OFFSET + this.LENGTH);
+        }
+    }
+
+    /**
+     * Concatenation of two non-empty ropes whose heights differ by at most one.
+     */
+    private static final class Concat extends MSRope {
+
+        private final MSRope LEFT;
+
+        private final MSRope RIGHT;
+
+        private final int LENGTH;
+
+        private final int DEPTH;
+
+        private Concat(final MSRope left, final MSRope right) {
+            this.LEFT = left;
+            this.RIGHT = right;
+            this.LENGTH = left.length() + right.length();
+            this.DEPTH = Math.max(left.depth(), right.depth()) + 1;
+        }
+
+        @Override
+        public int length() {
+            return this.LENGTH;
+        }
+
+        @Override
+        int depth() {
+            return this.DEPTH;
+        }
+
+        @Override
+        void appendTo(final StringBuilder sb, final int startIdx, final int endIdx) {
+            int leftLength = this.LEFT.length();
+            if (startIdx < leftLength) { this.LEFT.appendTo(sb, startIdx, Math.min(endIdx, leftLength)); }
+            if (endIdx > leftLength) { this.RIGHT.appendTo(sb, Math.max(startIdx, leftLength) - leftLength, endIdx - leftLength); }
+        }
+
+        @Override
+        MSRope subrope(final int startIdx, final int endIdx) {
+            int leftLength = this.LEFT.length();
+            if (endIdx <= leftLength) { return this.LEFT.substring(startIdx, endIdx); }
+            if (startIdx >= leftLength) { return this.RIGHT.substring(startIdx - leftLength, endIdx - leftLength); }
+            return MSRope.concat(this.LEFT.substring(startIdx, leftLength), this.RIGHT.substring(0, endIdx - leftLength));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/******************************************************************************
+ *  File: MSS64VectorNode.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  An s64vector stores signed 64-bit integers in a long[].
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+import ch.obermuhlner.math.big.BigComplex;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+public final class MSS64VectorNode extends MSHomogeneousVectorNode {
+
+    private static final BigDecimal MIN_VALUE = BigDecimal.valueOf(Long.MIN_VALUE);
+
+    private static final BigDecimal MAX_VALUE = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    private final long[] ELEMENTS;
+
+    public MSS64VectorNode(final long[] elements) {
+        super(MSNodeType.S64VECTOR);
+        this.ELEMENTS = elements;
+    }
+
+    public long[] getElements() {
+        return this.ELEMENTS;
+    }
+
+    @Override
+    public int size() {
+        return this.ELEMENTS.length;
+    }
+
+    @Override
+    public boolean canHold(final BigComplex number) {
+        return MSHomogeneousVectorNode.isIntegerInRange(number, MSS64VectorNode.MIN_VALUE, MSS64VectorNode.MAX_VALUE);
+    }
+
+    @Override
+    public String getElementDescription() {
+        return "64-bit integer";
+    }
+
+    @Override
+    public MSNumberNode getNumber(final int idx) {
+        return new MSNumberNode(BigDecimal.valueOf(this.ELEMENTS[idx]));
+    }
+
+    @Override
+    public void setNumber(final int idx, final BigComplex number) {
+        this.ELEMENTS[idx] = number.re.longValue();
+    }
+
+    @Override
+    public void fillNumber(final BigComplex number, final int startIdx, final int endIdx) {
+        Arrays.fill(this.ELEMENTS, startIdx, endIdx, number.re.longValue());
+    }
+
+    @Override
+    protected void appendElement(final int idx, final StringBuilder sb) {
+        sb.append(this.ELEMENTS[idx]);
+    }
+}
@@ -0,0 +1,71 @@
+/******************************************************************************
+ *  File: MSStringBuilderNode.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  A mutable string that can be appended to in amortized O(1) time. String
+ *  builders double as string output ports (open-output-string), so anything
+ *  that display writes to a port ends up in the builder. Its methods are
+ *  synchronized, so that several tasks can write to the same port.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+public final class MSStringBuilderNode extends MSSyntaxTree {
+
+    /**
+     * Characters written so far.
+     */
+    private final StringBuilder BUILDER;
+
+    /**
+     * Keeps track of whether this was opened as a port, which only changes how it prints.
+     */
+    private final boolean IS_PORT;
+
+    public MSStringBuilderNode(final boolean isPort) {
+        super(MSNodeType.STRINGBUILDER);
+        this.BUILDER = new StringBuilder();
+        this.IS_PORT = isPort;
+    }
+
+    @Override
+    public String getStringRep() {
+        return this.IS_PORT ? "#<string-port>" : "#<string-builder>";
+    }
+
+    @Override
+    public String toString() {
+        return this.getNodeType().toString();
+    }
+
+    public boolean isPort() {
+        return this.IS_PORT;
+    }
+
+    public synchronized void append(final String str) {
+        this.BUILDER.append(str);
+    }
+
+    public synchronized void append(final char ch) {
+        this.BUILDER.append(ch);
+    }
+
+    public synchronized int length() {
+        return this.BUILDER.length();
+    }
+
+    public synchronized void clear() {
+        this.BUILDER.setLength(0);
+    }
+
+    /**
+     * @return copy of the characters written so far.
+     */
+    public synchronized String getContents() {
+        return this.BUILDER.toString();
+    }
+}
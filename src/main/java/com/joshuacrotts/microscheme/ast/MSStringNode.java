@@ -3,9 +3,12 @@
  *
  *  Author: Joshua Crotts
  *
- *  Last Updated: 05/22/2022
+ *  Last Updated: 10/19/2026
  *
- *  Strings are an immutable sequence of characters... not much more to say.
+ *  Strings are an immutable sequence of characters. Large strings built by
+ *  string-append or substring are kept as ropes (see MSRope), and are only
+ *  flattened into one contiguous string when all of their characters are
+ *  needed, e.g., to print them.
  *
  ******************************************************************************/
 
@@ -14,40 +17,99 @@ package com.joshuacrotts.microscheme.ast;
 public class MSStringNode extends MSSyntaxTree {
 
     /**
-     * String associated with this node.
+     * String associated with this node, without the surrounding quotes and with
+     * its escape sequences already replaced. For ropes, this is null until the
+     * rope is first flattened.
      */
-    private final String VALUE;
+    private String value;
+
+    /**
+     * Rope holding the characters of a large string, or null for a flat string.
+     */
+    private final MSRope ROPE;
 
     public MSStringNode(final String value) {
         super(MSNodeType.STRING);
-        this.VALUE = this.unescapeString(value);
+        this.value = value;
+        this.ROPE = null;
+    }
+
+    private MSStringNode(final MSRope rope) {
+        super(MSNodeType.STRING);
+        this.value = null;
+        this.ROPE = rope;
+    }
+
+    /**
+     * Creates a string from its source text, e.g., "a\tb", by removing the quotes
+     * and replacing the escape sequences.
+     *
+     * @param literal quoted string literal.
+     * @return string node.
+     */
+    public static MSStringNode fromLiteral(final String literal) {
+        return new MSStringNode(MSStringNode.unescapeString(literal));
     }
 
     @Override
     public String getStringRep() {
-        if (this.VALUE.startsWith("\"")
-                && this.VALUE.endsWith("\"")
-                && this.VALUE.length() >= 2) {
-            return this.VALUE.substring(1, this.VALUE.length() - 1);
-        }
-        return this.VALUE;
+        return this.getValue();
     }
 
     @Override
     public String toString() {
-        return "(STRING " + this.VALUE + ")";
+        return "(STRING \"" + this.getValue() + "\")";
     }
 
+    /**
+     * Returns the characters of this string, flattening it first if it is a rope. The
+     * flattened string is kept for subsequent calls.
+     */
     public String getValue() {
-        return this.VALUE;
+        String flat = this.value;
+        if (flat == null) {
+            flat = this.ROPE.flatten();
+            this.value = flat;
+        }
+        return flat;
     }
 
     public int length() {
-        return this.getStringRep().length();
+        return this.ROPE != null ? this.ROPE.length() : this.value.length();
+    }
+
+    public boolean isRope() {
+        return this.ROPE != null;
+    }
+
+    /**
+     * Concatenates two strings. The result is a rope if it is large, in which case
+     * neither string is copied.
+     *
+     * @param other string to append to this one.
+     * @return new string.
+     */
+    public MSStringNode append(final MSStringNode other) {
+        if (this.length() + other.length() < MSRope.MIN_ROPE_LENGTH) { return new MSStringNode(this.getValue() + other.getValue()); }
+        return new MSStringNode(MSRope.concat(this.toRope(), other.toRope()));
+    }
+
+    /**
+     * Returns the characters from startIdx (inclusive) to endIdx (exclusive). Large
+     * substrings share the characters of this string rather than copying them.
+     */
+    public MSStringNode substring(final int startIdx, final int endIdx) {
+        if (this.ROPE == null && this.value.length() < MSRope.MIN_ROPE_LENGTH) { return new MSStringNode(this.value.substring(startIdx, endIdx)); }
+        MSRope substring = this.toRope().substring(startIdx, endIdx);
+        return substring.length() < MSRope.MIN_ROPE_LENGTH ? new MSStringNode(substring.flatten()) : new MSStringNode(substring);
+    }
+
+    private MSRope toRope() {
+        return this.ROPE != null ? this.ROPE : MSRope.of(this.value);
     }
 
-    private String unescapeString(final String str) {
-        StringBuilder sb = new StringBuilder("\"");
+    private static String unescapeString(final String str) {
+        StringBuilder sb = new StringBuilder();
         int j = str.endsWith("\"") ? str.length() - 1 : str.length();
         for (int i = str.startsWith("\"") ? 1 : 0; i < j; i++) {
             char ch = str.charAt(i);
@@ -78,6 +140,6 @@ public class MSStringNode extends MSSyntaxTree {
                 sb.append(ch);
             }
         }
-        return sb.append("\"").toString();
+        return sb.toString();
     }
 }
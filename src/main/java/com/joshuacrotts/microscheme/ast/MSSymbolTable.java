@@ -0,0 +1,94 @@
+/******************************************************************************
+ *  File: MSSymbolTable.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Global intern table of symbols. Each name maps to one canonical variable
+ *  node, so that symbols are compared by reference (e.g., by eq?). Entries are
+ *  held weakly, so symbols that are no longer referenced anywhere, e.g., by
+ *  code that has finished running, are reclaimed.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class MSSymbolTable {
+
+    /**
+     * Maps each name to its symbol. Lookups take no lock, since every identifier that is
+     * parsed is interned, possibly by many parsers or interpreters at once.
+     */
+    private static final ConcurrentHashMap<String, SymbolReference> SYMBOLS = new ConcurrentHashMap<>();
+
+    /**
+     * Receives the references of symbols that have been reclaimed, so that their entries
+     * can be removed.
+     */
+    private static final ReferenceQueue<MSVariableNode> RECLAIMED = new ReferenceQueue<>();
+
+    /**
+     * Weak reference to a symbol that remembers its name, so that its entry can be found
+     * once the symbol is gone.
+     */
+    private static final class SymbolReference extends WeakReference<MSVariableNode> {
+
+        private final String NAME;
+
+        private SymbolReference(final MSVariableNode symbol) {
+            super(symbol, MSSymbolTable.RECLAIMED);
+            this.NAME = symbol.getIdentifier();
+        }
+    }
+
+    private MSSymbolTable() {}
+
+    /**
+     * Returns the canonical symbol with the given name, creating it if there is none.
+     *
+     * @param name identifier of the symbol.
+     * @return symbol; every call with an equal name returns the same node.
+     */
+    public static MSVariableNode intern(final String name) {
+        MSSymbolTable.removeReclaimed();
+        SymbolReference reference = MSSymbolTable.SYMBOLS.get(name);
+        MSVariableNode symbol = reference != null ? reference.get() : null;
+        if (symbol != null) { return symbol; }
+
+        // Another thread may intern the same name in the meantime, so the new symbol is only
+        // used if it is added in place of no entry, or of an entry whose symbol is gone.
+        MSVariableNode newSymbol = new MSVariableNode(name);
+        SymbolReference newReference = new SymbolReference(newSymbol);
+        while (true) {
+            reference = MSSymbolTable.SYMBOLS.putIfAbsent(name, newReference);
+            if (reference == null) { return newSymbol; }
+            symbol = reference.get();
+            if (symbol != null) { return symbol; }
+            if (MSSymbolTable.SYMBOLS.replace(name, reference, newReference)) { return newSymbol; }
+        }
+    }
+
+    /**
+     * @return number of symbols that are currently interned.
+     */
+    public static int size() {
+        MSSymbolTable.removeReclaimed();
+        return MSSymbolTable.SYMBOLS.size();
+    }
+
+    /**
+     * Removes the entries of reclaimed symbols. An entry is only removed if it still holds
+     * the reclaimed symbol's reference, since the name may have been interned again.
+     */
+    private static void removeReclaimed() {
+        SymbolReference reference;
+        while ((reference = (SymbolReference) MSSymbolTable.RECLAIMED.poll()) != null) {
+            MSSymbolTable.SYMBOLS.remove(reference.NAME, reference);
+        }
+    }
+}
@@ -3,7 +3,7 @@
  *
  *  Author: Joshua Crotts
  *
- *  Last Updated: 05/22/2022
+ *  Last Updated: 10/19/2026
  *
  *  Generic abstract syntax tree node - all nodes extend this. We keep track of
  *  its children and the type of this syntax tree.
@@ -14,8 +14,11 @@ package com.joshuacrotts.microscheme.ast;
 
 import com.joshuacrotts.microscheme.main.MSUtils;
 
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Map;
 
 public class MSSyntaxTree {
 
@@ -51,7 +54,7 @@ public class MSSyntaxTree {
     }
     
     /**
-     * Recursively prints the syntax tree.
+     * Prints the syntax tree.
      */
     public void printSyntaxTree() {
         System.out.println(this.printSyntaxTreeHelper(0));
@@ -97,6 +100,14 @@ public class MSSyntaxTree {
 
     public boolean isApplication() { return this.NODE_TYPE == MSNodeType.APPLICATION; }
 
+    public boolean isRecordProcedure() { return this.NODE_TYPE == MSNodeType.RECORDPROCEDURE; }
+
+    public boolean isEscapeContinuation() { return this.NODE_TYPE == MSNodeType.ESCAPECONTINUATION; }
+
+    public boolean isContinuation() { return this.NODE_TYPE == MSNodeType.CONTINUATION; }
+
+    public boolean isPromise() { return this.NODE_TYPE == MSNodeType.PROMISE; }
+
     public boolean isSymbol() { return this.NODE_TYPE == MSNodeType.SYMBOL; }
 
     public boolean isList() { return this.NODE_TYPE == MSNodeType.LIST; }
@@ -120,32 +131,43 @@ public class MSSyntaxTree {
     }
 
     /**
-     * Recursive function to print a syntax tree. The current depth is passed as the "indent"
-     * parameter so that the output looks properly nested. Each recursive call for a child is
-     * indented by two additional spaces.
+     * Prints a syntax tree. The depth of each node is kept alongside it so that the output
+     * looks properly nested; each child is indented by two additional spaces. Rather than
+     * recursing on children, the pending nodes and separators are kept on an explicit
+     * stack, so deeply nested trees do not overflow the stack.
      *
-     * @param indent current indentation level
+     * @param indent indentation level of this node
      * @return a string representation of this syntax tree node (and its descendants)
      * @author Steve Tate
      */
     private StringBuilder printSyntaxTreeHelper(final int indent) {
         StringBuilder sb = new StringBuilder();
-        sb.append(MSUtils.repeatString(Math.max(0, indent), " "));
-        sb.append(this);
-
-        if (!this.CHILDREN.isEmpty()) {
-            sb.append(" (\n");
-            boolean isFirstChild = true;
-            for (MSSyntaxTree child : this.CHILDREN) {
-                if (!isFirstChild) {
-                    sb.append(",\n");
-                }
-                isFirstChild = false;
-                if (child != null) {
-                    sb.append(child.printSyntaxTreeHelper(indent + 2));
+        ArrayDeque<Object> pending = new ArrayDeque<>();
+        pending.push(new AbstractMap.SimpleImmutableEntry<>(this, indent));
+        while (!pending.isEmpty()) {
+            Object next = pending.pop();
+            if (next instanceof String) {
+                sb.append((String) next);
+                continue;
+            }
+
+            @SuppressWarnings("unchecked")
+            Map.Entry<MSSyntaxTree, Integer> entry = (Map.Entry<MSSyntaxTree, Integer>) next;
+            MSSyntaxTree tree = entry.getKey();
+            int depth = entry.getValue();
+            sb.append(MSUtils.repeatString(Math.max(0, depth), " "));
+            sb.append(tree);
+
+            if (!tree.CHILDREN.isEmpty()) {
+                sb.append(" (\n");
+                // Push in reverse so that the first child is printed first.
+                pending.push(")");
+                for (int i = tree.CHILDREN.size() - 1; i >= 0; i--) {
+                    MSSyntaxTree child = tree.CHILDREN.get(i);
+                    if (child != null) { pending.push(new AbstractMap.SimpleImmutableEntry<>(child, depth + 2)); }
+                    if (i > 0) { pending.push(",\n"); }
                 }
             }
-            sb.append(")");
         }
 
         return sb;
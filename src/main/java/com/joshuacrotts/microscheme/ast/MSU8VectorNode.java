@@ -0,0 +1,68 @@
+/******************************************************************************
+ *  File: MSU8VectorNode.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  A u8vector stores unsigned bytes (0 to 255) in a byte[].
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.ast;
+
+import ch.obermuhlner.math.big.BigComplex;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+public final class MSU8VectorNode extends MSHomogeneousVectorNode {
+
+    private static final BigDecimal MAX_VALUE = BigDecimal.valueOf(255);
+
+    private final byte[] ELEMENTS;
+
+    public MSU8VectorNode(final byte[] elements) {
+        super(MSNodeType.U8VECTOR);
+        this.ELEMENTS = elements;
+    }
+
+    public byte[] getElements() {
+        return this.ELEMENTS;
+    }
+
+    @Override
+    public int size() {
+        return this.ELEMENTS.length;
+    }
+
+    @Override
+    public boolean canHold(final BigComplex number) {
+        return MSHomogeneousVectorNode.isIntegerInRange(number, BigDecimal.ZERO, MSU8VectorNode.MAX_VALUE);
+    }
+
+    @Override
+    public String getElementDescription() {
+        return "byte";
+    }
+
+    @Override
+    public MSNumberNode getNumber(final int idx) {
+        return new MSNumberNode(this.ELEMENTS[idx] & 0xFF);
+    }
+
+    @Override
+    public void setNumber(final int idx, final BigComplex number) {
+        this.ELEMENTS[idx] = (byte) number.re.intValue();
+    }
+
+    @Override
+    public void fillNumber(final BigComplex number, final int startIdx, final int endIdx) {
+        Arrays.fill(this.ELEMENTS, startIdx, endIdx, (byte) number.re.intValue());
+    }
+
+    @Override
+    protected void appendElement(final int idx, final StringBuilder sb) {
+        sb.append(this.ELEMENTS[idx] & 0xFF);
+    }
+}
@@ -3,9 +3,10 @@
  *
  *  Author: Joshua Crotts
  *
- *  Last Updated: 05/22/2022
+ *  Last Updated: 10/19/2026
  *
- *  A variable is just an identifier.
+ *  A variable is just an identifier. Quoted variables are symbols; those made
+ *  by the parser or by string->symbol are interned (see MSSymbolTable).
  *
  ******************************************************************************/
 
@@ -3,39 +3,52 @@
  *
  *  Author: Joshua Crotts
  *
- *  Last Updated: 01/25/2022
+ *  Last Updated: 10/19/2026
  *
  *  A vector is similar to a standard O(1) access-time array in most languages.
- *  Vectors are not resizable. Vectors can also contain heterogeneous elements.
+ *  Vectors are not resizable (vector-grow returns a new vector). Vectors can
+ *  also contain heterogeneous elements. Unlike other nodes, the elements are
+ *  kept in an array rather than as children of the node.
  *
  ******************************************************************************/
 
 package com.joshuacrotts.microscheme.ast;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 
 public class MSVectorNode extends MSSyntaxTree {
 
     /**
-     * Number of elements allocated to this vector.
+     * Elements of this vector.
      */
-    private final int NUM_ELEMENTS;
+    private final MSSyntaxTree[] ELEMENTS;
 
     public MSVectorNode(final ArrayList<MSSyntaxTree> elements) {
+        this(elements.toArray(new MSSyntaxTree[0]));
+    }
+
+    /**
+     * Constructs a vector with every element set to the same value.
+     *
+     * @param size number of elements.
+     * @param fill value of each element.
+     */
+    public MSVectorNode(final int size, final MSSyntaxTree fill) {
+        this(new MSSyntaxTree[size]);
+        Arrays.fill(this.ELEMENTS, fill);
+    }
+
+    private MSVectorNode(final MSSyntaxTree[] elements) {
         super(MSNodeType.VECTOR);
-        this.NUM_ELEMENTS = elements.size();
-        elements.forEach(this::addChild);
+        this.ELEMENTS = elements;
     }
 
     @Override
     public String getStringRep() {
-        StringBuilder sb = new StringBuilder("#(");
-        for (int i = 0; i < this.getChildrenSize() - 1; i++) {
-            sb.append(this.getChild(i).getStringRep());
-            sb.append(" ");
-        }
-        sb.append(this.getChild(this.getChildrenSize() - 1).getStringRep());
-        sb.append(")");
+        StringBuilder sb = new StringBuilder();
+        MSListNode.appendDatum(this, sb);
         return sb.toString();
     }
 
@@ -45,6 +58,48 @@ public class MSVectorNode extends MSSyntaxTree {
     }
 
     public int size() {
-        return this.NUM_ELEMENTS;
+        return this.ELEMENTS.length;
+    }
+
+    public MSSyntaxTree get(final int idx) {
+        return this.ELEMENTS[idx];
+    }
+
+    public void set(final int idx, final MSSyntaxTree element) {
+        this.ELEMENTS[idx] = element;
+    }
+
+    /**
+     * Sets the elements from startIdx (inclusive) to endIdx (exclusive) to the same value.
+     */
+    public void fill(final MSSyntaxTree fill, final int startIdx, final int endIdx) {
+        Arrays.fill(this.ELEMENTS, startIdx, endIdx, fill);
+    }
+
+    /**
+     * Returns a new vector with the elements from startIdx (inclusive) to endIdx (exclusive).
+     */
+    public MSVectorNode copy(final int startIdx, final int endIdx) {
+        return new MSVectorNode(Arrays.copyOfRange(this.ELEMENTS, startIdx, endIdx));
+    }
+
+    /**
+     * Returns a new, longer vector that starts with the elements of this one. The
+     * remaining elements are set to fill.
+     *
+     * @param newSize size of the new vector; must be at least the size of this one.
+     * @param fill value of each element past the end of this vector.
+     */
+    public MSVectorNode grow(final int newSize, final MSSyntaxTree fill) {
+        MSSyntaxTree[] elements = Arrays.copyOf(this.ELEMENTS, newSize);
+        Arrays.fill(elements, this.ELEMENTS.length, newSize, fill);
+        return new MSVectorNode(elements);
+    }
+
+    /**
+     * Sorts the elements in place. The sort is stable.
+     */
+    public void sort(final Comparator<MSSyntaxTree> comparator) {
+        Arrays.sort(this.ELEMENTS, comparator);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,164 @@
+/******************************************************************************
+ *  File: AtomicLibrary.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Shared mutable state for tasks (see TaskLibrary). An atom holds one value
+ *  that is updated with compare-and-set, so that tasks which update it at the
+ *  same time never lose one another's updates, as they may with set!. A
+ *  counter is an integer that many tasks can add to at once without waiting
+ *  on one another, e.g., for statistics.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import com.joshuacrotts.microscheme.ast.*;
+import com.joshuacrotts.microscheme.parser.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+
+final class AtomicLibrary {
+
+    /**
+     * Registers each procedure in the atomic library.
+     *
+     * @param operators mapping of procedure identifiers to their function calls.
+     */
+    static void register(final BuiltinRegistry operators) {
+        operators.put("make-atom", AtomicLibrary::interpretMakeAtom);
+        operators.put("atom?", AtomicLibrary::interpretAtomPredicate);
+        operators.put("atom-ref", AtomicLibrary::interpretAtomRef);
+        operators.put("atom-set!", AtomicLibrary::interpretAtomSet);
+        operators.put("atom-swap!", AtomicLibrary::interpretAtomSwap);
+        operators.put("atom-cas!", AtomicLibrary::interpretAtomCompareAndSet);
+        operators.put("make-counter", AtomicLibrary::interpretMakeCounter);
+        operators.put("counter?", AtomicLibrary::interpretCounterPredicate);
+        operators.put("counter-add!", AtomicLibrary::interpretCounterAdd);
+        operators.put("counter-value", AtomicLibrary::interpretCounterValue);
+        operators.put("counter-reset!", AtomicLibrary::interpretCounterReset);
+    }
+    private static LValue interpretMakeAtom(final ArrayList<LValue> makeAtomArguments) {
+        if (makeAtomArguments.size() != 1) { throw new MSArgumentArityMismatchException("make-atom", 1, makeAtomArguments.size()); }
+        return new LValue(new MSAtomNode(AtomicLibrary.getValueArgument("make-atom", 0, makeAtomArguments.get(0))));
+    }
+    private static LValue interpretAtomPredicate(final ArrayList<LValue> atomPredicateArguments) {
+        if (atomPredicateArguments.size() != 1) { throw new MSArgumentArityMismatchException("atom?", 1, atomPredicateArguments.size()); }
+        return new LValue(LValue.getAst(atomPredicateArguments.get(0)).getNodeType() == MSNodeType.ATOM);
+    }
+    private static LValue interpretAtomRef(final ArrayList<LValue> atomRefArguments) {
+        if (atomRefArguments.size() != 1) { throw new MSArgumentArityMismatchException("atom-ref", 1, atomRefArguments.size()); }
+        return AtomicLibrary.getAtomArgument("atom-ref", 0, atomRefArguments.get(0)).get();
+    }
+    private static LValue interpretAtomSet(final ArrayList<LValue> atomSetArguments) {
+        if (atomSetArguments.size() != 2) { throw new MSArgumentArityMismatchException("atom-set!", 2, atomSetArguments.size()); }
+        AtomicLibrary.getAtomArgument("atom-set!", 0, atomSetArguments.get(0))
+                .set(AtomicLibrary.getValueArgument("atom-set!", 1, atomSetArguments.get(1)));
+        return null;
+    }
+
+    /**
+     * (atom-swap! atom procedure arg ...) stores (procedure value arg ...) in atom, where
+     * value is the value in atom, and returns it. If another task stores a value in atom
+     * in the meantime, procedure is called again with the new value, so it may be called
+     * more than once and should not have side effects.
+     */
+    private static LValue interpretAtomSwap(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> atomSwapArguments) {
+        if (atomSwapArguments.size() < 2) { throw new MSArgumentArityMismatchException("atom-swap!", 2, atomSwapArguments.size()); }
+        MSAtomNode atom = AtomicLibrary.getAtomArgument("atom-swap!", 0, atomSwapArguments.get(0));
+        LValue procedure = atomSwapArguments.get(1);
+        while (true) {
+            LValue value = atom.get();
+            ArrayList<LValue> procedureArguments = new ArrayList<>(atomSwapArguments.size() - 1);
+            procedureArguments.add(value);
+            procedureArguments.addAll(atomSwapArguments.subList(2, atomSwapArguments.size()));
+            LValue result = interpreter.applyProcedure(procedure, procedureArguments);
+            ListLibrary.getResult("atom-swap!", result);
+            if (atom.compareAndSet(value, result)) { return result; }
+            interpreter.checkTimeout();
+        }
+    }
+
+    /**
+     * (atom-cas! atom expected value) stores value in atom if the value in atom is eqv? to
+     * expected, and returns whether it did.
+     */
+    private static LValue interpretAtomCompareAndSet(final ArrayList<LValue> atomCasArguments) {
+        if (atomCasArguments.size() != 3) { throw new MSArgumentArityMismatchException("atom-cas!", 3, atomCasArguments.size()); }
+        MSAtomNode atom = AtomicLibrary.getAtomArgument("atom-cas!", 0, atomCasArguments.get(0));
+        LValue expected = AtomicLibrary.getValueArgument("atom-cas!", 1, atomCasArguments.get(1));
+        LValue value = AtomicLibrary.getValueArgument("atom-cas!", 2, atomCasArguments.get(2));
+        while (true) {
+            // Equal numbers, characters, etc. are not always the same object, so the
+            // value that is compared is the one that must still be there when it is replaced.
+            LValue current = atom.get();
+            if (!CoreLibrary.isEquivalent(MSEquivalence.EQV, current, expected)) { return new LValue(false); }
+            if (atom.compareAndSet(current, value)) { return new LValue(true); }
+        }
+    }
+    private static LValue interpretMakeCounter(final ArrayList<LValue> makeCounterArguments) {
+        if (!makeCounterArguments.isEmpty()) { throw new MSArgumentArityMismatchException("make-counter", 0, makeCounterArguments.size()); }
+        return new LValue(new MSCounterNode());
+    }
+    private static LValue interpretCounterPredicate(final ArrayList<LValue> counterPredicateArguments) {
+        if (counterPredicateArguments.size() != 1) { throw new MSArgumentArityMismatchException("counter?", 1, counterPredicateArguments.size()); }
+        return new LValue(LValue.getAst(counterPredicateArguments.get(0)).getNodeType() == MSNodeType.COUNTER);
+    }
+
+    /**
+     * (counter-add! counter [amount]) adds amount, or 1 if amount is not given, to counter.
+     */
+    private static LValue interpretCounterAdd(final ArrayList<LValue> counterAddArguments) {
+        if (counterAddArguments.isEmpty() || counterAddArguments.size() > 2) {
+            throw new MSArgumentArityMismatchException("counter-add!", 1, 2, counterAddArguments.size());
+        }
+        MSCounterNode counter = AtomicLibrary.getCounterArgument("counter-add!", 0, counterAddArguments.get(0));
+        if (counterAddArguments.size() == 1) {
+            counter.add(1);
+            return null;
+        }
+        MSSyntaxTree amount = LValue.getAst(counterAddArguments.get(1));
+        if (!amount.isNumber() || !((MSNumberNode) amount).isInteger()) {
+            throw new MSArgumentTypeMismatchException("counter-add!", 1, "integer", amount.getStringNodeType());
+        }
+        BigDecimal value = ((MSNumberNode) amount).getValue().re;
+        try {
+            counter.add(value.longValueExact());
+        } catch (ArithmeticException ex) {
+            throw new MSArgumentMismatchException(String.format("counter-add! amount %s is not a 64-bit integer", value.toPlainString()));
+        }
+        return null;
+    }
+    private static LValue interpretCounterValue(final ArrayList<LValue> counterValueArguments) {
+        if (counterValueArguments.size() != 1) { throw new MSArgumentArityMismatchException("counter-value", 1, counterValueArguments.size()); }
+        return new LValue(BigDecimal.valueOf(AtomicLibrary.getCounterArgument("counter-value", 0, counterValueArguments.get(0)).sum()));
+    }
+    private static LValue interpretCounterReset(final ArrayList<LValue> counterResetArguments) {
+        if (counterResetArguments.size() != 1) { throw new MSArgumentArityMismatchException("counter-reset!", 1, counterResetArguments.size()); }
+        AtomicLibrary.getCounterArgument("counter-reset!", 0, counterResetArguments.get(0)).reset();
+        return null;
+    }
+
+    /**
+     * @throws MSArgumentMismatchException if the argument has no value, e.g., it is the result of display.
+     */
+    private static LValue getValueArgument(final String procedureName, final int argumentIdx, final LValue argument) {
+        if (argument == null) { throw new MSArgumentMismatchException(String.format("%s argument %d has no value", procedureName, argumentIdx + 1)); }
+        return argument;
+    }
+
+    private static MSAtomNode getAtomArgument(final String procedureName, final int argumentIdx, final LValue argument) {
+        MSSyntaxTree atom = LValue.getAst(argument);
+        if (atom.getNodeType() != MSNodeType.ATOM) { throw new MSArgumentTypeMismatchException(procedureName, argumentIdx, "atom", atom.getStringNodeType()); }
+        return (MSAtomNode) atom;
+    }
+
+    private static MSCounterNode getCounterArgument(final String procedureName, final int argumentIdx, final LValue argument) {
+        MSSyntaxTree counter = LValue.getAst(argument);
+        if (counter.getNodeType() != MSNodeType.COUNTER) { throw new MSArgumentTypeMismatchException(procedureName, argumentIdx, "counter", counter.getStringNodeType()); }
+        return (MSCounterNode) counter;
+    }
+}
@@ -0,0 +1,220 @@
+/******************************************************************************
+ *  File: BuiltinLibrary.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Builtin procedures are grouped into libraries. A library is registered the
+ *  first time one of its procedures is applied, so a script only pays for the
+ *  libraries that it uses (e.g., a string-only script never loads the classes
+ *  behind the transcendental library). Hosts that embed the interpreter can also
+ *  restrict which libraries are available (see MSRuntime).
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+public enum BuiltinLibrary {
+
+    CORE("core", new String[]{
+            "not", "equal?", "eq?", "eqv?", "cons", "list", "car", "cdr", "vector", "vector-ref",
+            "vector-length", "make-vector", "vector-fill!", "vector-copy", "vector-grow", "subvector",
+            "null?", "number?", "real?", "char?", "string?", "symbol?", "pair?", "list?", "vector?",
+            "procedure?"}) {
+        @Override
+        void register(final BuiltinRegistry operators) {
+            CoreLibrary.register(operators);
+        }
+    },
+
+    LIST("list", new String[]{
+            "length", "append", "reverse", "list-tail", "list-ref", "memq", "memv", "member", "assq",
+            "assv", "assoc", "map", "for-each", "filter", "fold-left", "fold-right", "reduce"}) {
+        @Override
+        void register(final BuiltinRegistry operators) {
+            ListLibrary.register(operators);
+        }
+    },
+
+    SORT("sort", new String[]{
+            "sort", "vector-sort!", "list-merge"}) {
+        @Override
+        void register(final BuiltinRegistry operators) {
+            SortLibrary.register(operators);
+        }
+    },
+
+    PARALLEL("parallel", new String[]{
+            "par-map", "par-for-each", "par-reduce"}) {
+        @Override
+        void register(final BuiltinRegistry operators) {
+            ParallelLibrary.register(operators);
+        }
+    },
+
+    TASK("task", new String[]{
+            "future", "touch", "spawn", "future?"}) {
+        @Override
+        void register(final BuiltinRegistry operators) {
+            TaskLibrary.register(operators);
+        }
+    },
+
+    CHANNEL("channel", new String[]{
+            "make-channel", "channel?", "channel-put!", "channel-get", "channel-close!", "channel-select"}) {
+        @Override
+        void register(final BuiltinRegistry operators) {
+            ChannelLibrary.register(operators);
+        }
+    },
+
+    ATOMIC("atomic", new String[]{
+            "make-atom", "atom?", "atom-ref", "atom-set!", "atom-swap!", "atom-cas!",
+            "make-counter", "counter?", "counter-add!", "counter-value", "counter-reset!"}) {
+        @Override
+        void register(final BuiltinRegistry operators) {
+            AtomicLibrary.register(operators);
+        }
+    },
+
+    NUMERIC("numeric-exact", new String[]{
+            "+", "-", "*", "/", "floor", "ceiling", "round", "truncate", "modulo", "remainder", "<",
+            "<=", ">", ">=", "=", "real-part", "imag-part", "number->string", "string->number"}) {
+        @Override
+        void register(final BuiltinRegistry operators) {
+            NumericLibrary.register(operators);
+        }
+    },
+
+    TRANSCENDENTAL("transcendental", new String[]{
+            "**", "log", "sin", "cos", "tan", "sinh", "cosh", "tanh", "asin", "acos", "atan",
+            "asinh", "acosh", "atanh"}) {
+        @Override
+        void register(final BuiltinRegistry operators) {
+            TranscendentalLibrary.register(operators);
+        }
+    },
+
+    STRING("string", new String[]{
+            "string-append", "string-length", "string<?", "string<=?", "string>?", "string>=?",
+            "substring", "list->string", "string->list", "string->symbol", "symbol->string",
+            "make-string-builder", "string-builder?", "string-builder-append!", "string-builder-length",
+            "string-builder-clear!", "string-builder->string"}) {
+        @Override
+        void register(final BuiltinRegistry operators) {
+            StringLibrary.register(operators);
+        }
+    },
+
+    CHAR("char", new String[]{
+            "char<?", "char<=?", "char>?", "char>=?"}) {
+        @Override
+        void register(final BuiltinRegistry operators) {
+            CharLibrary.register(operators);
+        }
+    },
+
+    RANDOM("random", new String[]{
+            "random", "random-integer", "random-double", "random-set-seed!"}) {
+        @Override
+        void register(final BuiltinRegistry operators) {
+            RandomLibrary.register(operators);
+        }
+    },
+
+    NUMERIC_VECTOR("numeric-vector", new String[]{
+            "make-f64vector", "f64vector", "f64vector?", "f64vector-length", "f64vector-ref",
+            "f64vector-set!", "f64vector-fill!", "f64vector->list", "list->f64vector",
+            "make-s64vector", "s64vector", "s64vector?", "s64vector-length", "s64vector-ref",
+            "s64vector-set!", "s64vector-fill!", "s64vector->list", "list->s64vector",
+            "make-u8vector", "u8vector", "u8vector?", "u8vector-length", "u8vector-ref",
+            "u8vector-set!", "u8vector-fill!", "u8vector->list", "list->u8vector", "f64vector-sum",
+            "f64vector-dot", "f64vector-map!"}) {
+        @Override
+        void register(final BuiltinRegistry operators) {
+            NumericVectorLibrary.register(operators);
+        }
+    },
+
+    STREAM("stream", new String[]{
+            "force", "make-promise", "promise?", "stream-car", "stream-cdr", "stream-pair?",
+            "stream-null?", "stream-ref", "stream->list", "list->stream", "stream-map", "stream-filter"}) {
+        @Override
+        void register(final BuiltinRegistry operators) {
+            StreamLibrary.register(operators);
+        }
+    },
+
+    CONTROL("control", new String[]{
+            "call-with-escape-continuation", "call/ec", "call-with-current-continuation", "call/cc"}) {
+        @Override
+        void register(final BuiltinRegistry operators) {
+            ControlLibrary.register(operators);
+        }
+    },
+
+    HASH_TABLE("hash-table", new String[]{
+            "make-hash-table", "make-eq-hash-table", "make-eqv-hash-table", "make-equal-hash-table",
+            "hash-table?", "hash-ref", "hash-set!", "hash-remove!", "hash-has-key?", "hash-count",
+            "hash-clear!", "hash-keys", "hash-values", "hash->list", "hash-for-each",
+            "hash-table-update!"}) {
+        @Override
+        void register(final BuiltinRegistry operators) {
+            HashTableLibrary.register(operators);
+        }
+    },
+
+    IO("io", new String[]{
+            "display", "displayln", "newline", "write-string", "write-char", "printf",
+            "open-output-string", "get-output-string"}) {
+        @Override
+        void register(final BuiltinRegistry operators) {
+            IOLibrary.register(operators);
+        }
+    };
+
+    /**
+     * Name of library, e.g., for the --libraries option of the runner.
+     */
+    private final String NAME;
+
+    /**
+     * Identifiers of the procedures that this library defines.
+     */
+    private final String[] PROCEDURE_NAMES;
+
+    BuiltinLibrary(final String name, final String[] procedureNames) {
+        this.NAME = name;
+        this.PROCEDURE_NAMES = procedureNames;
+    }
+
+    @Override
+    public String toString() {
+        return this.NAME;
+    }
+
+    /**
+     * Returns the library with the given name.
+     *
+     * @param name name of library, e.g., "string".
+     * @return BuiltinLibrary with that name, or null if there is none.
+     */
+    public static BuiltinLibrary fromName(final String name) {
+        for (BuiltinLibrary library : BuiltinLibrary.values()) {
+            if (library.NAME.equals(name)) { return library; }
+        }
+        return null;
+    }
+
+    String[] getProcedureNames() {
+        return this.PROCEDURE_NAMES;
+    }
+
+    /**
+     * Adds every procedure of this library to the operator table.
+     *
+     * @param operators mapping of procedure identifiers to their function calls.
+     */
+    abstract void register(final BuiltinRegistry operators);
+}
@@ -0,0 +1,39 @@
+/******************************************************************************
+ *  File: BuiltinRegistry.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Libraries register their procedures through a BuiltinRegistry. Most
+ *  procedures only need their arguments; those that call other procedures
+ *  also receive the interpreter that applied them.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import com.joshuacrotts.microscheme.parser.MSFunction;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+final class BuiltinRegistry {
+
+    /**
+     * Mapping of procedure identifiers to their function calls.
+     */
+    private final Map<String, MSBuiltinProcedure> PROCEDURES;
+
+    BuiltinRegistry(final Map<String, MSBuiltinProcedure> procedures) {
+        this.PROCEDURES = procedures;
+    }
+
+    void put(final String procedureName, final MSFunction<ArrayList<LValue>, LValue> procedure) {
+        this.PROCEDURES.put(procedureName, (interpreter, arguments) -> procedure.apply(arguments));
+    }
+
+    void put(final String procedureName, final MSBuiltinProcedure procedure) {
+        this.PROCEDURES.put(procedureName, procedure);
+    }
+}
@@ -0,0 +1,176 @@
+/******************************************************************************
+ *  File: ChannelLibrary.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Bounded channels for passing values between tasks (see TaskLibrary), e.g.,
+ *  from one stage of a pipeline to the next. channel-put! waits while its
+ *  channel is full and channel-get waits while it is empty. The waits are cut
+ *  into short slices and check for a timeout in between, so a task that is
+ *  stuck on a channel times out like any other. On Java 21 and later, a
+ *  waiting virtual thread also gives up its carrier thread.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import com.joshuacrotts.microscheme.ast.*;
+import com.joshuacrotts.microscheme.parser.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+final class ChannelLibrary {
+
+    /**
+     * Most values that a channel can hold. Room for them is allocated when the channel is made.
+     */
+    private static final int MAX_CAPACITY = 1 << 20;
+
+    /**
+     * Longest time, in nanoseconds, that a channel procedure waits before it checks for a
+     * timeout again.
+     */
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(TaskLibrary.POLL_MILLIS);
+
+    /**
+     * Registers each procedure in the channel library.
+     *
+     * @param operators mapping of procedure identifiers to their function calls.
+     */
+    static void register(final BuiltinRegistry operators) {
+        operators.put("make-channel", ChannelLibrary::interpretMakeChannel);
+        operators.put("channel?", ChannelLibrary::interpretChannelPredicate);
+        operators.put("channel-put!", ChannelLibrary::interpretChannelPut);
+        operators.put("channel-get", ChannelLibrary::interpretChannelGet);
+        operators.put("channel-close!", ChannelLibrary::interpretChannelClose);
+        operators.put("channel-select", ChannelLibrary::interpretChannelSelect);
+    }
+
+    /**
+     * (make-channel [capacity]) returns an empty channel that holds at most capacity values,
+     * or one value if capacity is not given.
+     */
+    private static LValue interpretMakeChannel(final ArrayList<LValue> makeChannelArguments) {
+        if (makeChannelArguments.size() > 1) { throw new MSArgumentArityMismatchException("make-channel", 0, 1, makeChannelArguments.size()); }
+        if (makeChannelArguments.isEmpty()) { return new LValue(new MSChannelNode(1)); }
+        MSSyntaxTree capacity = LValue.getAst(makeChannelArguments.get(0));
+        if (!capacity.isNumber() || !((MSNumberNode) capacity).isInteger()) {
+            throw new MSArgumentTypeMismatchException("make-channel", 0, "integer", capacity.getStringNodeType());
+        }
+        BigDecimal value = ((MSNumberNode) capacity).getValue().re;
+        if (value.signum() <= 0 || value.compareTo(BigDecimal.valueOf(MAX_CAPACITY)) > 0) {
+            throw new MSArgumentMismatchException(String.format("make-channel capacity %s is out of range [1, %d]", value.toPlainString(), MAX_CAPACITY));
+        }
+        return new LValue(new MSChannelNode(value.intValue()));
+    }
+    private static LValue interpretChannelPredicate(final ArrayList<LValue> channelPredicateArguments) {
+        if (channelPredicateArguments.size() != 1) { throw new MSArgumentArityMismatchException("channel?", 1, channelPredicateArguments.size()); }
+        return new LValue(LValue.getAst(channelPredicateArguments.get(0)).getNodeType() == MSNodeType.CHANNEL);
+    }
+
+    /**
+     * (channel-put! channel value) puts value on the end of channel, waiting while the
+     * channel is full. It is an error to put a value on a closed channel.
+     */
+    private static LValue interpretChannelPut(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> channelPutArguments) {
+        if (channelPutArguments.size() != 2) { throw new MSArgumentArityMismatchException("channel-put!", 2, channelPutArguments.size()); }
+        MSChannelNode channel = ChannelLibrary.getChannelArgument("channel-put!", 0, channelPutArguments.get(0));
+        if (channelPutArguments.get(1) == null) { throw new MSArgumentMismatchException("channel-put! argument 2 has no value"); }
+        LValue value = channelPutArguments.get(1);
+        try {
+            while (!channel.put(value, POLL_NANOS)) { interpreter.checkTimeout(); }
+        } catch (InterruptedException ex) {
+            throw ChannelLibrary.interrupted();
+        }
+        return null;
+    }
+
+    /**
+     * (channel-get channel [default]) takes the value at the front of channel, waiting while
+     * the channel is empty. If the channel is closed and has no values left, it returns
+     * default, or #f if default is not given.
+     */
+    private static LValue interpretChannelGet(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> channelGetArguments) {
+        if (channelGetArguments.isEmpty() || channelGetArguments.size() > 2) {
+            throw new MSArgumentArityMismatchException("channel-get", 1, 2, channelGetArguments.size());
+        }
+        MSChannelNode channel = ChannelLibrary.getChannelArgument("channel-get", 0, channelGetArguments.get(0));
+        try {
+            while (true) {
+                LValue value = channel.take(POLL_NANOS);
+                if (value != null) { return value; }
+                if (channel.isDrained()) { return channelGetArguments.size() == 2 ? channelGetArguments.get(1) : new LValue(false); }
+                interpreter.checkTimeout();
+            }
+        } catch (InterruptedException ex) {
+            throw ChannelLibrary.interrupted();
+        }
+    }
+
+    /**
+     * (channel-close! channel) closes channel, so that nothing more can be put on it.
+     * Tasks that are waiting to get a value from it stop waiting once it is empty.
+     */
+    private static LValue interpretChannelClose(final ArrayList<LValue> channelCloseArguments) {
+        if (channelCloseArguments.size() != 1) { throw new MSArgumentArityMismatchException("channel-close!", 1, channelCloseArguments.size()); }
+        ChannelLibrary.getChannelArgument("channel-close!", 0, channelCloseArguments.get(0)).close();
+        return null;
+    }
+
+    /**
+     * (channel-select channel ...) takes a value from whichever channel has one first, and
+     * returns a pair of that channel and the value. If several channels have a value, the
+     * earliest one in the arguments is taken from. Closed channels with no values left are
+     * skipped, and if every channel is, #f is returned.
+     */
+    private static LValue interpretChannelSelect(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> channelSelectArguments) {
+        if (channelSelectArguments.isEmpty()) { throw new MSArgumentArityMismatchException("channel-select", 1, 0); }
+        ArrayList<MSChannelNode> channels = new ArrayList<>(channelSelectArguments.size());
+        for (int i = 0; i < channelSelectArguments.size(); i++) {
+            channels.add(ChannelLibrary.getChannelArgument("channel-select", i, channelSelectArguments.get(i)));
+        }
+
+        // The semaphore is released whenever one of the channels may have changed, so
+        // that the channels are only checked again after a put or a close.
+        Semaphore selector = new Semaphore(0);
+        for (MSChannelNode channel : channels) { channel.addSelector(selector); }
+        try {
+            while (true) {
+                boolean isAllDrained = true;
+                for (MSChannelNode channel : channels) {
+                    LValue value = channel.take(0);
+                    if (value != null) { return new LValue(new MSListNode(new LValue(channel), value)); }
+                    isAllDrained &= channel.isDrained();
+                }
+                if (isAllDrained) { return new LValue(false); }
+                if (!selector.tryAcquire(POLL_NANOS, TimeUnit.NANOSECONDS)) { interpreter.checkTimeout(); }
+                selector.drainPermits();
+            }
+        } catch (InterruptedException ex) {
+            throw ChannelLibrary.interrupted();
+        } finally {
+            for (MSChannelNode channel : channels) { channel.removeSelector(selector); }
+        }
+    }
+
+    /**
+     * Returns a channel argument.
+     *
+     * @throws MSArgumentTypeMismatchException if the argument is not a channel.
+     */
+    private static MSChannelNode getChannelArgument(final String procedureName, final int argumentIdx, final LValue argument) {
+        MSSyntaxTree channel = LValue.getAst(argument);
+        if (channel.getNodeType() != MSNodeType.CHANNEL) { throw new MSArgumentTypeMismatchException(procedureName, argumentIdx, "channel", channel.getStringNodeType()); }
+        return (MSChannelNode) channel;
+    }
+
+    private static MSInterpreterException interrupted() {
+        Thread.currentThread().interrupt();
+        return new MSInterpreterException("interrupted while waiting on a channel");
+    }
+}
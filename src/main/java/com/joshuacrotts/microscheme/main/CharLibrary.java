@@ -0,0 +1,56 @@
+/******************************************************************************
+ *  File: CharLibrary.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Character comparison procedures.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import com.joshuacrotts.microscheme.ast.*;
+import com.joshuacrotts.microscheme.parser.*;
+
+import java.util.ArrayList;
+
+final class CharLibrary {
+
+    /**
+     * Registers each procedure in the char library.
+     *
+     * @param operators mapping of procedure identifiers to their function calls.
+     */
+    static void register(final BuiltinRegistry operators) {
+        operators.put("char<?", CharLibrary::interpretCharLess);
+        operators.put("char<=?", CharLibrary::interpretCharLessEqual);
+        operators.put("char>?", CharLibrary::interpretCharGreater);
+        operators.put("char>=?", CharLibrary::interpretCharGreaterEqual);
+    }
+    private static LValue interpretCharLess(final ArrayList<LValue> charLessArguments) throws MSArgumentMismatchException {
+        if (charLessArguments.size() != 2) { throw new MSArgumentArityMismatchException("char<?", 2, charLessArguments.size()); }
+        char leftArgument = charLessArguments.get(0).getCharacterValue();
+        char rightArgument = charLessArguments.get(1).getCharacterValue();
+        return new LValue(leftArgument < rightArgument);
+    }
+    private static LValue interpretCharLessEqual(final ArrayList<LValue> charLessEqualArguments) throws MSArgumentMismatchException {
+        if (charLessEqualArguments.size() != 2) { throw new MSArgumentArityMismatchException("char<=?", 2, charLessEqualArguments.size()); }
+        char leftArgument = charLessEqualArguments.get(0).getCharacterValue();
+        char rightArgument = charLessEqualArguments.get(1).getCharacterValue();
+        return new LValue(leftArgument <= rightArgument);
+    }
+    private static LValue interpretCharGreater(final ArrayList<LValue> charGreaterArguments) throws MSArgumentMismatchException {
+        if (charGreaterArguments.size() != 2) { throw new MSArgumentArityMismatchException("char>?", 2, charGreaterArguments.size()); }
+        char leftArgument = charGreaterArguments.get(0).getCharacterValue();
+        char rightArgument = charGreaterArguments.get(1).getCharacterValue();
+        return new LValue(leftArgument > rightArgument);
+    }
+    private static LValue interpretCharGreaterEqual(final ArrayList<LValue> charGreaterEqualArguments) throws MSArgumentMismatchException {
+        if (charGreaterEqualArguments.size() != 2) { throw new MSArgumentArityMismatchException("char>=?", 2, charGreaterEqualArguments.size()); }
+        char leftArgument = charGreaterEqualArguments.get(0).getCharacterValue();
+        char rightArgument = charGreaterEqualArguments.get(1).getCharacterValue();
+        return new LValue(leftArgument >= rightArgument);
+    }
+}
@@ -0,0 +1,61 @@
+/******************************************************************************
+ *  File: ControlLibrary.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Control-flow procedures. call-with-escape-continuation (call/ec) gives its
+ *  procedure a continuation that returns from the call/ec when called, e.g., to
+ *  stop a for-each early. Escaping throws an MSEscapeException that is
+ *  allocated once per continuation and has no stack trace, so it costs little
+ *  more than a return.
+ *
+ *  call-with-current-continuation (call/cc) gives a full continuation when it
+ *  is called by the CEK machine (see MSCekMachine). Otherwise, e.g., without
+ *  --cek or from inside a builtin procedure, it behaves like call/ec.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import com.joshuacrotts.microscheme.ast.*;
+import com.joshuacrotts.microscheme.parser.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+final class ControlLibrary {
+
+    /**
+     * Registers each procedure in the control library.
+     *
+     * @param operators mapping of procedure identifiers to their function calls.
+     */
+    static void register(final BuiltinRegistry operators) {
+        operators.put("call-with-escape-continuation", (interpreter, arguments) -> ControlLibrary.interpretCallWithEscapeContinuation(interpreter, "call-with-escape-continuation", arguments));
+        operators.put("call/ec", (interpreter, arguments) -> ControlLibrary.interpretCallWithEscapeContinuation(interpreter, "call/ec", arguments));
+        operators.put("call-with-current-continuation", (interpreter, arguments) -> ControlLibrary.interpretCallWithEscapeContinuation(interpreter, "call-with-current-continuation", arguments));
+        operators.put("call/cc", (interpreter, arguments) -> ControlLibrary.interpretCallWithEscapeContinuation(interpreter, "call/cc", arguments));
+    }
+
+    /**
+     * (call-with-escape-continuation procedure) calls procedure with an escape continuation
+     * k. If k is called with a value while procedure is running, that value is returned
+     * immediately. Otherwise, the result of procedure is returned.
+     */
+    private static LValue interpretCallWithEscapeContinuation(final MicroSchemeInterpreter interpreter, final String procedureName,
+                                                              final ArrayList<LValue> callEcArguments) {
+        if (callEcArguments.size() != 1) { throw new MSArgumentArityMismatchException(procedureName, 1, callEcArguments.size()); }
+        MSEscapeContinuationNode continuation = new MSEscapeContinuationNode();
+        try {
+            return interpreter.applyProcedure(callEcArguments.get(0), new ArrayList<>(Collections.singletonList(new LValue(continuation))));
+        } catch (MSEscapeException ex) {
+            // Escapes to an enclosing call/ec keep unwinding.
+            if (ex.getTarget() != continuation) { throw ex; }
+            return continuation.getValue();
+        } finally {
+            continuation.deactivate();
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/******************************************************************************
+ *  File: CoreLibrary.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Core procedures: pairs, lists, vectors, equality and type predicates.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import com.joshuacrotts.microscheme.ast.*;
+import com.joshuacrotts.microscheme.parser.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Optional;
+
+final class CoreLibrary {
+
+    /**
+     * Value of vector elements that make-vector and vector-grow do not give a value.
+     */
+    private static final MSSyntaxTree DEFAULT_FILL = new MSBooleanNode(false);
+
+    /**
+     * Registers each procedure in the core library.
+     *
+     * @param operators mapping of procedure identifiers to their function calls.
+     */
+    static void register(final BuiltinRegistry operators) {
+        operators.put("not", CoreLibrary::interpretNot);
+        operators.put("equal?", CoreLibrary::interpretEqualPredicate);
+        operators.put("eq?", CoreLibrary::interpretEqPredicate);
+        operators.put("eqv?", CoreLibrary::interpretEqvPredicate);
+        operators.put("cons", CoreLibrary::interpretConsFunction);
+        operators.put("list", CoreLibrary::interpretListFunction);
+        operators.put("car", CoreLibrary::interpretCarFunction);
+        operators.put("cdr", CoreLibrary::interpretCdrFunction);
+        operators.put("vector", CoreLibrary::interpretVectorFunction);
+        operators.put("vector-ref", CoreLibrary::interpretVectorRefFunction);
+        operators.put("vector-length", CoreLibrary::interpretVectorLengthFunction);
+        operators.put("make-vector", CoreLibrary::interpretMakeVectorFunction);
+        operators.put("vector-fill!", CoreLibrary::interpretVectorFillFunction);
+        operators.put("vector-copy", CoreLibrary::interpretVectorCopyFunction);
+        operators.put("vector-grow", CoreLibrary::interpretVectorGrowFunction);
+        operators.put("subvector", CoreLibrary::interpretSubvectorFunction);
+        operators.put("null?", CoreLibrary::interpretNullPredicate);
+        operators.put("number?", CoreLibrary::interpretNumberPredicate);
+        operators.put("real?", CoreLibrary::interpretRealPredicate);
+        operators.put("char?", CoreLibrary::interpretCharPredicate);
+        operators.put("string?", CoreLibrary::interpretStringPredicate);
+        operators.put("symbol?", CoreLibrary::interpretSymbolPredicate);
+        operators.put("pair?", CoreLibrary::interpretPairPredicate);
+        operators.put("list?", CoreLibrary::interpretListPredicate);
+        operators.put("vector?", CoreLibrary::interpretVectorPredicate);
+        operators.put("procedure?", CoreLibrary::interpretProcedurePredicate);
+    }
+    private static LValue interpretNot(final ArrayList<LValue> notArguments) throws MSArgumentMismatchException {
+        if (notArguments.size() != 1) { throw new MSArgumentArityMismatchException("not", 2, notArguments.size()); }
+        LValue booleanArgument = notArguments.get(0);
+        return new LValue(!booleanArgument.getBooleanValue());
+    }
+    private static LValue interpretEqualPredicate(final ArrayList<LValue> equalArguments) throws MSArgumentMismatchException {
+        if (equalArguments.size() != 2) { throw new MSArgumentArityMismatchException("equal?", 2, equalArguments.size()); }
+        return new LValue(CoreLibrary.isEquivalent(MSEquivalence.EQUAL, equalArguments.get(0), equalArguments.get(1)));
+    }
+    private static LValue interpretEqPredicate(final ArrayList<LValue> eqArguments) throws MSArgumentMismatchException {
+        if (eqArguments.size() != 2) { throw new MSArgumentArityMismatchException("eq?", 2, eqArguments.size()); }
+        return new LValue(CoreLibrary.isEquivalent(MSEquivalence.EQ, eqArguments.get(0), eqArguments.get(1)));
+    }
+    private static LValue interpretEqvPredicate(final ArrayList<LValue> eqvArguments) throws MSArgumentMismatchException {
+        if (eqvArguments.size() != 2) { throw new MSArgumentArityMismatchException("eqv?", 2, eqvArguments.size()); }
+        return new LValue(CoreLibrary.isEquivalent(MSEquivalence.EQV, eqvArguments.get(0), eqvArguments.get(1)));
+    }
+    private static LValue interpretConsFunction(final ArrayList<LValue> consArguments) throws MSArgumentMismatchException {
+        if (consArguments.size() != 2) { throw new MSArgumentArityMismatchException("cons", 2, consArguments.size()); }
+        MSSyntaxTree lhs = LValue.getAst(consArguments.get(0));
+        MSSyntaxTree rhs = LValue.getAst(consArguments.get(1));
+        return new LValue(new MSListNode(lhs, rhs));
+    }
+    private static LValue interpretListFunction(final ArrayList<LValue> listArguments) {
+        MSListNode rootList = null;
+        MSListNode currList = null;
+        for (int i = listArguments.size() - 1; i >= 0; i--) {
+            MSSyntaxTree rhsExpression = LValue.getAst(listArguments.get(i));
+            currList = new MSListNode(rhsExpression, currList);
+        }
+
+        rootList = Optional.ofNullable(currList).orElse(MSListNode.EMPTY_LIST);
+        return new LValue(rootList);
+    }
+    private static LValue interpretCarFunction(final ArrayList<LValue> carArguments) throws MSArgumentMismatchException {
+        if (carArguments.size() != 1) { throw new MSArgumentArityMismatchException("car", 1, carArguments.size()); }
+        MSSyntaxTree argument = LValue.getAst(carArguments.get(0));
+        if (!argument.isList()) { throw new MSArgumentTypeMismatchException("car", "list/cons pair", argument.getNodeType().toString()); }
+        MSListNode listArgument = (MSListNode) argument;
+        // Check to make sure we're not doing cdr on an empty list.
+        if (listArgument.isEmptyList()) { throw new MSArgumentTypeMismatchException("car", "non-empty list/cons pair", "()"); }
+        return listArgument.getCarValue();
+    }
+    private static LValue interpretCdrFunction(final ArrayList<LValue> cdrArguments) throws MSArgumentMismatchException {
+        if (cdrArguments.size() != 1) { throw new MSArgumentArityMismatchException("cdr", 1, cdrArguments.size()); }
+        MSSyntaxTree argument = LValue.getAst(cdrArguments.get(0));
+        if (!argument.isList()) { throw new MSArgumentTypeMismatchException("cdr", "list/cons pair", argument.getNodeType().toString()); }
+        MSListNode listArgument = (MSListNode) argument;
+        // Check to make sure we're not doing cdr on an empty list.
+        if (listArgument.isEmptyList()) { throw new MSArgumentTypeMismatchException("cdr", "non-empty list/cons pair", "()"); }
+        return listArgument.getCdrValue();
+    }
+    private static LValue interpretVectorFunction(final ArrayList<LValue> vectorArguments) {
+        ArrayList<MSSyntaxTree> vectorElements = new ArrayList<>();
+        for (LValue lval : vectorArguments) { vectorElements.add(LValue.getAst(lval)); }
+        return new LValue(new MSVectorNode(vectorElements));
+    }
+    private static LValue interpretVectorRefFunction(final ArrayList<LValue> vectorRefArguments) throws MSArgumentMismatchException {
+        if (vectorRefArguments.size() != 2) { throw new MSArgumentArityMismatchException("vector-ref", 2, vectorRefArguments.size()); }
+        MSVectorNode vector = CoreLibrary.getVectorArgument("vector-ref", 0, vectorRefArguments.get(0));
+        int index = CoreLibrary.getVectorIndexArgument("vector-ref", 1, vectorRefArguments.get(1), vector.size() - 1);
+        return new LValue(vector.get(index));
+    }
+    private static LValue interpretVectorLengthFunction(final ArrayList<LValue> vectorLengthArguments) throws MSArgumentMismatchException {
+        if (vectorLengthArguments.size() != 1) { throw new MSArgumentArityMismatchException("vector-length", 1, vectorLengthArguments.size()); }
+        return new LValue(CoreLibrary.getVectorArgument("vector-length", 0, vectorLengthArguments.get(0)).size());
+    }
+    private static LValue interpretMakeVectorFunction(final ArrayList<LValue> makeVectorArguments) throws MSArgumentMismatchException {
+        if (makeVectorArguments.isEmpty() || makeVectorArguments.size() > 2) { throw new MSArgumentArityMismatchException("make-vector", 1, 2, makeVectorArguments.size()); }
+        int size = CoreLibrary.getVectorIndexArgument("make-vector", 0, makeVectorArguments.get(0), Integer.MAX_VALUE);
+        MSSyntaxTree fill = makeVectorArguments.size() == 2 ? LValue.getAst(makeVectorArguments.get(1)) : CoreLibrary.DEFAULT_FILL;
+        return new LValue(new MSVectorNode(size, fill));
+    }
+    private static LValue interpretVectorFillFunction(final ArrayList<LValue> vectorFillArguments) throws MSArgumentMismatchException {
+        if (vectorFillArguments.size() < 2 || vectorFillArguments.size() > 4) { throw new MSArgumentArityMismatchException("vector-fill!", 2, 4, vectorFillArguments.size()); }
+        MSVectorNode vector = CoreLibrary.getVectorArgument("vector-fill!", 0, vectorFillArguments.get(0));
+        int startIdx = vectorFillArguments.size() > 2 ? CoreLibrary.getVectorIndexArgument("vector-fill!", 2, vectorFillArguments.get(2), vector.size()) : 0;
+        int endIdx = vectorFillArguments.size() > 3 ? CoreLibrary.getVectorIndexArgument("vector-fill!", 3, vectorFillArguments.get(3), vector.size()) : vector.size();
+        CoreLibrary.checkVectorRange("vector-fill!", startIdx, endIdx);
+        vector.fill(LValue.getAst(vectorFillArguments.get(1)), startIdx, endIdx);
+        return null;
+    }
+    private static LValue interpretVectorCopyFunction(final ArrayList<LValue> vectorCopyArguments) throws MSArgumentMismatchException {
+        if (vectorCopyArguments.isEmpty() || vectorCopyArguments.size() > 3) { throw new MSArgumentArityMismatchException("vector-copy", 1, 3, vectorCopyArguments.size()); }
+        MSVectorNode vector = CoreLibrary.getVectorArgument("vector-copy", 0, vectorCopyArguments.get(0));
+        int startIdx = vectorCopyArguments.size() > 1 ? CoreLibrary.getVectorIndexArgument("vector-copy", 1, vectorCopyArguments.get(1), vector.size()) : 0;
+        int endIdx = vectorCopyArguments.size() > 2 ? CoreLibrary.getVectorIndexArgument("vector-copy", 2, vectorCopyArguments.get(2), vector.size()) : vector.size();
+        CoreLibrary.checkVectorRange("vector-copy", startIdx, endIdx);
+        return new LValue(vector.copy(startIdx, endIdx));
+    }
+    private static LValue interpretSubvectorFunction(final ArrayList<LValue> subvectorArguments) throws MSArgumentMismatchException {
+        if (subvectorArguments.size() != 3) { throw new MSArgumentArityMismatchException("subvector", 3, subvectorArguments.size()); }
+        MSVectorNode vector = CoreLibrary.getVectorArgument("subvector", 0, subvectorArguments.get(0));
+        int startIdx = CoreLibrary.getVectorIndexArgument("subvector", 1, subvectorArguments.get(1), vector.size());
+        int endIdx = CoreLibrary.getVectorIndexArgument("subvector", 2, subvectorArguments.get(2), vector.size());
+        CoreLibrary.checkVectorRange("subvector", startIdx, endIdx);
+        return new LValue(vector.copy(startIdx, endIdx));
+    }
+    private static LValue interpretVectorGrowFunction(final ArrayList<LValue> vectorGrowArguments) throws MSArgumentMismatchException {
+        if (vectorGrowArguments.size() != 2) { throw new MSArgumentArityMismatchException("vector-grow", 2, vectorGrowArguments.size()); }
+        MSVectorNode vector = CoreLibrary.getVectorArgument("vector-grow", 0, vectorGrowArguments.get(0));
+        int newSize = CoreLibrary.getVectorIndexArgument("vector-grow", 1, vectorGrowArguments.get(1), Integer.MAX_VALUE);
+        if (newSize < vector.size()) {
+            throw new MSArgumentMismatchException(String.format("vector-grow size %d cannot be smaller than vector size %d", newSize, vector.size()));
+        }
+        return new LValue(vector.grow(newSize, CoreLibrary.DEFAULT_FILL));
+    }
+
+    /**
+     * Compares two values with an equivalence predicate. Closures made from the same
+     * lambda share its syntax tree, so they are compared by the closure itself instead.
+     */
+    static boolean isEquivalent(final MSEquivalence equivalence, final LValue lhs, final LValue rhs) {
+        if (lhs == rhs) { return true; }
+        if (lhs.getTree().isLambda() || rhs.getTree().isLambda()) { return false; }
+        return equivalence.isEquivalent(LValue.getAst(lhs), LValue.getAst(rhs));
+    }
+
+    /**
+     * Returns an argument as a vector.
+     *
+     * @param procedureName name of procedure, for error messages.
+     * @param argumentIdx position of argument, for error messages.
+     * @param argument argument to check.
+     * @return vector node of argument.
+     *
+     * @throws MSArgumentTypeMismatchException if the argument is not a vector.
+     */
+    static MSVectorNode getVectorArgument(final String procedureName, final int argumentIdx, final LValue argument) {
+        MSSyntaxTree vector = LValue.getAst(argument);
+        if (!vector.isVector()) { throw new MSArgumentTypeMismatchException(procedureName, argumentIdx, "vector", vector.getStringNodeType()); }
+        return (MSVectorNode) vector;
+    }
+
+    /**
+     * Returns an argument as an index (or size) between 0 and maxIdx, inclusive.
+     *
+     * @param procedureName name of procedure, for error messages.
+     * @param argumentIdx position of argument, for error messages.
+     * @param argument argument to check.
+     * @param maxIdx largest allowed value.
+     * @return argument as an int.
+     *
+     * @throws MSArgumentTypeMismatchException if the argument is not an integer.
+     * @throws MSArgumentMismatchException if the argument is out of range.
+     */
+    static int getVectorIndexArgument(final String procedureName, final int argumentIdx, final LValue argument, final int maxIdx) {
+        MSSyntaxTree index = LValue.getAst(argument);
+        if (!index.isNumber() || !((MSNumberNode) index).isInteger()) {
+            throw new MSArgumentTypeMismatchException(procedureName, argumentIdx, "integer", index.getStringNodeType());
+        }
+        // This is called on every vector-ref and vector-set!, so the bounds are checked without
+        // allocating. precision - scale is the number of integer digits, and any integer with at
+        // most ten of them fits in a long.
+        BigDecimal value = ((MSNumberNode) index).getValue().re;
+        if (value.signum() < 0 || value.precision() - value.scale() > 10 || value.longValue() > maxIdx) {
+            throw new MSArgumentMismatchException(String.format("%s index %s is out of range [0, %d]", procedureName, value.toPlainString(), maxIdx));
+        }
+        return (int) value.longValue();
+    }
+
+    private static void checkVectorRange(final String procedureName, final int startIdx, final int endIdx) {
+        if (endIdx < startIdx) {
+            throw new MSArgumentMismatchException(String.format("%s start index %d cannot be greater than end index %d", procedureName, startIdx, endIdx));
+        }
+    }
+    private static LValue interpretNullPredicate(final ArrayList<LValue> nullArguments) throws MSArgumentMismatchException {
+        if (nullArguments.size() != 1) { throw new MSArgumentArityMismatchException("null?", 1, nullArguments.size()); }
+        MSSyntaxTree argument = LValue.getAst(nullArguments.get(0));
+        if (!argument.isList()) { return new LValue(false); }
+        return new LValue(((MSListNode) argument).isEmptyList());
+    }
+    private static LValue interpretNumberPredicate(final ArrayList<LValue> numberArguments) throws MSArgumentMismatchException {
+        if (numberArguments.size() != 1) { throw new MSArgumentArityMismatchException("number?", 1, numberArguments.size()); }
+        MSSyntaxTree argument = LValue.getAst(numberArguments.get(0));
+        return new LValue(argument.isNumber());
+    }
+    private static LValue interpretRealPredicate(final ArrayList<LValue> realArguments) {
+        if (realArguments.size() != 1) { throw new MSArgumentArityMismatchException("real?", 1, realArguments.size()); }
+        LValue number = realArguments.get(0);
+        if (!number.getTree().isNumber()) { throw new MSArgumentTypeMismatchException("real", 1, "number", number.getTree().getStringNodeType()); }
+        return new LValue(((MSNumberNode) number.getTree()).isReal());
+    }
+    private static LValue interpretCharPredicate(final ArrayList<LValue> characterArguments) throws MSArgumentMismatchException {
+        if (characterArguments.size() != 1) { throw new MSArgumentArityMismatchException("character?", 1, characterArguments.size()); }
+        MSSyntaxTree argument = LValue.getAst(characterArguments.get(0));
+        return new LValue(argument.isCharacter());
+    }
+    private static LValue interpretStringPredicate(final ArrayList<LValue> stringArguments) throws MSArgumentMismatchException {
+        if (stringArguments.size() != 1) { throw new MSArgumentArityMismatchException("string?", 1, stringArguments.size()); }
+        MSSyntaxTree argument = LValue.getAst(stringArguments.get(0));
+        return new LValue(argument.isString());
+    }
+    private static LValue interpretSymbolPredicate(final ArrayList<LValue> symbolArguments) throws MSArgumentMismatchException {
+        if (symbolArguments.size() != 1) { throw new MSArgumentArityMismatchException("symbol?", 1, symbolArguments.size()); }
+        MSSyntaxTree argument = LValue.getAst(symbolArguments.get(0));
+        return new LValue(argument.isSymbol() || argument.isVariable());
+    }
+    private static LValue interpretPairPredicate(final ArrayList<LValue> pairArguments) throws MSArgumentMismatchException {
+        if (pairArguments.size() != 1) { throw new MSArgumentArityMismatchException("pair?", 1, pairArguments.size()); }
+        MSSyntaxTree argument = LValue.getAst(pairArguments.get(0));
+        if (!argument.isList()) { return new LValue(false); }
+        MSListNode listArgument = (MSListNode) argument;
+        return new LValue(!listArgument.isEmptyList());
+    }
+    private static LValue interpretListPredicate(final ArrayList<LValue> listArguments) throws MSArgumentMismatchException {
+        if (listArguments.size() != 1) { throw new MSArgumentArityMismatchException("list?", 1, listArguments.size()); }
+        MSSyntaxTree argument = LValue.getAst(listArguments.get(0));
+        if (!argument.isList()) { return new LValue(false); }
+        MSListNode listArgument = (MSListNode) argument;
+        return new LValue(listArgument.isProper());
+    }
+    private static LValue interpretVectorPredicate(final ArrayList<LValue> vectorArguments) throws MSArgumentMismatchException {
+        if (vectorArguments.size() != 1) { throw new MSArgumentArityMismatchException("vector?", 1, vectorArguments.size()); }
+        MSSyntaxTree argument = LValue.getAst(vectorArguments.get(0));
+        return new LValue(argument.isVector());
+    }
+    private static LValue interpretProcedurePredicate(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> procedureArguments) throws MSArgumentMismatchException {
+        if (procedureArguments.size() != 1) { throw new MSArgumentArityMismatchException("procedure?", 1, procedureArguments.size()); }
+        MSSyntaxTree argument = LValue.getAst(procedureArguments.get(0));
+        return new LValue(argument.isLambda() || interpreter.getRuntime().isBuiltinOperator(argument) || argument.isApplication() || argument.isRecordProcedure() || argument.isEscapeContinuation()
+                          || argument.isContinuation());
+    }
+}
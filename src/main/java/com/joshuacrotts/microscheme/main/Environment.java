@@ -3,13 +3,16 @@
  *
  *  Author: Joshua Crotts
  *
- *  Last Updated: 05/22/2022
+ *  Last Updated: 10/19/2026
  *
  *  Environments keep track of two things:
  *      1. Binding of identifiers to LValues in a map.
  *      2. The parent environment of this environment. This is useful when searching
  *         for a variable definition.
  *
+ *  The root (global) environment can be read and written by several tasks at once
+ *  (see TaskLibrary), so its bindings are kept in a ConcurrentHashMap.
+ *
  ******************************************************************************/
 
 package com.joshuacrotts.microscheme.main;
@@ -19,13 +22,14 @@ import com.joshuacrotts.microscheme.ast.MSSyntaxTree;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Environment {
 
     /**
      * Bindings of identifiers to LValue objects.
      */
-    private final TreeMap<String, LValue> BINDINGS;
+    private final Map<String, LValue> BINDINGS;
 
     /**
      * Environments keep track of their "parent". The root environment has a parent of NULL.
@@ -33,7 +37,7 @@ public class Environment {
     private final Environment PARENT;
 
     public Environment(final Environment parent) {
-        this.BINDINGS = new TreeMap<>();
+        this.BINDINGS = parent == null ? new ConcurrentHashMap<>() : new TreeMap<>();
         this.PARENT = parent;
     }
 
@@ -84,7 +88,24 @@ public class Environment {
     }
 
     public void bind(final String id, final LValue expr) {
-        this.BINDINGS.put(id, expr);
+        // An identifier bound to no value is looked up as if it were unbound.
+        if (expr == null) { this.BINDINGS.remove(id); }
+        else { this.BINDINGS.put(id, expr); }
+    }
+
+    /**
+     * Rebinds an identifier in the closest environment that binds it, as set! does.
+     *
+     * @return true if the identifier is bound, false otherwise.
+     */
+    public boolean assign(final String id, final LValue expr) {
+        for (Environment curr = this; curr != null; curr = curr.PARENT) {
+            if (curr.BINDINGS.containsKey(id)) {
+                curr.bind(id, expr);
+                return true;
+            }
+        }
+        return false;
     }
 
     public LValue lookup(final String id) {
@@ -98,4 +119,11 @@ public class Environment {
     public Environment getParent() {
         return this.PARENT;
     }
+
+    /**
+     * @return bindings made in this environment itself, not in its parents.
+     */
+    Map<String, LValue> getBindings() {
+        return this.BINDINGS;
+    }
 }
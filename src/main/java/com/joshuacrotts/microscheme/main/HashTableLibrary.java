@@ -0,0 +1,183 @@
+/******************************************************************************
+ *  File: HashTableLibrary.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Hash tables keyed by eq?, eqv? or equal?, with amortized O(1) lookup,
+ *  insertion and removal.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import com.joshuacrotts.microscheme.ast.*;
+import com.joshuacrotts.microscheme.parser.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+final class HashTableLibrary {
+
+    /**
+     * Registers each procedure in the hash-table library.
+     *
+     * @param operators mapping of procedure identifiers to their function calls.
+     */
+    static void register(final BuiltinRegistry operators) {
+        operators.put("make-hash-table", HashTableLibrary::interpretMakeHashTable);
+        operators.put("make-eq-hash-table", arguments -> HashTableLibrary.interpretMakeTypedHashTable("make-eq-hash-table", MSEquivalence.EQ, arguments));
+        operators.put("make-eqv-hash-table", arguments -> HashTableLibrary.interpretMakeTypedHashTable("make-eqv-hash-table", MSEquivalence.EQV, arguments));
+        operators.put("make-equal-hash-table", arguments -> HashTableLibrary.interpretMakeTypedHashTable("make-equal-hash-table", MSEquivalence.EQUAL, arguments));
+        operators.put("hash-table?", HashTableLibrary::interpretHashTablePredicate);
+        operators.put("hash-ref", HashTableLibrary::interpretHashRef);
+        operators.put("hash-set!", HashTableLibrary::interpretHashSet);
+        operators.put("hash-remove!", HashTableLibrary::interpretHashRemove);
+        operators.put("hash-has-key?", HashTableLibrary::interpretHashHasKey);
+        operators.put("hash-count", HashTableLibrary::interpretHashCount);
+        operators.put("hash-clear!", HashTableLibrary::interpretHashClear);
+        operators.put("hash-keys", HashTableLibrary::interpretHashKeys);
+        operators.put("hash-values", HashTableLibrary::interpretHashValues);
+        operators.put("hash->list", HashTableLibrary::interpretHashToList);
+        operators.put("hash-for-each", HashTableLibrary::interpretHashForEach);
+        operators.put("hash-table-update!", HashTableLibrary::interpretHashTableUpdate);
+    }
+
+    /**
+     * (make-hash-table [eq? | eqv? | equal?]) creates a table that compares keys with
+     * the given predicate, or equal? if none is given.
+     */
+    private static LValue interpretMakeHashTable(final ArrayList<LValue> makeHashTableArguments) {
+        if (makeHashTableArguments.size() > 1) { throw new MSArgumentArityMismatchException("make-hash-table", 0, 1, makeHashTableArguments.size()); }
+        if (makeHashTableArguments.isEmpty()) { return new LValue(new MSHashTableNode(MSEquivalence.EQUAL)); }
+        MSSyntaxTree predicate = LValue.getAst(makeHashTableArguments.get(0));
+        MSEquivalence equivalence = predicate.isVariable() ? MSEquivalence.fromName(((MSVariableNode) predicate).getIdentifier()) : null;
+        if (equivalence == null) { throw new MSArgumentTypeMismatchException("make-hash-table", 0, "eq?, eqv? or equal?", predicate.getStringRep()); }
+        return new LValue(new MSHashTableNode(equivalence));
+    }
+    private static LValue interpretMakeTypedHashTable(final String procedureName, final MSEquivalence equivalence, final ArrayList<LValue> makeHashTableArguments) {
+        if (!makeHashTableArguments.isEmpty()) { throw new MSArgumentArityMismatchException(procedureName, 0, makeHashTableArguments.size()); }
+        return new LValue(new MSHashTableNode(equivalence));
+    }
+    private static LValue interpretHashTablePredicate(final ArrayList<LValue> hashTablePredicateArguments) {
+        if (hashTablePredicateArguments.size() != 1) { throw new MSArgumentArityMismatchException("hash-table?", 1, hashTablePredicateArguments.size()); }
+        return new LValue(LValue.getAst(hashTablePredicateArguments.get(0)).getNodeType() == MSNodeType.HASHTABLE);
+    }
+
+    /**
+     * (hash-ref table key [default]) returns the value bound to key. If there is none,
+     * it returns default or, if default is a procedure, the result of calling it.
+     */
+    private static LValue interpretHashRef(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> hashRefArguments) {
+        if (hashRefArguments.size() < 2 || hashRefArguments.size() > 3) { throw new MSArgumentArityMismatchException("hash-ref", 2, 3, hashRefArguments.size()); }
+        MSHashTableNode table = HashTableLibrary.getHashTableArgument("hash-ref", hashRefArguments.get(0));
+        LValue value = table.get(hashRefArguments.get(1));
+        if (value != null) { return value; }
+        if (hashRefArguments.size() == 2) {
+            throw new MSArgumentMismatchException(String.format("hash-ref no value found for key %s", hashRefArguments.get(1)));
+        }
+        LValue defaultValue = hashRefArguments.get(2);
+        return HashTableLibrary.isProcedure(interpreter, defaultValue) ? interpreter.applyProcedure(defaultValue, new ArrayList<>()) : defaultValue;
+    }
+    private static LValue interpretHashSet(final ArrayList<LValue> hashSetArguments) {
+        if (hashSetArguments.size() != 3) { throw new MSArgumentArityMismatchException("hash-set!", 3, hashSetArguments.size()); }
+        HashTableLibrary.getHashTableArgument("hash-set!", hashSetArguments.get(0)).put(hashSetArguments.get(1), hashSetArguments.get(2));
+        return null;
+    }
+    private static LValue interpretHashRemove(final ArrayList<LValue> hashRemoveArguments) {
+        if (hashRemoveArguments.size() != 2) { throw new MSArgumentArityMismatchException("hash-remove!", 2, hashRemoveArguments.size()); }
+        HashTableLibrary.getHashTableArgument("hash-remove!", hashRemoveArguments.get(0)).remove(hashRemoveArguments.get(1));
+        return null;
+    }
+    private static LValue interpretHashHasKey(final ArrayList<LValue> hashHasKeyArguments) {
+        if (hashHasKeyArguments.size() != 2) { throw new MSArgumentArityMismatchException("hash-has-key?", 2, hashHasKeyArguments.size()); }
+        return new LValue(HashTableLibrary.getHashTableArgument("hash-has-key?", hashHasKeyArguments.get(0)).containsKey(hashHasKeyArguments.get(1)));
+    }
+    private static LValue interpretHashCount(final ArrayList<LValue> hashCountArguments) {
+        if (hashCountArguments.size() != 1) { throw new MSArgumentArityMismatchException("hash-count", 1, hashCountArguments.size()); }
+        return new LValue(HashTableLibrary.getHashTableArgument("hash-count", hashCountArguments.get(0)).size());
+    }
+    private static LValue interpretHashClear(final ArrayList<LValue> hashClearArguments) {
+        if (hashClearArguments.size() != 1) { throw new MSArgumentArityMismatchException("hash-clear!", 1, hashClearArguments.size()); }
+        HashTableLibrary.getHashTableArgument("hash-clear!", hashClearArguments.get(0)).clear();
+        return null;
+    }
+    private static LValue interpretHashKeys(final ArrayList<LValue> hashKeysArguments) {
+        if (hashKeysArguments.size() != 1) { throw new MSArgumentArityMismatchException("hash-keys", 1, hashKeysArguments.size()); }
+        ArrayList<LValue> keys = new ArrayList<>();
+        for (Map.Entry<LValue, LValue> entry : HashTableLibrary.getHashTableArgument("hash-keys", hashKeysArguments.get(0)).getEntries()) {
+            keys.add(entry.getKey());
+        }
+        return new LValue(keys.isEmpty() ? MSListNode.EMPTY_LIST : new MSListNode(keys));
+    }
+    private static LValue interpretHashValues(final ArrayList<LValue> hashValuesArguments) {
+        if (hashValuesArguments.size() != 1) { throw new MSArgumentArityMismatchException("hash-values", 1, hashValuesArguments.size()); }
+        ArrayList<LValue> values = new ArrayList<>();
+        for (Map.Entry<LValue, LValue> entry : HashTableLibrary.getHashTableArgument("hash-values", hashValuesArguments.get(0)).getEntries()) {
+            values.add(entry.getValue());
+        }
+        return new LValue(values.isEmpty() ? MSListNode.EMPTY_LIST : new MSListNode(values));
+    }
+    private static LValue interpretHashToList(final ArrayList<LValue> hashToListArguments) {
+        if (hashToListArguments.size() != 1) { throw new MSArgumentArityMismatchException("hash->list", 1, hashToListArguments.size()); }
+        ArrayList<LValue> pairs = new ArrayList<>();
+        for (Map.Entry<LValue, LValue> entry : HashTableLibrary.getHashTableArgument("hash->list", hashToListArguments.get(0)).getEntries()) {
+            pairs.add(new LValue(new MSListNode(LValue.getAst(entry.getKey()), LValue.getAst(entry.getValue()))));
+        }
+        return new LValue(pairs.isEmpty() ? MSListNode.EMPTY_LIST : new MSListNode(pairs));
+    }
+
+    /**
+     * (hash-for-each table procedure) calls procedure with each key and value. The table
+     * may be modified by procedure; the entries are visited as they were beforehand.
+     */
+    private static LValue interpretHashForEach(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> hashForEachArguments) {
+        if (hashForEachArguments.size() != 2) { throw new MSArgumentArityMismatchException("hash-for-each", 2, hashForEachArguments.size()); }
+        MSHashTableNode table = HashTableLibrary.getHashTableArgument("hash-for-each", hashForEachArguments.get(0));
+        LValue procedure = hashForEachArguments.get(1);
+        for (Map.Entry<LValue, LValue> entry : table.getEntries()) {
+            interpreter.applyProcedure(procedure, new ArrayList<>(Arrays.asList(entry.getKey(), entry.getValue())));
+        }
+        return null;
+    }
+
+    /**
+     * (hash-table-update! table key procedure [default-thunk]) binds key to the result of
+     * calling procedure on its current value. If key is unbound, the current value is
+     * the result of calling default-thunk.
+     */
+    private static LValue interpretHashTableUpdate(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> hashTableUpdateArguments) {
+        if (hashTableUpdateArguments.size() < 3 || hashTableUpdateArguments.size() > 4) { throw new MSArgumentArityMismatchException("hash-table-update!", 3, 4, hashTableUpdateArguments.size()); }
+        MSHashTableNode table = HashTableLibrary.getHashTableArgument("hash-table-update!", hashTableUpdateArguments.get(0));
+        LValue key = hashTableUpdateArguments.get(1);
+        LValue value = table.get(key);
+        if (value == null) {
+            if (hashTableUpdateArguments.size() == 3) {
+                throw new MSArgumentMismatchException(String.format("hash-table-update! no value found for key %s", key));
+            }
+            value = interpreter.applyProcedure(hashTableUpdateArguments.get(3), new ArrayList<>());
+        }
+        ArrayList<LValue> procedureArguments = new ArrayList<>();
+        procedureArguments.add(value);
+        table.put(key, interpreter.applyProcedure(hashTableUpdateArguments.get(2), procedureArguments));
+        return null;
+    }
+
+    /**
+     * Returns an argument as a hash table.
+     *
+     * @throws MSArgumentTypeMismatchException if the argument is not a hash table.
+     */
+    private static MSHashTableNode getHashTableArgument(final String procedureName, final LValue argument) {
+        MSSyntaxTree table = LValue.getAst(argument);
+        if (table.getNodeType() != MSNodeType.HASHTABLE) { throw new MSArgumentTypeMismatchException(procedureName, 0, "hash-table", table.getStringNodeType()); }
+        return (MSHashTableNode) table;
+    }
+
+    private static boolean isProcedure(final MicroSchemeInterpreter interpreter, final LValue value) {
+        MSSyntaxTree tree = LValue.getAst(value);
+        return tree.isLambda() || interpreter.getRuntime().isBuiltinOperator(tree) || tree.isRecordProcedure() || tree.isEscapeContinuation() || tree.isContinuation();
+    }
+}
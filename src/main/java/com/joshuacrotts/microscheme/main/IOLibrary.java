@@ -0,0 +1,136 @@
+/******************************************************************************
+ *  File: IOLibrary.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Output procedures. Each of them writes to the output port of the interpreter's
+ *  runtime (see MSRuntime), which is standard output by default, unless it is
+ *  given a string port (see MSStringBuilderNode) as its last argument.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import com.joshuacrotts.microscheme.ast.*;
+import com.joshuacrotts.microscheme.parser.*;
+
+import java.util.ArrayList;
+
+final class IOLibrary {
+
+    /**
+     * Registers each procedure in the io library.
+     *
+     * @param operators mapping of procedure identifiers to their function calls.
+     */
+    static void register(final BuiltinRegistry operators) {
+        operators.put("display", IOLibrary::interpretDisplay);
+        operators.put("displayln", IOLibrary::interpretDisplayln);
+        operators.put("newline", IOLibrary::interpretNewline);
+        operators.put("write-string", IOLibrary::interpretWriteString);
+        operators.put("write-char", IOLibrary::interpretWriteChar);
+        operators.put("printf", IOLibrary::interpretPrintf);
+        operators.put("open-output-string", IOLibrary::interpretOpenOutputString);
+        operators.put("get-output-string", IOLibrary::interpretGetOutputString);
+    }
+    private static LValue interpretDisplay(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> displayArguments) {
+        if (displayArguments.size() < 1 || displayArguments.size() > 2) { throw new MSArgumentArityMismatchException("display", 1, 2, displayArguments.size()); }
+        IOLibrary.write(interpreter, "display", displayArguments, 1, displayArguments.get(0).toString());
+        return null;
+    }
+    private static LValue interpretDisplayln(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> displaylnArguments) {
+        if (displaylnArguments.size() < 1 || displaylnArguments.size() > 2) { throw new MSArgumentArityMismatchException("displayln", 1, 2, displaylnArguments.size()); }
+        IOLibrary.write(interpreter, "displayln", displaylnArguments, 1, displaylnArguments.get(0) + System.lineSeparator());
+        return null;
+    }
+    private static LValue interpretNewline(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> newlineArguments) {
+        if (newlineArguments.size() > 1) { throw new MSArgumentArityMismatchException("newline", 0, 1, newlineArguments.size()); }
+        IOLibrary.write(interpreter, "newline", newlineArguments, 0, System.lineSeparator());
+        return null;
+    }
+    private static LValue interpretWriteString(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> writeStringArguments) {
+        if (writeStringArguments.size() < 1 || writeStringArguments.size() > 2) { throw new MSArgumentArityMismatchException("write-string", 1, 2, writeStringArguments.size()); }
+        MSSyntaxTree stringNode = LValue.getAst(writeStringArguments.get(0));
+        if (!stringNode.isString()) { throw new MSArgumentTypeMismatchException("write-string", 0, "string", stringNode.getStringNodeType()); }
+        IOLibrary.write(interpreter, "write-string", writeStringArguments, 1, ((MSStringNode) stringNode).getValue());
+        return null;
+    }
+    private static LValue interpretWriteChar(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> writeCharArguments) {
+        if (writeCharArguments.size() < 1 || writeCharArguments.size() > 2) { throw new MSArgumentArityMismatchException("write-char", 1, 2, writeCharArguments.size()); }
+        MSSyntaxTree charNode = LValue.getAst(writeCharArguments.get(0));
+        if (!charNode.isCharacter()) { throw new MSArgumentTypeMismatchException("write-char", 0, "char", charNode.getStringNodeType()); }
+        IOLibrary.write(interpreter, "write-char", writeCharArguments, 1, String.valueOf(((MSCharacterNode) charNode).getValue()));
+        return null;
+    }
+    private static LValue interpretOpenOutputString(final ArrayList<LValue> openOutputStringArguments) {
+        if (!openOutputStringArguments.isEmpty()) { throw new MSArgumentArityMismatchException("open-output-string", 0, openOutputStringArguments.size()); }
+        return new LValue(new MSStringBuilderNode(true));
+    }
+    private static LValue interpretGetOutputString(final ArrayList<LValue> getOutputStringArguments) {
+        if (getOutputStringArguments.size() != 1) { throw new MSArgumentArityMismatchException("get-output-string", 1, getOutputStringArguments.size()); }
+        return new LValue(IOLibrary.getStringBuilderArgument("get-output-string", 0, getOutputStringArguments.get(0)).getContents());
+    }
+    private static LValue interpretPrintf(final ArrayList<LValue> printfArguments) {
+        if (printfArguments.isEmpty()) { throw new MSArgumentMismatchException("printf expected at least one argument but got 0"); }
+        if (!printfArguments.get(0).getTree().isString()) { throw new MSArgumentTypeMismatchException("printf", 1, "string", printfArguments.get(0).getTree().getStringNodeType()); }
+        String formatStr = printfArguments.get(0).getStringValue();
+        StringBuilder output = new StringBuilder();
+
+        // Traverse the string and replace each format with the argument.
+        int formatIdx = 1;
+        for (int c = 0; c < formatStr.length(); c++) {
+            if (formatStr.charAt(c) != '~') { output.append(formatStr.charAt(c)); }
+            else {
+                // TODO check argument type with format type.
+                LValue lval = printfArguments.get(formatIdx);
+                switch (formatStr.charAt(c + 1)) {
+                    case 'x': output.append(lval.getNumberValue().re.toBigInteger().toString(16));
+                              break;
+                    case 'o': output.append(lval.getNumberValue().re.toBigInteger().toString(8));
+                              break;
+                    case 'b': output.append(lval.getNumberValue().re.toBigInteger().toString(2));
+                              break;
+                    case 'g': output.append(lval.getBooleanValue());
+                              break;
+                    case 'c': output.append(lval.getCharacterValue());
+                              break;
+                    case 'y': output.append(lval.getSymbolValue().getStringRep());
+                              break;
+                    case 's':
+                    case 'd':
+                    case 'l': output.append(lval.getTree().getStringRep()); break;
+                    default:
+                        throw new MSArgumentMismatchException("Unknown printf format specifier ~" + formatStr.charAt(c + 1));
+                }
+                formatIdx++;
+                c++;
+            }
+        }
+        return new LValue(output.toString());
+    }
+
+    /**
+     * Writes a string to the interpreter's output port, or to the string port at portIdx
+     * if there is one.
+     */
+    private static void write(final MicroSchemeInterpreter interpreter, final String procedureName, final ArrayList<LValue> arguments, final int portIdx, final String str) {
+        if (arguments.size() > portIdx) {
+            IOLibrary.getStringBuilderArgument(procedureName, portIdx, arguments.get(portIdx)).append(str);
+        } else {
+            interpreter.getRuntime().getOut().print(str);
+        }
+    }
+
+    /**
+     * Returns an argument as a string builder or string port.
+     *
+     * @throws MSArgumentTypeMismatchException if the argument is neither.
+     */
+    static MSStringBuilderNode getStringBuilderArgument(final String procedureName, final int argumentIdx, final LValue argument) {
+        MSSyntaxTree builder = LValue.getAst(argument);
+        if (builder.getNodeType() != MSNodeType.STRINGBUILDER) { throw new MSArgumentTypeMismatchException(procedureName, argumentIdx, "string-builder", builder.getStringNodeType()); }
+        return (MSStringBuilderNode) builder;
+    }
+}
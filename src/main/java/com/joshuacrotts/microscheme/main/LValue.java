@@ -3,7 +3,7 @@
  *
  *  Author: Joshua Crotts
  *
- *  Last Updated: 05/22/2022
+ *  Last Updated: 10/19/2026
  *
  *  LValues are returned from any expression or application.
  *
@@ -80,6 +80,20 @@ public class LValue {
             case APPLICATION:
             case LAMBDA:
             case VECTOR:
+            case F64VECTOR:
+            case S64VECTOR:
+            case U8VECTOR:
+            case HASHTABLE:
+            case STRINGBUILDER:
+            case RECORD:
+            case RECORDPROCEDURE:
+            case PROMISE:
+            case ESCAPECONTINUATION:
+            case CONTINUATION:
+            case FUTURE:
+            case CHANNEL:
+            case ATOM:
+            case COUNTER:
                 return lval.TREE;
         }
 
@@ -96,6 +110,20 @@ public class LValue {
             case CHARACTER:
             case SYMBOL:
             case VECTOR:
+            case F64VECTOR:
+            case S64VECTOR:
+            case U8VECTOR:
+            case HASHTABLE:
+            case STRINGBUILDER:
+            case RECORD:
+            case RECORDPROCEDURE:
+            case PROMISE:
+            case ESCAPECONTINUATION:
+            case CONTINUATION:
+            case FUTURE:
+            case CHANNEL:
+            case ATOM:
+            case COUNTER:
             case LIST: return this.TREE.getStringRep();
             default:
                 throw new MSInterpreterException("Cannot return LValue for " + this.TREE.getNodeType() + " yet");
@@ -0,0 +1,303 @@
+/******************************************************************************
+ *  File: ListLibrary.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  List procedures (length, append, map, fold-left, assoc, ...). Each of them
+ *  walks its lists with a loop rather than recursion, and the higher-order
+ *  ones call back into the interpreter once per element, so they work on
+ *  lists of any length without growing the Java stack.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import com.joshuacrotts.microscheme.ast.*;
+import com.joshuacrotts.microscheme.parser.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+final class ListLibrary {
+
+    /**
+     * Registers each procedure in the list library.
+     *
+     * @param operators mapping of procedure identifiers to their function calls.
+     */
+    static void register(final BuiltinRegistry operators) {
+        operators.put("length", ListLibrary::interpretLength);
+        operators.put("append", ListLibrary::interpretAppend);
+        operators.put("reverse", ListLibrary::interpretReverse);
+        operators.put("list-tail", ListLibrary::interpretListTail);
+        operators.put("list-ref", ListLibrary::interpretListRef);
+        operators.put("memq", (interpreter, arguments) -> ListLibrary.interpretMember(interpreter, "memq", MSEquivalence.EQ, arguments));
+        operators.put("memv", (interpreter, arguments) -> ListLibrary.interpretMember(interpreter, "memv", MSEquivalence.EQV, arguments));
+        operators.put("member", (interpreter, arguments) -> ListLibrary.interpretMember(interpreter, "member", MSEquivalence.EQUAL, arguments));
+        operators.put("assq", (interpreter, arguments) -> ListLibrary.interpretAssociation(interpreter, "assq", MSEquivalence.EQ, arguments));
+        operators.put("assv", (interpreter, arguments) -> ListLibrary.interpretAssociation(interpreter, "assv", MSEquivalence.EQV, arguments));
+        operators.put("assoc", (interpreter, arguments) -> ListLibrary.interpretAssociation(interpreter, "assoc", MSEquivalence.EQUAL, arguments));
+        operators.put("map", ListLibrary::interpretMap);
+        operators.put("for-each", ListLibrary::interpretForEach);
+        operators.put("filter", ListLibrary::interpretFilter);
+        operators.put("fold-left", ListLibrary::interpretFoldLeft);
+        operators.put("fold-right", ListLibrary::interpretFoldRight);
+        operators.put("reduce", ListLibrary::interpretReduce);
+    }
+    private static LValue interpretLength(final ArrayList<LValue> lengthArguments) {
+        if (lengthArguments.size() != 1) { throw new MSArgumentArityMismatchException("length", 1, lengthArguments.size()); }
+        return new LValue(ListLibrary.getListArgument("length", 0, lengthArguments.get(0)).size());
+    }
+
+    /**
+     * (append list ... obj) returns a list with the elements of each list followed by
+     * obj. The lists are copied, but obj is shared with the result.
+     */
+    private static LValue interpretAppend(final ArrayList<LValue> appendArguments) {
+        if (appendArguments.isEmpty()) { return new LValue(MSListNode.EMPTY_LIST); }
+        ArrayList<MSSyntaxTree> elements = new ArrayList<>();
+        for (int i = 0; i < appendArguments.size() - 1; i++) {
+            elements.addAll(ListLibrary.getListArgument("append", i, appendArguments.get(i)));
+        }
+        return new LValue(ListLibrary.toList(elements, LValue.getAst(appendArguments.get(appendArguments.size() - 1))));
+    }
+    private static LValue interpretReverse(final ArrayList<LValue> reverseArguments) {
+        if (reverseArguments.size() != 1) { throw new MSArgumentArityMismatchException("reverse", 1, reverseArguments.size()); }
+        ArrayList<MSSyntaxTree> elements = ListLibrary.getListArgument("reverse", 0, reverseArguments.get(0));
+        Collections.reverse(elements);
+        return new LValue(ListLibrary.toList(elements, MSListNode.EMPTY_LIST));
+    }
+    private static LValue interpretListTail(final ArrayList<LValue> listTailArguments) {
+        if (listTailArguments.size() != 2) { throw new MSArgumentArityMismatchException("list-tail", 2, listTailArguments.size()); }
+        return new LValue(ListLibrary.getTail("list-tail", listTailArguments.get(0), listTailArguments.get(1)));
+    }
+    private static LValue interpretListRef(final ArrayList<LValue> listRefArguments) {
+        if (listRefArguments.size() != 2) { throw new MSArgumentArityMismatchException("list-ref", 2, listRefArguments.size()); }
+        MSSyntaxTree tail = ListLibrary.getTail("list-ref", listRefArguments.get(0), listRefArguments.get(1));
+        if (!tail.isList() || ((MSListNode) tail).isEmptyList()) {
+            throw new MSArgumentMismatchException(String.format("list-ref index %s is out of range", listRefArguments.get(1)));
+        }
+        return new LValue(((MSListNode) tail).getCar());
+    }
+
+    /**
+     * (member obj list [compare]) returns the first tail of list whose car is equivalent
+     * to obj, or #f if there is none. If compare is given, it is used instead of the
+     * procedure's own equivalence.
+     */
+    private static LValue interpretMember(final MicroSchemeInterpreter interpreter, final String procedureName,
+                                          final MSEquivalence equivalence, final ArrayList<LValue> memberArguments) {
+        if (memberArguments.size() < 2 || memberArguments.size() > 3) { throw new MSArgumentArityMismatchException(procedureName, 2, 3, memberArguments.size()); }
+        LValue obj = memberArguments.get(0);
+        LValue compare = memberArguments.size() == 3 ? memberArguments.get(2) : null;
+        MSSyntaxTree curr = LValue.getAst(memberArguments.get(1));
+        while (curr.isList() && !((MSListNode) curr).isEmptyList()) {
+            MSListNode pair = (MSListNode) curr;
+            if (ListLibrary.isEquivalent(interpreter, equivalence, compare, obj, new LValue(pair.getCar()))) { return new LValue(pair); }
+            curr = pair.getCdr();
+        }
+        return new LValue(false);
+    }
+
+    /**
+     * (assoc obj alist [compare]) returns the first pair in alist whose car is equivalent
+     * to obj, or #f if there is none.
+     */
+    private static LValue interpretAssociation(final MicroSchemeInterpreter interpreter, final String procedureName,
+                                               final MSEquivalence equivalence, final ArrayList<LValue> associationArguments) {
+        if (associationArguments.size() < 2 || associationArguments.size() > 3) { throw new MSArgumentArityMismatchException(procedureName, 2, 3, associationArguments.size()); }
+        LValue obj = associationArguments.get(0);
+        LValue compare = associationArguments.size() == 3 ? associationArguments.get(2) : null;
+        MSSyntaxTree curr = LValue.getAst(associationArguments.get(1));
+        while (curr.isList() && !((MSListNode) curr).isEmptyList()) {
+            MSSyntaxTree entry = ((MSListNode) curr).getCar();
+            if (!entry.isList() || ((MSListNode) entry).isEmptyList()) {
+                throw new MSArgumentTypeMismatchException(procedureName, 1, "association list", entry.getStringNodeType());
+            }
+            if (ListLibrary.isEquivalent(interpreter, equivalence, compare, obj, new LValue(((MSListNode) entry).getCar()))) { return new LValue(entry); }
+            curr = ((MSListNode) curr).getCdr();
+        }
+        return new LValue(false);
+    }
+
+    /**
+     * (map procedure list1 list2 ...) returns a list of the results of applying procedure
+     * to the first elements of each list, then the second elements, and so on. It stops
+     * at the end of the shortest list.
+     */
+    private static LValue interpretMap(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> mapArguments) {
+        if (mapArguments.size() < 2) { throw new MSArgumentArityMismatchException("map", 2, mapArguments.size()); }
+        ArrayList<ArrayList<MSSyntaxTree>> lists = ListLibrary.getListArguments("map", mapArguments, 1);
+        ArrayList<MSSyntaxTree> results = new ArrayList<>();
+        for (int i = 0; i < ListLibrary.getShortestLength(lists); i++) {
+            results.add(ListLibrary.getResult("map", interpreter.applyProcedure(mapArguments.get(0), ListLibrary.getElements(lists, i))));
+        }
+        return new LValue(ListLibrary.toList(results, MSListNode.EMPTY_LIST));
+    }
+    private static LValue interpretForEach(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> forEachArguments) {
+        if (forEachArguments.size() < 2) { throw new MSArgumentArityMismatchException("for-each", 2, forEachArguments.size()); }
+        ArrayList<ArrayList<MSSyntaxTree>> lists = ListLibrary.getListArguments("for-each", forEachArguments, 1);
+        for (int i = 0; i < ListLibrary.getShortestLength(lists); i++) {
+            interpreter.applyProcedure(forEachArguments.get(0), ListLibrary.getElements(lists, i));
+        }
+        return null;
+    }
+    private static LValue interpretFilter(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> filterArguments) {
+        if (filterArguments.size() != 2) { throw new MSArgumentArityMismatchException("filter", 2, filterArguments.size()); }
+        ArrayList<MSSyntaxTree> results = new ArrayList<>();
+        for (MSSyntaxTree element : ListLibrary.getListArgument("filter", 1, filterArguments.get(1))) {
+            ArrayList<LValue> procedureArguments = new ArrayList<>();
+            procedureArguments.add(new LValue(element));
+            if (ListLibrary.isTrue(interpreter.applyProcedure(filterArguments.get(0), procedureArguments))) { results.add(element); }
+        }
+        return new LValue(ListLibrary.toList(results, MSListNode.EMPTY_LIST));
+    }
+
+    /**
+     * (fold-left procedure init list1 list2 ...) calls (procedure acc x1 x2 ...) from the
+     * first elements to the last, where acc starts as init and is then the previous result.
+     */
+    private static LValue interpretFoldLeft(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> foldLeftArguments) {
+        if (foldLeftArguments.size() < 3) { throw new MSArgumentArityMismatchException("fold-left", 3, foldLeftArguments.size()); }
+        ArrayList<ArrayList<MSSyntaxTree>> lists = ListLibrary.getListArguments("fold-left", foldLeftArguments, 2);
+        LValue accumulator = foldLeftArguments.get(1);
+        for (int i = 0; i < ListLibrary.getShortestLength(lists); i++) {
+            ArrayList<LValue> procedureArguments = ListLibrary.getElements(lists, i);
+            procedureArguments.add(0, accumulator);
+            accumulator = interpreter.applyProcedure(foldLeftArguments.get(0), procedureArguments);
+        }
+        return accumulator;
+    }
+
+    /**
+     * (fold-right procedure init list1 list2 ...) calls (procedure x1 x2 ... acc) from the
+     * last elements to the first, where acc starts as init and is then the previous result.
+     */
+    private static LValue interpretFoldRight(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> foldRightArguments) {
+        if (foldRightArguments.size() < 3) { throw new MSArgumentArityMismatchException("fold-right", 3, foldRightArguments.size()); }
+        ArrayList<ArrayList<MSSyntaxTree>> lists = ListLibrary.getListArguments("fold-right", foldRightArguments, 2);
+        LValue accumulator = foldRightArguments.get(1);
+        for (int i = ListLibrary.getShortestLength(lists) - 1; i >= 0; i--) {
+            ArrayList<LValue> procedureArguments = ListLibrary.getElements(lists, i);
+            procedureArguments.add(accumulator);
+            accumulator = interpreter.applyProcedure(foldRightArguments.get(0), procedureArguments);
+        }
+        return accumulator;
+    }
+
+    /**
+     * (reduce procedure default list) returns default if list is empty. Otherwise it
+     * calls (procedure x acc) for each element after the first, where acc starts as the
+     * first element and is then the previous result.
+     */
+    private static LValue interpretReduce(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> reduceArguments) {
+        if (reduceArguments.size() != 3) { throw new MSArgumentArityMismatchException("reduce", 3, reduceArguments.size()); }
+        ArrayList<MSSyntaxTree> elements = ListLibrary.getListArgument("reduce", 2, reduceArguments.get(2));
+        if (elements.isEmpty()) { return reduceArguments.get(1); }
+        LValue accumulator = new LValue(elements.get(0));
+        for (int i = 1; i < elements.size(); i++) {
+            ArrayList<LValue> procedureArguments = new ArrayList<>();
+            procedureArguments.add(new LValue(elements.get(i)));
+            procedureArguments.add(accumulator);
+            accumulator = interpreter.applyProcedure(reduceArguments.get(0), procedureArguments);
+        }
+        return accumulator;
+    }
+
+    /**
+     * Returns the elements of a proper list argument.
+     *
+     * @throws MSArgumentTypeMismatchException if the argument is not a proper list.
+     */
+    static ArrayList<MSSyntaxTree> getListArgument(final String procedureName, final int argumentIdx, final LValue argument) {
+        MSSyntaxTree curr = LValue.getAst(argument);
+        ArrayList<MSSyntaxTree> elements = new ArrayList<>();
+        while (curr.isList() && !((MSListNode) curr).isEmptyList()) {
+            elements.add(((MSListNode) curr).getCar());
+            curr = ((MSListNode) curr).getCdr();
+        }
+        if (!curr.isList()) {
+            MSSyntaxTree list = LValue.getAst(argument);
+            throw new MSArgumentTypeMismatchException(procedureName, argumentIdx, "proper list", list.isList() ? "improper list" : list.getStringNodeType());
+        }
+        return elements;
+    }
+
+    private static ArrayList<ArrayList<MSSyntaxTree>> getListArguments(final String procedureName, final ArrayList<LValue> arguments, final int firstListIdx) {
+        ArrayList<ArrayList<MSSyntaxTree>> lists = new ArrayList<>();
+        for (int i = firstListIdx; i < arguments.size(); i++) { lists.add(ListLibrary.getListArgument(procedureName, i, arguments.get(i))); }
+        return lists;
+    }
+
+    private static int getShortestLength(final ArrayList<ArrayList<MSSyntaxTree>> lists) {
+        int length = Integer.MAX_VALUE;
+        for (ArrayList<MSSyntaxTree> list : lists) { length = Math.min(length, list.size()); }
+        return length;
+    }
+
+    /**
+     * @return the elements at index idx of each list, as procedure arguments.
+     */
+    private static ArrayList<LValue> getElements(final ArrayList<ArrayList<MSSyntaxTree>> lists, final int idx) {
+        ArrayList<LValue> elements = new ArrayList<>(lists.size() + 1);
+        for (ArrayList<MSSyntaxTree> list : lists) { elements.add(new LValue(list.get(idx))); }
+        return elements;
+    }
+
+    /**
+     * Returns the tail of a list after skipping k pairs.
+     *
+     * @throws MSArgumentMismatchException if k is not a non-negative integer or the list has fewer than k pairs.
+     */
+    private static MSSyntaxTree getTail(final String procedureName, final LValue list, final LValue k) {
+        MSSyntaxTree kNode = LValue.getAst(k);
+        if (!kNode.isNumber()) { throw new MSArgumentTypeMismatchException(procedureName, 1, "number", kNode.getStringNodeType()); }
+        int count = ((MSNumberNode) kNode).getValue().re.intValue();
+        if (count < 0) { throw new MSArgumentMismatchException(String.format("%s index %d cannot be negative", procedureName, count)); }
+        MSSyntaxTree curr = LValue.getAst(list);
+        for (int i = 0; i < count; i++) {
+            if (!curr.isList() || ((MSListNode) curr).isEmptyList()) {
+                throw new MSArgumentMismatchException(String.format("%s index %d is out of range", procedureName, count));
+            }
+            curr = ((MSListNode) curr).getCdr();
+        }
+        return curr;
+    }
+
+    /**
+     * Builds a list from its elements, ending in tail, without recursion.
+     */
+    static MSSyntaxTree toList(final ArrayList<MSSyntaxTree> elements, final MSSyntaxTree tail) {
+        MSSyntaxTree curr = tail;
+        for (int i = elements.size() - 1; i >= 0; i--) { curr = new MSListNode(elements.get(i), curr); }
+        return curr;
+    }
+
+    private static boolean isEquivalent(final MicroSchemeInterpreter interpreter, final MSEquivalence equivalence,
+                                        final LValue compare, final LValue lhs, final LValue rhs) {
+        if (compare == null) { return CoreLibrary.isEquivalent(equivalence, lhs, rhs); }
+        ArrayList<LValue> compareArguments = new ArrayList<>();
+        compareArguments.add(lhs);
+        compareArguments.add(rhs);
+        return ListLibrary.isTrue(interpreter.applyProcedure(compare, compareArguments));
+    }
+
+    /**
+     * Everything except #f counts as true.
+     */
+    static boolean isTrue(final LValue value) {
+        if (value == null) { return true; }
+        MSSyntaxTree tree = LValue.getAst(value);
+        return !tree.isBoolean() || ((MSBooleanNode) tree).getValue();
+    }
+
+    /**
+     * @throws MSArgumentMismatchException if the procedure did not return a value that can be put into a list.
+     */
+    static MSSyntaxTree getResult(final String procedureName, final LValue result) {
+        if (result == null) { throw new MSArgumentMismatchException(String.format("%s procedure did not return a value", procedureName)); }
+        return LValue.getAst(result);
+    }
+}
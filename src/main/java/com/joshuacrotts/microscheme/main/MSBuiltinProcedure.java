@@ -0,0 +1,24 @@
+/******************************************************************************
+ *  File: MSBuiltinProcedure.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  A builtin procedure that needs the interpreter that applied it, e.g., to
+ *  call back into a procedure that it was given as an argument.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import com.joshuacrotts.microscheme.parser.MSSemanticException;
+
+import java.util.ArrayList;
+
+@FunctionalInterface
+public interface MSBuiltinProcedure {
+
+    LValue apply(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> arguments) throws MSSemanticException;
+
+}
@@ -0,0 +1,648 @@
+/******************************************************************************
+ *  File: MSCekMachine.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  An evaluator in the style of a CEK machine, i.e., one whose state is the
+ *  expression being evaluated (Control), the Environment, and the rest of the
+ *  computation (the Kontinuation). It is an alternative to the recursive
+ *  interpretTree of MicroSchemeInterpreter and is enabled with --cek.
+ *
+ *  Instead of Java stack frames, the continuation is a linked list of Frame
+ *  objects on the heap. Evaluating a subexpression pushes a frame that says
+ *  what to do with its value, and the machine runs in a loop until there are
+ *  no frames left. This gives the following over the direct-style evaluator:
+ *
+ *    1. Recursion depth is only limited by the heap, and calls in tail
+ *       position do not push a frame at all.
+ *    2. Frames are never modified after they are pushed, so capturing the
+ *       continuation with call/cc only copies a reference to the top frame,
+ *       and a captured continuation can be resumed any number of times.
+ *
+ *  Builtin procedures still run in Java, so procedures passed to them (e.g.,
+ *  to map or for-each) are applied with the direct-style evaluator. Within
+ *  those, call/cc gives an escape-only continuation, though continuations
+ *  captured by the machine can still be called to leave them.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import com.joshuacrotts.microscheme.ast.*;
+import com.joshuacrotts.microscheme.parser.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+public final class MSCekMachine {
+
+    private final MicroSchemeInterpreter INTERPRETER;
+
+    /**
+     * Expression to evaluate next, or null if the machine is returning a value to the
+     * top frame of the continuation.
+     */
+    private MSSyntaxTree control;
+
+    /**
+     * Environment to evaluate control in.
+     */
+    private Environment environment;
+
+    /**
+     * Value being returned when control is null.
+     */
+    private LValue value;
+
+    /**
+     * Top frame of the continuation. When it is null, the value is the result of the
+     * top-level expression.
+     */
+    private Frame continuation;
+
+    MSCekMachine(final MicroSchemeInterpreter interpreter) {
+        this.INTERPRETER = interpreter;
+    }
+
+    /**
+     * Evaluates a top-level expression.
+     *
+     * @param tree AST.
+     * @param env Environment to use.
+     * @return LValue of evaluated tree.
+     *
+     * @throws MSSemanticException if evaluating the tree throws an exception.
+     */
+    LValue evaluate(final MSSyntaxTree tree, final Environment env) throws MSSemanticException {
+        this.evaluate(tree, env, null);
+        while (true) {
+            this.INTERPRETER.checkTimeout();
+            try {
+                if (this.control != null) { this.step(this.control, this.environment); }
+                else if (this.continuation == null) { return this.value; }
+                else {
+                    Frame frame = this.continuation;
+                    this.continuation = frame.NEXT;
+                    frame.resume(this, this.value);
+                }
+            } catch (MSEscapeException ex) {
+                // A continuation was called from inside a builtin procedure.
+                if (!(ex.getTarget() instanceof MSContinuationNode)) { throw ex; }
+                MSContinuationNode target = (MSContinuationNode) ex.getTarget();
+                this.resume(target.getFrame(), target.getValue());
+            }
+        }
+    }
+
+    /**
+     * Takes one step of evaluating an expression. Constants, variables, lambdas and other
+     * expressions that do not evaluate subexpressions are handed to the direct-style
+     * evaluator.
+     */
+    private void step(final MSSyntaxTree tree, final Environment env) throws MSSemanticException {
+        switch (tree.getNodeType()) {
+            case SEQUENCE:
+                this.evaluateAll(tree.getChildren(), env);
+                break;
+            case DECLARATION: {
+                MSDeclarationNode declarationNode = (MSDeclarationNode) tree;
+                this.evaluate(declarationNode.getExpression(), env, new DeclarationFrame(declarationNode.getVariable().getStringRep(), env, this.continuation));
+                break;
+            }
+            case SET:
+                this.evaluate(tree.getChild(1), env, new SetFrame((MSSetNode) tree, env, this.continuation));
+                break;
+            case SETCAR:
+            case SETCDR:
+            case SETVECTOR:
+                this.evaluateOperands(tree, tree.getChildren(), env);
+                break;
+            case AND:
+            case OR:
+                if (tree.getChildrenSize() == 0) { this.resume(this.continuation, new LValue(tree.getNodeType() == MSNodeType.AND)); }
+                else { this.evaluate(tree.getChild(0), env, new BooleanFrame(tree, 1, env, this.continuation)); }
+                break;
+            case COND: {
+                MSCondNode condNode = (MSCondNode) tree;
+                ArrayList<MSSyntaxTree> predicates = condNode.getPredicateList();
+                ArrayList<MSSyntaxTree> consequents = condNode.getConsequentList();
+                if (!predicates.isEmpty()) { this.evaluate(predicates.get(0), env, new CondFrame(condNode, predicates, consequents, 0, env, this.continuation)); }
+                else if (condNode.hasElse()) { this.evaluate(consequents.get(consequents.size() - 1), env, this.continuation); }
+                else { this.resume(this.continuation, null); }
+                break;
+            }
+            case LET: {
+                ArrayList<MSSyntaxTree> bindingExpressions = new ArrayList<>();
+                for (MSSyntaxTree declaration : ((MSLetNode) tree).getDeclarationList()) { bindingExpressions.add(((MSDeclarationNode) declaration).getExpression()); }
+                this.evaluateOperands(tree, bindingExpressions, env);
+                break;
+            }
+            case RECUR:
+                this.evaluateOperands(tree, tree.getChildren(), env);
+                break;
+            case LETREC:
+                this.evaluate(((MSLetRecNode) tree).getBody(), this.INTERPRETER.bindLetRec((MSLetRecNode) tree, env), this.continuation);
+                break;
+            case DO: {
+                ArrayList<MSSyntaxTree> initExpressions = new ArrayList<>();
+                for (MSSyntaxTree declaration : ((MSDoNode) tree).getDoDeclarations()) { initExpressions.add(((MSDeclarationNode) declaration).getExpression()); }
+                this.evaluateOperands(tree, initExpressions, env);
+                break;
+            }
+            case EVAL:
+                this.evaluate(((MSEvalNode) tree).getExpression(), env, new EvalFrame(env, this.continuation));
+                break;
+            case APPLY: {
+                MSApplyNode applyNode = (MSApplyNode) tree;
+                MSSyntaxTree argument = applyNode.getArgumentList();
+                if (argument.isApplication()) { this.evaluate(argument, env, new ApplyFrame(applyNode, env, this.continuation)); }
+                else { this.evaluate(this.INTERPRETER.getApplyApplication(applyNode, argument, env), env, this.continuation); }
+                break;
+            }
+            case APPLICATION: {
+                // The arguments are evaluated before the procedure, as in interpretApplication.
+                ArrayList<MSSyntaxTree> operands = new ArrayList<>(((MSApplicationNode) tree).getArguments());
+                operands.add(((MSApplicationNode) tree).getExpression());
+                this.evaluateOperands(tree, operands, env);
+                break;
+            }
+            default:
+                this.resume(this.continuation, this.INTERPRETER.interpretTree(tree, env));
+                break;
+        }
+    }
+
+    /**
+     * Applies a procedure to arguments that have already been evaluated. The body of a
+     * lambda is evaluated with the current continuation, so tail calls do not grow it.
+     */
+    private void apply(final LValue procedure, final ArrayList<LValue> arguments) throws MSSemanticException {
+        MSSyntaxTree procedureAst = LValue.getAst(procedure);
+        if (procedureAst.isLambda()) {
+            Environment lambdaEnvironment = this.INTERPRETER.bindLambdaArguments(procedure, arguments);
+            this.evaluate(((MSLambdaNode) procedureAst).getLambdaBody(), lambdaEnvironment, this.continuation);
+        } else if (procedureAst.isContinuation()) {
+            if (arguments.size() > 1) { throw new MSArgumentArityMismatchException("continuation", 0, 1, arguments.size()); }
+            this.resume(((MSContinuationNode) procedureAst).getFrame(), arguments.isEmpty() ? null : arguments.get(0));
+        } else if (this.isCallWithCurrentContinuation(procedureAst)) {
+            String procedureName = ((MSVariableNode) procedureAst).getIdentifier();
+            if (arguments.size() != 1) { throw new MSArgumentArityMismatchException(procedureName, 1, arguments.size()); }
+            LValue continuationValue = new LValue(new MSContinuationNode(this.continuation));
+            this.apply(arguments.get(0), new ArrayList<>(Collections.singletonList(continuationValue)));
+        } else {
+            this.resume(this.continuation, this.INTERPRETER.applyProcedure(procedure, arguments));
+        }
+    }
+
+    private boolean isCallWithCurrentContinuation(final MSSyntaxTree procedure) {
+        if (!this.INTERPRETER.getRuntime().isBuiltinOperator(procedure)) { return false; }
+        String identifier = ((MSVariableNode) procedure).getIdentifier();
+        return identifier.equals("call/cc") || identifier.equals("call-with-current-continuation");
+    }
+
+    /**
+     * Evaluates an expression, then returns its value to the given frame.
+     */
+    private void evaluate(final MSSyntaxTree tree, final Environment env, final Frame frame) {
+        this.control = tree;
+        this.environment = env;
+        this.continuation = frame;
+    }
+
+    /**
+     * Returns a value to the given frame.
+     */
+    private void resume(final Frame frame, final LValue returnValue) {
+        this.control = null;
+        this.value = returnValue;
+        this.continuation = frame;
+    }
+
+    /**
+     * Evaluates a sequence of expressions and returns the value of the last.
+     */
+    private void evaluateAll(final ArrayList<MSSyntaxTree> expressions, final Environment env) {
+        if (expressions.isEmpty()) { this.resume(this.continuation, null); }
+        else if (expressions.size() == 1) { this.evaluate(expressions.get(0), env, this.continuation); }
+        else { this.evaluate(expressions.get(0), env, new SequenceFrame(expressions, 1, env, this.continuation)); }
+    }
+
+    /**
+     * Evaluates each operand of an expression from left to right, then finishes evaluating
+     * the expression with their values (see finish).
+     */
+    private void evaluateOperands(final MSSyntaxTree tree, final ArrayList<MSSyntaxTree> operands, final Environment env) throws MSSemanticException {
+        if (operands.isEmpty()) { this.finish(tree, new ArrayList<>(), env); }
+        else { this.evaluate(operands.get(0), env, new OperandsFrame(tree, operands, 1, null, env, this.continuation)); }
+    }
+
+    private void finish(final MSSyntaxTree tree, final ArrayList<LValue> values, final Environment env) throws MSSemanticException {
+        switch (tree.getNodeType()) {
+            case APPLICATION:
+                this.apply(values.remove(values.size() - 1), values);
+                break;
+            case SETCAR:
+                MicroSchemeInterpreter.setCar(values.get(0), values.get(1));
+                this.resume(this.continuation, null);
+                break;
+            case SETCDR:
+                MicroSchemeInterpreter.setCdr(values.get(0), values.get(1));
+                this.resume(this.continuation, null);
+                break;
+            case SETVECTOR:
+                MicroSchemeInterpreter.setVector(values.get(0), values.get(1), values.get(2));
+                this.resume(this.continuation, null);
+                break;
+            case LET: {
+                MSLetNode letNode = (MSLetNode) tree;
+                Environment letEnv = MicroSchemeInterpreter.bindLet(letNode, values, env);
+                if (letNode.isLoop()) { this.evaluate(letNode.getBody(), letEnv, new LoopFrame(letNode, letEnv, this.continuation)); }
+                else { this.evaluate(letNode.getBody(), letEnv, this.continuation); }
+                break;
+            }
+            case RECUR:
+                MicroSchemeInterpreter.rebindLoop((MSRecurNode) tree, values, env);
+                this.resume(this.continuation, MicroSchemeInterpreter.NEXT_ITERATION);
+                break;
+            case DO: {
+                ArrayList<MSSyntaxTree> doFormals = new ArrayList<>();
+                for (MSSyntaxTree declaration : ((MSDoNode) tree).getDoDeclarations()) { doFormals.add(((MSDeclarationNode) declaration).getVariable()); }
+                this.loopDo((MSDoNode) tree, env.createChildEnvironment(doFormals, values));
+                break;
+            }
+            default:
+                throw new MSInterpreterException("Unsupported node type " + tree.getNodeType());
+        }
+    }
+
+    /**
+     * Starts an iteration of a do loop by evaluating its test.
+     */
+    private void loopDo(final MSDoNode doNode, final Environment doEnv) {
+        this.evaluate(doNode.getDoTest(), doEnv, new DoTestFrame(doNode, doEnv, this.continuation));
+    }
+
+    /**
+     * Part of the computation that is waiting for the value of a subexpression.
+     */
+    public abstract static class Frame {
+
+        /**
+         * Frame to return to once this one is done.
+         */
+        private final Frame NEXT;
+
+        private Frame(final Frame next) {
+            this.NEXT = next;
+        }
+
+        /**
+         * Continues the computation with the value of the subexpression. The machine's
+         * continuation has already been set to the next frame.
+         */
+        abstract void resume(final MSCekMachine machine, final LValue value) throws MSSemanticException;
+    }
+
+    /**
+     * Immutable list of operand values in reverse order, so that frames can share them.
+     */
+    private static final class Values {
+
+        private final LValue VALUE;
+
+        private final Values REST;
+
+        private final int SIZE;
+
+        private Values(final LValue value, final Values rest) {
+            this.VALUE = value;
+            this.REST = rest;
+            this.SIZE = rest == null ? 1 : rest.SIZE + 1;
+        }
+
+        private ArrayList<LValue> toArrayList() {
+            ArrayList<LValue> values = new ArrayList<>(Collections.nCopies(this.SIZE, (LValue) null));
+            int i = this.SIZE - 1;
+            for (Values curr = this; curr != null; curr = curr.REST) { values.set(i--, curr.VALUE); }
+            return values;
+        }
+    }
+
+    private static final class SequenceFrame extends Frame {
+
+        private final ArrayList<MSSyntaxTree> EXPRESSIONS;
+
+        /**
+         * Index of the next expression to evaluate.
+         */
+        private final int IDX;
+
+        private final Environment ENV;
+
+        private SequenceFrame(final ArrayList<MSSyntaxTree> expressions, final int idx, final Environment env, final Frame next) {
+            super(next);
+            this.EXPRESSIONS = expressions;
+            this.IDX = idx;
+            this.ENV = env;
+        }
+
+        @Override
+        void resume(final MSCekMachine machine, final LValue value) {
+            // The last expression is in tail position, so it does not need a frame.
+            Frame next = this.IDX + 1 < this.EXPRESSIONS.size()
+                         ? new SequenceFrame(this.EXPRESSIONS, this.IDX + 1, this.ENV, machine.continuation)
+                         : machine.continuation;
+            machine.evaluate(this.EXPRESSIONS.get(this.IDX), this.ENV, next);
+        }
+    }
+
+    private static final class OperandsFrame extends Frame {
+
+        private final MSSyntaxTree TREE;
+
+        private final ArrayList<MSSyntaxTree> OPERANDS;
+
+        /**
+         * Index of the next operand to evaluate.
+         */
+        private final int IDX;
+
+        /**
+         * Values of the operands before the one being evaluated.
+         */
+        private final Values VALUES;
+
+        private final Environment ENV;
+
+        private OperandsFrame(final MSSyntaxTree tree, final ArrayList<MSSyntaxTree> operands, final int idx,
+                              final Values values, final Environment env, final Frame next) {
+            super(next);
+            this.TREE = tree;
+            this.OPERANDS = operands;
+            this.IDX = idx;
+            this.VALUES = values;
+            this.ENV = env;
+        }
+
+        @Override
+        void resume(final MSCekMachine machine, final LValue value) throws MSSemanticException {
+            Values values = new Values(value, this.VALUES);
+            if (this.IDX < this.OPERANDS.size()) {
+                machine.evaluate(this.OPERANDS.get(this.IDX), this.ENV,
+                                 new OperandsFrame(this.TREE, this.OPERANDS, this.IDX + 1, values, this.ENV, machine.continuation));
+            } else {
+                machine.finish(this.TREE, values.toArrayList(), this.ENV);
+            }
+        }
+    }
+
+    private static final class DeclarationFrame extends Frame {
+
+        private final String IDENTIFIER;
+
+        private final Environment ENV;
+
+        private DeclarationFrame(final String identifier, final Environment env, final Frame next) {
+            super(next);
+            this.IDENTIFIER = identifier;
+            this.ENV = env;
+        }
+
+        @Override
+        void resume(final MSCekMachine machine, final LValue value) {
+            this.ENV.bind(this.IDENTIFIER, value);
+            machine.resume(machine.continuation, null);
+        }
+    }
+
+    private static final class SetFrame extends Frame {
+
+        private final MSSetNode SET_NODE;
+
+        private final Environment ENV;
+
+        private SetFrame(final MSSetNode setNode, final Environment env, final Frame next) {
+            super(next);
+            this.SET_NODE = setNode;
+            this.ENV = env;
+        }
+
+        @Override
+        void resume(final MSCekMachine machine, final LValue value) throws MSSemanticException {
+            machine.INTERPRETER.assignVariable(this.SET_NODE, value, this.ENV);
+            machine.resume(machine.continuation, null);
+        }
+    }
+
+    /**
+     * Evaluates the remaining operands of an AND or OR until one decides the result.
+     */
+    private static final class BooleanFrame extends Frame {
+
+        private final MSSyntaxTree TREE;
+
+        private final int IDX;
+
+        private final Environment ENV;
+
+        private BooleanFrame(final MSSyntaxTree tree, final int idx, final Environment env, final Frame next) {
+            super(next);
+            this.TREE = tree;
+            this.IDX = idx;
+            this.ENV = env;
+        }
+
+        @Override
+        void resume(final MSCekMachine machine, final LValue value) {
+            boolean isAnd = this.TREE.getNodeType() == MSNodeType.AND;
+            if (value.getBooleanValue() != isAnd) { machine.resume(machine.continuation, new LValue(!isAnd)); }
+            else if (this.IDX == this.TREE.getChildrenSize()) { machine.resume(machine.continuation, new LValue(isAnd)); }
+            else {
+                machine.evaluate(this.TREE.getChild(this.IDX), this.ENV, new BooleanFrame(this.TREE, this.IDX + 1, this.ENV, machine.continuation));
+            }
+        }
+    }
+
+    private static final class CondFrame extends Frame {
+
+        private final MSCondNode COND_NODE;
+
+        private final ArrayList<MSSyntaxTree> PREDICATES;
+
+        private final ArrayList<MSSyntaxTree> CONSEQUENTS;
+
+        /**
+         * Index of the predicate being evaluated.
+         */
+        private final int IDX;
+
+        private final Environment ENV;
+
+        private CondFrame(final MSCondNode condNode, final ArrayList<MSSyntaxTree> predicates, final ArrayList<MSSyntaxTree> consequents,
+                          final int idx, final Environment env, final Frame next) {
+            super(next);
+            this.COND_NODE = condNode;
+            this.PREDICATES = predicates;
+            this.CONSEQUENTS = consequents;
+            this.IDX = idx;
+            this.ENV = env;
+        }
+
+        @Override
+        void resume(final MSCekMachine machine, final LValue value) {
+            // As in interpretCond, anything other than a boolean counts as true.
+            MSSyntaxTree predicateAst = LValue.getAst(value);
+            if (!predicateAst.isBoolean() || value.getBooleanValue()) {
+                machine.evaluate(this.CONSEQUENTS.get(this.IDX), this.ENV, machine.continuation);
+            } else if (this.IDX + 1 < this.PREDICATES.size()) {
+                machine.evaluate(this.PREDICATES.get(this.IDX + 1), this.ENV,
+                                 new CondFrame(this.COND_NODE, this.PREDICATES, this.CONSEQUENTS, this.IDX + 1, this.ENV, machine.continuation));
+            } else if (this.COND_NODE.hasElse()) {
+                machine.evaluate(this.CONSEQUENTS.get(this.CONSEQUENTS.size() - 1), this.ENV, machine.continuation);
+            } else {
+                machine.resume(machine.continuation, null);
+            }
+        }
+    }
+
+    private static final class DoTestFrame extends Frame {
+
+        private final MSDoNode DO_NODE;
+
+        private final Environment DO_ENV;
+
+        private DoTestFrame(final MSDoNode doNode, final Environment doEnv, final Frame next) {
+            super(next);
+            this.DO_NODE = doNode;
+            this.DO_ENV = doEnv;
+        }
+
+        @Override
+        void resume(final MSCekMachine machine, final LValue value) {
+            if (MicroSchemeInterpreter.isDoFinished(value)) { machine.evaluateAll(this.DO_NODE.getDoTrueExpressions(), this.DO_ENV); }
+            else { machine.evaluate(this.DO_NODE.getDoBody(), this.DO_ENV, new DoBodyFrame(this.DO_NODE, this.DO_ENV, machine.continuation)); }
+        }
+    }
+
+    private static final class DoBodyFrame extends Frame {
+
+        private final MSDoNode DO_NODE;
+
+        private final Environment DO_ENV;
+
+        private DoBodyFrame(final MSDoNode doNode, final Environment doEnv, final Frame next) {
+            super(next);
+            this.DO_NODE = doNode;
+            this.DO_ENV = doEnv;
+        }
+
+        @Override
+        void resume(final MSCekMachine machine, final LValue value) {
+            // The value of the body is irrelevant.
+            MSSyntaxTree[] stepExpressions = this.DO_NODE.getDoStepExpressions();
+            if (stepExpressions.length == 0) { machine.loopDo(this.DO_NODE, this.DO_ENV); }
+            else { machine.evaluate(stepExpressions[0], this.DO_ENV, new DoStepFrame(this.DO_NODE, this.DO_ENV, 1, null, machine.continuation)); }
+        }
+    }
+
+    /**
+     * Evaluates the remaining steps of a do loop. Once all of them are evaluated, the
+     * variables are updated and the loop starts over with the test.
+     */
+    private static final class DoStepFrame extends Frame {
+
+        private final MSDoNode DO_NODE;
+
+        private final Environment DO_ENV;
+
+        /**
+         * Index of the next step to evaluate.
+         */
+        private final int IDX;
+
+        /**
+         * Values of the steps before the one being evaluated.
+         */
+        private final Values VALUES;
+
+        private DoStepFrame(final MSDoNode doNode, final Environment doEnv, final int idx, final Values values, final Frame next) {
+            super(next);
+            this.DO_NODE = doNode;
+            this.DO_ENV = doEnv;
+            this.IDX = idx;
+            this.VALUES = values;
+        }
+
+        @Override
+        void resume(final MSCekMachine machine, final LValue value) {
+            Values values = new Values(value, this.VALUES);
+            MSSyntaxTree[] stepExpressions = this.DO_NODE.getDoStepExpressions();
+            if (this.IDX < stepExpressions.length) {
+                machine.evaluate(stepExpressions[this.IDX], this.DO_ENV,
+                                 new DoStepFrame(this.DO_NODE, this.DO_ENV, this.IDX + 1, values, machine.continuation));
+                return;
+            }
+            String[] stepVariables = this.DO_NODE.getDoStepVariables();
+            ArrayList<LValue> stepValues = values.toArrayList();
+            for (int i = 0; i < stepVariables.length; i++) { this.DO_ENV.bind(stepVariables[i], stepValues.get(i)); }
+            machine.loopDo(this.DO_NODE, this.DO_ENV);
+        }
+    }
+
+    /**
+     * Evaluates the body of a looping named let again if it ended with a call to the let.
+     */
+    private static final class LoopFrame extends Frame {
+
+        private final MSLetNode LET_NODE;
+
+        private final Environment LET_ENV;
+
+        private LoopFrame(final MSLetNode letNode, final Environment letEnv, final Frame next) {
+            super(next);
+            this.LET_NODE = letNode;
+            this.LET_ENV = letEnv;
+        }
+
+        @Override
+        void resume(final MSCekMachine machine, final LValue value) {
+            if (value != MicroSchemeInterpreter.NEXT_ITERATION) { machine.resume(machine.continuation, value); }
+            else { machine.evaluate(this.LET_NODE.getBody(), this.LET_ENV, this); }
+        }
+    }
+
+    private static final class EvalFrame extends Frame {
+
+        private final Environment ENV;
+
+        private EvalFrame(final Environment env, final Frame next) {
+            super(next);
+            this.ENV = env;
+        }
+
+        @Override
+        void resume(final MSCekMachine machine, final LValue value) throws MSSemanticException {
+            machine.evaluate(machine.INTERPRETER.getEvalExpression(LValue.getAst(value), this.ENV), this.ENV, machine.continuation);
+        }
+    }
+
+    private static final class ApplyFrame extends Frame {
+
+        private final MSApplyNode APPLY_NODE;
+
+        private final Environment ENV;
+
+        private ApplyFrame(final MSApplyNode applyNode, final Environment env, final Frame next) {
+            super(next);
+            this.APPLY_NODE = applyNode;
+            this.ENV = env;
+        }
+
+        @Override
+        void resume(final MSCekMachine machine, final LValue value) throws MSSemanticException {
+            machine.evaluate(machine.INTERPRETER.getApplyApplication(this.APPLY_NODE, LValue.getAst(value), this.ENV), this.ENV, machine.continuation);
+        }
+    }
+}
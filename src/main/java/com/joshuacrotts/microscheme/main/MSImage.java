@@ -0,0 +1,974 @@
+/******************************************************************************
+ *  File: MSImage.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Reads and writes the images made by saveImage. An image is a flat run of
+ *  tagged records, one per value, and a record refers to the values it is made
+ *  of by the index of their records. Every value is written after its parts,
+ *  except for values that can be part of a cycle (environments, pairs, vectors,
+ *  hash tables, records, atoms, promises, channels and futures): these are
+ *  written empty, and a FILL record later gives them their contents. Neither
+ *  writing nor reading recurses, so lists of any length and code of any depth
+ *  can be saved. Strings (including identifiers) and numbers are each written
+ *  once and shared by every record that uses them.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import ch.obermuhlner.math.big.BigComplex;
+import com.joshuacrotts.microscheme.MicroSchemeParser;
+import com.joshuacrotts.microscheme.ast.*;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+final class MSImage {
+
+    /**
+     * Written at the start of every image so that we can reject files that were not
+     * produced by saveImage (or by an incompatible version of it).
+     */
+    private static final byte[] HEADER = "MicroScheme-image-3\n".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Tags of the records in an image.
+     */
+    private static final int END = 0;
+    private static final int FILL = 1;
+    private static final int ENVIRONMENT = 2;
+    private static final int LVALUE = 3;
+    private static final int SMALL_NUMBER = 4;
+    private static final int NUMBER = 5;
+    private static final int STRING = 6;
+    private static final int CHARACTER = 7;
+    private static final int TRUE = 8;
+    private static final int FALSE = 9;
+    private static final int VARIABLE = 10;
+    private static final int SYMBOL = 11;
+    private static final int EMPTY_LIST = 12;
+    private static final int PAIR = 13;
+    private static final int VECTOR = 14;
+    private static final int F64VECTOR = 15;
+    private static final int S64VECTOR = 16;
+    private static final int U8VECTOR = 17;
+    private static final int HASHTABLE = 18;
+    private static final int STRINGBUILDER = 19;
+    private static final int RECORD_TYPE = 20;
+    private static final int RECORD = 21;
+    private static final int RECORD_PROCEDURE = 22;
+    private static final int PROMISE = 23;
+    private static final int FUTURE = 24;
+    private static final int CHANNEL = 25;
+    private static final int ATOM = 26;
+    private static final int COUNTER = 27;
+    private static final int ESCAPE_CONTINUATION = 28;
+    private static final int DEFINE_RECORD_TYPE = 29;
+    private static final int EXPRESSION = 30;
+    private static final int TREE = 31;
+
+    /**
+     * States of a promise in its FILL record.
+     */
+    private static final int PROMISE_DONE = 0;
+    private static final int PROMISE_EXPRESSION = 1;
+    private static final int PROMISE_PROCEDURE = 2;
+    private static final int PROMISE_SHARED = 3;
+
+    private MSImage() {}
+
+    /**
+     * Writes an image of an environment and everything reachable from it.
+     *
+     * @param globals environment to save.
+     * @return contents of the image.
+     *
+     * @throws IOException if a value cannot be saved, e.g., a continuation.
+     */
+    static byte[] write(final Environment globals) throws IOException {
+        Writer writer = new Writer();
+        writer.writeImage(globals);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Reads an environment from an image made by write.
+     *
+     * @param image contents of the image.
+     * @return the saved environment.
+     *
+     * @throws IllegalArgumentException if the image was not made by write.
+     */
+    static Environment read(final byte[] image) throws IOException {
+        if (image.length < MSImage.HEADER.length
+                || !Arrays.equals(Arrays.copyOf(image, MSImage.HEADER.length), MSImage.HEADER)) {
+            throw new IllegalArgumentException("missing image header");
+        }
+
+        try {
+            return new Reader(image, MSImage.HEADER.length).readImage();
+        } catch (IllegalArgumentException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("corrupt image", ex);
+        }
+    }
+
+    private static final class Writer {
+
+        private byte[] bytes = new byte[1 << 16];
+
+        private int size = 0;
+
+        /**
+         * Index of the record that created each value written so far. Equal numbers
+         * share the record of the first one.
+         */
+        private final IdentityHashMap<Object, Integer> IDS = new IdentityHashMap<>();
+
+        private final HashMap<List<BigDecimal>, Integer> NUMBERS = new HashMap<>();
+
+        private final HashMap<String, Integer> STRINGS = new HashMap<>();
+
+        /**
+         * First promise written with each content. Promises that share a content with
+         * it (see MSPromiseNode.shareContent) are filled with a reference to it.
+         */
+        private final IdentityHashMap<MSPromiseNode.Content, MSPromiseNode> PROMISE_CONTENTS = new IdentityHashMap<>();
+
+        /**
+         * Values that have been written empty and still need a FILL record, oldest first.
+         */
+        private final ArrayDeque<Object> UNFILLED = new ArrayDeque<>();
+
+        /**
+         * Hash tables are filled last, since a key is hashed when it is put back into its
+         * table, and an equal? hash looks inside pairs and vectors that must be filled.
+         */
+        private final ArrayList<MSHashTableNode> TABLES = new ArrayList<>();
+
+        /**
+         * Values that are waiting for their parts to be written.
+         */
+        private final ArrayDeque<Object> PENDING = new ArrayDeque<>();
+
+        private int records = 0;
+
+        private void writeImage(final Environment globals) throws IOException {
+            this.writeValue(globals);
+            ArrayList<Object> contents = new ArrayList<>();
+            for (Object value = this.UNFILLED.poll(); value != null; value = this.UNFILLED.poll()) {
+                contents.clear();
+                this.addContents(value, contents);
+                for (Object content : contents) { this.writeValue(content); }
+                if (value instanceof MSHashTableNode) { this.TABLES.add((MSHashTableNode) value); }
+                else { this.writeFill(value); }
+            }
+
+            for (MSHashTableNode table : this.TABLES) { this.writeFill(table); }
+            this.writeByte(END);
+        }
+
+        private byte[] toByteArray() {
+            byte[] image = Arrays.copyOf(MSImage.HEADER, MSImage.HEADER.length + this.size);
+            System.arraycopy(this.bytes, 0, image, MSImage.HEADER.length, this.size);
+            return image;
+        }
+
+        /**
+         * Writes a value, after first writing each of its parts that has not been written.
+         * Parts are kept on an explicit stack rather than recursed on.
+         *
+         * @param root value to write.
+         */
+        private void writeValue(final Object root) throws IOException {
+            if (root == null || this.IDS.containsKey(root)) { return; }
+            this.PENDING.push(root);
+            while (!this.PENDING.isEmpty()) {
+                Object value = this.PENDING.peek();
+                if (this.IDS.containsKey(value)) {
+                    this.PENDING.pop();
+                    continue;
+                }
+
+                int pendingSize = this.PENDING.size();
+                this.pushParts(value);
+                if (this.PENDING.size() == pendingSize) {
+                    this.PENDING.pop();
+                    this.writeRecord(value);
+                }
+            }
+        }
+
+        /**
+         * Pushes the parts that a value is created from. The contents of values that are
+         * filled later are not parts, so the parts never form a cycle.
+         */
+        private void pushParts(final Object value) {
+            if (value instanceof Environment) {
+                this.pushPart(((Environment) value).getParent());
+            } else if (value instanceof LValue) {
+                this.pushPart(((LValue) value).getTree());
+                this.pushPart(((LValue) value).getEnvironment());
+            } else if (value instanceof MSSymbolNode) {
+                this.pushPart(((MSSymbolNode) value).getValue());
+            } else if (value instanceof MSRecordNode) {
+                this.pushPart(((MSRecordNode) value).getType());
+            } else if (value instanceof MSRecordProcedureNode) {
+                this.pushPart(((MSRecordProcedureNode) value).getType());
+            } else if (value instanceof MSSyntaxTree && !(value instanceof MSListNode)) {
+                for (MSSyntaxTree child : ((MSSyntaxTree) value).getChildren()) { this.pushPart(child); }
+            }
+        }
+
+        private void pushPart(final Object part) {
+            if (part != null && !this.IDS.containsKey(part)) { this.PENDING.push(part); }
+        }
+
+        private void writeRecord(final Object value) throws IOException {
+            if (value instanceof Environment) {
+                this.writeByte(ENVIRONMENT);
+                this.writeRef(((Environment) value).getParent());
+                this.UNFILLED.add(value);
+            } else if (value instanceof LValue) {
+                this.writeByte(LVALUE);
+                this.writeRef(((LValue) value).getTree());
+                this.writeRef(((LValue) value).getEnvironment());
+            } else if (value instanceof MSRecordType) {
+                MSRecordType type = (MSRecordType) value;
+                this.writeByte(RECORD_TYPE);
+                this.writeString(type.getName());
+                this.writeUnsigned(type.getFieldCount());
+                for (int i = 0; i < type.getFieldCount(); i++) { this.writeString(type.getFieldName(i)); }
+            } else if (!this.writeTree((MSSyntaxTree) value)) {
+                return;
+            }
+            this.IDS.put(value, this.records++);
+        }
+
+        /**
+         * @return false if the tree is a number that shares the record of an equal one.
+         */
+        private boolean writeTree(final MSSyntaxTree tree) throws IOException {
+            switch (tree.getNodeType()) {
+                case NUMBER:
+                    return this.writeNumber((MSNumberNode) tree);
+                case STRING:
+                    this.writeByte(STRING);
+                    this.writeString(((MSStringNode) tree).getValue());
+                    break;
+                case BOOLEAN:
+                    this.writeByte(((MSBooleanNode) tree).getValue() ? TRUE : FALSE);
+                    break;
+                case CHARACTER:
+                    this.writeByte(CHARACTER);
+                    this.writeUnsigned(((MSCharacterNode) tree).getValue());
+                    break;
+                case VARIABLE:
+                    this.writeByte(VARIABLE);
+                    this.writeString(((MSVariableNode) tree).getIdentifier());
+                    break;
+                case SYMBOL:
+                    this.writeByte(SYMBOL);
+                    this.writeRef(((MSSymbolNode) tree).getValue());
+                    this.writeBoolean(((MSSymbolNode) tree).isQuasiAtSymbol());
+                    break;
+                case LIST:
+                    if (((MSListNode) tree).isEmptyList()) {
+                        this.writeByte(EMPTY_LIST);
+                    } else {
+                        this.writeByte(PAIR);
+                        this.UNFILLED.add(tree);
+                    }
+                    break;
+                case VECTOR:
+                    this.writeByte(VECTOR);
+                    this.writeUnsigned(((MSVectorNode) tree).size());
+                    this.UNFILLED.add(tree);
+                    break;
+                case F64VECTOR: {
+                    double[] elements = ((MSF64VectorNode) tree).getElements();
+                    this.writeByte(F64VECTOR);
+                    this.writeUnsigned(elements.length);
+                    for (double element : elements) { this.writeFixedLong(Double.doubleToRawLongBits(element)); }
+                    break;
+                }
+                case S64VECTOR: {
+                    long[] elements = ((MSS64VectorNode) tree).getElements();
+                    this.writeByte(S64VECTOR);
+                    this.writeUnsigned(elements.length);
+                    for (long element : elements) { this.writeLong(element); }
+                    break;
+                }
+                case U8VECTOR: {
+                    byte[] elements = ((MSU8VectorNode) tree).getElements();
+                    this.writeByte(U8VECTOR);
+                    this.writeUnsigned(elements.length);
+                    this.writeBytes(elements);
+                    break;
+                }
+                case HASHTABLE:
+                    this.writeByte(HASHTABLE);
+                    this.writeByte(((MSHashTableNode) tree).getEquivalence().ordinal());
+                    this.UNFILLED.add(tree);
+                    break;
+                case STRINGBUILDER:
+                    this.writeByte(STRINGBUILDER);
+                    this.writeBoolean(((MSStringBuilderNode) tree).isPort());
+                    this.writeString(((MSStringBuilderNode) tree).getContents());
+                    break;
+                case RECORD:
+                    this.writeByte(RECORD);
+                    this.writeRef(((MSRecordNode) tree).getType());
+                    this.UNFILLED.add(tree);
+                    break;
+                case RECORDPROCEDURE: {
+                    MSRecordProcedureNode procedure = (MSRecordProcedureNode) tree;
+                    this.writeByte(RECORD_PROCEDURE);
+                    this.writeString(procedure.getName());
+                    this.writeByte(procedure.getKind().ordinal());
+                    this.writeRef(procedure.getType());
+                    this.writeUnsigned(procedure.getConstructorSlots().length);
+                    for (int slot : procedure.getConstructorSlots()) { this.writeUnsigned(slot); }
+                    break;
+                }
+                case PROMISE:
+                    this.writeByte(PROMISE);
+                    this.UNFILLED.add(tree);
+                    break;
+                case FUTURE:
+                    MSImage.checkFuture((MSFutureNode) tree);
+                    this.writeByte(FUTURE);
+                    this.UNFILLED.add(tree);
+                    break;
+                case CHANNEL:
+                    this.writeByte(CHANNEL);
+                    this.writeUnsigned(((MSChannelNode) tree).getCapacity());
+                    this.UNFILLED.add(tree);
+                    break;
+                case ATOM:
+                    this.writeByte(ATOM);
+                    this.UNFILLED.add(tree);
+                    break;
+                case COUNTER:
+                    this.writeByte(COUNTER);
+                    this.writeLong(((MSCounterNode) tree).sum());
+                    break;
+                case ESCAPECONTINUATION:
+                    // An escape continuation can only be used while its call/ec is running.
+                    this.writeByte(ESCAPE_CONTINUATION);
+                    break;
+                case CONTINUATION:
+                    throw new IOException("cannot save a continuation in an image");
+                case RECORDTYPE:
+                    this.writeRecordTypeNode((MSRecordTypeNode) tree);
+                    break;
+                default:
+                    this.writeExpression(tree);
+                    break;
+            }
+            return true;
+        }
+
+        private boolean writeNumber(final MSNumberNode number) {
+            BigComplex value = number.getValue();
+            // Keyed on both parts with their scales, so that 2 and 2.0 stay distinct.
+            List<BigDecimal> key = Arrays.asList(value.re, value.im);
+            Integer id = this.NUMBERS.get(key);
+            if (id != null) {
+                this.IDS.put(number, id);
+                return false;
+            }
+
+            if (value.im.equals(BigDecimal.ZERO) && value.re.scale() == 0 && value.re.unscaledValue().bitLength() < Long.SIZE) {
+                this.writeByte(SMALL_NUMBER);
+                this.writeLong(value.re.longValue());
+            } else {
+                this.writeByte(NUMBER);
+                this.writeDecimal(value.re);
+                this.writeDecimal(value.im);
+            }
+            this.NUMBERS.put(key, this.records);
+            return true;
+        }
+
+        private void writeRecordTypeNode(final MSRecordTypeNode recordType) {
+            this.writeByte(DEFINE_RECORD_TYPE);
+            this.writeString(recordType.getTypeName());
+            this.writeString(recordType.getConstructorName());
+            this.writeUnsigned(recordType.getConstructorFields().size());
+            for (String field : recordType.getConstructorFields()) { this.writeString(field); }
+            this.writeString(recordType.getPredicateName());
+            this.writeUnsigned(recordType.getFields().size());
+            for (String[] field : recordType.getFields()) {
+                this.writeUnsigned(field.length);
+                for (String name : field) { this.writeString(name); }
+            }
+        }
+
+        /**
+         * Writes a node of code. Its children are written by reference, followed by
+         * whatever else its constructor needs to split them up again.
+         */
+        private void writeExpression(final MSSyntaxTree tree) {
+            this.writeByte(tree.getClass() == MSSyntaxTree.class ? TREE : EXPRESSION);
+            this.writeByte(tree.getNodeType().ordinal());
+            this.writeUnsigned(tree.getChildrenSize());
+            for (MSSyntaxTree child : tree.getChildren()) { this.writeRef(child); }
+            if (tree.getClass() == MSSyntaxTree.class) { return; }
+
+            switch (tree.getNodeType()) {
+                case COND:
+                    this.writeUnsigned(((MSCondNode) tree).getPredicateList().size());
+                    break;
+                case LAMBDA:
+                    this.writeBoolean(((MSLambdaNode) tree).isVariableArguments());
+                    break;
+                case LET:
+                    this.writeBoolean(((MSLetNode) tree).isLoop());
+                    break;
+                case RECUR: {
+                    MSRecurNode recur = (MSRecurNode) tree;
+                    this.writeUnsigned(recur.getVariables().length);
+                    for (String variable : recur.getVariables()) { this.writeString(variable); }
+                    this.writeUnsigned(recur.getDepth());
+                    break;
+                }
+                case DO:
+                    this.writeUnsigned(((MSDoNode) tree).getDoDeclarations().size());
+                    this.writeUnsigned(((MSDoNode) tree).getDoStepVariables().length);
+                    break;
+                case DELAY:
+                    this.writeBoolean(((MSDelayNode) tree).isDelayForce());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * Adds the values that the FILL record of a value refers to, in no particular order.
+         */
+        private void addContents(final Object value, final ArrayList<Object> contents) {
+            if (value instanceof Environment) {
+                contents.addAll(((Environment) value).getBindings().values());
+            } else if (value instanceof MSListNode) {
+                MSListNode pair = (MSListNode) value;
+                for (int i = 0; i < pair.getChildrenSize(); i++) { contents.add(MSImage.getPairPart(pair, i)); }
+            } else if (value instanceof MSVectorNode) {
+                MSVectorNode vector = (MSVectorNode) value;
+                for (int i = 0; i < vector.size(); i++) { contents.add(vector.get(i)); }
+            } else if (value instanceof MSHashTableNode) {
+                for (Map.Entry<LValue, LValue> entry : ((MSHashTableNode) value).getEntries()) {
+                    contents.add(entry.getKey());
+                    contents.add(entry.getValue());
+                }
+            } else if (value instanceof MSRecordNode) {
+                MSRecordNode record = (MSRecordNode) value;
+                for (int i = 0; i < record.getType().getFieldCount(); i++) { contents.add(record.get(i)); }
+            } else if (value instanceof MSAtomNode) {
+                contents.add(((MSAtomNode) value).get());
+            } else if (value instanceof MSPromiseNode) {
+                MSPromiseNode.Content content = ((MSPromiseNode) value).getContent();
+                this.PROMISE_CONTENTS.putIfAbsent(content, (MSPromiseNode) value);
+                contents.add(content.getValue());
+                contents.add(content.getExpression());
+                contents.add(content.getEnvironment());
+                contents.add(content.getProcedure());
+                if (content.getArguments() != null) { contents.addAll(content.getArguments()); }
+            } else if (value instanceof MSChannelNode) {
+                contents.addAll(((MSChannelNode) value).getItems());
+            } else if (value instanceof MSFutureNode) {
+                contents.add(((MSFutureNode) value).getValue());
+            }
+        }
+
+        private void writeFill(final Object value) {
+            this.writeByte(FILL);
+            this.writeRef(value);
+            if (value instanceof Environment) {
+                ArrayList<Map.Entry<String, LValue>> bindings = new ArrayList<>(((Environment) value).getBindings().entrySet());
+                this.writeUnsigned(bindings.size());
+                for (Map.Entry<String, LValue> binding : bindings) {
+                    this.writeString(binding.getKey());
+                    this.writeRef(binding.getValue());
+                }
+            } else if (value instanceof MSListNode) {
+                MSListNode pair = (MSListNode) value;
+                this.writeUnsigned(pair.getChildrenSize());
+                for (int i = 0; i < pair.getChildrenSize(); i++) { this.writeRef(MSImage.getPairPart(pair, i)); }
+            } else if (value instanceof MSVectorNode) {
+                MSVectorNode vector = (MSVectorNode) value;
+                for (int i = 0; i < vector.size(); i++) { this.writeRef(vector.get(i)); }
+            } else if (value instanceof MSHashTableNode) {
+                ArrayList<Map.Entry<LValue, LValue>> entries = ((MSHashTableNode) value).getEntries();
+                this.writeUnsigned(entries.size());
+                for (Map.Entry<LValue, LValue> entry : entries) {
+                    this.writeRef(entry.getKey());
+                    this.writeRef(entry.getValue());
+                }
+            } else if (value instanceof MSRecordNode) {
+                MSRecordNode record = (MSRecordNode) value;
+                for (int i = 0; i < record.getType().getFieldCount(); i++) { this.writeRef(record.get(i)); }
+            } else if (value instanceof MSAtomNode) {
+                this.writeRef(((MSAtomNode) value).get());
+            } else if (value instanceof MSPromiseNode) {
+                this.writePromiseContent((MSPromiseNode) value);
+            } else if (value instanceof MSChannelNode) {
+                MSChannelNode channel = (MSChannelNode) value;
+                ArrayList<LValue> items = channel.getItems();
+                this.writeBoolean(channel.isClosed());
+                this.writeUnsigned(items.size());
+                for (LValue item : items) { this.writeRef(item); }
+            } else if (value instanceof MSFutureNode) {
+                this.writeRef(((MSFutureNode) value).getValue());
+            }
+        }
+
+        private void writePromiseContent(final MSPromiseNode promise) {
+            MSPromiseNode.Content content = promise.getContent();
+            MSPromiseNode first = this.PROMISE_CONTENTS.get(content);
+            if (first != promise) {
+                this.writeByte(PROMISE_SHARED);
+                this.writeRef(first);
+            } else if (content.isDone()) {
+                this.writeByte(PROMISE_DONE);
+                this.writeRef(content.getValue());
+            } else if (content.getExpression() != null) {
+                this.writeByte(PROMISE_EXPRESSION);
+                this.writeBoolean(content.isDelayForce());
+                this.writeRef(content.getExpression());
+                this.writeRef(content.getEnvironment());
+            } else {
+                this.writeByte(PROMISE_PROCEDURE);
+                this.writeRef(content.getProcedure());
+                this.writeUnsigned(content.getArguments().size());
+                for (LValue argument : content.getArguments()) { this.writeRef(argument); }
+            }
+        }
+
+        private void writeRef(final Object value) {
+            this.writeUnsigned(value == null ? 0 : this.IDS.get(value) + 1);
+        }
+
+        /**
+         * Strings are written in full the first time and by their index after that.
+         */
+        private void writeString(final String str) {
+            if (str == null) {
+                this.writeUnsigned(0);
+                return;
+            }
+
+            Integer idx = this.STRINGS.get(str);
+            if (idx != null) {
+                this.writeUnsigned(idx + 2);
+                return;
+            }
+
+            this.STRINGS.put(str, this.STRINGS.size());
+            this.writeUnsigned(1);
+            this.writeUnsigned(str.length());
+            for (int i = 0; i < str.length(); i++) { this.writeUnsigned(str.charAt(i)); }
+        }
+
+        private void writeDecimal(final BigDecimal number) {
+            byte[] unscaled = number.unscaledValue().toByteArray();
+            this.writeLong(number.scale());
+            this.writeUnsigned(unscaled.length);
+            this.writeBytes(unscaled);
+        }
+
+        private void writeBoolean(final boolean value) {
+            this.writeByte(value ? 1 : 0);
+        }
+
+        /**
+         * Writes a non-negative int in 7-bit groups, low group first, so small values take
+         * a single byte.
+         */
+        private void writeUnsigned(final int value) {
+            int rest = value;
+            while ((rest & ~0x7F) != 0) {
+                this.writeByte((rest & 0x7F) | 0x80);
+                rest >>>= 7;
+            }
+            this.writeByte(rest);
+        }
+
+        /**
+         * Writes a long in 7-bit groups after zig-zag encoding it, so that small negative
+         * values are short as well.
+         */
+        private void writeLong(final long value) {
+            long rest = (value << 1) ^ (value >> 63);
+            while ((rest & ~0x7FL) != 0) {
+                this.writeByte((int) (rest & 0x7F) | 0x80);
+                rest >>>= 7;
+            }
+            this.writeByte((int) rest);
+        }
+
+        private void writeFixedLong(final long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) { this.writeByte((int) (value >>> shift)); }
+        }
+
+        private void writeBytes(final byte[] values) {
+            this.ensureCapacity(values.length);
+            System.arraycopy(values, 0, this.bytes, this.size, values.length);
+            this.size += values.length;
+        }
+
+        private void writeByte(final int value) {
+            this.ensureCapacity(1);
+            this.bytes[this.size++] = (byte) value;
+        }
+
+        private void ensureCapacity(final int extra) {
+            if (this.size + extra > this.bytes.length) {
+                this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length * 2, this.size + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] BYTES;
+
+        private int position;
+
+        /**
+         * Value created by each record, in the order of the records.
+         */
+        private final ArrayList<Object> VALUES = new ArrayList<>();
+
+        private final ArrayList<String> STRINGS = new ArrayList<>();
+
+        private Reader(final byte[] bytes, final int position) {
+            this.BYTES = bytes;
+            this.position = position;
+        }
+
+        private Environment readImage() throws IOException {
+            while (true) {
+                int tag = this.readByte();
+                if (tag == END) { return (Environment) this.VALUES.get(0); }
+                if (tag == FILL) { this.readFill(this.readRef()); }
+                else { this.VALUES.add(this.readRecord(tag)); }
+            }
+        }
+
+        private Object readRecord(final int tag) {
+            switch (tag) {
+                case ENVIRONMENT: return new Environment((Environment) this.readRef());
+                case LVALUE: return new LValue((MSSyntaxTree) this.readRef(), (Environment) this.readRef());
+                case RECORD_TYPE: {
+                    String name = this.readString();
+                    ArrayList<String> fieldNames = this.readStrings();
+                    return new MSRecordType(name, fieldNames);
+                }
+                case SMALL_NUMBER: return new MSNumberNode(BigDecimal.valueOf(this.readLong()));
+                case NUMBER: return new MSNumberNode(BigComplex.valueOf(this.readDecimal(), this.readDecimal()));
+                case STRING: return new MSStringNode(this.readString());
+                case CHARACTER: return new MSCharacterNode((char) this.readUnsigned());
+                case TRUE: return new MSBooleanNode(true);
+                case FALSE: return new MSBooleanNode(false);
+                case VARIABLE: return MSSymbolTable.intern(this.readString());
+                case SYMBOL: return new MSSymbolNode((MSSyntaxTree) this.readRef(), this.readBoolean());
+                case EMPTY_LIST: return MSListNode.EMPTY_LIST;
+                case PAIR: return new MSListNode((MSSyntaxTree) null, null);
+                case VECTOR: return new MSVectorNode(this.readUnsigned(), null);
+                case F64VECTOR: {
+                    double[] elements = new double[this.readUnsigned()];
+                    for (int i = 0; i < elements.length; i++) { elements[i] = Double.longBitsToDouble(this.readFixedLong()); }
+                    return new MSF64VectorNode(elements);
+                }
+                case S64VECTOR: {
+                    long[] elements = new long[this.readUnsigned()];
+                    for (int i = 0; i < elements.length; i++) { elements[i] = this.readLong(); }
+                    return new MSS64VectorNode(elements);
+                }
+                case U8VECTOR: return new MSU8VectorNode(this.readBytes(this.readUnsigned()));
+                case HASHTABLE: return new MSHashTableNode(MSEquivalence.values()[this.readByte()]);
+                case STRINGBUILDER: {
+                    MSStringBuilderNode builder = new MSStringBuilderNode(this.readBoolean());
+                    builder.append(this.readString());
+                    return builder;
+                }
+                case RECORD: {
+                    MSRecordType type = (MSRecordType) this.readRef();
+                    return new MSRecordNode(type, new LValue[type.getFieldCount()]);
+                }
+                case RECORD_PROCEDURE: {
+                    String name = this.readString();
+                    MSRecordProcedureNode.Kind kind = MSRecordProcedureNode.Kind.values()[this.readByte()];
+                    MSRecordType type = (MSRecordType) this.readRef();
+                    int[] slots = new int[this.readUnsigned()];
+                    for (int i = 0; i < slots.length; i++) { slots[i] = this.readUnsigned(); }
+                    return new MSRecordProcedureNode(name, kind, type, slots);
+                }
+                case PROMISE: return new MSPromiseNode((LValue) null);
+                case FUTURE: return new MSFutureNode();
+                case CHANNEL: return new MSChannelNode(this.readUnsigned());
+                case ATOM: return new MSAtomNode(null);
+                case COUNTER: {
+                    MSCounterNode counter = new MSCounterNode();
+                    counter.add(this.readLong());
+                    return counter;
+                }
+                case ESCAPE_CONTINUATION: {
+                    MSEscapeContinuationNode escape = new MSEscapeContinuationNode();
+                    escape.deactivate();
+                    return escape;
+                }
+                case DEFINE_RECORD_TYPE: {
+                    String typeName = this.readString();
+                    String constructorName = this.readString();
+                    ArrayList<String> constructorFields = this.readStrings();
+                    String predicateName = this.readString();
+                    ArrayList<String[]> fields = new ArrayList<>();
+                    for (int i = this.readUnsigned(); i > 0; i--) { fields.add(this.readStrings().toArray(new String[0])); }
+                    return new MSRecordTypeNode(typeName, constructorName, constructorFields, predicateName, fields);
+                }
+                case EXPRESSION: return this.readExpression();
+                case TREE: {
+                    MSNodeType type = MSNodeType.values()[this.readByte()];
+                    return new MSSyntaxTree(type, this.readChildren().toArray(new MSSyntaxTree[0]));
+                }
+                default:
+                    throw new IllegalArgumentException("unknown image record " + tag);
+            }
+        }
+
+        private MSSyntaxTree readExpression() {
+            MSNodeType type = MSNodeType.values()[this.readByte()];
+            ArrayList<MSSyntaxTree> children = this.readChildren();
+            int last = children.size() - 1;
+            switch (type) {
+                case SEQUENCE: return new MSSequenceNode(children);
+                case QUASISYMBOL: return new MSQuasiSymbolNode(children);
+                case AND: return new MSAndNode(children);
+                case OR: return new MSOrNode(children);
+                case COND: {
+                    int predicates = this.readUnsigned();
+                    return new MSCondNode(Reader.slice(children, 0, predicates), Reader.slice(children, predicates, children.size()));
+                }
+                case LAMBDA: return new MSLambdaNode(Reader.slice(children, 0, last), children.get(last), this.readBoolean());
+                case LET: return new MSLetNode(Reader.slice(children, 0, last), children.get(last), this.readBoolean());
+                case LETREC: return new MSLetRecNode(Reader.slice(children, 0, last), children.get(last));
+                case RECUR: {
+                    String[] variables = this.readStrings().toArray(new String[0]);
+                    return new MSRecurNode(children, variables, this.readUnsigned());
+                }
+                case SET: return new MSSetNode(MicroSchemeParser.SET, children);
+                case SETCAR: return new MSSetNode(MicroSchemeParser.SETCAR, children);
+                case SETCDR: return new MSSetNode(MicroSchemeParser.SETCDR, children);
+                case SETVECTOR: return new MSSetNode(MicroSchemeParser.SETVECTOR, children);
+                case DO: {
+                    int declarations = this.readUnsigned();
+                    int steps = declarations + this.readUnsigned();
+                    ArrayList<MSDeclarationNode> doSteps = new ArrayList<>();
+                    for (int i = declarations; i < steps; i++) { doSteps.add((MSDeclarationNode) children.get(i)); }
+                    return new MSDoNode(Reader.slice(children, 0, declarations), doSteps, children.get(steps),
+                                        Reader.slice(children, steps + 1, last), children.get(last));
+                }
+                case DELAY: return new MSDelayNode(children.get(0), this.readBoolean());
+                case DECLARATION: return new MSDeclarationNode(children.get(0), children.get(1));
+                case APPLICATION: return new MSApplicationNode(children.get(0), Reader.slice(children, 1, children.size()));
+                case APPLY: return new MSApplyNode(children.get(0), children.get(1));
+                case EVAL: return new MSEvalNode(children.get(0));
+                default:
+                    throw new IllegalArgumentException("unknown expression in image " + type);
+            }
+        }
+
+        private void readFill(final Object value) throws IOException {
+            if (value instanceof Environment) {
+                Environment env = (Environment) value;
+                for (int i = this.readUnsigned(); i > 0; i--) { env.bind(this.readString(), (LValue) this.readRef()); }
+            } else if (value instanceof MSListNode) {
+                MSListNode pair = (MSListNode) value;
+                int parts = this.readUnsigned();
+                for (int i = 0; i < parts; i++) {
+                    Object part = this.readRef();
+                    if (part instanceof LValue) {
+                        if (i == 0) { pair.setCar((LValue) part); }
+                        else { pair.setCdr((LValue) part); }
+                    } else {
+                        if (i == 0) { pair.setCar((MSSyntaxTree) part); }
+                        else { pair.setCdr((MSSyntaxTree) part); }
+                    }
+                }
+            } else if (value instanceof MSVectorNode) {
+                MSVectorNode vector = (MSVectorNode) value;
+                for (int i = 0; i < vector.size(); i++) { vector.set(i, (MSSyntaxTree) this.readRef()); }
+            } else if (value instanceof MSHashTableNode) {
+                MSHashTableNode table = (MSHashTableNode) value;
+                for (int i = this.readUnsigned(); i > 0; i--) { table.put((LValue) this.readRef(), (LValue) this.readRef()); }
+            } else if (value instanceof MSRecordNode) {
+                MSRecordNode record = (MSRecordNode) value;
+                for (int i = 0; i < record.getType().getFieldCount(); i++) { record.set(i, (LValue) this.readRef()); }
+            } else if (value instanceof MSAtomNode) {
+                ((MSAtomNode) value).set((LValue) this.readRef());
+            } else if (value instanceof MSPromiseNode) {
+                this.readPromiseContent((MSPromiseNode) value);
+            } else if (value instanceof MSChannelNode) {
+                MSChannelNode channel = (MSChannelNode) value;
+                boolean isClosed = this.readBoolean();
+                try {
+                    for (int i = this.readUnsigned(); i > 0; i--) { channel.put((LValue) this.readRef(), 0); }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("interrupted while loading an image");
+                }
+                if (isClosed) { channel.close(); }
+            } else if (value instanceof MSFutureNode) {
+                ((MSFutureNode) value).complete((LValue) this.readRef());
+            } else {
+                throw new IllegalArgumentException("cannot fill " + value);
+            }
+        }
+
+        /**
+         * The promise was created already resolved; a pending promise takes the content
+         * of a new one, and a shared content is shared with the promise that has it.
+         */
+        private void readPromiseContent(final MSPromiseNode promise) {
+            switch (this.readByte()) {
+                case PROMISE_DONE:
+                    promise.getContent().resolve((LValue) this.readRef());
+                    break;
+                case PROMISE_EXPRESSION: {
+                    boolean isDelayForce = this.readBoolean();
+                    MSSyntaxTree expression = (MSSyntaxTree) this.readRef();
+                    promise.shareContent(new MSPromiseNode(expression, (Environment) this.readRef(), isDelayForce));
+                    break;
+                }
+                case PROMISE_PROCEDURE: {
+                    LValue procedure = (LValue) this.readRef();
+                    ArrayList<LValue> arguments = new ArrayList<>();
+                    for (int i = this.readUnsigned(); i > 0; i--) { arguments.add((LValue) this.readRef()); }
+                    promise.shareContent(new MSPromiseNode(procedure, arguments));
+                    break;
+                }
+                case PROMISE_SHARED:
+                    promise.shareContent((MSPromiseNode) this.readRef());
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown promise state in image");
+            }
+        }
+
+        private static ArrayList<MSSyntaxTree> slice(final ArrayList<MSSyntaxTree> children, final int startIdx, final int endIdx) {
+            return new ArrayList<>(children.subList(startIdx, endIdx));
+        }
+
+        private ArrayList<MSSyntaxTree> readChildren() {
+            int size = this.readUnsigned();
+            ArrayList<MSSyntaxTree> children = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) { children.add((MSSyntaxTree) this.readRef()); }
+            return children;
+        }
+
+        private Object readRef() {
+            int ref = this.readUnsigned();
+            return ref == 0 ? null : this.VALUES.get(ref - 1);
+        }
+
+        private String readString() {
+            int ref = this.readUnsigned();
+            if (ref == 0) { return null; }
+            if (ref > 1) { return this.STRINGS.get(ref - 2); }
+
+            char[] chars = new char[this.readUnsigned()];
+            for (int i = 0; i < chars.length; i++) { chars[i] = (char) this.readUnsigned(); }
+            String str = new String(chars);
+            this.STRINGS.add(str);
+            return str;
+        }
+
+        private ArrayList<String> readStrings() {
+            int size = this.readUnsigned();
+            ArrayList<String> strings = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) { strings.add(this.readString()); }
+            return strings;
+        }
+
+        private BigDecimal readDecimal() {
+            int scale = (int) this.readLong();
+            return new BigDecimal(new BigInteger(this.readBytes(this.readUnsigned())), scale);
+        }
+
+        private boolean readBoolean() {
+            return this.readByte() != 0;
+        }
+
+        private int readUnsigned() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = this.BYTES[this.position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) { return value; }
+            }
+        }
+
+        private long readLong() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = this.BYTES[this.position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) { return (value >>> 1) ^ -(value & 1); }
+            }
+        }
+
+        private long readFixedLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) { value = (value << 8) | (this.BYTES[this.position++] & 0xFF); }
+            return value;
+        }
+
+        private byte[] readBytes(final int length) {
+            byte[] values = Arrays.copyOfRange(this.BYTES, this.position, this.position + length);
+            this.position += length;
+            return values;
+        }
+
+        private int readByte() {
+            return this.BYTES[this.position++] & 0xFF;
+        }
+    }
+
+    /**
+     * A future is saved with its value, so it must have finished without failing.
+     */
+    private static void checkFuture(final MSFutureNode future) throws IOException {
+        if (!future.isDone()) { throw new IOException("cannot save a future that has not finished in an image"); }
+        try {
+            future.getValue();
+        } catch (RuntimeException ex) {
+            throw new IOException("cannot save a future that failed in an image", ex);
+        }
+    }
+
+    /**
+     * @return car (idx 0) or cdr (idx 1) of a pair, as the LValue it was made from if
+     *         that LValue has an environment to keep.
+     */
+    private static Object getPairPart(final MSListNode pair, final int idx) {
+        LValue value = idx == 0 ? pair.getCarValue() : pair.getCdrValue();
+        return value.getEnvironment() != null ? value : pair.getChild(idx);
+    }
+}
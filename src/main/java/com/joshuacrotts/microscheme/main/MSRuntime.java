@@ -0,0 +1,122 @@
+/******************************************************************************
+ *  File: MSRuntime.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Everything that an interpreter shares with its host: which builtin libraries
+ *  programs can see, the random number generators, the output and error ports,
+ *  and the timeout. Each interpreter has its own runtime, so that many of them
+ *  can run in the same JVM without seeing one another's seeds, output or
+ *  settings. The builtin procedures themselves hold no state, so they are
+ *  registered once and shared by every runtime (see BuiltinOperator).
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import com.joshuacrotts.microscheme.ast.MSSyntaxTree;
+
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.Set;
+
+public final class MSRuntime {
+
+    /**
+     * Default time, in nanoseconds, that a top-level expression may run for.
+     */
+    public static final long DEFAULT_TIMEOUT = 10_000_000_000L;
+
+    /**
+     * Libraries whose procedures are visible to programs.
+     */
+    private final Set<BuiltinLibrary> ENABLED_LIBRARIES;
+
+    /**
+     * Time, in nanoseconds, that a top-level expression may run for.
+     */
+    private final long TIMEOUT;
+
+    /**
+     * Ports for output and for error messages, or null to use whatever System.out and
+     * System.err are at the time.
+     */
+    private final PrintStream OUT;
+
+    private final PrintStream ERR;
+
+    /**
+     * Random number generator of each thread (see RandomLibrary).
+     */
+    private final ThreadLocal<Random> RANDOM = ThreadLocal.withInitial(Random::new);
+
+    /**
+     * Creates a runtime with every library, the default timeout, and the standard output
+     * and error streams.
+     */
+    public MSRuntime() {
+        this(EnumSet.allOf(BuiltinLibrary.class), DEFAULT_TIMEOUT, null, null);
+    }
+
+    /**
+     * @param enabledLibraries libraries whose procedures programs can see. Identifiers from
+     *                         any other library are treated as undefined symbols.
+     * @param timeout time, in nanoseconds, that a top-level expression may run for.
+     * @param out port for output, or null for System.out.
+     * @param err port for error messages, or null for System.err.
+     *
+     * @throws IllegalArgumentException if timeout is not positive.
+     */
+    public MSRuntime(final Set<BuiltinLibrary> enabledLibraries, final long timeout, final PrintStream out, final PrintStream err) {
+        if (timeout <= 0) { throw new IllegalArgumentException("timeout must be positive, got " + timeout); }
+        this.ENABLED_LIBRARIES = enabledLibraries.isEmpty() ? EnumSet.noneOf(BuiltinLibrary.class) : EnumSet.copyOf(enabledLibraries);
+        this.TIMEOUT = timeout;
+        this.OUT = out;
+        this.ERR = err;
+    }
+
+    /**
+     * Determines whether an AST refers to a builtin procedure that is visible to programs.
+     *
+     * @param expressionNode AST to check.
+     * @return true if the AST is a variable naming a builtin procedure of an enabled library.
+     */
+    public boolean isBuiltinOperator(final MSSyntaxTree expressionNode) {
+        BuiltinLibrary library = BuiltinOperator.getLibrary(expressionNode);
+        return library != null && this.ENABLED_LIBRARIES.contains(library);
+    }
+
+    public Set<BuiltinLibrary> getEnabledLibraries() {
+        return Collections.unmodifiableSet(this.ENABLED_LIBRARIES);
+    }
+
+    public long getTimeout() {
+        return this.TIMEOUT;
+    }
+
+    public PrintStream getOut() {
+        return this.OUT != null ? this.OUT : System.out;
+    }
+
+    public PrintStream getErr() {
+        return this.ERR != null ? this.ERR : System.err;
+    }
+
+    /**
+     * @return random number generator of the current thread.
+     */
+    Random getRandom() {
+        return this.RANDOM.get();
+    }
+
+    /**
+     * @param random random number generator for the current thread to use.
+     */
+    void setRandom(final Random random) {
+        this.RANDOM.set(random);
+    }
+}
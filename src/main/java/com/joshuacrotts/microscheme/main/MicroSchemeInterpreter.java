@@ -11,42 +11,131 @@ package com.joshuacrotts.microscheme.main;
 import com.joshuacrotts.microscheme.ast.*;
 import com.joshuacrotts.microscheme.parser.*;
 
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 public class MicroSchemeInterpreter {
 
+    /**
+     * Value of an MSRecurNode, which tells the loop that it belongs to that its variables
+     * were rebound and the next iteration should start.
+     */
+    static final LValue NEXT_ITERATION = new LValue(new MSSyntaxTree(MSNodeType.RECUR));
+
     /**
      * MSSyntaxTree associated with this interpreter.
      */
     private MSSyntaxTree tree;
 
     /**
-     * Starting time of interpreter. Reset each time we go to a new node in the AST.
+     * Global environment. It lives as long as the interpreter does, so definitions
+     * carry over between calls to execute (e.g., in the REPL or after loading an image).
      */
-    private long startTime;
+    private Environment globals;
 
-    public MicroSchemeInterpreter(final MSSyntaxTree interpreterTree) {
+    /**
+     * Libraries, ports, random number generators and timeout of this interpreter.
+     */
+    private final MSRuntime RUNTIME;
+
+    /**
+     * Time, in System.nanoTime(), at which the current top-level expression times out. It
+     * is reset for each top-level expression. Each thread has its own, so that several
+     * threads can evaluate with this interpreter at once (see ParallelLibrary).
+     */
+    private final ThreadLocal<long[]> DEADLINE = ThreadLocal.withInitial(() -> new long[]{System.nanoTime() + this.getRuntime().getTimeout()});
+
+    /**
+     * Number of threads that parallel procedures (e.g., par-map) use.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Pool that parallel procedures run on. It is created the first time one is called.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * Most threads that the fallback executor for futures and spawned tasks may have.
+     */
+    private static final int MAX_TASK_THREADS = 256;
+
+    /**
+     * Executor that futures and spawned tasks run on. It is created the first time one is made.
+     */
+    private ExecutorService taskExecutor;
+
+    /**
+     * Spawned tasks that may not have finished yet. execute waits for them before it returns.
+     */
+    private final ConcurrentLinkedQueue<MSFutureNode> SPAWNED_TASKS = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Machine that evaluates top-level expressions when CEK mode is on, or null to use
+     * the direct-style evaluator (see MSCekMachine).
+     */
+    private MSCekMachine cekMachine;
+
+    public MicroSchemeInterpreter(final MSSyntaxTree interpreterTree, final MSRuntime runtime) {
         this.tree = interpreterTree;
+        this.globals = new Environment(null);
+        this.RUNTIME = runtime;
+    }
+
+    public MicroSchemeInterpreter(final MSSyntaxTree interpreterTree) {
+        this(interpreterTree, new MSRuntime());
     }
 
     public MicroSchemeInterpreter() {
         this(null);
     }
 
+    /**
+     * Evaluates each top-level expression of the tree, and writes its value, or the error
+     * that it raised, to the runtime's ports.
+     *
+     * @throws MSTimeoutException if an expression runs for longer than the runtime's timeout.
+     *                            The expressions after it are not evaluated.
+     */
     public void execute() {
-        Environment globals = new Environment(null);
         for (int i = 0; i < this.tree.getChildrenSize(); i++) {
-            this.startTime = System.nanoTime();
+            this.setDeadline(System.nanoTime() + this.RUNTIME.getTimeout());
             MSSyntaxTree currNode = this.tree.getChild(i);
             try {
-                LValue result = this.interpretTree(currNode, globals);
-                if (result != null) { System.out.println(result); }
+                LValue result = this.cekMachine != null
+                                ? this.cekMachine.evaluate(currNode, this.globals)
+                                : this.interpretTree(currNode, this.globals);
+                if (result != null) { this.RUNTIME.getOut().println(result); }
             } catch (MSSemanticException ex) {
-                System.err.println(ex.getMessage());
+                this.RUNTIME.getErr().println(ex.getMessage());
             }
         }
+        this.awaitSpawnedTasks();
+    }
+
+    /**
+     * Waits for every spawned task to finish. Each task has its own deadline, but the
+     * current thread's deadline is reset here, so that waiting does not time out first.
+     */
+    private void awaitSpawnedTasks() {
+        MSFutureNode task;
+        while ((task = this.SPAWNED_TASKS.poll()) != null) {
+            this.setDeadline(System.nanoTime() + this.RUNTIME.getTimeout());
+            TaskLibrary.await(this, task);
+        }
     }
 
     /**
@@ -58,11 +147,8 @@ public class MicroSchemeInterpreter {
      *
      * @throws MSSemanticException if one of the submethod calls throws an exception.
      */
-    private LValue interpretTree(final MSSyntaxTree tree, final Environment env) throws MSSemanticException {
-        if (System.nanoTime() - this.startTime > MicroSchemeRunner.interpreterTimeout) {
-            System.err.println("Computation timed out!");
-            System.exit(1);
-        }
+    LValue interpretTree(final MSSyntaxTree tree, final Environment env) throws MSSemanticException {
+        this.checkTimeout();
         switch (tree.getNodeType()) {
             case NUMBER: return this.interpretNumber((MSNumberNode) tree);
             case BOOLEAN: return this.interpretBoolean((MSBooleanNode) tree);
@@ -73,6 +159,7 @@ public class MicroSchemeInterpreter {
             case VARIABLE: return this.interpretVariable((MSVariableNode) tree, env);
             case SEQUENCE: return this.interpretSequence((MSSequenceNode) tree, env);
             case DECLARATION: return this.interpretDeclaration((MSDeclarationNode) tree, env);
+            case RECORDTYPE: return this.interpretRecordType((MSRecordTypeNode) tree, env);
             case SET: return this.interpretSet((MSSetNode) tree, env);
             case SETCAR: return this.interpretSetCar((MSSetNode) tree, env);
             case SETCDR: return this.interpretSetCdr((MSSetNode) tree, env);
@@ -80,9 +167,12 @@ public class MicroSchemeInterpreter {
             case AND: return this.interpretAnd((MSAndNode) tree, env);
             case OR: return this.interpretOr((MSOrNode) tree, env);
             case COND: return this.interpretCond((MSCondNode) tree, env);
+            case LET: return this.interpretLet((MSLetNode) tree, env);
             case LETREC: return this.interpretLetRec((MSLetRecNode) tree, env);
+            case RECUR: return this.interpretRecur((MSRecurNode) tree, env);
             case LAMBDA: return this.interpretLambda((MSLambdaNode) tree, env);
             case DO: return this.interpretDo((MSDoNode) tree, env);
+            case DELAY: return this.interpretDelay((MSDelayNode) tree, env);
             case EVAL: return this.interpretEval((MSEvalNode) tree, env);
             case APPLY: return this.interpretApply((MSApplyNode) tree, env);
             case APPLICATION: return this.interpretApplication((MSApplicationNode) tree, env);
@@ -91,6 +181,111 @@ public class MicroSchemeInterpreter {
         }
     }
 
+    /**
+     * Stops the program if the current top-level expression has run for longer than the timeout.
+     *
+     * @throws MSTimeoutException if it has.
+     */
+    void checkTimeout() {
+        if (System.nanoTime() - this.DEADLINE.get()[0] > 0) { throw new MSTimeoutException(); }
+    }
+
+    /**
+     * @return time at which the current thread's top-level expression times out.
+     */
+    long getDeadline() {
+        return this.DEADLINE.get()[0];
+    }
+
+    /**
+     * @param deadline time, in System.nanoTime(), at which evaluation on the current thread times out.
+     */
+    void setDeadline(final long deadline) {
+        this.DEADLINE.get()[0] = deadline;
+    }
+
+    /**
+     * @return pool for parallel procedures, which is created on first use.
+     */
+    synchronized ForkJoinPool getPool() {
+        if (this.pool == null) { this.pool = new ForkJoinPool(this.parallelism); }
+        return this.pool;
+    }
+
+    /**
+     * Returns the executor for futures and spawned tasks, which is created on first use.
+     * On Java 21 and later, each task gets its own virtual thread. Otherwise, tasks run
+     * on a pool of at most MAX_TASK_THREADS daemon threads, and a task that is submitted
+     * while all of them are busy runs on the submitting thread instead, so that a task
+     * waiting on another can never wait on a queue.
+     */
+    synchronized ExecutorService getTaskExecutor() {
+        if (this.taskExecutor == null) {
+            try {
+                // Looked up by name so that the interpreter still builds for Java 8.
+                this.taskExecutor = (ExecutorService) java.util.concurrent.Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException ex) {
+                this.taskExecutor = new ThreadPoolExecutor(0, MAX_TASK_THREADS, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "microscheme-task");
+                            thread.setDaemon(true);
+                            return thread;
+                        }, new ThreadPoolExecutor.CallerRunsPolicy());
+            }
+        }
+        return this.taskExecutor;
+    }
+
+    /**
+     * @param task task that execute should wait for.
+     */
+    void addSpawnedTask(final MSFutureNode task) {
+        this.SPAWNED_TASKS.add(task);
+    }
+
+    /**
+     * Wraps a task so that it runs with the current thread's deadline, and with its own
+     * random number generator, seeded from the current thread's. A program that sets the
+     * seed therefore gets the same random numbers in its tasks on every run, no matter
+     * how the threads are scheduled.
+     */
+    <T> Callable<T> inheritContext(final Supplier<T> task) {
+        long deadline = this.getDeadline();
+        Random random = new Random(this.RUNTIME.getRandom().nextLong());
+        return () -> {
+            // Pool threads are reused, so their own context is put back afterwards.
+            long previousDeadline = this.getDeadline();
+            Random previousRandom = this.RUNTIME.getRandom();
+            this.setDeadline(deadline);
+            this.RUNTIME.setRandom(random);
+            try {
+                return task.get();
+            } finally {
+                this.setDeadline(previousDeadline);
+                this.RUNTIME.setRandom(previousRandom);
+            }
+        };
+    }
+
+    synchronized int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * @param parallelism number of threads that parallel procedures (e.g., par-map) use.
+     *
+     * @throws IllegalArgumentException if parallelism is not positive.
+     */
+    public synchronized void setParallelism(final int parallelism) {
+        if (parallelism <= 0) { throw new IllegalArgumentException("parallelism must be positive, got " + parallelism); }
+        if (this.pool != null && parallelism != this.parallelism) {
+            this.pool.shutdown();
+            this.pool = null;
+        }
+        this.parallelism = parallelism;
+    }
+
     /**
      * Converts a MSNumberNode AST into an LValue.
      *
@@ -204,12 +399,14 @@ public class MicroSchemeInterpreter {
     private LValue interpretVariable(final MSVariableNode variableNode, final Environment env) throws MSSemanticException {
         LValue variableData = env.lookup(variableNode.getIdentifier());
         if (variableData != null) { return variableData; }
-        else if (BuiltinOperator.isBuiltinOperator(variableNode)) { return new LValue(variableNode, env); }
+        else if (this.RUNTIME.isBuiltinOperator(variableNode)) { return new LValue(variableNode, env); }
         else { throw new MSUndefinedSymbolException(variableNode.getStringRep()); }
     }
 
     /**
      * Interprets a declaration. We first evaluate the right-hand side, then bind it to the passed environment.
+     * Variables are looked up before builtins, so a declaration may shadow a builtin procedure, e.g., a
+     * program that defines its own map.
      *
      * @param declarationNode AST.
      * @param env Environment to store declaration in.
@@ -220,13 +417,49 @@ public class MicroSchemeInterpreter {
      */
     private LValue interpretDeclaration(final MSDeclarationNode declarationNode, final Environment env) throws MSSemanticException {
         LValue rExpr = this.interpretTree(declarationNode.getExpression(), env);
-        if (BuiltinOperator.isBuiltinOperator(declarationNode.getVariable())) {
-            throw new MSSemanticException("cannot define variable with builtin name " + declarationNode.getVariable().getStringRep());
-        }
         env.bind(declarationNode.getVariable().getStringRep(), rExpr);
         return null;
     }
 
+    /**
+     * Interprets a define-record-type. A new record type is created, and its constructor, predicate,
+     * accessors and modifiers are bound in the passed environment. The slot of each field is looked up
+     * here, once, rather than every time one of the procedures is called.
+     *
+     * @param recordTypeNode AST.
+     * @param env Environment to store the procedures in.
+     *
+     * @return null (declarations do not return any values).
+     *
+     * @throws MSSemanticException if a field is declared twice, or the constructor initializes a field
+     *                             that is not declared.
+     */
+    private LValue interpretRecordType(final MSRecordTypeNode recordTypeNode, final Environment env) throws MSSemanticException {
+        ArrayList<String> fieldNames = new ArrayList<>();
+        for (String[] field : recordTypeNode.getFields()) {
+            if (fieldNames.contains(field[0])) { throw new MSSemanticException("define-record-type duplicate field " + field[0]); }
+            fieldNames.add(field[0]);
+        }
+        MSRecordType type = new MSRecordType(recordTypeNode.getTypeName(), fieldNames);
+
+        ArrayList<String> constructorFields = recordTypeNode.getConstructorFields();
+        int[] constructorSlots = new int[constructorFields.size()];
+        for (int i = 0; i < constructorSlots.length; i++) {
+            constructorSlots[i] = fieldNames.indexOf(constructorFields.get(i));
+            if (constructorSlots[i] == -1) { throw new MSSemanticException("define-record-type constructor field " + constructorFields.get(i) + " is not a field"); }
+        }
+        String constructorName = recordTypeNode.getConstructorName();
+        env.bind(constructorName, new LValue(new MSRecordProcedureNode(constructorName, MSRecordProcedureNode.Kind.CONSTRUCTOR, type, constructorSlots)));
+        String predicateName = recordTypeNode.getPredicateName();
+        env.bind(predicateName, new LValue(new MSRecordProcedureNode(predicateName, MSRecordProcedureNode.Kind.PREDICATE, type)));
+        for (int i = 0; i < fieldNames.size(); i++) {
+            String[] field = recordTypeNode.getFields().get(i);
+            env.bind(field[1], new LValue(new MSRecordProcedureNode(field[1], MSRecordProcedureNode.Kind.ACCESSOR, type, i)));
+            if (field[2] != null) { env.bind(field[2], new LValue(new MSRecordProcedureNode(field[2], MSRecordProcedureNode.Kind.MODIFIER, type, i))); }
+        }
+        return null;
+    }
+
     /**
      * Interprets an eval. An eval simply takes in an expression, quoted or unquoted, and attempts to
      * evaluate it. If it is a variable, this is resolved to its value in the environment. From there,
@@ -243,13 +476,25 @@ public class MicroSchemeInterpreter {
     private LValue interpretEval(final MSEvalNode evalNode, final Environment env) throws MSSemanticException {
         // First, we want to resolve the expr argument. If it's a variable, retrieve it.
         MSSyntaxTree expression = LValue.getAst(this.interpretTree(evalNode.getExpression(), env));
+        return this.interpretTree(this.getEvalExpression(expression, env), env);
+    }
+
+    /**
+     * Returns the expression that an eval evaluates, given the value of its argument.
+     *
+     * @param expression value of the eval argument.
+     * @param env current environment to evaluate inside.
+     *
+     * @return the unquoted expression, or a MSApplyNode if it is a list.
+     */
+    MSSyntaxTree getEvalExpression(MSSyntaxTree expression, final Environment env) throws MSSemanticException {
         if (expression.isVariable()) { expression = LValue.getAst(this.interpretTree(expression, env)); }
         // Now, if it's a symbol, resolve that (i.e., get its value).
         if (expression.isSymbol()) { expression = ((MSSymbolNode) expression).getValue(); }
         // If it's a list, create an "apply" out of it.
-        if (!expression.isList()) { return this.interpretTree(expression, env); }
+        if (!expression.isList()) { return expression; }
         MSListNode listNode = (MSListNode) expression;
-        return this.interpretTree(new MSApplyNode(listNode.getCar(), listNode.getCdr()), env);
+        return new MSApplyNode(listNode.getCar(), listNode.getCdr());
     }
 
     /**
@@ -337,7 +582,8 @@ public class MicroSchemeInterpreter {
      *
      * Do sets up the variable bindings in a new local environment. It then evaluates the do test, and
      * if it is true, we evaluate the "do true" expressions. Otherwise, we evaluate the body of the
-     * do loop. Finally, the "variable steps" (i.e., a list of SETs) are processed.
+     * do loop. Finally, the "variable steps" are all evaluated, and only then written into the do's
+     * environment, so each step sees the values of the current iteration.
      *
      * @param doNode AST.
      * @param env parent environment of the do node.
@@ -359,30 +605,103 @@ public class MicroSchemeInterpreter {
 
         // Then, create the local environment used for the do.
         Environment doEnv = env.createChildEnvironment(doFormals, evalDoArguments);
+        String[] stepVariables = doNode.getDoStepVariables();
+        MSSyntaxTree[] stepExpressions = doNode.getDoStepExpressions();
+        LValue[] stepValues = new LValue[stepExpressions.length];
         while (true) {
             // Evaluate the test expression. If true, evaluate the true args and return the LValue of the last.
-            LValue testLVal = this.interpretTree(doNode.getDoTest(), doEnv);
-            MSSyntaxTree testAst = LValue.getAst(testLVal);
-            if (!testAst.isBoolean()) {
-                throw new MSArgumentTypeMismatchException("do test", "predicate/true/false", testAst.getStringNodeType());
-            } else {
-                // If the do loop test passes, evaluate each "true" expression.
-                if (testLVal.getBooleanValue()) {
-                    LValue trueLVal = null;
-                    for (MSSyntaxTree trueExpr : doNode.getDoTrueExpressions()) {
-                        trueLVal = this.interpretTree(trueExpr, doEnv);
-                    }
-                    return trueLVal;
-                } else {
-                    // Otherwise, evaluate the body then do the step. LValues are irrelevant.
-                    LValue body = this.interpretTree(doNode.getDoBody(), doEnv);
-                    if (body != null) { System.out.println(body); }
-                    for (MSSyntaxTree setExpr : doNode.getDoSetExpressions()) {
-                        LValue setLVal = this.interpretTree(setExpr, doEnv);
-                    }
+            if (MicroSchemeInterpreter.isDoFinished(this.interpretTree(doNode.getDoTest(), doEnv))) {
+                LValue trueLVal = null;
+                for (MSSyntaxTree trueExpr : doNode.getDoTrueExpressions()) {
+                    trueLVal = this.interpretTree(trueExpr, doEnv);
                 }
+                return trueLVal;
             }
+
+            // Otherwise, evaluate the body then do the steps. The value of the body is irrelevant.
+            this.interpretTree(doNode.getDoBody(), doEnv);
+            for (int i = 0; i < stepExpressions.length; i++) { stepValues[i] = this.interpretTree(stepExpressions[i], doEnv); }
+            for (int i = 0; i < stepVariables.length; i++) { doEnv.bind(stepVariables[i], stepValues[i]); }
+        }
+    }
+
+    /**
+     * @param testLVal value of the test of a do loop.
+     * @return true if the loop is finished, false otherwise.
+     *
+     * @throws MSArgumentTypeMismatchException if the test is not a boolean.
+     */
+    static boolean isDoFinished(final LValue testLVal) {
+        MSSyntaxTree testAst = LValue.getAst(testLVal);
+        if (!testAst.isBoolean()) {
+            throw new MSArgumentTypeMismatchException("do test", "predicate/true/false", testAst.getStringNodeType());
+        }
+        return testLVal.getBooleanValue();
+    }
+
+    /**
+     * Evaluates a let expression. The values of the declarations are bound in a child of env,
+     * and the body is evaluated in it. If the let is a loop, the body is evaluated again each
+     * time it ends with a call to the let's name (an MSRecurNode), in the same environment.
+     *
+     * @param letNode AST.
+     * @param env parent Environment to create the child Environment for the let from.
+     * @return LValue of evaluated let body.
+     */
+    private LValue interpretLet(final MSLetNode letNode, final Environment env) {
+        ArrayList<LValue> evaluatedBindings = new ArrayList<>();
+        for (MSSyntaxTree declaration : letNode.getDeclarationList()) {
+            evaluatedBindings.add(this.interpretTree(((MSDeclarationNode) declaration).getExpression(), env));
+        }
+        Environment letEnv = MicroSchemeInterpreter.bindLet(letNode, evaluatedBindings, env);
+        // A plain let inside a loop passes NEXT_ITERATION on to the loop.
+        if (!letNode.isLoop()) { return this.interpretTree(letNode.getBody(), letEnv); }
+        while (true) {
+            LValue body = this.interpretTree(letNode.getBody(), letEnv);
+            if (body != NEXT_ITERATION) { return body; }
+        }
+    }
+
+    /**
+     * Creates the environment that the body of a let is evaluated in.
+     *
+     * @param letNode AST.
+     * @param evaluatedBindings values of the declarations.
+     * @param env parent Environment.
+     * @return child of env with the declarations bound.
+     */
+    static Environment bindLet(final MSLetNode letNode, final ArrayList<LValue> evaluatedBindings, final Environment env) {
+        Environment letEnv = new Environment(env);
+        ArrayList<MSSyntaxTree> declarations = letNode.getDeclarationList();
+        for (int i = 0; i < declarations.size(); i++) {
+            letEnv.bind(((MSDeclarationNode) declarations.get(i)).getVariable().getStringRep(), evaluatedBindings.get(i));
         }
+        return letEnv;
+    }
+
+    /**
+     * Interprets a call to a looping named let. The arguments are all evaluated before any
+     * variable is rebound, so that each one sees the values of the current iteration.
+     *
+     * @param recurNode AST.
+     * @param env current Environment, which is the let's or one of its descendants.
+     * @return NEXT_ITERATION.
+     */
+    private LValue interpretRecur(final MSRecurNode recurNode, final Environment env) {
+        ArrayList<LValue> evaluatedArguments = new ArrayList<>(recurNode.getChildrenSize());
+        for (MSSyntaxTree argument : recurNode.getChildren()) { evaluatedArguments.add(this.interpretTree(argument, env)); }
+        MicroSchemeInterpreter.rebindLoop(recurNode, evaluatedArguments, env);
+        return NEXT_ITERATION;
+    }
+
+    /**
+     * Rebinds the variables of a loop to the arguments of a call to it.
+     */
+    static void rebindLoop(final MSRecurNode recurNode, final ArrayList<LValue> evaluatedArguments, final Environment env) {
+        Environment loopEnv = env;
+        for (int i = 0; i < recurNode.getDepth(); i++) { loopEnv = loopEnv.getParent(); }
+        String[] variables = recurNode.getVariables();
+        for (int i = 0; i < variables.length; i++) { loopEnv.bind(variables[i], evaluatedArguments.get(i)); }
     }
 
     /**
@@ -399,6 +718,17 @@ public class MicroSchemeInterpreter {
      * @return LValue of evaluated let body.
      */
     private LValue interpretLetRec(final MSLetRecNode letRecNode, final Environment env) {
+        return this.interpretTree(letRecNode.getBody(), this.bindLetRec(letRecNode, env));
+    }
+
+    /**
+     * Creates the environment that the body of a letrec is evaluated in.
+     *
+     * @param letRecNode AST.
+     * @param env parent Environment to create the child Environment for the let from.
+     * @return child of env with the letrec declarations bound.
+     */
+    Environment bindLetRec(final MSLetRecNode letRecNode, final Environment env) {
         ArrayList<LValue> expressionList = new ArrayList<>();
 
         // Create the new environment so we can bind our let declarations in it.
@@ -409,7 +739,7 @@ public class MicroSchemeInterpreter {
         }
 
         newEnv.createBindings(letRecNode.getVariableList(), expressionList);
-        return this.interpretTree(letRecNode.getBody(), newEnv);
+        return newEnv;
     }
 
     /**
@@ -443,6 +773,21 @@ public class MicroSchemeInterpreter {
         if (argument.isApplication()) {
             argument = LValue.getAst(this.interpretTree(argument, env));
         }
+        return this.interpretTree(this.getApplyApplication(applyNode, argument, env), env);
+    }
+
+    /**
+     * Returns the application that an apply performs.
+     *
+     * @param applyNode AST.
+     * @param argument list argument of the apply, already evaluated if it is an application.
+     * @param env current environment to evaluate ApplyNode in.
+     *
+     * @return MSApplicationNode of the procedure applied to the elements of the list.
+     *
+     * @throws MSArgumentMismatchException if we try to pass a non list/cons pair to apply.
+     */
+    MSApplicationNode getApplyApplication(final MSApplyNode applyNode, MSSyntaxTree argument, final Environment env) throws MSArgumentMismatchException {
         ArrayList<MSSyntaxTree> applyArguments = new ArrayList<>();
         if (argument.isVariable()) { argument = LValue.getAst(this.interpretTree(argument, env)); }
         // Now check to make sure it's a symbol or list.
@@ -460,7 +805,7 @@ public class MicroSchemeInterpreter {
         }
 
         MSSyntaxTree procedure = applyNode.getProcedure();
-        return this.interpretTree(new MSApplicationNode(procedure, applyArguments), env);
+        return new MSApplicationNode(procedure, applyArguments);
     }
 
     /**
@@ -487,32 +832,182 @@ public class MicroSchemeInterpreter {
 
         // Now, check to see if the left-hand side (the caller) is a primitive.
         LValue lhsLValue = this.interpretTree(applicationNode.getExpression(), env);
-        MSSyntaxTree expressionLVal = LValue.getAst(lhsLValue);
-        if (BuiltinOperator.isBuiltinOperator(expressionLVal)) { return BuiltinOperator.interpretBuiltinOperator(expressionLVal, evaluatedArguments, env); }
+        return this.applyProcedure(lhsLValue, evaluatedArguments);
+    }
+
+    /**
+     * Applies a procedure (either a builtin or a lambda) to arguments that have already been
+     * evaluated. Builtin procedures use this to call procedures that they are given, e.g.,
+     * the procedure passed to f64vector-map!.
+     *
+     * @param procedure LValue of procedure to apply.
+     * @param evaluatedArguments arguments to pass to procedure.
+     *
+     * @return LValue returned by the procedure.
+     *
+     * @throws MSSemanticException if procedure is not a procedure, the number of arguments
+     *                             does not match, or the body throws an exception.
+     */
+    public LValue applyProcedure(final LValue procedure, final ArrayList<LValue> evaluatedArguments) throws MSSemanticException {
+        MSSyntaxTree expressionLVal = LValue.getAst(procedure);
+        if (this.RUNTIME.isBuiltinOperator(expressionLVal)) { return BuiltinOperator.interpretBuiltinOperator(this, expressionLVal, evaluatedArguments, procedure.getEnvironment()); }
+        else if (expressionLVal.isRecordProcedure()) { return this.applyRecordProcedure((MSRecordProcedureNode) expressionLVal, evaluatedArguments); }
+        else if (expressionLVal.isEscapeContinuation()) { throw this.escape((MSEscapeContinuationNode) expressionLVal, evaluatedArguments); }
+        else if (expressionLVal.isContinuation()) {
+            // Unwinds back to the CEK machine, which resumes the continuation.
+            if (evaluatedArguments.size() > 1) { throw new MSArgumentArityMismatchException("continuation", 0, 1, evaluatedArguments.size()); }
+            throw ((MSContinuationNode) expressionLVal).escape(evaluatedArguments.isEmpty() ? null : evaluatedArguments.get(0));
+        }
         else {
             // If we're trying to call on a non-lambda, throw an exception.
             if (!expressionLVal.isLambda()) { throw new MSSemanticException("cannot call non-procedure " + expressionLVal.getStringRep()); }
 
             // Otherwise, create the new environment, child bindings, and interpret the body.
             MSLambdaNode lambdaNode = (MSLambdaNode) expressionLVal;
-            Environment lambdaEnvironment = lhsLValue.getEnvironment();
-            ArrayList<MSSyntaxTree> lambdaParameters = lambdaNode.getLambdaParameters();
-            MSSyntaxTree lambdaBody = lambdaNode.getLambdaBody();
-            Environment childEnvironment;
-
-            // Check to see if this lambda is a varargs lambda. If so, convert the arguments to a list.
-            if (lambdaNode.isVariableArguments()) {
-                childEnvironment = new Environment(lambdaEnvironment);
-                childEnvironment.createBindings(lambdaParameters, new ArrayList<>
-                        (Collections.singletonList(new LValue(new MSListNode(evaluatedArguments), lambdaEnvironment))));
-            } else {
-                // Before we bind, check arity (only on non-varargs procedures).
-                if (lambdaParameters.size() != evaluatedArguments.size()) {
-                    throw new MSArgumentArityMismatchException(lambdaParameters.size(), evaluatedArguments.size());
-                }
-                childEnvironment = lambdaEnvironment.createChildEnvironment(lambdaParameters, evaluatedArguments);
+            return this.interpretTree(lambdaNode.getLambdaBody(), this.bindLambdaArguments(procedure, evaluatedArguments));
+        }
+    }
+
+    /**
+     * Creates the environment that the body of a lambda is evaluated in when it is applied.
+     *
+     * @param procedure LValue of lambda and the environment it was created in.
+     * @param evaluatedArguments arguments to bind to the parameters.
+     *
+     * @return child of the lambda's environment with the parameters bound.
+     *
+     * @throws MSArgumentArityMismatchException if the number of arguments does not match.
+     */
+    Environment bindLambdaArguments(final LValue procedure, final ArrayList<LValue> evaluatedArguments) throws MSArgumentArityMismatchException {
+        MSLambdaNode lambdaNode = (MSLambdaNode) LValue.getAst(procedure);
+        Environment lambdaEnvironment = procedure.getEnvironment();
+        ArrayList<MSSyntaxTree> lambdaParameters = lambdaNode.getLambdaParameters();
+
+        // Check to see if this lambda is a varargs lambda. If so, convert the arguments to a list.
+        if (lambdaNode.isVariableArguments()) {
+            Environment childEnvironment = new Environment(lambdaEnvironment);
+            childEnvironment.createBindings(lambdaParameters, new ArrayList<>
+                    (Collections.singletonList(new LValue(new MSListNode(evaluatedArguments), lambdaEnvironment))));
+            return childEnvironment;
+        }
+        // Before we bind, check arity (only on non-varargs procedures).
+        if (lambdaParameters.size() != evaluatedArguments.size()) {
+            throw new MSArgumentArityMismatchException(lambdaParameters.size(), evaluatedArguments.size());
+        }
+        return lambdaEnvironment.createChildEnvironment(lambdaParameters, evaluatedArguments);
+    }
+
+    /**
+     * Applies a procedure created by define-record-type. Fields are read and written by the slot
+     * index stored in the procedure.
+     *
+     * @param procedure record constructor, predicate, accessor or modifier.
+     * @param evaluatedArguments arguments to pass to procedure.
+     *
+     * @return LValue of the new record, the predicate result, the field value, or null for a modifier.
+     *
+     * @throws MSArgumentMismatchException if the number of arguments does not match, or an accessor or
+     *                                     modifier is given something other than a record of its type.
+     */
+    private LValue applyRecordProcedure(final MSRecordProcedureNode procedure, final ArrayList<LValue> evaluatedArguments) throws MSArgumentMismatchException {
+        String name = procedure.getName();
+        MSRecordType type = procedure.getType();
+        switch (procedure.getKind()) {
+            case CONSTRUCTOR:
+                int[] constructorSlots = procedure.getConstructorSlots();
+                if (evaluatedArguments.size() != constructorSlots.length) { throw new MSArgumentArityMismatchException(name, constructorSlots.length, evaluatedArguments.size()); }
+                // Fields that the constructor does not initialize start out as #f.
+                LValue[] slots = new LValue[type.getFieldCount()];
+                for (int i = 0; i < slots.length; i++) { slots[i] = new LValue(false); }
+                for (int i = 0; i < constructorSlots.length; i++) { slots[constructorSlots[i]] = evaluatedArguments.get(i); }
+                return new LValue(new MSRecordNode(type, slots));
+            case PREDICATE:
+                if (evaluatedArguments.size() != 1) { throw new MSArgumentArityMismatchException(name, 1, evaluatedArguments.size()); }
+                MSSyntaxTree argument = LValue.getAst(evaluatedArguments.get(0));
+                return new LValue(argument.getNodeType() == MSNodeType.RECORD && ((MSRecordNode) argument).getType() == type);
+            case ACCESSOR:
+                if (evaluatedArguments.size() != 1) { throw new MSArgumentArityMismatchException(name, 1, evaluatedArguments.size()); }
+                return this.getRecordArgument(procedure, evaluatedArguments.get(0)).get(procedure.getSlot());
+            default:
+                if (evaluatedArguments.size() != 2) { throw new MSArgumentArityMismatchException(name, 2, evaluatedArguments.size()); }
+                this.getRecordArgument(procedure, evaluatedArguments.get(0)).set(procedure.getSlot(), evaluatedArguments.get(1));
+                return null;
+        }
+    }
+
+    /**
+     * Calls an escape continuation. The continuation takes zero or one values.
+     *
+     * @param continuation escape continuation to call.
+     * @param evaluatedArguments value to return from the call/ec that created the continuation.
+     *
+     * @return exception to throw to unwind to that call/ec.
+     *
+     * @throws MSSemanticException if there is more than one value, or the call/ec has already returned.
+     */
+    private MSEscapeException escape(final MSEscapeContinuationNode continuation, final ArrayList<LValue> evaluatedArguments) throws MSSemanticException {
+        if (evaluatedArguments.size() > 1) { throw new MSArgumentArityMismatchException("escape-continuation", 0, 1, evaluatedArguments.size()); }
+        if (!continuation.isActive()) { throw new MSSemanticException("escape continuation called after its call/ec returned"); }
+        return continuation.escape(evaluatedArguments.isEmpty() ? null : evaluatedArguments.get(0));
+    }
+
+    /**
+     * Returns the first argument of an accessor or modifier as a record.
+     *
+     * @throws MSArgumentTypeMismatchException if the argument is not a record of the procedure's type.
+     */
+    private MSRecordNode getRecordArgument(final MSRecordProcedureNode procedure, final LValue argument) {
+        MSSyntaxTree record = LValue.getAst(argument);
+        if (record.getNodeType() != MSNodeType.RECORD || ((MSRecordNode) record).getType() != procedure.getType()) {
+            throw new MSArgumentTypeMismatchException(procedure.getName(), 0, procedure.getType().getName(), record.getStringNodeType());
+        }
+        return (MSRecordNode) record;
+    }
+
+    /**
+     * Interprets a delay or delay-force. The expression is not evaluated until the promise is forced.
+     *
+     * @param delayNode AST.
+     * @param env Environment to evaluate the expression in when the promise is forced.
+     *
+     * @return LValue of the new promise.
+     */
+    private LValue interpretDelay(final MSDelayNode delayNode, final Environment env) {
+        return new LValue(new MSPromiseNode(delayNode.getExpression(), env, delayNode.isDelayForce()));
+    }
+
+    /**
+     * Forces a promise, i.e., computes its value if it has not been computed yet. When a delay-force
+     * promise returns another promise, the first promise shares the content of the second and the
+     * loop forces it again, so a chain of delay-force promises does not grow the Java stack (SRFI 45).
+     *
+     * @param promise promise to force.
+     *
+     * @return LValue of the promise.
+     *
+     * @throws MSSemanticException if the expression of a delay-force does not return a promise, or
+     *                             evaluating the expression throws an exception.
+     */
+    public LValue force(final MSPromiseNode promise) throws MSSemanticException {
+        while (true) {
+            MSPromiseNode.Content content = promise.getContent();
+            if (content.isDone()) { return content.getValue(); }
+            LValue result = content.getExpression() != null
+                            ? this.interpretTree(content.getExpression(), content.getEnvironment())
+                            : this.applyProcedure(content.getProcedure(), content.getArguments());
+
+            // The expression may have forced this promise itself, in which case that value is kept.
+            content = promise.getContent();
+            if (content.isDone()) { return content.getValue(); }
+            if (!content.isDelayForce()) {
+                content.resolve(result);
+                return result;
             }
-            return this.interpretTree(lambdaBody, childEnvironment);
+            MSSyntaxTree next = result != null ? LValue.getAst(result) : null;
+            if (next == null || !next.isPromise()) {
+                throw new MSSemanticException("delay-force expression must return a promise but got " + (next == null ? "void" : next.getStringNodeType()));
+            }
+            promise.shareContent((MSPromiseNode) next);
         }
     }
 
@@ -532,21 +1027,26 @@ public class MicroSchemeInterpreter {
      *                                    variable is not bound in the environment or its parent.
      */
     private LValue interpretSet(final MSSetNode setNode, final Environment env) throws MSSemanticException {
-        MSSyntaxTree assignee = setNode.getChild(0);
         LValue evaluatedExpression = this.interpretTree(setNode.getChild(1), env);
+        this.assignVariable(setNode, evaluatedExpression, env);
+        return null;
+    }
+
+    /**
+     * Assigns the value of a SET! expression to its variable.
+     *
+     * @param setNode AST with set assignee.
+     * @param evaluatedExpression value to assign.
+     * @param env current Environment.
+     *
+     * @throws MSArgumentMismatchException if the lhs expression is not a variable.
+     * @throws MSUndefinedSymbolException if the variable is not bound in the environment or its parent.
+     */
+    void assignVariable(final MSSetNode setNode, final LValue evaluatedExpression, final Environment env) throws MSSemanticException {
+        MSSyntaxTree assignee = setNode.getChild(0);
         if (!assignee.isVariable()) { throw new MSArgumentTypeMismatchException("set!", 0, "variable", assignee.getStringNodeType()); }
-        // Walk up the environment tree to find the identifier.
         String id = ((MSVariableNode) assignee).getIdentifier();
-        Environment curr = env;
-        boolean found = false;
-        while (curr != null) {
-            LValue lookupSymbol = curr.lookup(id);
-            if (lookupSymbol != null) { found = true; curr.bind(id, evaluatedExpression); }
-            curr = curr.getParent();
-        }
-        
-        if (!found) { throw new MSUndefinedSymbolException(id); }
-        return null;
+        if (!env.assign(id, evaluatedExpression)) { throw new MSUndefinedSymbolException(id); }
     }
 
     /**
@@ -564,11 +1064,14 @@ public class MicroSchemeInterpreter {
     private LValue interpretSetCar(final MSSetNode setNode, final Environment env) throws MSSemanticException {
         LValue evaluatedAssignee = this.interpretTree(setNode.getChild(0), env);
         LValue evaluatedExpression = this.interpretTree(setNode.getChild(1), env);
+        MicroSchemeInterpreter.setCar(evaluatedAssignee, evaluatedExpression);
+        return null;
+    }
 
+    static void setCar(final LValue evaluatedAssignee, final LValue evaluatedExpression) throws MSArgumentMismatchException {
         MSSyntaxTree assigneeAst = LValue.getAst(evaluatedAssignee);
         if (!assigneeAst.isList()) { throw new MSArgumentTypeMismatchException("set-car!", 0, "list/cons pair", assigneeAst.getStringNodeType()); }
         ((MSListNode) assigneeAst).setCar(LValue.getAst(evaluatedExpression));
-        return null;
     }
 
     /**
@@ -586,11 +1089,14 @@ public class MicroSchemeInterpreter {
     private LValue interpretSetCdr(final MSSetNode setNode, final Environment env) throws MSSemanticException {
         LValue evaluatedAssignee = this.interpretTree(setNode.getChild(0), env);
         LValue evaluatedExpression = this.interpretTree(setNode.getChild(1), env);
+        MicroSchemeInterpreter.setCdr(evaluatedAssignee, evaluatedExpression);
+        return null;
+    }
 
+    static void setCdr(final LValue evaluatedAssignee, final LValue evaluatedExpression) throws MSArgumentMismatchException {
         MSSyntaxTree assigneeAst = LValue.getAst(evaluatedAssignee);
         if (!assigneeAst.isList()) { throw new MSArgumentTypeMismatchException("set-cdr!", 0, "list/cons pair", assigneeAst.getStringNodeType()); }
         ((MSListNode) assigneeAst).setCdr(LValue.getAst(evaluatedExpression));
-        return null;
     }
 
     /**
@@ -603,22 +1109,66 @@ public class MicroSchemeInterpreter {
      * 
      * @return null, because set expressions never return a value.
      * 
-     * @throws MSArgumentMismatchException if the first argument is not a list or cons pair.
-     *                                     It also throws an exception when vectorIdx is not a number.
+     * @throws MSArgumentMismatchException if the first argument is not a vector. It also throws
+     *                                     an exception when vectorIdx is not an integer in range.
      */
     private LValue interpretSetVector(final MSSetNode setNode, final Environment env) throws MSSemanticException {
         LValue evaluatedAssignee = this.interpretTree(setNode.getChild(0), env);
         LValue vectorIdx = this.interpretTree(setNode.getChild(1), env);
         LValue evaluatedExpression = this.interpretTree(setNode.getChild(2), env);
-        MSSyntaxTree assigneeAst = LValue.getAst(evaluatedAssignee);
-        MSSyntaxTree vectorIdxAst = LValue.getAst(vectorIdx);
-        if (!assigneeAst.isVector()) { throw new MSArgumentTypeMismatchException("vector-set!", 0, "vector", assigneeAst.getStringNodeType()); }
-        else if (!LValue.getAst(vectorIdx).isNumber()) { throw new MSArgumentTypeMismatchException("vector-set!", 1, "number", vectorIdxAst.getStringNodeType()); }
-        assigneeAst.setChild(vectorIdx.getNumberValue().re.intValue(), LValue.getAst(evaluatedExpression));
+        MicroSchemeInterpreter.setVector(evaluatedAssignee, vectorIdx, evaluatedExpression);
         return null;
     }
 
+    static void setVector(final LValue evaluatedAssignee, final LValue vectorIdx, final LValue evaluatedExpression) throws MSArgumentMismatchException {
+        MSVectorNode vector = CoreLibrary.getVectorArgument("vector-set!", 0, evaluatedAssignee);
+        vector.set(CoreLibrary.getVectorIndexArgument("vector-set!", 1, vectorIdx, vector.size() - 1), LValue.getAst(evaluatedExpression));
+    }
+
+    /**
+     * Writes a snapshot of the global environment to a file. Every value reachable from
+     * the globals is saved, including closures (and the environments they capture),
+     * lists, vectors and strings, in the compact format of MSImage. Loading the image
+     * with loadImage restores the environment without re-parsing or re-evaluating the
+     * code that built it. Continuations and futures that have not finished cannot be
+     * saved.
+     *
+     * @param fileName name of image file to write.
+     *
+     * @throws IOException if the file cannot be written or a value cannot be saved.
+     */
+    public void saveImage(final String fileName) throws IOException {
+        Files.write(Paths.get(fileName), MSImage.write(this.globals));
+    }
+
+    /**
+     * Replaces the global environment with one previously written by saveImage.
+     *
+     * @param fileName name of image file to read.
+     *
+     * @throws IOException if the file cannot be read or is not a MicroScheme image.
+     */
+    public void loadImage(final String fileName) throws IOException {
+        try {
+            this.globals = MSImage.read(Files.readAllBytes(Paths.get(fileName)));
+        } catch (IllegalArgumentException ex) {
+            throw new IOException(fileName + " is not a MicroScheme image", ex);
+        }
+    }
+
+    public MSRuntime getRuntime() {
+        return this.RUNTIME;
+    }
+
     public void setInterpreterTree(final MSSyntaxTree interpreterTree) {
         this.tree = interpreterTree;
     }
+
+    /**
+     * @param isCekMode true to evaluate top-level expressions with a CEK machine, which
+     *                  supports call/cc, or false to use the direct-style evaluator.
+     */
+    public void setCekMode(final boolean isCekMode) {
+        this.cekMachine = isCekMode ? new MSCekMachine(this) : null;
+    }
 }
@@ -3,7 +3,7 @@
  *
  *  Author: Joshua Crotts
  *
- *  Last Updated: 05/22/2022
+ *  Last Updated: 10/19/2026
  ******************************************************************************/
 
 package com.joshuacrotts.microscheme.main;
@@ -11,39 +11,144 @@ package com.joshuacrotts.microscheme.main;
 import com.joshuacrotts.microscheme.MicroSchemeLexer;
 import com.joshuacrotts.microscheme.MicroSchemeParser;
 import com.joshuacrotts.microscheme.ast.MSSyntaxTree;
+import com.joshuacrotts.microscheme.parser.MSFormSplitter;
+import com.joshuacrotts.microscheme.parser.MSInterpreterException;
 import com.joshuacrotts.microscheme.parser.MSListener;
+import com.joshuacrotts.microscheme.parser.MSTimeoutException;
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.IterativeParseTreeWalker;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 public class MicroSchemeRunner {
 
-    public static long interpreterTimeout = 10_000_000_000L;
+    /**
+     * Option to restore the global environment from an image before running.
+     */
+    private static final String LOAD_IMAGE_OPTION = "--load-image=";
+
+    /**
+     * Option to save the global environment to an image after running a file.
+     */
+    private static final String SAVE_IMAGE_OPTION = "--save-image=";
+
+    /**
+     * Option to restrict the builtin procedures to a comma-separated list of libraries.
+     */
+    private static final String LIBRARIES_OPTION = "--libraries=";
+
+    /**
+     * Option to parse the input file in parallel, optionally followed by =<threads>.
+     */
+    private static final String PARALLEL_PARSE_OPTION = "--parallel-parse";
+
+    /**
+     * Option to parse the input file, report how long it took, and exit without evaluating.
+     */
+    private static final String PARSE_ONLY_OPTION = "--parse-only";
+
+    /**
+     * Option to evaluate with the CEK machine, which supports full continuations.
+     */
+    private static final String CEK_OPTION = "--cek";
+
+    /**
+     * Option to set the number of threads that parallel procedures (e.g., par-map) use.
+     */
+    private static final String PARALLELISM_OPTION = "--parallelism=";
+
+    /**
+     * Smallest chunk of source text that is handed to a parser thread. Smaller chunks
+     * cost more in lexer and parser set-up than they gain in parallelism.
+     */
+    private static final int MIN_PARSE_CHUNK_SIZE = 64 * 1024;
 
     /**
      * Command line interface -- one argument is filename, and if omitted then input is taken from
-     * standard input.
+     * standard input. The global environment can be restored from an image with --load-image=<file>
+     * and, after a file is interpreted, written out with --save-image=<file>. --libraries=<lib,...>
+     * limits the builtin procedures to those of the named libraries (see BuiltinLibrary).
+     * --parallel-parse[=<threads>] splits the input file at top-level forms and parses the
+     * pieces in parallel; --parse-only stops after parsing and prints the time it took.
+     * --cek evaluates with a CEK machine (see MSCekMachine), which supports call/cc and
+     * recursion that is not limited by the Java stack. --parallelism=<threads> sets the number
+     * of threads that par-map, par-for-each and par-reduce use (by default, one per processor).
      *
      * @param argv command line arguments
      */
     public static void main(final String[] argv) throws IOException {
-        if (argv.length > 2) {
+        ArrayList<String> args = new ArrayList<>();
+        String loadImageFile = null;
+        String saveImageFile = null;
+        int parseParallelism = 0;
+        boolean parseOnly = false;
+        boolean isCekMode = false;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        Set<BuiltinLibrary> libraries = EnumSet.allOf(BuiltinLibrary.class);
+        for (String arg : argv) {
+            if (arg.startsWith(LOAD_IMAGE_OPTION)) { loadImageFile = arg.substring(LOAD_IMAGE_OPTION.length()); }
+            else if (arg.startsWith(SAVE_IMAGE_OPTION)) { saveImageFile = arg.substring(SAVE_IMAGE_OPTION.length()); }
+            else if (arg.startsWith(LIBRARIES_OPTION)) {
+                libraries = EnumSet.noneOf(BuiltinLibrary.class);
+                for (String name : arg.substring(LIBRARIES_OPTION.length()).split(",")) {
+                    BuiltinLibrary library = BuiltinLibrary.fromName(name.trim());
+                    if (library == null) {
+                        System.err.println("Unknown library " + name + "; expected one of " + Arrays.toString(BuiltinLibrary.values()));
+                        return;
+                    }
+                    libraries.add(library);
+                }
+            }
+            else if (arg.equals(PARALLEL_PARSE_OPTION)) { parseParallelism = Runtime.getRuntime().availableProcessors(); }
+            else if (arg.startsWith(PARALLEL_PARSE_OPTION + "=")) {
+                parseParallelism = Integer.parseInt(arg.substring(PARALLEL_PARSE_OPTION.length() + 1));
+            }
+            else if (arg.equals(PARSE_ONLY_OPTION)) { parseOnly = true; }
+            else if (arg.equals(CEK_OPTION)) { isCekMode = true; }
+            else if (arg.startsWith(PARALLELISM_OPTION)) { parallelism = Integer.parseInt(arg.substring(PARALLELISM_OPTION.length())); }
+            else { args.add(arg); }
+        }
+
+        if (args.size() > 2) {
             System.err.println("Can provide at most two command line arguments (an input filename and mode)");
             return;
         }
 
-        MicroSchemeInterpreter interpreter = new MicroSchemeInterpreter();
-        if (argv.length == 1 && !argv[0].equals("-i")) {
-            interpretParser(interpreter, parseFromFile(argv[0]));
-        } else if (argv.length == 1) {
-            interpretParser(interpreter, parseStream(CharStreams.fromStream(System.in)));
+        MicroSchemeInterpreter interpreter = new MicroSchemeInterpreter(null, new MSRuntime(libraries, MSRuntime.DEFAULT_TIMEOUT, null, null));
+        interpreter.setCekMode(isCekMode);
+        interpreter.setParallelism(parallelism);
+        if (loadImageFile != null) { interpreter.loadImage(loadImageFile); }
+        if (args.size() == 1 && !args.get(0).equals("-i")) {
+            long parseStart = System.nanoTime();
+            MSListener parser = parseParallelism > 0
+                    ? parseFromFileInParallel(args.get(0), parseParallelism)
+                    : parseFromFile(args.get(0));
+            if (parseOnly) {
+                int numForms = parser != null ? parser.getSyntaxTree().getChildrenSize() : 0;
+                System.err.printf("Parsed %d forms in %d ms%n", numForms, (System.nanoTime() - parseStart) / 1_000_000);
+                return;
+            }
+            if (!interpretParser(interpreter, parser)) { System.exit(1); }
+        } else if (args.size() == 1) {
+            if (!interpretParser(interpreter, parseStream(CharStreams.fromStream(System.in)))) { System.exit(1); }
         } else {
             System.out.println("MicroScheme 0.0.1");
             System.out.println("Type \"help\" for more information on commands.");
@@ -51,6 +156,7 @@ public class MicroSchemeRunner {
                 interpretParser(interpreter, parseFromStdin());
             }
         }
+        if (saveImageFile != null) { interpreter.saveImage(saveImageFile); }
     }
 
     /**
@@ -71,6 +177,69 @@ public class MicroSchemeRunner {
         return null;
     }
 
+    /**
+     * Parses an input file on several threads. The file is split into chunks of whole
+     * top-level forms, which are parsed independently on a ForkJoinPool. The forms are
+     * then put back together in their original order, so evaluating the result behaves
+     * exactly as if the file were parsed sequentially.
+     *
+     * @param fileName the name of the file to use for input
+     * @param parallelism number of threads to parse with
+     */
+    public static MSListener parseFromFileInParallel(final String fileName, final int parallelism) {
+        try {
+            long fileSize = Files.size(Paths.get(fileName));
+            int chunkSize = (int) Math.max(MIN_PARSE_CHUNK_SIZE, fileSize / (4L * parallelism));
+            return parseFromFileInParallel(fileName, parallelism, chunkSize);
+        } catch (IOException e) {
+            if (e instanceof NoSuchFileException) {
+                System.err.println("Could not open file " + fileName);
+            } else {
+                e.printStackTrace();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses an input file on several threads, with a given chunk size.
+     *
+     * @param fileName the name of the file to use for input
+     * @param parallelism number of threads to parse with
+     * @param chunkSize minimum number of characters in each independently-parsed chunk
+     */
+    public static MSListener parseFromFileInParallel(final String fileName, final int parallelism, final int chunkSize) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            String source = new String(Files.readAllBytes(Paths.get(fileName)), StandardCharsets.UTF_8);
+            ArrayList<MSFormSplitter.Chunk> chunks = MSFormSplitter.split(source, chunkSize);
+            // Ordered streams keep the chunks' results in source order. Only the syntax trees
+            // are kept so that each chunk's parse tree can be collected as soon as it is walked.
+            List<MSSyntaxTree> parsedChunks = pool.submit(() -> chunks.parallelStream()
+                    .map(chunk -> parseStream(CharStreams.fromString(chunk.getText(), fileName), chunk.getLine()).getSyntaxTree())
+                    .collect(Collectors.toList())).get();
+
+            MSListener compiler = new MSListener();
+            for (MSSyntaxTree parsedChunk : parsedChunks) {
+                compiler.getSyntaxTree().getChildren().addAll(parsedChunk.getChildren());
+            }
+            return compiler;
+        } catch (IOException e) {
+            if (e instanceof NoSuchFileException) {
+                System.err.println("Could not open file " + fileName);
+            } else {
+                e.printStackTrace();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new MSInterpreterException("parsing " + fileName + " failed: " + e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return null;
+    }
+
     /**
      * Public static method to run the parser on the standard input stream.
      */
@@ -97,9 +266,28 @@ public class MicroSchemeRunner {
         return out.length() != 0 ? parseStream(CharStreams.fromString(out.toString())) : null;
     }
 
+    /**
+     * Public static method to run the parser on a string of source code, e.g., one that a
+     * host program embeds.
+     */
+    public static MSListener parseFromString(final String source) {
+        return parseStream(CharStreams.fromString(source));
+    }
+
     private static MSListener parseStream(final CharStream input) {
+        return parseStream(input, 1);
+    }
+
+    /**
+     * Parses a stream whose first character is on a given line of the original input.
+     *
+     * @param input characters to parse.
+     * @param firstLine line number of the first character, used in error messages.
+     */
+    private static MSListener parseStream(final CharStream input, final int firstLine) {
         // "input" is the character-by-character input - connect to lexer
         MicroSchemeLexer lexer = new MicroSchemeLexer(input);
+        lexer.setLine(firstLine);
 
         // Connect token stream to lexer
         CommonTokenStream tokens = new CommonTokenStream(lexer);
@@ -108,8 +296,9 @@ public class MicroSchemeRunner {
         MicroSchemeParser parser = new MicroSchemeParser(tokens);
         ParseTree tree = parser.microScheme();
 
-        // Now do the parsing, and walk the parse tree with our listeners
-        ParseTreeWalker walker = new ParseTreeWalker();
+        // Now do the parsing, and walk the parse tree with our listeners. The iterative
+        // walker keeps its own stack, so deeply nested data does not overflow the Java stack.
+        ParseTreeWalker walker = new IterativeParseTreeWalker();
         MSListener compiler = new MSListener();
         walker.walk(compiler, tree);
 
@@ -117,13 +306,22 @@ public class MicroSchemeRunner {
     }
 
     /**
-     * @param parser
+     * Interprets the syntax tree of a parser. A timeout is reported rather than thrown, so
+     * that the REPL can carry on after one.
+     *
+     * @return false if an expression timed out, true otherwise.
      */
-    private static void interpretParser(final MicroSchemeInterpreter interpreter, final MSListener parser) {
-        if (parser == null) { return; }
+    private static boolean interpretParser(final MicroSchemeInterpreter interpreter, final MSListener parser) {
+        if (parser == null) { return true; }
         MSSyntaxTree tree = parser.getSyntaxTree();
         if (tree == null) { System.exit(1); }
         interpreter.setInterpreterTree(tree);
-        interpreter.execute();
+        try {
+            interpreter.execute();
+            return true;
+        } catch (MSTimeoutException ex) {
+            interpreter.getRuntime().getErr().println(ex.getMessage());
+            return false;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,179 @@
+/******************************************************************************
+ *  File: NumericLibrary.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Arithmetic, rounding, comparison and conversion procedures on numbers. These
+ *  only need BigDecimal/BigComplex arithmetic.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import ch.obermuhlner.math.big.BigComplex;
+import com.joshuacrotts.microscheme.ast.*;
+import com.joshuacrotts.microscheme.parser.*;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+
+final class NumericLibrary {
+
+    /**
+     * Registers each procedure in the numeric-exact library.
+     *
+     * @param operators mapping of procedure identifiers to their function calls.
+     */
+    static void register(final BuiltinRegistry operators) {
+        operators.put("+", NumericLibrary::interpretAdd);
+        operators.put("-", NumericLibrary::interpretSubtract);
+        operators.put("*", NumericLibrary::interpretMultiply);
+        operators.put("/", NumericLibrary::interpretDivide);
+        operators.put("floor", NumericLibrary::interpretFloor);
+        operators.put("ceiling", NumericLibrary::interpretCeiling);
+        operators.put("round", NumericLibrary::interpretRound);
+        operators.put("truncate", NumericLibrary::interpretTruncate);
+        operators.put("modulo", NumericLibrary::interpretModulo);
+        operators.put("remainder", NumericLibrary::interpretRemainder);
+        operators.put("<", NumericLibrary::interpretLess);
+        operators.put("<=", NumericLibrary::interpretLessEqual);
+        operators.put(">", NumericLibrary::interpretGreater);
+        operators.put(">=", NumericLibrary::interpretGreaterEqual);
+        operators.put("=", NumericLibrary::interpretNumericEqual);
+        operators.put("real-part", NumericLibrary::interpretRealPartFunction);
+        operators.put("imag-part", NumericLibrary::interpretImagPartFunction);
+        operators.put("number->string", NumericLibrary::interpretNumberStringFunction);
+        operators.put("string->number", NumericLibrary::interpretStringNumberFunction);
+    }
+    private static LValue interpretAdd(final ArrayList<LValue> addArguments) {
+        BigComplex result = addArguments.get(0).getNumberValue();
+        for (int i = 1; i < addArguments.size(); i++) {
+            result = result.add(addArguments.get(i).getNumberValue());
+        }
+        return new LValue(result);
+    }
+    private static LValue interpretSubtract(final ArrayList<LValue> subtractArguments) {
+        BigComplex result = subtractArguments.get(0).getNumberValue();
+        for (int i = 1; i < subtractArguments.size(); i++) {
+            result = result.subtract(subtractArguments.get(i).getNumberValue());
+        }
+        return subtractArguments.size() == 1 ? new LValue(result.negate()) : new LValue(result);
+    }
+    private static LValue interpretMultiply(final ArrayList<LValue> multiplyArguments) {
+        BigComplex result = multiplyArguments.get(0).getNumberValue();
+        for (int i = 1; i < multiplyArguments.size(); i++) { result = result.multiply(multiplyArguments.get(i).getNumberValue()); }
+        return new LValue(result);
+    }
+    private static LValue interpretDivide(final ArrayList<LValue> divideArguments) throws MSSemanticException {
+        if (divideArguments.size() != 2) { throw new MSArgumentArityMismatchException("/", 2, divideArguments.size());}
+        BigComplex dividend = divideArguments.get(0).getNumberValue();
+        BigComplex divisor = divideArguments.get(1).getNumberValue();
+
+        if (divisor.equals(BigComplex.ZERO)) { throw new MSSemanticException("division by zero"); }
+        return new LValue(dividend.divide(divisor, MathContext.DECIMAL128));
+    }
+    private static LValue interpretFloor(final ArrayList<LValue> floorArguments) throws MSArgumentMismatchException {
+        if (floorArguments.size() != 1) { throw new MSArgumentArityMismatchException("floor", 1, floorArguments.size()); }
+        BigComplex floorArgument = floorArguments.get(0).getNumberValue();
+        if (!floorArgument.isReal()) { throw new MSArgumentTypeMismatchException("floor", "real", floorArgument.toString()); }
+        return new LValue(floorArgument.re.setScale(0, RoundingMode.FLOOR));
+    }
+    private static LValue interpretCeiling(final ArrayList<LValue> ceilingArguments) throws MSArgumentMismatchException {
+        if (ceilingArguments.size() != 1) { throw new MSArgumentArityMismatchException("ceiling", 1, ceilingArguments.size()); }
+        BigComplex ceilingArgument = ceilingArguments.get(0).getNumberValue();
+        if (!ceilingArgument.isReal()) { throw new MSArgumentTypeMismatchException("ceiling", "real", ceilingArgument.toString()); }
+        return new LValue(ceilingArgument.re.setScale(0, RoundingMode.CEILING));
+    }
+    private static LValue interpretRound(final ArrayList<LValue> roundArguments) throws MSArgumentMismatchException {
+        if (roundArguments.size() != 1) { throw new MSArgumentArityMismatchException("round", 1, roundArguments.size()); }
+        BigComplex roundArgument = roundArguments.get(0).getNumberValue();
+        if (!roundArgument.isReal()) { throw new MSArgumentTypeMismatchException("round", "real", roundArgument.toString()); }
+        return new LValue(roundArgument.re.setScale(0, RoundingMode.HALF_UP));
+    }
+    private static LValue interpretTruncate(final ArrayList<LValue> truncateArguments) throws MSArgumentMismatchException {
+        if (truncateArguments.size() != 1) { throw new MSArgumentArityMismatchException("truncate", 1, truncateArguments.size()); }
+        BigComplex truncateArgument = truncateArguments.get(0).getNumberValue();
+        if (!truncateArgument.isReal()) { throw new MSArgumentTypeMismatchException("truncate", "real", truncateArgument.toString()); }
+        return new LValue(new BigDecimal(truncateArgument.re.toBigInteger().intValue()));
+    }
+    private static LValue interpretModulo(final ArrayList<LValue> moduloArguments) throws MSArgumentMismatchException {
+        if (moduloArguments.size() != 2) { throw new MSArgumentArityMismatchException("modulo", 2, moduloArguments.size()); }
+        BigComplex dividend = moduloArguments.get(0).getNumberValue();
+        BigComplex divisor = moduloArguments.get(1).getNumberValue();
+        if (!dividend.isReal()) { throw new MSArgumentTypeMismatchException("modulo", 0, "integer", dividend.toString()); }
+        if (!dividend.isReal()) { throw new MSArgumentTypeMismatchException("modulo", 1, "integer", divisor.toString()); }
+        return new LValue(dividend.re.remainder(divisor.re, MathContext.DECIMAL128));
+    }
+    private static LValue interpretRemainder(final ArrayList<LValue> remainderArguments) throws MSArgumentMismatchException {
+        if (remainderArguments.size() != 2) { throw new MSArgumentArityMismatchException("remainder", 2, remainderArguments.size()); }
+        BigComplex dividend = remainderArguments.get(0).getNumberValue();
+        BigComplex divisor = remainderArguments.get(1).getNumberValue();
+        if (!dividend.isReal()) { throw new MSArgumentTypeMismatchException("remainder", 0, "integer", dividend.toString()); }
+        if (!dividend.isReal()) { throw new MSArgumentTypeMismatchException("remainder", 1, "integer", divisor.toString()); }
+        return new LValue(dividend.re.remainder(divisor.re, MathContext.DECIMAL128).multiply(BigDecimal.valueOf(dividend.re.signum())));
+    }
+    private static LValue interpretLess(final ArrayList<LValue> lessArguments) throws MSArgumentMismatchException {
+        if (lessArguments.size() != 2) { throw new MSArgumentArityMismatchException("<", 2, lessArguments.size()); }
+        BigComplex lhs = lessArguments.get(0).getNumberValue();
+        BigComplex rhs = lessArguments.get(1).getNumberValue();
+        if (!lhs.isReal()) { throw new MSArgumentTypeMismatchException("<", 1, "real", lhs.toString()); }
+        if (!rhs.isReal()) { throw new MSArgumentTypeMismatchException("<", 2, "real", rhs.toString()); }
+        return new LValue(lhs.re.compareTo(rhs.re) < 0);
+    }
+    private static LValue interpretLessEqual(final ArrayList<LValue> lessEqualArguments) throws MSArgumentMismatchException {
+        if (lessEqualArguments.size() != 2) { throw new MSArgumentArityMismatchException("<=", 2, lessEqualArguments.size()); }
+        BigComplex lhs = lessEqualArguments.get(0).getNumberValue();
+        BigComplex rhs = lessEqualArguments.get(1).getNumberValue();
+        if (!lhs.isReal()) { throw new MSArgumentTypeMismatchException("<=", 1, "real", lhs.toString()); }
+        if (!rhs.isReal()) { throw new MSArgumentTypeMismatchException("<=", 2, "real", rhs.toString()); }
+        return new LValue(lhs.re.compareTo(rhs.re) <= 0);
+    }
+    private static LValue interpretGreater(final ArrayList<LValue> greaterArguments) throws MSArgumentMismatchException {
+        if (greaterArguments.size() != 2) { throw new MSArgumentArityMismatchException(">", 2, greaterArguments.size()); }
+        BigComplex lhs = greaterArguments.get(0).getNumberValue();
+        BigComplex rhs = greaterArguments.get(1).getNumberValue();
+        if (!lhs.isReal()) { throw new MSArgumentTypeMismatchException(">", 1, "real", lhs.toString()); }
+        if (!rhs.isReal()) { throw new MSArgumentTypeMismatchException(">", 2, "real", rhs.toString()); }
+        return new LValue(lhs.re.compareTo(rhs.re) > 0);
+    }
+    private static LValue interpretGreaterEqual(final ArrayList<LValue> greaterEqualArguments) throws MSArgumentMismatchException {
+        if (greaterEqualArguments.size() != 2) { throw new MSArgumentArityMismatchException(">=", 2, greaterEqualArguments.size()); }
+        BigComplex lhs = greaterEqualArguments.get(0).getNumberValue();
+        BigComplex rhs = greaterEqualArguments.get(1).getNumberValue();
+        if (!lhs.isReal()) { throw new MSArgumentTypeMismatchException(">=", 1, "real", lhs.toString()); }
+        if (!rhs.isReal()) { throw new MSArgumentTypeMismatchException(">=", 2, "real", rhs.toString()); }
+        return new LValue(lhs.re.compareTo(rhs.re) >= 0);
+    }
+    private static LValue interpretNumericEqual(final ArrayList<LValue> numericEqualArguments) throws MSArgumentMismatchException {
+        if (numericEqualArguments.size() != 2) { throw new MSArgumentArityMismatchException("=", 2, numericEqualArguments.size()); }
+        BigComplex lhs = numericEqualArguments.get(0).getNumberValue();
+        BigComplex rhs = numericEqualArguments.get(1).getNumberValue();
+        return new LValue(lhs.re.compareTo(rhs.re) == 0 && lhs.im.compareTo(rhs.im) == 0);
+    }
+    private static LValue interpretRealPartFunction(final ArrayList<LValue> realPartArguments) {
+        if (realPartArguments.size() != 1) { throw new MSArgumentArityMismatchException("real-part", 1, realPartArguments.size()); }
+        LValue argument = realPartArguments.get(0);
+        if (!argument.getTree().isNumber()) { throw new MSArgumentTypeMismatchException("real-part", 1, "number", argument.getTree().getStringNodeType()); }
+        return new LValue(argument.getNumberValue().re);
+    }
+    private static LValue interpretImagPartFunction(final ArrayList<LValue> imagPartArguments) {
+        if (imagPartArguments.size() != 1) { throw new MSArgumentArityMismatchException("imag-part", 1, imagPartArguments.size()); }
+        LValue argument = imagPartArguments.get(0);
+        if (!argument.getTree().isNumber()) { throw new MSArgumentTypeMismatchException("imag-part", 1, "number", argument.getTree().getStringNodeType()); }
+        return new LValue(argument.getNumberValue().im);
+    }
+    private static LValue interpretNumberStringFunction(final ArrayList<LValue> numberStringArguments) throws MSArgumentMismatchException {
+        if (numberStringArguments.size() != 1) { throw new MSArgumentArityMismatchException("number->string", 1, numberStringArguments.size()); }
+        MSSyntaxTree argument = LValue.getAst(numberStringArguments.get(0));
+        return new LValue(argument.getStringRep());
+    }
+    private static LValue interpretStringNumberFunction(final ArrayList<LValue> stringNumberArguments) throws MSArgumentMismatchException {
+        if (stringNumberArguments.size() != 1) { throw new MSArgumentArityMismatchException("string->number", 1, stringNumberArguments.size()); }
+        LValue argument = stringNumberArguments.get(0);
+        return new LValue(argument.getStringValue());
+    }
+}
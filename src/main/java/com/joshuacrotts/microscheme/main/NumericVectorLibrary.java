@@ -0,0 +1,182 @@
+/******************************************************************************
+ *  File: NumericVectorLibrary.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Homogeneous numeric vectors (SRFI-4): f64vector, s64vector and u8vector,
+ *  plus bulk operations on f64vectors that run directly over the double[].
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import ch.obermuhlner.math.big.BigComplex;
+import com.joshuacrotts.microscheme.ast.*;
+import com.joshuacrotts.microscheme.parser.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+final class NumericVectorLibrary {
+
+    /**
+     * Node types of the homogeneous vectors. Each one's procedures are named after it,
+     * e.g., make-f64vector and f64vector-ref.
+     */
+    private static final MSNodeType[] VECTOR_TYPES = {MSNodeType.F64VECTOR, MSNodeType.S64VECTOR, MSNodeType.U8VECTOR};
+
+    /**
+     * Registers each procedure in the numeric-vector library.
+     *
+     * @param operators mapping of procedure identifiers to their function calls.
+     */
+    static void register(final BuiltinRegistry operators) {
+        for (MSNodeType vectorType : NumericVectorLibrary.VECTOR_TYPES) {
+            String name = vectorType.toString();
+            operators.put("make-" + name, arguments -> NumericVectorLibrary.interpretMakeVector(vectorType, arguments));
+            operators.put(name, arguments -> NumericVectorLibrary.interpretVector(vectorType, arguments));
+            operators.put(name + "?", arguments -> NumericVectorLibrary.interpretVectorPredicate(vectorType, arguments));
+            operators.put(name + "-length", arguments -> NumericVectorLibrary.interpretVectorLength(vectorType, arguments));
+            operators.put(name + "-ref", arguments -> NumericVectorLibrary.interpretVectorRef(vectorType, arguments));
+            operators.put(name + "-set!", arguments -> NumericVectorLibrary.interpretVectorSet(vectorType, arguments));
+            operators.put(name + "-fill!", arguments -> NumericVectorLibrary.interpretVectorFill(vectorType, arguments));
+            operators.put(name + "->list", arguments -> NumericVectorLibrary.interpretVectorToList(vectorType, arguments));
+            operators.put("list->" + name, arguments -> NumericVectorLibrary.interpretListToVector(vectorType, arguments));
+        }
+        operators.put("f64vector-sum", NumericVectorLibrary::interpretF64VectorSum);
+        operators.put("f64vector-dot", NumericVectorLibrary::interpretF64VectorDot);
+        operators.put("f64vector-map!", NumericVectorLibrary::interpretF64VectorMap);
+    }
+    private static LValue interpretMakeVector(final MSNodeType vectorType, final ArrayList<LValue> makeVectorArguments) {
+        String procedureName = "make-" + vectorType;
+        if (makeVectorArguments.isEmpty() || makeVectorArguments.size() > 2) { throw new MSArgumentArityMismatchException(procedureName, 1, 2, makeVectorArguments.size()); }
+        int size = CoreLibrary.getVectorIndexArgument(procedureName, 0, makeVectorArguments.get(0), Integer.MAX_VALUE);
+        MSHomogeneousVectorNode vector = MSHomogeneousVectorNode.create(vectorType, size);
+        if (makeVectorArguments.size() == 2) {
+            vector.fillNumber(NumericVectorLibrary.getElementArgument(procedureName, 1, makeVectorArguments.get(1), vector), 0, size);
+        }
+        return new LValue(vector);
+    }
+    private static LValue interpretVector(final MSNodeType vectorType, final ArrayList<LValue> vectorArguments) {
+        MSHomogeneousVectorNode vector = MSHomogeneousVectorNode.create(vectorType, vectorArguments.size());
+        for (int i = 0; i < vectorArguments.size(); i++) {
+            vector.setNumber(i, NumericVectorLibrary.getElementArgument(vectorType.toString(), i, vectorArguments.get(i), vector));
+        }
+        return new LValue(vector);
+    }
+    private static LValue interpretVectorPredicate(final MSNodeType vectorType, final ArrayList<LValue> vectorPredicateArguments) {
+        if (vectorPredicateArguments.size() != 1) { throw new MSArgumentArityMismatchException(vectorType + "?", 1, vectorPredicateArguments.size()); }
+        return new LValue(LValue.getAst(vectorPredicateArguments.get(0)).getNodeType() == vectorType);
+    }
+    private static LValue interpretVectorLength(final MSNodeType vectorType, final ArrayList<LValue> vectorLengthArguments) {
+        String procedureName = vectorType + "-length";
+        if (vectorLengthArguments.size() != 1) { throw new MSArgumentArityMismatchException(procedureName, 1, vectorLengthArguments.size()); }
+        return new LValue(NumericVectorLibrary.getVectorArgument(procedureName, vectorType, vectorLengthArguments.get(0)).size());
+    }
+    private static LValue interpretVectorRef(final MSNodeType vectorType, final ArrayList<LValue> vectorRefArguments) {
+        String procedureName = vectorType + "-ref";
+        if (vectorRefArguments.size() != 2) { throw new MSArgumentArityMismatchException(procedureName, 2, vectorRefArguments.size()); }
+        MSHomogeneousVectorNode vector = NumericVectorLibrary.getVectorArgument(procedureName, vectorType, vectorRefArguments.get(0));
+        int index = CoreLibrary.getVectorIndexArgument(procedureName, 1, vectorRefArguments.get(1), vector.size() - 1);
+        return new LValue(vector.getNumber(index));
+    }
+    private static LValue interpretVectorSet(final MSNodeType vectorType, final ArrayList<LValue> vectorSetArguments) {
+        String procedureName = vectorType + "-set!";
+        if (vectorSetArguments.size() != 3) { throw new MSArgumentArityMismatchException(procedureName, 3, vectorSetArguments.size()); }
+        MSHomogeneousVectorNode vector = NumericVectorLibrary.getVectorArgument(procedureName, vectorType, vectorSetArguments.get(0));
+        int index = CoreLibrary.getVectorIndexArgument(procedureName, 1, vectorSetArguments.get(1), vector.size() - 1);
+        vector.setNumber(index, NumericVectorLibrary.getElementArgument(procedureName, 2, vectorSetArguments.get(2), vector));
+        return null;
+    }
+    private static LValue interpretVectorFill(final MSNodeType vectorType, final ArrayList<LValue> vectorFillArguments) {
+        String procedureName = vectorType + "-fill!";
+        if (vectorFillArguments.size() < 2 || vectorFillArguments.size() > 4) { throw new MSArgumentArityMismatchException(procedureName, 2, 4, vectorFillArguments.size()); }
+        MSHomogeneousVectorNode vector = NumericVectorLibrary.getVectorArgument(procedureName, vectorType, vectorFillArguments.get(0));
+        BigComplex fill = NumericVectorLibrary.getElementArgument(procedureName, 1, vectorFillArguments.get(1), vector);
+        int startIdx = vectorFillArguments.size() > 2 ? CoreLibrary.getVectorIndexArgument(procedureName, 2, vectorFillArguments.get(2), vector.size()) : 0;
+        int endIdx = vectorFillArguments.size() > 3 ? CoreLibrary.getVectorIndexArgument(procedureName, 3, vectorFillArguments.get(3), vector.size()) : vector.size();
+        if (endIdx < startIdx) {
+            throw new MSArgumentMismatchException(String.format("%s start index %d cannot be greater than end index %d", procedureName, startIdx, endIdx));
+        }
+        vector.fillNumber(fill, startIdx, endIdx);
+        return null;
+    }
+    private static LValue interpretVectorToList(final MSNodeType vectorType, final ArrayList<LValue> vectorToListArguments) {
+        String procedureName = vectorType + "->list";
+        if (vectorToListArguments.size() != 1) { throw new MSArgumentArityMismatchException(procedureName, 1, vectorToListArguments.size()); }
+        MSHomogeneousVectorNode vector = NumericVectorLibrary.getVectorArgument(procedureName, vectorType, vectorToListArguments.get(0));
+        MSListNode list = MSListNode.EMPTY_LIST;
+        for (int i = vector.size() - 1; i >= 0; i--) { list = new MSListNode(vector.getNumber(i), list); }
+        return new LValue(list);
+    }
+    private static LValue interpretListToVector(final MSNodeType vectorType, final ArrayList<LValue> listToVectorArguments) {
+        String procedureName = "list->" + vectorType;
+        if (listToVectorArguments.size() != 1) { throw new MSArgumentArityMismatchException(procedureName, 1, listToVectorArguments.size()); }
+        MSSyntaxTree list = LValue.getAst(listToVectorArguments.get(0));
+        if (!list.isList() || !((MSListNode) list).isProper()) { throw new MSArgumentTypeMismatchException(procedureName, 0, "list", list.getStringNodeType()); }
+        ArrayList<MSSyntaxTree> elements = ((MSListNode) list).getListAsArrayList();
+        MSHomogeneousVectorNode vector = MSHomogeneousVectorNode.create(vectorType, elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            vector.setNumber(i, NumericVectorLibrary.getElementArgument(procedureName, 0, new LValue(elements.get(i)), vector));
+        }
+        return new LValue(vector);
+    }
+    private static LValue interpretF64VectorSum(final ArrayList<LValue> f64VectorSumArguments) {
+        if (f64VectorSumArguments.size() != 1) { throw new MSArgumentArityMismatchException("f64vector-sum", 1, f64VectorSumArguments.size()); }
+        double[] elements = ((MSF64VectorNode) NumericVectorLibrary.getVectorArgument("f64vector-sum", MSNodeType.F64VECTOR, f64VectorSumArguments.get(0))).getElements();
+        double sum = 0;
+        for (double element : elements) { sum += element; }
+        return new LValue(MSF64VectorNode.toNumber(sum));
+    }
+    private static LValue interpretF64VectorDot(final ArrayList<LValue> f64VectorDotArguments) {
+        if (f64VectorDotArguments.size() != 2) { throw new MSArgumentArityMismatchException("f64vector-dot", 2, f64VectorDotArguments.size()); }
+        double[] lhs = ((MSF64VectorNode) NumericVectorLibrary.getVectorArgument("f64vector-dot", MSNodeType.F64VECTOR, f64VectorDotArguments.get(0))).getElements();
+        double[] rhs = ((MSF64VectorNode) NumericVectorLibrary.getVectorArgument("f64vector-dot", MSNodeType.F64VECTOR, f64VectorDotArguments.get(1))).getElements();
+        if (lhs.length != rhs.length) {
+            throw new MSArgumentMismatchException(String.format("f64vector-dot lengths %d and %d are not equal", lhs.length, rhs.length));
+        }
+        double dot = 0;
+        for (int i = 0; i < lhs.length; i++) { dot += lhs[i] * rhs[i]; }
+        return new LValue(MSF64VectorNode.toNumber(dot));
+    }
+    private static LValue interpretF64VectorMap(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> f64VectorMapArguments) {
+        if (f64VectorMapArguments.size() != 2) { throw new MSArgumentArityMismatchException("f64vector-map!", 2, f64VectorMapArguments.size()); }
+        LValue procedure = f64VectorMapArguments.get(0);
+        double[] elements = ((MSF64VectorNode) NumericVectorLibrary.getVectorArgument("f64vector-map!", MSNodeType.F64VECTOR, f64VectorMapArguments.get(1))).getElements();
+        for (int i = 0; i < elements.length; i++) {
+            LValue result = interpreter.applyProcedure(procedure, new ArrayList<>(Collections.singletonList(new LValue(MSF64VectorNode.toNumber(elements[i])))));
+            MSSyntaxTree resultAst = result != null ? LValue.getAst(result) : null;
+            if (resultAst == null || !resultAst.isNumber() || !((MSNumberNode) resultAst).isReal()) {
+                throw new MSArgumentTypeMismatchException("f64vector-map!", "procedure returning a real", resultAst != null ? resultAst.getStringNodeType() : "nothing");
+            }
+            elements[i] = ((MSNumberNode) resultAst).getValue().re.doubleValue();
+        }
+        return null;
+    }
+
+    /**
+     * Returns an argument as a homogeneous vector of the given type.
+     *
+     * @throws MSArgumentTypeMismatchException if the argument is not of that type.
+     */
+    private static MSHomogeneousVectorNode getVectorArgument(final String procedureName, final MSNodeType vectorType, final LValue argument) {
+        MSSyntaxTree vector = LValue.getAst(argument);
+        if (vector.getNodeType() != vectorType) { throw new MSArgumentTypeMismatchException(procedureName, 0, vectorType.toString(), vector.getStringNodeType()); }
+        return (MSHomogeneousVectorNode) vector;
+    }
+
+    /**
+     * Returns an argument as a number that a vector can hold.
+     *
+     * @throws MSArgumentTypeMismatchException if the argument is not a number the vector can hold.
+     */
+    private static BigComplex getElementArgument(final String procedureName, final int argumentIdx, final LValue argument, final MSHomogeneousVectorNode vector) {
+        MSSyntaxTree element = LValue.getAst(argument);
+        if (!element.isNumber() || !vector.canHold(((MSNumberNode) element).getValue())) {
+            throw new MSArgumentTypeMismatchException(procedureName, argumentIdx, vector.getElementDescription(), element.getStringRep());
+        }
+        return ((MSNumberNode) element).getValue();
+    }
+}
@@ -0,0 +1,174 @@
+/******************************************************************************
+ *  File: ParallelLibrary.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Data-parallel procedures. par-map, par-for-each and par-reduce split a list
+ *  or vector into chunks and apply a procedure to each chunk on the
+ *  interpreter's ForkJoinPool (see MicroSchemeInterpreter.setParallelism).
+ *  Results are put back together in the original order. The procedure runs on
+ *  several threads at once, so it should not modify anything that the other
+ *  threads can see, e.g., with set! or define.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import com.joshuacrotts.microscheme.ast.*;
+import com.joshuacrotts.microscheme.parser.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+final class ParallelLibrary {
+
+    /**
+     * Number of chunks to make per thread, so that threads that finish early can take
+     * work from the others.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Registers each procedure in the parallel library.
+     *
+     * @param operators mapping of procedure identifiers to their function calls.
+     */
+    static void register(final BuiltinRegistry operators) {
+        operators.put("par-map", ParallelLibrary::interpretParMap);
+        operators.put("par-for-each", ParallelLibrary::interpretParForEach);
+        operators.put("par-reduce", ParallelLibrary::interpretParReduce);
+    }
+
+    /**
+     * (par-map procedure sequence) returns the results of applying procedure to each
+     * element of a list or vector, in the same order and as the same kind of sequence.
+     */
+    private static LValue interpretParMap(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> parMapArguments) {
+        if (parMapArguments.size() != 2) { throw new MSArgumentArityMismatchException("par-map", 2, parMapArguments.size()); }
+        LValue procedure = parMapArguments.get(0);
+        ArrayList<MSSyntaxTree> elements = ParallelLibrary.getSequenceArgument("par-map", 1, parMapArguments.get(1));
+        ArrayList<MSSyntaxTree> results = new ArrayList<>(elements.size());
+        for (List<MSSyntaxTree> chunkResults : ParallelLibrary.forEachChunk(interpreter, elements, chunk -> {
+            ArrayList<MSSyntaxTree> mapped = new ArrayList<>(chunk.size());
+            for (MSSyntaxTree element : chunk) {
+                mapped.add(ListLibrary.getResult("par-map", interpreter.applyProcedure(procedure, ParallelLibrary.toArguments(element))));
+            }
+            return mapped;
+        })) {
+            results.addAll(chunkResults);
+        }
+        return LValue.getAst(parMapArguments.get(1)).isVector()
+               ? new LValue(new MSVectorNode(results))
+               : new LValue(ListLibrary.toList(results, MSListNode.EMPTY_LIST));
+    }
+
+    /**
+     * (par-for-each procedure sequence) applies procedure to each element of a list or
+     * vector. The applications may happen in any order.
+     */
+    private static LValue interpretParForEach(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> parForEachArguments) {
+        if (parForEachArguments.size() != 2) { throw new MSArgumentArityMismatchException("par-for-each", 2, parForEachArguments.size()); }
+        LValue procedure = parForEachArguments.get(0);
+        ArrayList<MSSyntaxTree> elements = ParallelLibrary.getSequenceArgument("par-for-each", 1, parForEachArguments.get(1));
+        ParallelLibrary.forEachChunk(interpreter, elements, chunk -> {
+            for (MSSyntaxTree element : chunk) { interpreter.applyProcedure(procedure, ParallelLibrary.toArguments(element)); }
+            return null;
+        });
+        return null;
+    }
+
+    /**
+     * (par-reduce procedure identity sequence) combines the elements of a list or vector
+     * with procedure, which must be associative and have identity as its identity element.
+     * Each chunk is folded from identity with (procedure acc x), and the results of the
+     * chunks are then folded the same way, in order. Under those conditions, the result
+     * is the same as (fold-left procedure identity sequence).
+     */
+    private static LValue interpretParReduce(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> parReduceArguments) {
+        if (parReduceArguments.size() != 3) { throw new MSArgumentArityMismatchException("par-reduce", 3, parReduceArguments.size()); }
+        LValue procedure = parReduceArguments.get(0);
+        LValue identity = parReduceArguments.get(1);
+        ArrayList<MSSyntaxTree> elements = ParallelLibrary.getSequenceArgument("par-reduce", 2, parReduceArguments.get(2));
+        LValue accumulator = identity;
+        for (LValue chunkResult : ParallelLibrary.forEachChunk(interpreter, elements, chunk -> {
+            LValue chunkAccumulator = identity;
+            for (MSSyntaxTree element : chunk) { chunkAccumulator = ParallelLibrary.combine(interpreter, procedure, chunkAccumulator, new LValue(element)); }
+            return chunkAccumulator;
+        })) {
+            accumulator = ParallelLibrary.combine(interpreter, procedure, accumulator, chunkResult);
+        }
+        return accumulator;
+    }
+
+    /**
+     * Splits the elements into chunks and applies a task to each chunk on the interpreter's
+     * pool. Each task runs with the deadline of the calling thread (see
+     * MicroSchemeInterpreter.inheritContext).
+     *
+     * @return results of the tasks, in the same order as the chunks.
+     *
+     * @throws MSInterpreterException if the calling thread is interrupted.
+     */
+    private static <T> ArrayList<T> forEachChunk(final MicroSchemeInterpreter interpreter, final ArrayList<MSSyntaxTree> elements,
+                                                 final Function<List<MSSyntaxTree>, T> task) {
+        int parallelism = interpreter.getParallelism();
+        ArrayList<T> results = new ArrayList<>();
+        if (parallelism == 1 || elements.size() <= 1) {
+            // There is nothing to gain from another thread.
+            if (!elements.isEmpty()) { results.add(task.apply(elements)); }
+            return results;
+        }
+
+        int chunkSize = Math.max(1, (elements.size() + CHUNKS_PER_THREAD * parallelism - 1) / (CHUNKS_PER_THREAD * parallelism));
+        ArrayList<Callable<T>> chunkTasks = new ArrayList<>();
+        for (int i = 0; i < elements.size(); i += chunkSize) {
+            List<MSSyntaxTree> chunk = elements.subList(i, Math.min(i + chunkSize, elements.size()));
+            chunkTasks.add(interpreter.inheritContext(() -> task.apply(chunk)));
+        }
+
+        try {
+            for (Future<T> result : interpreter.getPool().invokeAll(chunkTasks)) { results.add(result.get()); }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MSInterpreterException("interrupted while waiting for parallel tasks");
+        } catch (ExecutionException ex) {
+            // Errors, and escapes to an enclosing call/ec, are passed on as they were thrown.
+            if (ex.getCause() instanceof RuntimeException) { throw (RuntimeException) ex.getCause(); }
+            if (ex.getCause() instanceof Error) { throw (Error) ex.getCause(); }
+            throw new MSInterpreterException(ex.getCause().toString());
+        }
+        return results;
+    }
+
+    private static LValue combine(final MicroSchemeInterpreter interpreter, final LValue procedure, final LValue accumulator, final LValue value) {
+        ArrayList<LValue> procedureArguments = new ArrayList<>(2);
+        procedureArguments.add(accumulator);
+        procedureArguments.add(value);
+        return interpreter.applyProcedure(procedure, procedureArguments);
+    }
+
+    private static ArrayList<LValue> toArguments(final MSSyntaxTree element) {
+        return new ArrayList<>(Collections.singletonList(new LValue(element)));
+    }
+
+    /**
+     * Returns the elements of a list or vector argument.
+     *
+     * @throws MSArgumentTypeMismatchException if the argument is neither a proper list nor a vector.
+     */
+    private static ArrayList<MSSyntaxTree> getSequenceArgument(final String procedureName, final int argumentIdx, final LValue argument) {
+        MSSyntaxTree sequence = LValue.getAst(argument);
+        if (!sequence.isVector()) { return ListLibrary.getListArgument(procedureName, argumentIdx, argument); }
+        MSVectorNode vector = (MSVectorNode) sequence;
+        ArrayList<MSSyntaxTree> elements = new ArrayList<>(vector.size());
+        for (int i = 0; i < vector.size(); i++) { elements.add(vector.get(i)); }
+        return elements;
+    }
+}
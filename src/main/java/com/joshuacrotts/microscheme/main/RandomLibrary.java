@@ -0,0 +1,58 @@
+/******************************************************************************
+ *  File: RandomLibrary.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Pseudo-random number generation procedures. Each interpreter's runtime has
+ *  one generator per thread (see MSRuntime), so random-set-seed! only seeds the
+ *  generator of the interpreter and thread that call it. Futures, spawned tasks
+ *  and parallel procedures seed theirs from the generator of the thread that
+ *  created them.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import com.joshuacrotts.microscheme.ast.*;
+import com.joshuacrotts.microscheme.parser.*;
+
+import java.util.ArrayList;
+
+final class RandomLibrary {
+
+    /**
+     * Registers each procedure in the random library.
+     *
+     * @param operators mapping of procedure identifiers to their function calls.
+     */
+    static void register(final BuiltinRegistry operators) {
+        operators.put("random", RandomLibrary::interpretRandomFunction);
+        operators.put("random-integer", RandomLibrary::interpretRandomIntegerFunction);
+        operators.put("random-double", RandomLibrary::interpretRandomDoubleFunction);
+        operators.put("random-set-seed!", RandomLibrary::interpretRandomSetSeedFunction);
+    }
+    private static LValue interpretRandomFunction(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> randomArguments) {
+        if (randomArguments.size() != 0) { throw new MSArgumentArityMismatchException("random", 0, randomArguments.size()); }
+        return new LValue(interpreter.getRuntime().getRandom().nextDouble());
+    }
+    private static LValue interpretRandomIntegerFunction(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> randomIntegerArguments) {
+        if (randomIntegerArguments.size() != 2) { throw new MSArgumentArityMismatchException("random-integer", 2, randomIntegerArguments.size()); }
+        int min = randomIntegerArguments.get(0).getNumberValue().re.intValue();
+        int max = randomIntegerArguments.get(1).getNumberValue().re.intValue();
+        return new LValue(interpreter.getRuntime().getRandom().nextInt((max - min) + 1) + min);
+    }
+    private static LValue interpretRandomDoubleFunction(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> randomDoubleArguments) {
+        if (randomDoubleArguments.size() != 2) { throw new MSArgumentArityMismatchException("random-double", 2, randomDoubleArguments.size()); }
+        double min = randomDoubleArguments.get(0).getNumberValue().re.doubleValue();
+        double max = randomDoubleArguments.get(1).getNumberValue().re.doubleValue();
+        return new LValue(min + (max - min) * interpreter.getRuntime().getRandom().nextDouble());
+    }
+    private static LValue interpretRandomSetSeedFunction(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> randomSetSeedArguments) {
+        if (randomSetSeedArguments.size() != 1) { throw new MSArgumentArityMismatchException("random-set-seed", 1, randomSetSeedArguments.size()); }
+        long seed = randomSetSeedArguments.get(0).getNumberValue().re.longValue();
+        interpreter.getRuntime().getRandom().setSeed(seed);
+        return new LValue("random-set-seed!");
+    }
+}
@@ -0,0 +1,171 @@
+/******************************************************************************
+ *  File: SortLibrary.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Sorting and merging procedures. Sorting uses Java's stable TimSort with a
+ *  comparator that calls the given Scheme "less than" procedure. When that
+ *  procedure is the builtin <, string<? or char<? and every element has the
+ *  matching type, the elements are compared directly instead.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import com.joshuacrotts.microscheme.ast.*;
+import com.joshuacrotts.microscheme.parser.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+
+final class SortLibrary {
+
+    /**
+     * Registers each procedure in the sort library.
+     *
+     * @param operators mapping of procedure identifiers to their function calls.
+     */
+    static void register(final BuiltinRegistry operators) {
+        operators.put("sort", SortLibrary::interpretSort);
+        operators.put("vector-sort!", SortLibrary::interpretVectorSort);
+        operators.put("list-merge", SortLibrary::interpretListMerge);
+    }
+
+    /**
+     * (sort sequence less?) returns a new list or vector with the elements of sequence
+     * in ascending order. Elements that are not less than one another keep their order.
+     */
+    private static LValue interpretSort(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> sortArguments) {
+        if (sortArguments.size() != 2) { throw new MSArgumentArityMismatchException("sort", 2, sortArguments.size()); }
+        MSSyntaxTree sequence = LValue.getAst(sortArguments.get(0));
+        if (sequence.isVector()) {
+            MSVectorNode vector = ((MSVectorNode) sequence).copy(0, ((MSVectorNode) sequence).size());
+            SortLibrary.sortVector(interpreter, "sort", vector, sortArguments.get(1));
+            return new LValue(vector);
+        }
+        ArrayList<MSSyntaxTree> elements = ListLibrary.getListArgument("sort", 0, sortArguments.get(0));
+        Comparator<MSSyntaxTree> comparator = SortLibrary.getComparator(interpreter, "sort", sortArguments.get(1), elements);
+        SortLibrary.sort("sort", () -> elements.sort(comparator));
+        return new LValue(ListLibrary.toList(elements, MSListNode.EMPTY_LIST));
+    }
+    private static LValue interpretVectorSort(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> vectorSortArguments) {
+        if (vectorSortArguments.size() != 2) { throw new MSArgumentArityMismatchException("vector-sort!", 2, vectorSortArguments.size()); }
+        SortLibrary.sortVector(interpreter, "vector-sort!", CoreLibrary.getVectorArgument("vector-sort!", 0, vectorSortArguments.get(0)), vectorSortArguments.get(1));
+        return null;
+    }
+
+    /**
+     * (list-merge list1 list2 less?) merges two sorted lists into a new sorted list. When
+     * elements are not less than one another, those from list1 come first.
+     */
+    private static LValue interpretListMerge(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> listMergeArguments) {
+        if (listMergeArguments.size() != 3) { throw new MSArgumentArityMismatchException("list-merge", 3, listMergeArguments.size()); }
+        ArrayList<MSSyntaxTree> lhs = ListLibrary.getListArgument("list-merge", 0, listMergeArguments.get(0));
+        ArrayList<MSSyntaxTree> rhs = ListLibrary.getListArgument("list-merge", 1, listMergeArguments.get(1));
+        ArrayList<MSSyntaxTree> elements = new ArrayList<>(lhs);
+        elements.addAll(rhs);
+        Comparator<MSSyntaxTree> comparator = SortLibrary.getComparator(interpreter, "list-merge", listMergeArguments.get(2), elements);
+
+        ArrayList<MSSyntaxTree> merged = new ArrayList<>(elements.size());
+        int i = 0;
+        int j = 0;
+        while (i < lhs.size() && j < rhs.size()) {
+            // An element of list2 is only taken first if it is strictly less.
+            if (comparator.compare(rhs.get(j), lhs.get(i)) < 0) { merged.add(rhs.get(j++)); }
+            else { merged.add(lhs.get(i++)); }
+        }
+        while (i < lhs.size()) { merged.add(lhs.get(i++)); }
+        while (j < rhs.size()) { merged.add(rhs.get(j++)); }
+        return new LValue(ListLibrary.toList(merged, MSListNode.EMPTY_LIST));
+    }
+
+    /**
+     * Sorts a vector in place.
+     */
+    private static void sortVector(final MicroSchemeInterpreter interpreter, final String procedureName, final MSVectorNode vector, final LValue lessThan) {
+        ArrayList<MSSyntaxTree> elements = new ArrayList<>(vector.size());
+        for (int i = 0; i < vector.size(); i++) { elements.add(vector.get(i)); }
+        Comparator<MSSyntaxTree> comparator = SortLibrary.getComparator(interpreter, procedureName, lessThan, elements);
+        SortLibrary.sort(procedureName, () -> vector.sort(comparator));
+    }
+
+    /**
+     * Runs a sort, reporting TimSort's check for an inconsistent comparator as an argument
+     * error. Errors thrown by the comparison procedure itself are passed on unchanged.
+     */
+    private static void sort(final String procedureName, final Runnable sort) {
+        try {
+            sort.run();
+        } catch (MSInterpreterException ex) {
+            throw ex;
+        } catch (IllegalArgumentException ex) {
+            throw new MSArgumentMismatchException(procedureName + " procedure is not a consistent ordering");
+        }
+    }
+
+    /**
+     * Returns a comparator for the given "less than" procedure. If the procedure is one of
+     * the builtin comparisons and every element has the type that it compares, the
+     * comparator compares the elements directly rather than calling the procedure.
+     *
+     * @param elements elements that will be compared.
+     */
+    private static Comparator<MSSyntaxTree> getComparator(final MicroSchemeInterpreter interpreter, final String procedureName,
+                                                          final LValue lessThan, final ArrayList<MSSyntaxTree> elements) {
+        MSSyntaxTree procedure = LValue.getAst(lessThan);
+        if (!procedure.isLambda() && !interpreter.getRuntime().isBuiltinOperator(procedure) && !procedure.isRecordProcedure()
+            && !procedure.isEscapeContinuation() && !procedure.isContinuation()) {
+            throw new MSArgumentTypeMismatchException(procedureName, 1, "procedure", procedure.getStringNodeType());
+        }
+        if (interpreter.getRuntime().isBuiltinOperator(procedure)) {
+            switch (((MSVariableNode) procedure).getIdentifier()) {
+                case "<":
+                    if (SortLibrary.isAll(elements, MSNodeType.NUMBER) && SortLibrary.isAllReal(elements)) {
+                        return (lhs, rhs) -> ((MSNumberNode) lhs).getValue().re.compareTo(((MSNumberNode) rhs).getValue().re);
+                    }
+                    break;
+                case "string<?":
+                    if (SortLibrary.isAll(elements, MSNodeType.STRING)) {
+                        return (lhs, rhs) -> ((MSStringNode) lhs).getValue().compareTo(((MSStringNode) rhs).getValue());
+                    }
+                    break;
+                case "char<?":
+                    if (SortLibrary.isAll(elements, MSNodeType.CHARACTER)) {
+                        return (lhs, rhs) -> Character.compare(((MSCharacterNode) lhs).getValue(), ((MSCharacterNode) rhs).getValue());
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        // Otherwise, lhs < rhs if (less? lhs rhs), lhs > rhs if (less? rhs lhs), and they are equal if neither.
+        return (lhs, rhs) -> {
+            if (SortLibrary.isLess(interpreter, lessThan, lhs, rhs)) { return -1; }
+            return SortLibrary.isLess(interpreter, lessThan, rhs, lhs) ? 1 : 0;
+        };
+    }
+
+    private static boolean isLess(final MicroSchemeInterpreter interpreter, final LValue lessThan, final MSSyntaxTree lhs, final MSSyntaxTree rhs) {
+        ArrayList<LValue> arguments = new ArrayList<>(2);
+        arguments.add(new LValue(lhs));
+        arguments.add(new LValue(rhs));
+        return ListLibrary.isTrue(interpreter.applyProcedure(lessThan, arguments));
+    }
+
+    private static boolean isAll(final ArrayList<MSSyntaxTree> elements, final MSNodeType nodeType) {
+        for (MSSyntaxTree element : elements) {
+            if (element.getNodeType() != nodeType) { return false; }
+        }
+        return true;
+    }
+
+    private static boolean isAllReal(final ArrayList<MSSyntaxTree> elements) {
+        for (MSSyntaxTree element : elements) {
+            if (!((MSNumberNode) element).getValue().isReal()) { return false; }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,233 @@
+/******************************************************************************
+ *  File: StreamLibrary.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Promises and lazy streams. A stream is either the empty list or a pair
+ *  whose cdr is a promise of the rest of the stream, as built by stream-cons.
+ *  Every stream procedure also accepts a promise of a stream, which it forces.
+ *  Elements are only computed when they are needed, and stream-map and
+ *  stream-filter return lazy streams too, so a pipeline over a long (or
+ *  infinite) stream never holds more of it than it has to.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import com.joshuacrotts.microscheme.ast.*;
+import com.joshuacrotts.microscheme.parser.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+final class StreamLibrary {
+
+    /**
+     * Registers each procedure in the stream library.
+     *
+     * @param operators mapping of procedure identifiers to their function calls.
+     */
+    static void register(final BuiltinRegistry operators) {
+        operators.put("force", StreamLibrary::interpretForce);
+        operators.put("make-promise", StreamLibrary::interpretMakePromise);
+        operators.put("promise?", StreamLibrary::interpretPromisePredicate);
+        operators.put("stream-car", StreamLibrary::interpretStreamCar);
+        operators.put("stream-cdr", StreamLibrary::interpretStreamCdr);
+        operators.put("stream-pair?", StreamLibrary::interpretStreamPairPredicate);
+        operators.put("stream-null?", StreamLibrary::interpretStreamNullPredicate);
+        operators.put("stream-ref", StreamLibrary::interpretStreamRef);
+        operators.put("stream->list", StreamLibrary::interpretStreamToList);
+        operators.put("list->stream", StreamLibrary::interpretListToStream);
+        operators.put("stream-map", StreamLibrary::interpretStreamMap);
+        operators.put("stream-filter", StreamLibrary::interpretStreamFilter);
+    }
+
+    /**
+     * (force obj) returns the value of obj if it is a promise, or obj itself otherwise.
+     */
+    private static LValue interpretForce(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> forceArguments) {
+        if (forceArguments.size() != 1) { throw new MSArgumentArityMismatchException("force", 1, forceArguments.size()); }
+        MSSyntaxTree argument = LValue.getAst(forceArguments.get(0));
+        return argument.isPromise() ? interpreter.force((MSPromiseNode) argument) : forceArguments.get(0);
+    }
+
+    /**
+     * (make-promise obj) returns a promise that has already been forced to obj. If obj is
+     * a promise, it is returned as-is.
+     */
+    private static LValue interpretMakePromise(final ArrayList<LValue> makePromiseArguments) {
+        if (makePromiseArguments.size() != 1) { throw new MSArgumentArityMismatchException("make-promise", 1, makePromiseArguments.size()); }
+        if (LValue.getAst(makePromiseArguments.get(0)).isPromise()) { return makePromiseArguments.get(0); }
+        return new LValue(new MSPromiseNode(makePromiseArguments.get(0)));
+    }
+    private static LValue interpretPromisePredicate(final ArrayList<LValue> promisePredicateArguments) {
+        if (promisePredicateArguments.size() != 1) { throw new MSArgumentArityMismatchException("promise?", 1, promisePredicateArguments.size()); }
+        return new LValue(LValue.getAst(promisePredicateArguments.get(0)).isPromise());
+    }
+    private static LValue interpretStreamCar(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> streamCarArguments) {
+        if (streamCarArguments.size() != 1) { throw new MSArgumentArityMismatchException("stream-car", 1, streamCarArguments.size()); }
+        return new LValue(StreamLibrary.getStreamPairArgument(interpreter, "stream-car", 0, streamCarArguments.get(0)).getCar());
+    }
+    private static LValue interpretStreamCdr(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> streamCdrArguments) {
+        if (streamCdrArguments.size() != 1) { throw new MSArgumentArityMismatchException("stream-cdr", 1, streamCdrArguments.size()); }
+        return StreamLibrary.force(interpreter, StreamLibrary.getStreamPairArgument(interpreter, "stream-cdr", 0, streamCdrArguments.get(0)));
+    }
+    private static LValue interpretStreamPairPredicate(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> streamPairArguments) {
+        if (streamPairArguments.size() != 1) { throw new MSArgumentArityMismatchException("stream-pair?", 1, streamPairArguments.size()); }
+        MSSyntaxTree stream = StreamLibrary.forceIfPromise(interpreter, streamPairArguments.get(0));
+        return new LValue(StreamLibrary.isStreamPair(stream));
+    }
+    private static LValue interpretStreamNullPredicate(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> streamNullArguments) {
+        if (streamNullArguments.size() != 1) { throw new MSArgumentArityMismatchException("stream-null?", 1, streamNullArguments.size()); }
+        MSSyntaxTree stream = StreamLibrary.forceIfPromise(interpreter, streamNullArguments.get(0));
+        return new LValue(stream.isList() && ((MSListNode) stream).isEmptyList());
+    }
+
+    /**
+     * (stream-ref stream k) returns the element at index k, forcing only the first k
+     * promises of the stream.
+     */
+    private static LValue interpretStreamRef(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> streamRefArguments) {
+        if (streamRefArguments.size() != 2) { throw new MSArgumentArityMismatchException("stream-ref", 2, streamRefArguments.size()); }
+        int k = StreamLibrary.getCountArgument("stream-ref", 1, streamRefArguments.get(1));
+        MSListNode curr = StreamLibrary.getStreamPairArgument(interpreter, "stream-ref", 0, streamRefArguments.get(0));
+        for (int i = 0; i < k; i++) {
+            MSSyntaxTree rest = LValue.getAst(StreamLibrary.force(interpreter, curr));
+            if (!StreamLibrary.isStreamPair(rest)) { throw new MSArgumentMismatchException(String.format("stream-ref index %d is out of range", k)); }
+            curr = (MSListNode) rest;
+        }
+        return new LValue(curr.getCar());
+    }
+
+    /**
+     * (stream->list stream [k]) returns a list of the first k elements of stream, or all
+     * of them if k is not given.
+     */
+    private static LValue interpretStreamToList(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> streamToListArguments) {
+        if (streamToListArguments.size() < 1 || streamToListArguments.size() > 2) { throw new MSArgumentArityMismatchException("stream->list", 1, 2, streamToListArguments.size()); }
+        int k = streamToListArguments.size() == 2 ? StreamLibrary.getCountArgument("stream->list", 1, streamToListArguments.get(1)) : Integer.MAX_VALUE;
+        ArrayList<MSSyntaxTree> elements = new ArrayList<>();
+        MSSyntaxTree curr = StreamLibrary.getStreamArgument(interpreter, "stream->list", 0, streamToListArguments.get(0));
+        while (elements.size() < k && StreamLibrary.isStreamPair(curr)) {
+            elements.add(((MSListNode) curr).getCar());
+            if (elements.size() < k) { curr = LValue.getAst(StreamLibrary.force(interpreter, (MSListNode) curr)); }
+        }
+        return new LValue(ListLibrary.toList(elements, MSListNode.EMPTY_LIST));
+    }
+
+    /**
+     * (list->stream list) returns a stream of the elements of list. Its promises are
+     * already forced, since the elements already exist.
+     */
+    private static LValue interpretListToStream(final ArrayList<LValue> listToStreamArguments) {
+        if (listToStreamArguments.size() != 1) { throw new MSArgumentArityMismatchException("list->stream", 1, listToStreamArguments.size()); }
+        ArrayList<MSSyntaxTree> elements = ListLibrary.getListArgument("list->stream", 0, listToStreamArguments.get(0));
+        MSSyntaxTree stream = MSListNode.EMPTY_LIST;
+        for (int i = elements.size() - 1; i >= 0; i--) {
+            stream = new MSListNode(elements.get(i), new MSPromiseNode(new LValue(stream)));
+        }
+        return new LValue(stream);
+    }
+
+    /**
+     * (stream-map procedure stream) returns a stream of the results of applying procedure
+     * to each element of stream. Each result is computed when its pair is reached.
+     */
+    private static LValue interpretStreamMap(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> streamMapArguments) {
+        if (streamMapArguments.size() != 2) { throw new MSArgumentArityMismatchException("stream-map", 2, streamMapArguments.size()); }
+        MSSyntaxTree stream = StreamLibrary.getStreamArgument(interpreter, "stream-map", 1, streamMapArguments.get(1));
+        if (!StreamLibrary.isStreamPair(stream)) { return new LValue(MSListNode.EMPTY_LIST); }
+        MSListNode pair = (MSListNode) stream;
+        LValue procedure = streamMapArguments.get(0);
+        LValue result = interpreter.applyProcedure(procedure, new ArrayList<>(Arrays.asList(new LValue(pair.getCar()))));
+        if (result == null) { throw new MSArgumentMismatchException("stream-map procedure did not return a value"); }
+        return new LValue(new MSListNode(LValue.getAst(result), StreamLibrary.delayRest("stream-map", procedure, pair)));
+    }
+
+    /**
+     * (stream-filter predicate stream) returns a stream of the elements of stream that
+     * satisfy predicate. Elements that do not are skipped in a loop, so a long run of
+     * them does not use any stack.
+     */
+    private static LValue interpretStreamFilter(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> streamFilterArguments) {
+        if (streamFilterArguments.size() != 2) { throw new MSArgumentArityMismatchException("stream-filter", 2, streamFilterArguments.size()); }
+        LValue predicate = streamFilterArguments.get(0);
+        MSSyntaxTree stream = StreamLibrary.getStreamArgument(interpreter, "stream-filter", 1, streamFilterArguments.get(1));
+        while (StreamLibrary.isStreamPair(stream)) {
+            MSListNode pair = (MSListNode) stream;
+            if (ListLibrary.isTrue(interpreter.applyProcedure(predicate, new ArrayList<>(Arrays.asList(new LValue(pair.getCar())))))) {
+                return new LValue(new MSListNode(pair.getCar(), StreamLibrary.delayRest("stream-filter", predicate, pair)));
+            }
+            stream = LValue.getAst(StreamLibrary.force(interpreter, pair));
+        }
+        return new LValue(MSListNode.EMPTY_LIST);
+    }
+
+    /**
+     * Returns a promise that applies a stream procedure to a procedure argument and the
+     * rest of a stream.
+     */
+    private static MSPromiseNode delayRest(final String procedureName, final LValue procedure, final MSListNode pair) {
+        return new MSPromiseNode(new LValue(MSSymbolTable.intern(procedureName)),
+                                 new ArrayList<>(Arrays.asList(procedure, new LValue(pair.getCdr()))));
+    }
+
+    /**
+     * Forces the promise in the cdr of a stream pair.
+     */
+    private static LValue force(final MicroSchemeInterpreter interpreter, final MSListNode pair) {
+        return interpreter.force((MSPromiseNode) pair.getCdr());
+    }
+
+    private static MSSyntaxTree forceIfPromise(final MicroSchemeInterpreter interpreter, final LValue argument) {
+        MSSyntaxTree tree = LValue.getAst(argument);
+        if (!tree.isPromise()) { return tree; }
+        LValue value = interpreter.force((MSPromiseNode) tree);
+        return value != null ? LValue.getAst(value) : MSListNode.EMPTY_LIST;
+    }
+
+    private static boolean isStreamPair(final MSSyntaxTree tree) {
+        return tree.isList() && !((MSListNode) tree).isEmptyList() && ((MSListNode) tree).getCdr().isPromise();
+    }
+
+    /**
+     * Returns a stream argument, forcing it first if it is a promise.
+     *
+     * @throws MSArgumentTypeMismatchException if the argument is not a stream.
+     */
+    private static MSSyntaxTree getStreamArgument(final MicroSchemeInterpreter interpreter, final String procedureName,
+                                                  final int argumentIdx, final LValue argument) {
+        MSSyntaxTree stream = StreamLibrary.forceIfPromise(interpreter, argument);
+        if (!StreamLibrary.isStreamPair(stream) && !(stream.isList() && ((MSListNode) stream).isEmptyList())) {
+            throw new MSArgumentTypeMismatchException(procedureName, argumentIdx, "stream", stream.getStringNodeType());
+        }
+        return stream;
+    }
+
+    /**
+     * Returns a non-empty stream argument, forcing it first if it is a promise.
+     *
+     * @throws MSArgumentTypeMismatchException if the argument is not a non-empty stream.
+     */
+    private static MSListNode getStreamPairArgument(final MicroSchemeInterpreter interpreter, final String procedureName,
+                                                    final int argumentIdx, final LValue argument) {
+        MSSyntaxTree stream = StreamLibrary.forceIfPromise(interpreter, argument);
+        if (!StreamLibrary.isStreamPair(stream)) {
+            throw new MSArgumentTypeMismatchException(procedureName, argumentIdx, "stream-pair", stream.isList() ? "empty stream" : stream.getStringNodeType());
+        }
+        return (MSListNode) stream;
+    }
+
+    /**
+     * @throws MSArgumentMismatchException if the argument is not a non-negative integer.
+     */
+    private static int getCountArgument(final String procedureName, final int argumentIdx, final LValue argument) {
+        MSSyntaxTree count = LValue.getAst(argument);
+        if (!count.isNumber()) { throw new MSArgumentTypeMismatchException(procedureName, argumentIdx, "number", count.getStringNodeType()); }
+        int k = ((MSNumberNode) count).getValue().re.intValue();
+        if (k < 0) { throw new MSArgumentMismatchException(String.format("%s index %d cannot be negative", procedureName, k)); }
+        return k;
+    }
+}
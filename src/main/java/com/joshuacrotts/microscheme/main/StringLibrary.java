@@ -0,0 +1,192 @@
+/******************************************************************************
+ *  File: StringLibrary.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  String construction, comparison and conversion procedures.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import com.joshuacrotts.microscheme.ast.*;
+import com.joshuacrotts.microscheme.parser.*;
+
+import java.util.ArrayList;
+import java.util.Optional;
+
+final class StringLibrary {
+
+    /**
+     * Registers each procedure in the string library.
+     *
+     * @param operators mapping of procedure identifiers to their function calls.
+     */
+    static void register(final BuiltinRegistry operators) {
+        operators.put("string-append", StringLibrary::interpretStringAppendFunction);
+        operators.put("string-length", StringLibrary::interpretStringLengthFunction);
+        operators.put("string<?", StringLibrary::interpretStringLess);
+        operators.put("string<=?", StringLibrary::interpretStringLessEqual);
+        operators.put("string>?", StringLibrary::interpretStringGreater);
+        operators.put("string>=?", StringLibrary::interpretStringGreaterEqual);
+        operators.put("substring", StringLibrary::interpretSubstring);
+        operators.put("list->string", StringLibrary::interpretListStringFunction);
+        operators.put("string->list", StringLibrary::interpretStringListFunction);
+        operators.put("string->symbol", StringLibrary::interpretStringSymbolFunction);
+        operators.put("symbol->string", StringLibrary::interpretSymbolStringFunction);
+        operators.put("make-string-builder", StringLibrary::interpretMakeStringBuilder);
+        operators.put("string-builder?", StringLibrary::interpretStringBuilderPredicate);
+        operators.put("string-builder-append!", StringLibrary::interpretStringBuilderAppend);
+        operators.put("string-builder-length", StringLibrary::interpretStringBuilderLength);
+        operators.put("string-builder-clear!", StringLibrary::interpretStringBuilderClear);
+        operators.put("string-builder->string", StringLibrary::interpretStringBuilderToString);
+    }
+    /**
+     * (string-append s ...) concatenates strings. Small results are built directly;
+     * large ones are built as ropes, so that appending to a large string does not
+     * copy it.
+     */
+    private static LValue interpretStringAppendFunction(final ArrayList<LValue> stringAppendArguments) throws MSArgumentMismatchException {
+        long length = 0;
+        for (int i = 0; i < stringAppendArguments.size(); i++) {
+            LValue currentArgument = stringAppendArguments.get(i);
+            if (!currentArgument.getTree().isString()) {
+                throw new MSArgumentTypeMismatchException("string-append", i + 1, "string", currentArgument.getTree().getNodeType().toString());
+            }
+            length += ((MSStringNode) currentArgument.getTree()).length();
+        }
+
+        if (length < MSRope.MIN_ROPE_LENGTH) {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (LValue currentArgument : stringAppendArguments) {
+                stringBuilder.append(((MSStringNode) currentArgument.getTree()).getValue());
+            }
+            return new LValue(stringBuilder.toString());
+        }
+        MSStringNode result = (MSStringNode) stringAppendArguments.get(0).getTree();
+        for (int i = 1; i < stringAppendArguments.size(); i++) {
+            result = result.append((MSStringNode) stringAppendArguments.get(i).getTree());
+        }
+        return new LValue(result);
+    }
+    private static LValue interpretStringLengthFunction(final ArrayList<LValue> stringLengthArguments) throws MSArgumentMismatchException {
+        if (stringLengthArguments.size() != 1) { throw new MSArgumentArityMismatchException("string-length", 1, stringLengthArguments.size()); }
+        MSStringNode stringArgument = (MSStringNode) LValue.getAst(stringLengthArguments.get(0));
+        return new LValue(stringArgument.length());
+    }
+    private static LValue interpretStringLess(final ArrayList<LValue> stringLessArguments) throws MSArgumentMismatchException {
+        if (stringLessArguments.size() != 2) { throw new MSArgumentArityMismatchException("string<?", 2, stringLessArguments.size()); }
+        String leftArgument = stringLessArguments.get(0).getStringValue();
+        String rightArgument = stringLessArguments.get(1).getStringValue();
+        return new LValue(leftArgument.compareTo(rightArgument) < 0);
+    }
+    private static LValue interpretStringLessEqual(final ArrayList<LValue> stringLessEqualArguments) throws MSArgumentMismatchException {
+        if (stringLessEqualArguments.size() != 2) { throw new MSArgumentArityMismatchException("string<=?", 2, stringLessEqualArguments.size()); }
+        String leftArgument = stringLessEqualArguments.get(0).getStringValue();
+        String rightArgument = stringLessEqualArguments.get(1).getStringValue();
+        return new LValue(leftArgument.compareTo(rightArgument) <= 0);
+    }
+    private static LValue interpretStringGreater(final ArrayList<LValue> stringGreaterArguments) throws MSArgumentMismatchException {
+        if (stringGreaterArguments.size() != 2) { throw new MSArgumentArityMismatchException("string>?", 2, stringGreaterArguments.size()); }
+        String leftArgument = stringGreaterArguments.get(0).getStringValue();
+        String rightArgument = stringGreaterArguments.get(1).getStringValue();
+        return new LValue(leftArgument.compareTo(rightArgument) > 0);
+    }
+    private static LValue interpretStringGreaterEqual(final ArrayList<LValue> stringGreaterEqualArguments) throws MSArgumentMismatchException {
+        if (stringGreaterEqualArguments.size() != 2) { throw new MSArgumentArityMismatchException("string>=?", 2, stringGreaterEqualArguments.size()); }
+        String leftArgument = stringGreaterEqualArguments.get(0).getStringValue();
+        String rightArgument = stringGreaterEqualArguments.get(1).getStringValue();
+        return new LValue(leftArgument.compareTo(rightArgument) >= 0);
+    }
+    private static LValue interpretSubstring(final ArrayList<LValue> substringArguments) {
+        if (substringArguments.size() != 3) { throw new MSArgumentArityMismatchException("substring", 3, substringArguments.size()); }
+        MSSyntaxTree stringNode = LValue.getAst(substringArguments.get(0));
+        MSSyntaxTree startIdxNode = LValue.getAst(substringArguments.get(1));
+        MSSyntaxTree endIdxNode = LValue.getAst(substringArguments.get(2));
+        if (!stringNode.isString()) { throw new MSArgumentTypeMismatchException("substring", 1, "string", stringNode.getStringNodeType()); }
+        if (!startIdxNode.isNumber()) { throw new MSArgumentTypeMismatchException("substring", 2, "number", startIdxNode.getStringNodeType()); }
+        if (!endIdxNode.isNumber()) { throw new MSArgumentTypeMismatchException("substring", 3, "number", endIdxNode.getStringNodeType()); }
+        // Make sure the indices are not invalid.
+        MSStringNode string = (MSStringNode) stringNode;
+        int startIdx = ((MSNumberNode) startIdxNode).getValue().re.intValue();
+        int endIdx = ((MSNumberNode) endIdxNode).getValue().re.intValue();
+        if (endIdx < startIdx) { throw new MSArgumentMismatchException(String.format("substring start index %d cannot be greater than end index %d", startIdx, endIdx)); }
+        if (startIdx < 0 || endIdx > string.length()) { throw new MSArgumentMismatchException(String.format("substring indices [%d, %d) are out of range for string of length %d", startIdx, endIdx, string.length())); }
+        return new LValue(string.substring(startIdx, endIdx));
+    }
+    private static LValue interpretListStringFunction(final ArrayList<LValue> listStringArguments) throws MSArgumentMismatchException {
+        if (listStringArguments.size() != 1) { throw new MSArgumentArityMismatchException("list->string", 1, listStringArguments.size()); }
+        MSListNode curr = (MSListNode) LValue.getAst(listStringArguments.get(0));
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0;; i++) {
+            if (curr == null || (curr.isEmptyList())) { break; }
+            else if (!curr.getCar().isCharacter()) { throw new MSArgumentTypeMismatchException("list->string", i, "char", curr.getNodeType().toString()); }
+            sb.append(curr.getCar().getStringRep());
+            curr = (MSListNode) curr.getCdr();
+        }
+        return new LValue(sb.toString());
+    }
+    private static LValue interpretStringListFunction(final ArrayList<LValue> stringListArguments) throws MSArgumentMismatchException {
+        if (stringListArguments.size() != 1) { throw new MSArgumentArityMismatchException("string->list", 1, stringListArguments.size()); }
+        // Grab each character, convert it to a MSCharacterNode, then add it to the pair.
+        MSListNode prevList = null;
+        String str = stringListArguments.get(0).getTree().getStringRep();
+        for (int i = str.length() - 1; i >= 0; i--) {
+            MSSyntaxTree rhsCharacter = new MSCharacterNode(str.charAt(i));
+            prevList = new MSListNode(rhsCharacter, prevList);
+        }
+        // If they enter the empty list, then we need to add a "blank" list node.
+        return new LValue(Optional.ofNullable(prevList).orElse(MSListNode.EMPTY_LIST));
+    }
+    private static LValue interpretStringSymbolFunction(final ArrayList<LValue> stringSymbolArguments) throws MSArgumentMismatchException {
+        if (stringSymbolArguments.size() != 1) { throw new MSArgumentArityMismatchException("string->symbol", 1, stringSymbolArguments.size()); }
+        MSSyntaxTree stringNode = LValue.getAst(stringSymbolArguments.get(0));
+        if (!stringNode.isString()) { throw new MSArgumentTypeMismatchException("string->symbol", 0, "string", stringNode.getStringNodeType()); }
+        return new LValue(MSSymbolTable.intern(stringNode.getStringRep()));
+    }
+    private static LValue interpretSymbolStringFunction(final ArrayList<LValue> symbolStringArguments) throws MSArgumentMismatchException {
+        if (symbolStringArguments.size() != 1) { throw new MSArgumentArityMismatchException("symbol->string", 1, symbolStringArguments.size()); }
+        MSSyntaxTree symbolNode = LValue.getAst(symbolStringArguments.get(0));
+        if (!symbolNode.isVariable()) { throw new MSArgumentTypeMismatchException("symbol->string", 0, "symbol", symbolNode.getStringNodeType()); }
+        return new LValue(((MSVariableNode) symbolNode).getIdentifier());
+    }
+    private static LValue interpretMakeStringBuilder(final ArrayList<LValue> makeStringBuilderArguments) {
+        if (!makeStringBuilderArguments.isEmpty()) { throw new MSArgumentArityMismatchException("make-string-builder", 0, makeStringBuilderArguments.size()); }
+        return new LValue(new MSStringBuilderNode(false));
+    }
+    private static LValue interpretStringBuilderPredicate(final ArrayList<LValue> stringBuilderArguments) {
+        if (stringBuilderArguments.size() != 1) { throw new MSArgumentArityMismatchException("string-builder?", 1, stringBuilderArguments.size()); }
+        return new LValue(LValue.getAst(stringBuilderArguments.get(0)).getNodeType() == MSNodeType.STRINGBUILDER);
+    }
+
+    /**
+     * (string-builder-append! builder x ...) appends each string or character to the
+     * builder, in order.
+     */
+    private static LValue interpretStringBuilderAppend(final ArrayList<LValue> stringBuilderAppendArguments) {
+        if (stringBuilderAppendArguments.isEmpty()) { throw new MSArgumentMismatchException("string-builder-append! expected at least one argument but got 0"); }
+        MSStringBuilderNode builder = IOLibrary.getStringBuilderArgument("string-builder-append!", 0, stringBuilderAppendArguments.get(0));
+        for (int i = 1; i < stringBuilderAppendArguments.size(); i++) {
+            MSSyntaxTree argument = LValue.getAst(stringBuilderAppendArguments.get(i));
+            if (argument.isString()) { builder.append(((MSStringNode) argument).getValue()); }
+            else if (argument.isCharacter()) { builder.append(((MSCharacterNode) argument).getValue()); }
+            else { throw new MSArgumentTypeMismatchException("string-builder-append!", i, "string or char", argument.getStringNodeType()); }
+        }
+        return null;
+    }
+    private static LValue interpretStringBuilderLength(final ArrayList<LValue> stringBuilderLengthArguments) {
+        if (stringBuilderLengthArguments.size() != 1) { throw new MSArgumentArityMismatchException("string-builder-length", 1, stringBuilderLengthArguments.size()); }
+        return new LValue(IOLibrary.getStringBuilderArgument("string-builder-length", 0, stringBuilderLengthArguments.get(0)).length());
+    }
+    private static LValue interpretStringBuilderClear(final ArrayList<LValue> stringBuilderClearArguments) {
+        if (stringBuilderClearArguments.size() != 1) { throw new MSArgumentArityMismatchException("string-builder-clear!", 1, stringBuilderClearArguments.size()); }
+        IOLibrary.getStringBuilderArgument("string-builder-clear!", 0, stringBuilderClearArguments.get(0)).clear();
+        return null;
+    }
+    private static LValue interpretStringBuilderToString(final ArrayList<LValue> stringBuilderToStringArguments) {
+        if (stringBuilderToStringArguments.size() != 1) { throw new MSArgumentArityMismatchException("string-builder->string", 1, stringBuilderToStringArguments.size()); }
+        return new LValue(IOLibrary.getStringBuilderArgument("string-builder->string", 0, stringBuilderToStringArguments.get(0)).getContents());
+    }
+}
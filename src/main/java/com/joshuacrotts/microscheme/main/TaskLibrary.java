@@ -0,0 +1,131 @@
+/******************************************************************************
+ *  File: TaskLibrary.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Futures and lightweight tasks. (future thunk) starts thunk on another thread
+ *  and returns a future, whose value touch waits for. (spawn thunk) starts
+ *  thunk without a future; the interpreter waits for spawned tasks before it
+ *  finishes. Tasks run on virtual threads on Java 21 and later, and on a
+ *  bounded pool otherwise (see MicroSchemeInterpreter.getTaskExecutor). Like
+ *  the parallel procedures, thunks should not modify anything that other
+ *  threads can see, e.g., with set! or define.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import com.joshuacrotts.microscheme.ast.*;
+import com.joshuacrotts.microscheme.parser.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+final class TaskLibrary {
+
+    /**
+     * Longest time, in milliseconds, that touch waits before it checks for a timeout again.
+     */
+    static final long POLL_MILLIS = 50;
+
+    /**
+     * Registers each procedure in the task library.
+     *
+     * @param operators mapping of procedure identifiers to their function calls.
+     */
+    static void register(final BuiltinRegistry operators) {
+        operators.put("future", TaskLibrary::interpretFuture);
+        operators.put("touch", TaskLibrary::interpretTouch);
+        operators.put("spawn", TaskLibrary::interpretSpawn);
+        operators.put("future?", TaskLibrary::interpretFuturePredicate);
+    }
+
+    /**
+     * (future thunk) calls thunk with no arguments on another thread, and returns a future
+     * for its value.
+     */
+    private static LValue interpretFuture(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> futureArguments) {
+        if (futureArguments.size() != 1) { throw new MSArgumentArityMismatchException("future", 1, futureArguments.size()); }
+        MSFutureNode future = new MSFutureNode();
+        TaskLibrary.start(interpreter, future, futureArguments.get(0), false);
+        return new LValue(future);
+    }
+
+    /**
+     * (touch future) returns the value of a future, waiting for its thunk to finish if it
+     * has not yet. If the thunk raised an error, touch raises it again.
+     */
+    private static LValue interpretTouch(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> touchArguments) {
+        if (touchArguments.size() != 1) { throw new MSArgumentArityMismatchException("touch", 1, touchArguments.size()); }
+        MSSyntaxTree future = LValue.getAst(touchArguments.get(0));
+        if (future.getNodeType() != MSNodeType.FUTURE) { throw new MSArgumentTypeMismatchException("touch", 0, "future", future.getStringNodeType()); }
+        return TaskLibrary.await(interpreter, (MSFutureNode) future);
+    }
+
+    /**
+     * (spawn thunk) calls thunk with no arguments on another thread, and returns nothing.
+     * An error in thunk is printed when it happens.
+     */
+    private static LValue interpretSpawn(final MicroSchemeInterpreter interpreter, final ArrayList<LValue> spawnArguments) {
+        if (spawnArguments.size() != 1) { throw new MSArgumentArityMismatchException("spawn", 1, spawnArguments.size()); }
+        MSFutureNode task = new MSFutureNode();
+        interpreter.addSpawnedTask(task);
+        TaskLibrary.start(interpreter, task, spawnArguments.get(0), true);
+        return null;
+    }
+    private static LValue interpretFuturePredicate(final ArrayList<LValue> futurePredicateArguments) {
+        if (futurePredicateArguments.size() != 1) { throw new MSArgumentArityMismatchException("future?", 1, futurePredicateArguments.size()); }
+        return new LValue(LValue.getAst(futurePredicateArguments.get(0)).getNodeType() == MSNodeType.FUTURE);
+    }
+
+    /**
+     * Waits for a future's thunk to finish, checking for a timeout while it waits.
+     *
+     * @return value of the thunk.
+     *
+     * @throws MSInterpreterException if the current thread is interrupted.
+     */
+    static LValue await(final MicroSchemeInterpreter interpreter, final MSFutureNode future) {
+        try {
+            while (!future.await(POLL_MILLIS)) { interpreter.checkTimeout(); }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MSInterpreterException("interrupted while waiting for a future");
+        }
+        return future.getValue();
+    }
+
+    /**
+     * Submits a thunk to the interpreter's task executor, with the context of the current
+     * thread (see MicroSchemeInterpreter.inheritContext), and completes the future with its
+     * result.
+     *
+     * @param reportErrors whether semantic errors are printed rather than kept in the future.
+     */
+    private static void start(final MicroSchemeInterpreter interpreter, final MSFutureNode future,
+                              final LValue thunk, final boolean reportErrors) {
+        Callable<Void> task = interpreter.inheritContext(() -> {
+            try {
+                future.complete(interpreter.applyProcedure(thunk, new ArrayList<>()));
+            } catch (MSSemanticException ex) {
+                if (reportErrors) {
+                    interpreter.getRuntime().getErr().println(ex.getMessage());
+                    future.complete(null);
+                } else {
+                    future.fail(ex);
+                }
+            } catch (Throwable t) {
+                future.fail(t);
+            }
+            return null;
+        });
+        try {
+            interpreter.getTaskExecutor().submit(task);
+        } catch (RejectedExecutionException ex) {
+            throw new MSInterpreterException("could not start a task: " + ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/******************************************************************************
+ *  File: TranscendentalLibrary.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Powers, logarithms and (hyperbolic) trigonometric procedures. These are the
+ *  only procedures that need BigComplexMath/BigDecimalMath.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.main;
+
+import ch.obermuhlner.math.big.BigComplex;
+import ch.obermuhlner.math.big.BigComplexMath;
+import ch.obermuhlner.math.big.BigDecimalMath;
+import com.joshuacrotts.microscheme.ast.*;
+import com.joshuacrotts.microscheme.parser.*;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+
+final class TranscendentalLibrary {
+
+    /**
+     * Registers each procedure in the transcendental library.
+     *
+     * @param operators mapping of procedure identifiers to their function calls.
+     */
+    static void register(final BuiltinRegistry operators) {
+        operators.put("**", TranscendentalLibrary::interpretPower);
+        operators.put("log", TranscendentalLibrary::interpretLog);
+        operators.put("sin", TranscendentalLibrary::interpretSin);
+        operators.put("cos", TranscendentalLibrary::interpretCos);
+        operators.put("tan", TranscendentalLibrary::interpretTan);
+        operators.put("sinh", TranscendentalLibrary::interpretSinh);
+        operators.put("cosh", TranscendentalLibrary::interpretCosh);
+        operators.put("tanh", TranscendentalLibrary::interpretTanh);
+        operators.put("asin", TranscendentalLibrary::interpretAsin);
+        operators.put("acos", TranscendentalLibrary::interpretAcos);
+        operators.put("atan", TranscendentalLibrary::interpretAtan);
+        operators.put("asinh", TranscendentalLibrary::interpretAsinh);
+        operators.put("acosh", TranscendentalLibrary::interpretAcosh);
+        operators.put("atanh", TranscendentalLibrary::interpretAtanh);
+    }
+    private static LValue interpretPower(final ArrayList<LValue> powerArguments) throws MSArgumentMismatchException {
+        if (powerArguments.size() != 2) { throw new MSArgumentArityMismatchException("**", 2, powerArguments.size()); }
+        BigComplex base = powerArguments.get(0).getNumberValue();
+        BigComplex power = powerArguments.get(1).getNumberValue();
+        return new LValue(BigComplexMath.pow(base, power, MathContext.DECIMAL128));
+    }
+    private static LValue interpretLog(final ArrayList<LValue> logArguments) throws MSArgumentMismatchException {
+        if (logArguments.size() != 1) { throw new MSArgumentArityMismatchException("log", 1, logArguments.size()); }
+        BigComplex antilogarithm = logArguments.get(0).getNumberValue();
+        return new LValue(BigComplexMath.log(antilogarithm, MathContext.DECIMAL128));
+    }
+    private static LValue interpretSin(final ArrayList<LValue> sinArguments) throws MSArgumentMismatchException {
+        if (sinArguments.size() != 1) { throw new MSArgumentArityMismatchException("sin", 1, sinArguments.size()); }
+        BigComplex argument = sinArguments.get(0).getNumberValue();
+        return new LValue(BigComplexMath.sin(argument, MathContext.DECIMAL128));
+    }
+    private static LValue interpretCos(final ArrayList<LValue> cosArguments) throws MSArgumentMismatchException {
+        if (cosArguments.size() != 1) { throw new MSArgumentArityMismatchException("cos", 1, cosArguments.size()); }
+        BigComplex argument = cosArguments.get(0).getNumberValue();
+        return new LValue(BigComplexMath.cos(argument, MathContext.DECIMAL128));
+    }
+    private static LValue interpretTan(final ArrayList<LValue> tanArguments) throws MSArgumentMismatchException {
+        if (tanArguments.size() != 1) { throw new MSArgumentArityMismatchException("tan", 1, tanArguments.size()); }
+        BigComplex argument = tanArguments.get(0).getNumberValue();
+        return new LValue(BigComplexMath.tan(argument, MathContext.DECIMAL128));
+    }
+    private static LValue interpretSinh(final ArrayList<LValue> sinhArguments) throws MSArgumentMismatchException {
+        if (sinhArguments.size() != 1) { throw new MSArgumentArityMismatchException("sinh", 1, sinhArguments.size()); }
+        BigComplex arg = sinhArguments.get(0).getNumberValue();
+        BigDecimal lhs = BigDecimalMath.sinh(arg.re, MathContext.DECIMAL128).multiply(BigDecimalMath.cos(arg.im, MathContext.DECIMAL128));
+        BigDecimal rhs = BigDecimalMath.cosh(arg.re, MathContext.DECIMAL128).multiply(BigDecimalMath.sin(arg.im, MathContext.DECIMAL128));
+        return new LValue(BigComplex.valueOf(lhs, rhs));
+    }
+    private static LValue interpretCosh(final ArrayList<LValue> coshArguments) throws MSArgumentMismatchException {
+        if (coshArguments.size() != 1) { throw new MSArgumentArityMismatchException("cosh", 1, coshArguments.size()); }
+        BigComplex arg = coshArguments.get(0).getNumberValue();
+        BigDecimal lhs = BigDecimalMath.cosh(arg.re, MathContext.DECIMAL128).multiply(BigDecimalMath.cos(arg.im, MathContext.DECIMAL128));
+        BigDecimal rhs = BigDecimalMath.sinh(arg.re, MathContext.DECIMAL128).multiply(BigDecimalMath.sin(arg.im, MathContext.DECIMAL128));
+        return new LValue(BigComplex.valueOf(lhs, rhs));
+    }
+    private static LValue interpretTanh(final ArrayList<LValue> tanhArguments) throws MSArgumentMismatchException {
+        if (tanhArguments.size() != 1) { throw new MSArgumentArityMismatchException("tanh", 1, tanhArguments.size()); }
+        BigComplex arg = tanhArguments.get(0).getNumberValue();
+        BigDecimal topLhs = BigDecimalMath.sinh(arg.re, MathContext.DECIMAL128).multiply(BigDecimalMath.cos(arg.re, MathContext.DECIMAL128));
+        BigDecimal topRhs = BigDecimalMath.cosh(arg.re, MathContext.DECIMAL128).multiply(BigDecimalMath.sin(arg.im, MathContext.DECIMAL128));
+        BigDecimal botLhs = BigDecimalMath.cosh(arg.re, MathContext.DECIMAL128).multiply(BigDecimalMath.cos(arg.im, MathContext.DECIMAL128));
+        BigDecimal botRhs = BigDecimalMath.sinh(arg.re, MathContext.DECIMAL128).multiply(BigDecimalMath.sin(arg.im, MathContext.DECIMAL128));
+        return new LValue(BigComplex.valueOf(topLhs.add(topRhs).divide(botLhs.add(botRhs), MathContext.DECIMAL128)));
+    }
+    private static LValue interpretAsin(final ArrayList<LValue> sinArguments) throws MSArgumentMismatchException {
+        if (sinArguments.size() != 1) { throw new MSArgumentArityMismatchException("asin", 1, sinArguments.size()); }
+        BigComplex argument = sinArguments.get(0).getNumberValue();
+        return new LValue(BigComplexMath.asin(argument, MathContext.DECIMAL128));
+    }
+    private static LValue interpretAcos(final ArrayList<LValue> cosArguments) throws MSArgumentMismatchException {
+        if (cosArguments.size() != 1) { throw new MSArgumentArityMismatchException("acos", 1, cosArguments.size()); }
+        BigComplex argument = cosArguments.get(0).getNumberValue();
+        return new LValue(BigComplexMath.acos(argument, MathContext.DECIMAL128));
+    }
+    private static LValue interpretAtan(final ArrayList<LValue> tanArguments) throws MSArgumentMismatchException {
+        if (tanArguments.size() != 1) { throw new MSArgumentArityMismatchException("atan", 1, tanArguments.size()); }
+        BigComplex argument = tanArguments.get(0).getNumberValue();
+        return new LValue(BigComplexMath.atan(argument, MathContext.DECIMAL128));
+    }
+    private static LValue interpretAsinh(final ArrayList<LValue> sinhArguments) throws MSArgumentMismatchException {
+        if (sinhArguments.size() != 1) { throw new MSArgumentArityMismatchException("asinh", 1, sinhArguments.size()); }
+        BigComplex argument = sinhArguments.get(0).getNumberValue();
+        if (!argument.isReal()) { throw new MSArgumentTypeMismatchException("asinh", 1, "real", argument.toString()); }
+        return new LValue(BigDecimalMath.asinh(argument.re, MathContext.DECIMAL128));
+    }
+    private static LValue interpretAcosh(final ArrayList<LValue> coshArguments) throws MSArgumentMismatchException {
+        if (coshArguments.size() != 1) { throw new MSArgumentArityMismatchException("acosh", 1, coshArguments.size()); }
+        BigComplex argument = coshArguments.get(0).getNumberValue();
+        if (!argument.isReal()) { throw new MSArgumentTypeMismatchException("acosh", 1, "real", argument.toString()); }
+        return new LValue(BigDecimalMath.acosh(argument.re, MathContext.DECIMAL128));
+    }
+    private static LValue interpretAtanh(final ArrayList<LValue> tanhArguments) throws MSArgumentMismatchException {
+        if (tanhArguments.size() != 1) { throw new MSArgumentArityMismatchException("atanh", 1, tanhArguments.size()); }
+        BigComplex argument = tanhArguments.get(0).getNumberValue();
+        if (!argument.isReal()) { throw new MSArgumentTypeMismatchException("atanh", 1, "real", argument.toString()); }
+        return new LValue(BigDecimalMath.atanh(argument.re, MathContext.DECIMAL128));
+    }
+}
@@ -3,7 +3,7 @@
  *
  *  Author: Joshua Crotts
  *
- *  Last Updated: 05/22/2022
+ *  Last Updated: 10/19/2026
  ******************************************************************************/
 
 package com.joshuacrotts.microscheme.parser;
@@ -16,6 +16,10 @@ public class MSArgumentArityMismatchException extends MSArgumentMismatchExceptio
         super(ARITY_MISMATCH, String.format("Procedure %s; expected: %d, received: %d", preamble, expectedArity, receivedArity));
     }
 
+    public MSArgumentArityMismatchException(final String preamble, final int minArity, final int maxArity, final int receivedArity) {
+        super(ARITY_MISMATCH, String.format("Procedure %s; expected: %d to %d, received: %d", preamble, minArity, maxArity, receivedArity));
+    }
+
     public MSArgumentArityMismatchException(final int expectedArity, final int receivedArity) {
         super(ARITY_MISMATCH, String.format("expected: %d, received: %d", expectedArity, receivedArity));
     }
@@ -0,0 +1,34 @@
+/******************************************************************************
+ *  File: MSEscapeException.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Thrown to unwind the stack when an escape continuation is called. This is
+ *  control flow rather than an error, so it does not record a stack trace and
+ *  each continuation allocates its exception once, up front. Whatever catches
+ *  it checks that the target is the continuation that it is waiting for.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.parser;
+
+public final class MSEscapeException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Continuation that threw this exception.
+     */
+    private final Object TARGET;
+
+    public MSEscapeException(final Object target) {
+        super(null, null, false, false);
+        this.TARGET = target;
+    }
+
+    public Object getTarget() {
+        return this.TARGET;
+    }
+}
@@ -0,0 +1,109 @@
+/******************************************************************************
+ *  File: MSFormSplitter.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  MSFormSplitter cuts source text into chunks of whole top-level forms so
+ *  that each chunk can be lexed and parsed on its own. It only tracks
+ *  parenthesis depth, strings, comments, and character literals, which is
+ *  much cheaper than lexing the input.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.parser;
+
+import java.util.ArrayList;
+
+public final class MSFormSplitter {
+
+    /**
+     * A chunk of source text and the line number that it starts on, so that
+     * errors in the chunk still report lines of the original file.
+     */
+    public static final class Chunk {
+
+        private final String TEXT;
+
+        private final int LINE;
+
+        private Chunk(final String text, final int line) {
+            this.TEXT = text;
+            this.LINE = line;
+        }
+
+        public String getText() {
+            return this.TEXT;
+        }
+
+        public int getLine() {
+            return this.LINE;
+        }
+    }
+
+    /**
+     * Splits source text into chunks of at least chunkSize characters (except for the
+     * last one). A chunk only ends immediately after a parenthesis that closes a
+     * top-level form. If the parentheses are unbalanced, everything from the point where
+     * that is noticed goes into the final chunk so that the parser reports the error.
+     *
+     * @param source source text.
+     * @param chunkSize minimum number of characters per chunk.
+     * @return chunks, in the same order as the source text.
+     */
+    public static ArrayList<Chunk> split(final String source, final int chunkSize) {
+        ArrayList<Chunk> chunks = new ArrayList<>();
+        int chunkStart = 0;
+        int chunkLine = 1;
+        int line = 1;
+        int depth = 0;
+        int length = source.length();
+        int i = 0;
+        while (i < length && depth >= 0) {
+            char ch = source.charAt(i++);
+            switch (ch) {
+                case '\n':
+                    line++;
+                    break;
+                case ';':
+                    // Comments run to the end of the line.
+                    while (i < length && source.charAt(i) != '\n') { i++; }
+                    break;
+                case '"':
+                    while (i < length && source.charAt(i) != '"') {
+                        if (source.charAt(i) == '\\') { i++; }
+                        else if (source.charAt(i) == '\n') { line++; }
+                        i++;
+                    }
+                    i++;
+                    break;
+                case '#':
+                    // Character literals such as #\( or #\" do not open anything.
+                    if (i < length && source.charAt(i) == '\\') {
+                        i += 2;
+                        if (i <= length && source.charAt(i - 1) == '\n') { line++; }
+                    }
+                    break;
+                case '(':
+                case '[':
+                    depth++;
+                    break;
+                case ')':
+                case ']':
+                    depth--;
+                    if (depth == 0 && i - chunkStart >= chunkSize) {
+                        chunks.add(new Chunk(source.substring(chunkStart, i), chunkLine));
+                        chunkStart = i;
+                        chunkLine = line;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        if (chunkStart < length) { chunks.add(new Chunk(source.substring(chunkStart), chunkLine)); }
+        return chunks;
+    }
+}
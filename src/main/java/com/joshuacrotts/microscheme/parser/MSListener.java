@@ -3,7 +3,7 @@
  *
  *  Author: Joshua Crotts
  *
- *  Last Updated: 05/22/2022
+ *  Last Updated: 10/19/2026
  *
  *  MSListener is the parser listener for MicroScheme. Each parser rule
  *  recursively constructs the abstract syntax tree for the input.
@@ -19,6 +19,7 @@ import org.antlr.v4.runtime.tree.ParseTreeProperty;
 import org.antlr.v4.runtime.tree.TerminalNode;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 public class MSListener extends MicroSchemeBaseListener {
@@ -41,7 +42,8 @@ public class MSListener extends MicroSchemeBaseListener {
     @Override
     public void exitMicroScheme(final MicroSchemeParser.MicroSchemeContext ctx) {
         super.exitMicroScheme(ctx);
-        ctx.children.forEach(pt -> this.root.addChild(this.map.get(pt)));
+        // Input with nothing but whitespace and comments has no children.
+        if (ctx.children != null) { ctx.children.forEach(pt -> this.root.addChild(this.map.get(pt))); }
     }
 
     @Override
@@ -84,6 +86,21 @@ public class MSListener extends MicroSchemeBaseListener {
         this.map.put(ctx, new MSDeclarationNode(procedureName, procedureLambda));
     }
 
+    @Override
+    public void exitRecordTypeDeclaration(final MicroSchemeParser.RecordTypeDeclarationContext ctx) {
+        super.exitRecordTypeDeclaration(ctx);
+        // The variables are, in order, the type name, constructor name, constructor fields and predicate name.
+        ArrayList<String> names = new ArrayList<>();
+        ctx.variable().forEach(v -> names.add(v.getText()));
+        ArrayList<String> constructorFields = new ArrayList<>(names.subList(2, names.size() - 1));
+        ArrayList<String[]> fields = new ArrayList<>();
+        for (MicroSchemeParser.RecordFieldContext field : ctx.recordField()) {
+            fields.add(new String[]{field.variable(0).getText(), field.variable(1).getText(),
+                                    field.variable().size() == 3 ? field.variable(2).getText() : null});
+        }
+        this.map.put(ctx, new MSRecordTypeNode(names.get(0), names.get(1), constructorFields, names.get(names.size() - 1), fields));
+    }
+
     @Override
     public void exitEvalExpr(MicroSchemeParser.EvalExprContext ctx) {
         super.exitEvalExpr(ctx);
@@ -107,23 +124,35 @@ public class MSListener extends MicroSchemeBaseListener {
         this.map.put(ctx, new MSApplicationNode(lhsExpression, arguments));
     }
 
+    @Override
+    public void exitDelayExpr(final MicroSchemeParser.DelayExprContext ctx) {
+        super.exitDelayExpr(ctx);
+        this.map.put(ctx, new MSDelayNode(this.map.get(ctx.expr()), ctx.DELAYFORCE() != null));
+    }
+
+    @Override
+    public void exitStreamConsExpr(final MicroSchemeParser.StreamConsExprContext ctx) {
+        super.exitStreamConsExpr(ctx);
+        // (stream-cons a b) is the same as (cons a (delay b)).
+        ArrayList<MSSyntaxTree> consArgs = new ArrayList<>();
+        consArgs.add(this.map.get(ctx.expr(0)));
+        consArgs.add(new MSDelayNode(this.map.get(ctx.expr(1)), false));
+        this.map.put(ctx, new MSApplicationNode(MSSymbolTable.intern("cons"), consArgs));
+    }
+
     @Override
     public void exitDoExpr(final MicroSchemeParser.DoExprContext ctx) {
         super.exitDoExpr(ctx);
-        // First, collect the variable declarations and set expressions.
+        // First, collect the variable declarations and steps.
         ArrayList<MSSyntaxTree> doDeclarations = new ArrayList<>();
-        ArrayList<MSSyntaxTree> doSetExpressions = new ArrayList<>();
+        ArrayList<MSDeclarationNode> doSteps = new ArrayList<>();
         for (int i = 0; i < ctx.doDecl().size(); i++) {
             MSSyntaxTree varNode = this.map.get(ctx.doDecl().get(i).variable());
             MSSyntaxTree expressionNode = this.map.get(ctx.doDecl().get(i).expr(0));
             doDeclarations.add(new MSDeclarationNode(varNode, expressionNode));
-            // Check to see if there's a second expression, indicating we need a SET.
+            // Check to see if there's a second expression, indicating the variable has a step.
             if (ctx.doDecl().get(i).expr(1) != null) {
-                MSSyntaxTree setExpression = this.map.get(ctx.doDecl().get(i).expr(1));
-                ArrayList<MSSyntaxTree> setData = new ArrayList<>();
-                setData.add(varNode);
-                setData.add(setExpression);
-                doSetExpressions.add(new MSSetNode(MicroSchemeParser.SET, setData));
+                doSteps.add(new MSDeclarationNode(varNode, this.map.get(ctx.doDecl().get(i).expr(1))));
             }
         }
 
@@ -139,24 +168,37 @@ public class MSListener extends MicroSchemeBaseListener {
         ctx.doBody().expr().forEach(pt -> doBodyList.add(this.map.get(pt)));
 
         MSSequenceNode doBody = new MSSequenceNode(doBodyList);
-        this.map.put(ctx, new MSDoNode(doDeclarations, doSetExpressions, doTestExpression, doTrueExpressions, doBody));
+        this.map.put(ctx, new MSDoNode(doDeclarations, doSteps, doTestExpression, doTrueExpressions, doBody));
     }
 
     @Override
     public void exitLetExpr(final MicroSchemeParser.LetExprContext ctx) {
         super.exitLetExpr(ctx);
-        // Convert the let into a lambda as an application.
         ArrayList<MSSyntaxTree> letVariables = new ArrayList<>();
         ArrayList<MSSyntaxTree> letBindings = new ArrayList<>();
+        ArrayList<MSSyntaxTree> letDeclarations = new ArrayList<>();
         for (int i = 0; i < ctx.letParameters().size(); i++) {
-            letVariables.add(this.map.get(ctx.letParameters().get(i).expr(0)));
-            letBindings.add(this.map.get(ctx.letParameters().get(i).expr(1)));
+            MSSyntaxTree variable = this.map.get(ctx.letParameters().get(i).expr(0));
+            MSSyntaxTree expression = this.map.get(ctx.letParameters().get(i).expr(1));
+            letVariables.add(variable);
+            letBindings.add(expression);
+            letDeclarations.add(new MSDeclarationNode(variable, expression));
         }
 
         ArrayList<MSSyntaxTree> letBodyList = new ArrayList<>();
         ctx.letBody().expr().forEach(pt -> letBodyList.add(this.map.get(pt)));
-        MSLambdaNode lambdaNode = new MSLambdaNode(letVariables, new MSSequenceNode(letBodyList));
-        this.map.put(ctx, new MSApplicationNode(lambdaNode, letBindings));
+        MSSequenceNode letBody = new MSSequenceNode(letBodyList);
+        if (ctx.variable() == null) {
+            this.map.put(ctx, new MSLetNode(letDeclarations, letBody, false));
+        } else if (MSNamedLetCompiler.compile(this.map.get(ctx.variable()).getStringRep(), letVariables, letBody)) {
+            this.map.put(ctx, new MSLetNode(letDeclarations, letBody, true));
+        } else {
+            // Otherwise, ((letrec ((<name> (lambda (<var>*) <body>))) <name>) <expr>*).
+            MSSyntaxTree name = this.map.get(ctx.variable());
+            ArrayList<MSSyntaxTree> letRecBindings = new ArrayList<>();
+            letRecBindings.add(new MSDeclarationNode(name, new MSLambdaNode(letVariables, letBody)));
+            this.map.put(ctx, new MSApplicationNode(new MSLetRecNode(letRecBindings, name), letBindings));
+        }
     }
 
     @Override
@@ -197,6 +239,19 @@ public class MSListener extends MicroSchemeBaseListener {
         this.map.put(ctx, new MSLetRecNode(letRecBindings, new MSSequenceNode(letRecBodyList)));
     }
 
+    @Override
+    public void exitLetEcExpr(final MicroSchemeParser.LetEcExprContext ctx) {
+        super.exitLetEcExpr(ctx);
+        // (let/ec k body) is the same as (call/ec (lambda (k) body)).
+        ArrayList<MSSyntaxTree> letEcParameter = new ArrayList<>();
+        letEcParameter.add(this.map.get(ctx.variable()));
+        ArrayList<MSSyntaxTree> letEcBodyList = new ArrayList<>();
+        ctx.letBody().expr().forEach(pt -> letEcBodyList.add(this.map.get(pt)));
+        ArrayList<MSSyntaxTree> callEcArguments = new ArrayList<>();
+        callEcArguments.add(new MSLambdaNode(letEcParameter, new MSSequenceNode(letEcBodyList)));
+        this.map.put(ctx, new MSApplicationNode(MSSymbolTable.intern("call-with-escape-continuation"), callEcArguments));
+    }
+
     @Override
     public void exitLambdaExpr(final MicroSchemeParser.LambdaExprContext ctx) {
         super.exitLambdaExpr(ctx);
@@ -229,7 +284,7 @@ public class MSListener extends MicroSchemeBaseListener {
         // We need to negate the condition.
         ArrayList<MSSyntaxTree> notApplicationList = new ArrayList<>();
         notApplicationList.add(this.map.get(ctx.unlessCond().expr()));
-        condCondList.add(new MSApplicationNode(new MSVariableNode("not"), notApplicationList));
+        condCondList.add(new MSApplicationNode(MSSymbolTable.intern("not"), notApplicationList));
         condBodyList.add(new MSSequenceNode(sequenceList));
         this.map.put(ctx, new MSCondNode(condCondList, condBodyList));
     }
@@ -279,18 +334,20 @@ public class MSListener extends MicroSchemeBaseListener {
     public void exitSymbolDatumRep(final MicroSchemeParser.SymbolDatumRepContext ctx) {
         super.exitSymbolDatumRep(ctx);
         // First, check to see if it's a list of expressions. If so, make it a MSListNode.
+        // symbolDatumRep(i) scans the children for the i-th element, so the elements are
+        // fetched once; otherwise, building a long quoted list is quadratic.
+        List<MicroSchemeParser.SymbolDatumRepContext> elements = ctx.symbolDatumRep();
         if (ctx.symbolDatum() == null && ctx.PERIOD() == null) {
-            MSSyntaxTree parentList;
             MSSyntaxTree currList = null;
-            for (int i = ctx.symbolDatumRep().size() - 1; i >= 0; i--) {
-                MSSyntaxTree rhsList = this.map.get(ctx.symbolDatumRep(i));
+            for (int i = elements.size() - 1; i >= 0; i--) {
+                MSSyntaxTree rhsList = this.map.get(elements.get(i));
                 currList = new MSListNode(rhsList, currList);
             }
             this.map.put(ctx, Optional.ofNullable(currList).orElse(MSListNode.EMPTY_LIST));
         } else if (ctx.PERIOD() != null) {
             // Test to see if we're using dot notation to make pairs.
-            MSSyntaxTree lhsExpression = this.map.get(ctx.symbolDatumRep(0));
-            MSSyntaxTree rhsExpression = this.map.get(ctx.symbolDatumRep(1));
+            MSSyntaxTree lhsExpression = this.map.get(elements.get(0));
+            MSSyntaxTree rhsExpression = this.map.get(elements.get(1));
             this.map.put(ctx, new MSListNode(lhsExpression, rhsExpression));
         } else {
             // Otherwise, just take the child that's there (either a variable or constant).
@@ -310,7 +367,7 @@ public class MSListener extends MicroSchemeBaseListener {
         // If it's the '(' datum* ')', construct it.
         if (ctx.PERIOD() != null) {
             // Test to see if we're using dot notation to make pairs.
-            MSVariableNode var = new MSVariableNode("cons");
+            MSVariableNode var = MSSymbolTable.intern("cons");
             ArrayList<MSSyntaxTree> consArgs = new ArrayList<>();
             MSSyntaxTree lhsExpression = this.map.get(ctx.quasiSymbolDatumRep(0));
             MSSyntaxTree rhsExpression = this.map.get(ctx.quasiSymbolDatumRep(1));
@@ -369,7 +426,7 @@ public class MSListener extends MicroSchemeBaseListener {
                 constantNode = new MSCharacterNode(ctx.getText());
                 break;
             case MicroSchemeParser.STRINGLIT:
-                constantNode = new MSStringNode(ctx.getText());
+                constantNode = MSStringNode.fromLiteral(ctx.getText());
                 break;
             default:
                 throw new MSInterpreterException("Invalid token type " + tokenType);
@@ -381,7 +438,7 @@ public class MSListener extends MicroSchemeBaseListener {
     @Override
     public void exitVariable(final MicroSchemeParser.VariableContext ctx) {
         super.exitVariable(ctx);
-        this.map.put(ctx, new MSVariableNode(ctx.ID().getText()));
+        this.map.put(ctx, MSSymbolTable.intern(ctx.ID().getText()));
     }
 
     public MSSyntaxTree getSyntaxTree() {
@@ -0,0 +1,150 @@
+/******************************************************************************
+ *  File: MSNamedLetCompiler.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  MSNamedLetCompiler turns the body of a named let into the body of a loop
+ *  when it can. That is the case when every reference to the let's name is a
+ *  call, with one argument per variable, in tail position of the body, and the
+ *  body cannot capture its environment (it has no lambda, delay or eval). The
+ *  calls are then replaced by MSRecurNodes, so the environment can be reused
+ *  by every iteration.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.parser;
+
+import com.joshuacrotts.microscheme.ast.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+final class MSNamedLetCompiler {
+
+    /**
+     * A call in tail position, given by its parent and index so that it can be replaced.
+     */
+    private static final class TailCall {
+
+        private final MSSyntaxTree PARENT;
+
+        private final int IDX;
+
+        /**
+         * Number of environments created between the loop's and the call's.
+         */
+        private final int DEPTH;
+
+        private TailCall(final MSSyntaxTree parent, final int idx, final int depth) {
+            this.PARENT = parent;
+            this.IDX = idx;
+            this.DEPTH = depth;
+        }
+    }
+
+    private MSNamedLetCompiler() {}
+
+    /**
+     * Replaces the calls to a named let in its body with MSRecurNodes, if the body can be
+     * evaluated as a loop. Otherwise, the body is left unchanged.
+     *
+     * @param name name of the let.
+     * @param variables variables of the let.
+     * @param body body of the let.
+     *
+     * @return true if the body was compiled into a loop, false otherwise.
+     */
+    static boolean compile(final String name, final ArrayList<MSSyntaxTree> variables, final MSSequenceNode body) {
+        ArrayList<TailCall> tailCalls = new ArrayList<>();
+        if (body.getChildrenSize() == 0
+            || !MSNamedLetCompiler.findTailCalls(name, variables.size(), body, body.getChildrenSize() - 1, 0, tailCalls)
+            || MSNamedLetCompiler.countReferences(name, body) != tailCalls.size()) {
+            return false;
+        }
+
+        String[] identifiers = new String[variables.size()];
+        for (int i = 0; i < identifiers.length; i++) { identifiers[i] = variables.get(i).getStringRep(); }
+        for (TailCall tailCall : tailCalls) {
+            MSApplicationNode call = (MSApplicationNode) tailCall.PARENT.getChild(tailCall.IDX);
+            tailCall.PARENT.getChildren().set(tailCall.IDX, new MSRecurNode(call.getArguments(), identifiers, tailCall.DEPTH));
+        }
+        return true;
+    }
+
+    /**
+     * Finds the calls to name in tail position of an expression.
+     *
+     * @param parent parent of the expression.
+     * @param idx index of the expression in its parent.
+     * @param depth number of environments created between the loop's and the expression's.
+     *
+     * @return false if one of the calls has the wrong number of arguments, true otherwise.
+     */
+    private static boolean findTailCalls(final String name, final int numVariables, final MSSyntaxTree parent,
+                                         final int idx, final int depth, final ArrayList<TailCall> tailCalls) {
+        MSSyntaxTree expression = parent.getChild(idx);
+        switch (expression.getNodeType()) {
+            case APPLICATION: {
+                MSApplicationNode application = (MSApplicationNode) expression;
+                MSSyntaxTree procedure = application.getExpression();
+                if (procedure.isVariable() && ((MSVariableNode) procedure).getIdentifier().equals(name)) {
+                    if (application.getArguments().size() != numVariables) { return false; }
+                    tailCalls.add(new TailCall(parent, idx, depth));
+                }
+                return true;
+            }
+            case SEQUENCE:
+                return expression.getChildrenSize() == 0
+                       || MSNamedLetCompiler.findTailCalls(name, numVariables, expression, expression.getChildrenSize() - 1, depth, tailCalls);
+            case COND:
+                // The consequents come after the predicates.
+                for (int i = ((MSCondNode) expression).getPredicateList().size(); i < expression.getChildrenSize(); i++) {
+                    if (!MSNamedLetCompiler.findTailCalls(name, numVariables, expression, i, depth, tailCalls)) { return false; }
+                }
+                return true;
+            case LET:
+                // The body of a loop is not in tail position, since it is evaluated again.
+                if (((MSLetNode) expression).isLoop()) { return true; }
+                return MSNamedLetCompiler.findTailCalls(name, numVariables, expression, expression.getChildrenSize() - 1, depth + 1, tailCalls);
+            case LETREC:
+                return MSNamedLetCompiler.findTailCalls(name, numVariables, expression, expression.getChildrenSize() - 1, depth + 1, tailCalls);
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Counts the references to name in an expression.
+     *
+     * @return number of references, or -1 if the expression contains a lambda, delay or eval,
+     *         which could capture the environment.
+     */
+    private static int countReferences(final String name, final MSSyntaxTree expression) {
+        int references = 0;
+        ArrayDeque<MSSyntaxTree> stack = new ArrayDeque<>();
+        stack.push(expression);
+        while (!stack.isEmpty()) {
+            MSSyntaxTree curr = stack.pop();
+            switch (curr.getNodeType()) {
+                case LAMBDA:
+                case DELAY:
+                case EVAL:
+                    return -1;
+                case VARIABLE:
+                    if (((MSVariableNode) curr).getIdentifier().equals(name)) { references++; }
+                    break;
+                case SYMBOL:
+                    // Quoted data is never evaluated, but the expression spliced in by ,@ in a
+                    // quasi-quote is. Expressions unquoted by , are not wrapped in a symbol.
+                    if (((MSSymbolNode) curr).isQuasiAtSymbol()) { stack.push(((MSSymbolNode) curr).getValue()); }
+                    break;
+                default:
+                    curr.getChildren().forEach(stack::push);
+                    break;
+            }
+        }
+        return references;
+    }
+}
@@ -0,0 +1,21 @@
+/******************************************************************************
+ *  File: MSTimeoutException.java
+ *
+ *  Author: Joshua Crotts
+ *
+ *  Last Updated: 10/19/2026
+ *
+ *  Thrown when a top-level expression runs for longer than the timeout of its
+ *  runtime (see MSRuntime). Unlike an MSSemanticException, it is not reported
+ *  and skipped by the interpreter, but stops the whole program.
+ *
+ ******************************************************************************/
+
+package com.joshuacrotts.microscheme.parser;
+
+public class MSTimeoutException extends RuntimeException {
+
+    public MSTimeoutException() {
+        super("Computation timed out!");
+    }
+}
@@ -1,29 +1,63 @@
+import com.joshuacrotts.microscheme.ast.MSListNode;
+import com.joshuacrotts.microscheme.ast.MSNumberNode;
 import com.joshuacrotts.microscheme.ast.MSSyntaxTree;
+import com.joshuacrotts.microscheme.ast.MSVariableNode;
+import com.joshuacrotts.microscheme.main.BuiltinLibrary;
+import com.joshuacrotts.microscheme.main.BuiltinOperator;
+import com.joshuacrotts.microscheme.main.LValue;
+import com.joshuacrotts.microscheme.main.MSRuntime;
 import com.joshuacrotts.microscheme.main.MicroSchemeInterpreter;
 import com.joshuacrotts.microscheme.main.MicroSchemeRunner;
 import com.joshuacrotts.microscheme.parser.MSListener;
+import com.joshuacrotts.microscheme.parser.MSTimeoutException;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.opentest4j.AssertionFailedError;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 
 public class InterpreterTester {
 
-    private static final int NUM_TESTS = 221;
+    private static final int NUM_TESTS = 239;
+
+    /**
+     * Number of elements in the lists built by the stress test. This can be raised with
+     * -Dmicroscheme.stress.size=10000000 when the JVM is given enough heap.
+     */
+    private static final int STRESS_SIZE = Integer.getInteger("microscheme.stress.size", 1_000_000);
+
+    /**
+     * Stack size of the thread that runs the stress test. This is deliberately small so
+     * that any recursion over the length or depth of a list overflows.
+     */
+    private static final long STRESS_STACK_SIZE = 512 * 1024;
 
     /**
      * Helper function to count number of newlines in a string
@@ -109,6 +143,14 @@ public class InterpreterTester {
      *                 extensions.
      */
     private static void goodFileTest(String testName) {
+        goodFileTest(testName, interpreter -> {});
+    }
+
+    /**
+     * @param testName the base name of the test case.
+     * @param setup sets up the interpreter before the test is run, e.g., to change its mode.
+     */
+    private static void goodFileTest(String testName, Consumer<MicroSchemeInterpreter> setup) {
         String inName = "tests/" + testName + ".in";
         String expName = "tests/" + testName + ".out";
 
@@ -121,6 +163,7 @@ public class InterpreterTester {
         if (parser == null) { throw new AssertionFailedError("Failed reading test input file " + inName); }
         MSSyntaxTree syntaxTree = parser.getSyntaxTree();
         MicroSchemeInterpreter interpreter = new MicroSchemeInterpreter(syntaxTree);
+        setup.accept(interpreter);
         interpreter.execute();
         System.setErr(origErr);
         System.setOut(origOut);
@@ -157,4 +200,183 @@ public class InterpreterTester {
     public void test(final String fileName) {
         goodFileTest(fileName);
     }
+
+    /**
+     * Runs a program that uses call/cc and deep recursion with the CEK machine.
+     */
+    @Test
+    public void cekTest() {
+        goodFileTest("cek001", interpreter -> interpreter.setCekMode(true));
+    }
+
+    /**
+     * Runs the parallel procedures on several threads, even if there is only one processor.
+     */
+    @Test
+    public void parallelismTest() {
+        goodFileTest("test236", interpreter -> interpreter.setParallelism(4));
+    }
+
+    /**
+     * Evaluates a prelude, saves the global environment to an image, then loads the
+     * image into a fresh interpreter and runs a program against it.
+     */
+    @Test
+    public void imageTest() throws IOException {
+        File image = File.createTempFile("microscheme", ".img");
+        image.deleteOnExit();
+
+        PrintStream origOut = System.out;
+        ByteArrayOutputStream captureOut = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(captureOut));
+        MicroSchemeInterpreter prelude = new MicroSchemeInterpreter(MicroSchemeRunner.parseFromFile("tests/image001-prelude.in").getSyntaxTree());
+        prelude.execute();
+        prelude.saveImage(image.getPath());
+
+        captureOut.reset();
+        MicroSchemeInterpreter interpreter = new MicroSchemeInterpreter(MicroSchemeRunner.parseFromFile("tests/image001.in").getSyntaxTree());
+        interpreter.loadImage(image.getPath());
+        interpreter.execute();
+        System.setOut(origOut);
+        compare(captureOut.toByteArray(), Files.readAllBytes(Paths.get("tests/image001.out")));
+    }
+
+    /**
+     * Runs many interpreters at once on a thread pool, each with its own runtime, and checks
+     * that none of them sees another's definitions, random seed, or output.
+     */
+    @Test
+    public void isolatedRuntimesTest() throws Exception {
+        int numInterpreters = 64;
+        ArrayList<Callable<String>> runs = new ArrayList<>();
+        for (int i = 0; i < numInterpreters; i++) {
+            String program = String.format("(define id %d) (random-set-seed! id) (define r (random-integer 0 1000000))"
+                    + " (define (loop n) (if (= n 0) id (loop (- n 1)))) (display (loop 2000)) (newline) r (car '())", i);
+            runs.add(() -> {
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                PrintStream port = new PrintStream(output, true);
+                MicroSchemeInterpreter interpreter = new MicroSchemeInterpreter(MicroSchemeRunner.parseFromString(program).getSyntaxTree(),
+                        new MSRuntime(EnumSet.allOf(BuiltinLibrary.class), MSRuntime.DEFAULT_TIMEOUT, port, port));
+                interpreter.execute();
+                return output.toString();
+            });
+        }
+
+        List<Callable<String>> sequentialRuns = runs.subList(0, 2);
+        String first = sequentialRuns.get(0).call();
+        String second = sequentialRuns.get(1).call();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = pool.invokeAll(runs);
+            assertEquals(first, results.get(0).get());
+            assertEquals(second, results.get(1).get());
+            for (int i = 0; i < numInterpreters; i++) {
+                assertEquals(String.valueOf(i), results.get(i).get().split(System.lineSeparator())[1]);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Checks that a runtime's timeout stops its interpreter with an exception, rather than
+     * stopping the JVM, and that the runtime's libraries limit what programs can see.
+     */
+    @Test
+    public void runtimeLimitsTest() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream port = new PrintStream(output, true);
+        MSRuntime runtime = new MSRuntime(EnumSet.of(BuiltinLibrary.CORE, BuiltinLibrary.NUMERIC), 200_000_000L, port, port);
+        MicroSchemeInterpreter interpreter = new MicroSchemeInterpreter(MicroSchemeRunner.parseFromString(
+                "(+ 1 2) (string-length \"abc\") ('string-length \"abc\") (procedure? 'string-length) (procedure? '+)"
+                + " (do ((i 0 (+ i 1))) (#f)) (+ 3 4)").getSyntaxTree(), runtime);
+        assertThrows(MSTimeoutException.class, interpreter::execute);
+        compare(output.toByteArray(), ("3 Undefined Symbol: 'string-length'"
+                + " MicroScheme Error: cannot call non-procedure string-length #f #t").getBytes());
+    }
+
+    /**
+     * Prints, checks, and compares a very long list and a very deeply nested list on a
+     * thread with a small stack.
+     */
+    @Test
+    public void deepListStressTest() throws Throwable {
+        Throwable[] failure = new Throwable[1];
+        Thread stressThread = new Thread(null, () -> {
+            try {
+                MSSyntaxTree element = new MSNumberNode(7);
+                MSListNode longList = MSListNode.EMPTY_LIST;
+                MSListNode nestedList = MSListNode.EMPTY_LIST;
+                for (int i = 0; i < STRESS_SIZE; i++) {
+                    longList = new MSListNode(element, longList);
+                    nestedList = new MSListNode(nestedList, null);
+                }
+
+                assertTrue(longList.isProper());
+                String longRep = longList.getStringRep();
+                assertEquals(2 * STRESS_SIZE + 1, longRep.length());
+                assertTrue(longRep.startsWith("(7 7 ") && longRep.endsWith(" 7 7)"));
+
+                String nestedRep = nestedList.getStringRep();
+                assertEquals(2 * STRESS_SIZE + 2, nestedRep.length());
+                assertTrue(nestedRep.startsWith("(((") && nestedRep.endsWith(")))"));
+
+                MSListNode otherList = MSListNode.EMPTY_LIST;
+                for (int i = 0; i < STRESS_SIZE; i++) { otherList = new MSListNode(element, otherList); }
+                LValue equal = BuiltinOperator.interpretBuiltinOperator(null, new MSVariableNode("equal?"),
+                        new ArrayList<>(Arrays.asList(new LValue(longList), new LValue(otherList))), null);
+                assertEquals("#t", equal.toString());
+            } catch (Throwable t) {
+                failure[0] = t;
+            }
+        }, "stress", STRESS_STACK_SIZE);
+        stressThread.start();
+        stressThread.join();
+        if (failure[0] != null) { throw failure[0]; }
+    }
+
+    /**
+     * Parses and evaluates a quoted list literal with many elements. Building the list must
+     * take time linear in its length for this to finish within the timeout.
+     */
+    @Test
+    public void longQuotedListTest() {
+        int size = 200_000;
+        StringBuilder program = new StringBuilder("(length '(");
+        for (int i = 0; i < size; i++) { program.append(i % 10).append(' '); }
+        program.append("))");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream port = new PrintStream(output, true);
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            MicroSchemeInterpreter interpreter = new MicroSchemeInterpreter(MicroSchemeRunner.parseFromString(program.toString()).getSyntaxTree(),
+                    new MSRuntime(EnumSet.allOf(BuiltinLibrary.class), MSRuntime.DEFAULT_TIMEOUT, port, port));
+            interpreter.execute();
+        });
+        compare(output.toByteArray(), String.valueOf(size).getBytes());
+    }
+
+    /**
+     * Parses every test input both sequentially and split into one chunk per top-level
+     * form in parallel, and checks that the two syntax trees print identically.
+     */
+    @Test
+    public void parallelParseTest() {
+        PrintStream origOut = System.out;
+        try {
+            for (int i = 1; i <= NUM_TESTS; i++) {
+                String inName = String.format("tests/test%03d.in", i);
+                ByteArrayOutputStream sequentialTree = new ByteArrayOutputStream();
+                System.setOut(new PrintStream(sequentialTree));
+                MicroSchemeRunner.parseFromFile(inName).getSyntaxTree().printSyntaxTree();
+
+                ByteArrayOutputStream parallelTree = new ByteArrayOutputStream();
+                System.setOut(new PrintStream(parallelTree));
+                MicroSchemeRunner.parseFromFileInParallel(inName, 4, 1).getSyntaxTree().printSyntaxTree();
+                assertEquals(sequentialTree.toString(), parallelTree.toString(), inName);
+            }
+        } finally {
+            System.setOut(origOut);
+        }
+    }
 }